@@ -96,6 +96,13 @@ public class Plc4xS7Adapter extends PullAdapter {
     private int pollingInterval;
     private List<Map<String, String>> nodes;
 
+    /**
+     * Node configuration resolved once at startup, so that polling does not need to look up the node maps
+     */
+    private String[] nodeNames;
+    private String[] nodeAddresses;
+    private String[] nodeRuntimeNames;
+
     /**
      * Connection to the PLC
      */
@@ -191,6 +198,16 @@ public class Plc4xS7Adapter extends PullAdapter {
         // Extract user input
         getConfigurations(adapterDescription);
 
+        this.nodeNames = new String[this.nodes.size()];
+        this.nodeAddresses = new String[this.nodes.size()];
+        this.nodeRuntimeNames = new String[this.nodes.size()];
+        for (int i = 0; i < this.nodes.size(); i++) {
+            Map<String, String> node = this.nodes.get(i);
+            this.nodeNames[i] = node.get(PLC_NODE_NAME);
+            this.nodeAddresses[i] = node.get(PLC_NODE_NAME) + ":" + node.get(PLC_NODE_TYPE).toUpperCase();
+            this.nodeRuntimeNames[i] = node.get(PLC_NODE_RUNTIME_NAME);
+        }
+
         this.driverManager = new PooledPlcDriverManager();
         try (PlcConnection plcConnection = this.driverManager.getConnection("s7://" + this.ip)) {
 
@@ -214,8 +231,8 @@ public class Plc4xS7Adapter extends PullAdapter {
         // Create PLC read request
         try (PlcConnection plcConnection = this.driverManager.getConnection("s7://" + this.ip)) {
             PlcReadRequest.Builder builder = plcConnection.readRequestBuilder();
-            for (Map<String, String> node : this.nodes) {
-                builder.addItem(node.get(PLC_NODE_NAME), node.get(PLC_NODE_NAME) + ":" + node.get(PLC_NODE_TYPE).toUpperCase());
+            for (int i = 0; i < nodeNames.length; i++) {
+                builder.addItem(nodeNames[i], nodeAddresses[i]);
             }
             PlcReadRequest readRequest = builder.build();
 
@@ -228,13 +245,13 @@ public class Plc4xS7Adapter extends PullAdapter {
                     throwable.printStackTrace();
                     this.LOG.error(throwable.getMessage());
                 } else {
-                    Map<String, Object> event = new HashMap<>();
-                    for (Map<String, String> node : this.nodes) {
-                        if (response.getResponseCode(node.get(PLC_NODE_NAME)) == PlcResponseCode.OK) {
-                            event.put(node.get(PLC_NODE_RUNTIME_NAME), response.getObject(node.get(PLC_NODE_NAME)));
+                    Map<String, Object> event = new HashMap<>(nodeNames.length * 2);
+                    for (int i = 0; i < nodeNames.length; i++) {
+                        PlcResponseCode responseCode = response.getResponseCode(nodeNames[i]);
+                        if (responseCode == PlcResponseCode.OK) {
+                            event.put(nodeRuntimeNames[i], response.getObject(nodeNames[i]));
                         } else {
-                            logger.error("Error[" + node.get(PLC_NODE_NAME) + "]: " +
-                                    response.getResponseCode(node.get(PLC_NODE_NAME)).name());
+                            logger.error("Error[" + nodeNames[i] + "]: " + responseCode.name());
                         }
                     }
 
@@ -15,78 +15,110 @@
  * limitations under the License.
  *
  */
-
 package org.apache.streampipes.connect.protocol.stream;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.drafts.Draft;
 import org.java_websocket.handshake.ServerHandshake;
-import org.apache.streampipes.connect.adapter.model.pipeline.AdapterPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-/** This example demonstrates how to create a websocket connection to a server. Only the most important callbacks are overloaded. */
+/**
+ * Websocket client which buffers incoming text and binary frames in a bounded queue and reconnects with
+ * exponential backoff whenever the connection is lost.
+ */
 public class WebsocketClient extends WebSocketClient {
 
-  private AdapterPipeline pipeline;
-  private JsonParser parser;
+  private static final Logger LOG = LoggerFactory.getLogger(WebsocketClient.class);
 
-  public WebsocketClient(URI serverUri , Draft draft ) {
-    super( serverUri, draft );
-    this.parser = new JsonParser();
-  }
+  private final WebsocketConfig config;
+  private final WebsocketFrameQueue<WebsocketFrame> frameQueue;
+  private final WebsocketMetrics metrics;
+  private final ScheduledExecutorService reconnectExecutor;
 
-  public WebsocketClient(AdapterPipeline pipeline, URI serverURI ) {
-    super( serverURI );
-    this.pipeline = pipeline;
-    this.parser = new JsonParser();
+  private volatile boolean stopped = false;
+  private long currentBackoffMs;
+
+  public WebsocketClient(WebsocketConfig config, WebsocketFrameQueue<WebsocketFrame> frameQueue,
+                         WebsocketMetrics metrics) throws URISyntaxException {
+    super(new URI(config.getUrl()), config.getHeaders());
+    this.config = config;
+    this.frameQueue = frameQueue;
+    this.metrics = metrics;
+    this.reconnectExecutor = Executors.newSingleThreadScheduledExecutor();
+    this.currentBackoffMs = config.getInitialBackoffMs();
   }
 
-  public WebsocketClient( URI serverUri, Map<String, String> httpHeaders ) {
-    super(serverUri, httpHeaders);
+  @Override
+  public void onOpen(ServerHandshake handshakedata) {
+    LOG.info("Opened websocket connection to {}", config.getUrl());
+    this.currentBackoffMs = config.getInitialBackoffMs();
+    if (config.getInitialMessage() != null && !config.getInitialMessage().isEmpty()) {
+      send(config.getInitialMessage());
+    }
   }
 
   @Override
-  public void onOpen( ServerHandshake handshakedata ) {
-    //send("Hello, it is me. Mario :)");
-    send("{\"op\":\"subscribe\",\"id\":\"subscribe:/map:1\",\"type\":\"nav_msgs/OccupancyGrid\"," +
-            "\"topic\":\"/map\",\"compression\":\"png\",\"throttle_rate\":0,\"queue_length\":0}");
-    System.out.println( "opened connection" );
-    // if you plan to refuse connection based on ip or httpfields overload: onWebsocketHandshakeReceivedAsClient
+  public void onMessage(String message) {
+    WebsocketFrame frame = WebsocketFrame.text(message);
+    metrics.onFrameReceived(frame.getPayload().length);
+    enqueue(frame);
   }
 
   @Override
-  public void onMessage( String message ) {
-    System.out.println( "received: " + message );
-    JsonElement jsonElement = parser.parse(message);
-    Map<String, Object> event = new HashMap<>();
-    event.put("timestamp", System.currentTimeMillis());
-    event.put("data", jsonElement.getAsJsonObject().get("data").getAsString());
-    pipeline.process(event);
+  public void onMessage(ByteBuffer bytes) {
+    byte[] payload = new byte[bytes.remaining()];
+    bytes.get(payload);
+    metrics.onFrameReceived(payload.length);
+    enqueue(WebsocketFrame.binary(payload));
   }
 
   @Override
-  public void onClose( int code, String reason, boolean remote ) {
-    // The codecodes are documented in class org.java_websocket.framing.CloseFrame
-    System.out.println( "Connection closed by " + ( remote ? "remote peer" : "us" ) + " Code: " + code + " Reason: " + reason );
+  public void onClose(int code, String reason, boolean remote) {
+    LOG.info("Websocket connection to {} closed by {} (code {}, reason: {})", config.getUrl(),
+            remote ? "remote peer" : "us", code, reason);
+    if (!stopped) {
+      scheduleReconnect();
+    }
   }
 
   @Override
-  public void onError( Exception ex ) {
-    ex.printStackTrace();
+  public void onError(Exception ex) {
     // if the error is fatal then onClose will be called additionally
+    LOG.error("Error on websocket connection to {}", config.getUrl(), ex);
   }
 
-//  public static void main( String[] args ) throws URISyntaxException {
-//    Map<String, String> header = new HashMap<>();
-//    WebsocketClient c = new WebsocketClient( new URI( "ws://192.168.178.40:9090" )); // more about
-//    // drafts here:
-//    // http://github.com/TooTallNate/Java-WebSocket/wiki/Drafts
-//    c.connect();
-//  }
+  public void shutdown() {
+    this.stopped = true;
+    this.reconnectExecutor.shutdownNow();
+    close();
+  }
+
+  private void enqueue(WebsocketFrame frame) {
+    try {
+      frameQueue.put(frame);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 
-}
\ No newline at end of file
+  private void scheduleReconnect() {
+    long delay = currentBackoffMs;
+    this.currentBackoffMs = Math.min(currentBackoffMs * 2, config.getMaxBackoffMs());
+    LOG.info("Reconnecting to {} in {} ms", config.getUrl(), delay);
+
+    // reconnect must not be triggered from the websocket thread itself
+    reconnectExecutor.schedule(() -> {
+      if (!stopped) {
+        metrics.onReconnect();
+        reconnect();
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream;
+
+import java.util.Map;
+
+public class WebsocketConfig {
+
+  public enum OverflowPolicy {
+    DROP_OLDEST, BLOCK
+  }
+
+  private String url;
+  private Map<String, String> headers;
+  private String initialMessage;
+  private Integer queueSize;
+  private OverflowPolicy overflowPolicy;
+  private Long initialBackoffMs;
+  private Long maxBackoffMs;
+
+  public WebsocketConfig(String url, Map<String, String> headers, String initialMessage, Integer queueSize,
+                         OverflowPolicy overflowPolicy, Long initialBackoffMs, Long maxBackoffMs) {
+    this.url = url;
+    this.headers = headers;
+    this.initialMessage = initialMessage;
+    this.queueSize = queueSize;
+    this.overflowPolicy = overflowPolicy;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public Map<String, String> getHeaders() {
+    return headers;
+  }
+
+  public String getInitialMessage() {
+    return initialMessage;
+  }
+
+  public Integer getQueueSize() {
+    return queueSize;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public Long getInitialBackoffMs() {
+    return initialBackoffMs;
+  }
+
+  public Long getMaxBackoffMs() {
+    return maxBackoffMs;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream;
+
+import java.nio.charset.StandardCharsets;
+
+public class WebsocketFrame {
+
+  private final boolean binary;
+  private final byte[] payload;
+
+  private WebsocketFrame(boolean binary, byte[] payload) {
+    this.binary = binary;
+    this.payload = payload;
+  }
+
+  public static WebsocketFrame text(String message) {
+    return new WebsocketFrame(false, message.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static WebsocketFrame binary(byte[] payload) {
+    return new WebsocketFrame(true, payload);
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  public byte[] getPayload() {
+    return payload;
+  }
+
+  public String getText() {
+    return new String(payload, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer between the websocket read thread and the thread feeding the adapter pipeline.
+ * With {@link WebsocketConfig.OverflowPolicy#BLOCK} a full queue stalls the read thread, which propagates
+ * back-pressure to the server via TCP flow control.
+ */
+public class WebsocketFrameQueue<T> {
+
+  private final BlockingQueue<T> queue;
+  private final WebsocketConfig.OverflowPolicy overflowPolicy;
+  private final WebsocketMetrics metrics;
+
+  public WebsocketFrameQueue(int capacity, WebsocketConfig.OverflowPolicy overflowPolicy,
+                             WebsocketMetrics metrics) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.overflowPolicy = overflowPolicy;
+    this.metrics = metrics;
+  }
+
+  public void put(T frame) throws InterruptedException {
+    if (overflowPolicy == WebsocketConfig.OverflowPolicy.BLOCK) {
+      queue.put(frame);
+    } else {
+      while (!queue.offer(frame)) {
+        if (queue.poll() != null) {
+          metrics.onFrameDropped();
+        }
+      }
+    }
+  }
+
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  public int size() {
+    return queue.size();
+  }
+
+  public void clear() {
+    queue.clear();
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WebsocketMetrics {
+
+  private final AtomicLong receivedFrames = new AtomicLong();
+  private final AtomicLong receivedBytes = new AtomicLong();
+  private final AtomicLong droppedFrames = new AtomicLong();
+  private final AtomicLong processedFrames = new AtomicLong();
+  private final AtomicLong reconnects = new AtomicLong();
+
+  void onFrameReceived(int bytes) {
+    this.receivedFrames.incrementAndGet();
+    this.receivedBytes.addAndGet(bytes);
+  }
+
+  void onFrameDropped() {
+    this.droppedFrames.incrementAndGet();
+  }
+
+  void onFrameProcessed() {
+    this.processedFrames.incrementAndGet();
+  }
+
+  void onReconnect() {
+    this.reconnects.incrementAndGet();
+  }
+
+  public long getReceivedFrames() {
+    return receivedFrames.get();
+  }
+
+  public long getReceivedBytes() {
+    return receivedBytes.get();
+  }
+
+  public long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+
+  public long getProcessedFrames() {
+    return processedFrames.get();
+  }
+
+  public long getReconnects() {
+    return reconnects.get();
+  }
+
+  @Override
+  public String toString() {
+    return "received=" + getReceivedFrames()
+            + ", receivedBytes=" + getReceivedBytes()
+            + ", processed=" + getProcessedFrames()
+            + ", dropped=" + getDroppedFrames()
+            + ", reconnects=" + getReconnects();
+  }
+}
@@ -20,26 +20,58 @@ package org.apache.streampipes.connect.protocol.stream;
 import static org.apache.streampipes.sdk.helpers.EpProperties.stringEp;
 import static org.apache.streampipes.sdk.helpers.EpProperties.timestampProperty;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import org.apache.streampipes.connect.adapter.Adapter;
 import org.apache.streampipes.connect.adapter.exception.AdapterException;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
 import org.apache.streampipes.connect.adapter.model.specific.SpecificDataStreamAdapter;
+import org.apache.streampipes.connect.adapter.sdk.ParameterExtractor;
 import org.apache.streampipes.model.AdapterType;
 import org.apache.streampipes.model.connect.adapter.SpecificAdapterStreamDescription;
 import org.apache.streampipes.model.connect.guess.GuessSchema;
 import org.apache.streampipes.sdk.builder.adapter.GuessSchemaBuilder;
 import org.apache.streampipes.sdk.builder.adapter.SpecificDataStreamAdapterBuilder;
 import org.apache.streampipes.sdk.helpers.Labels;
+import org.apache.streampipes.sdk.helpers.Options;
+import org.apache.streampipes.sdk.helpers.Tuple2;
 import org.apache.streampipes.vocabulary.SO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class WebsocketProtocol extends SpecificDataStreamAdapter {
 
+  private static final Logger LOG = LoggerFactory.getLogger(WebsocketProtocol.class);
+
   public static final String ID = "org.apache.streampipes.connect.protocol.stream.turtlebot";
 
+  private static final String URL_KEY = "websocket-url";
+  private static final String HEADERS_KEY = "websocket-headers";
+  private static final String INITIAL_MESSAGE_KEY = "websocket-initial-message";
+  private static final String QUEUE_SIZE_KEY = "websocket-queue-size";
+  private static final String OVERFLOW_POLICY_KEY = "websocket-overflow-policy";
+
+  private static final String DEFAULT_URL = "ws://localhost:9090";
+  private static final String DEFAULT_INITIAL_MESSAGE = "{\"op\":\"subscribe\",\"id\":\"subscribe:/map:1\"," +
+          "\"type\":\"nav_msgs/OccupancyGrid\",\"topic\":\"/map\",\"compression\":\"png\"," +
+          "\"throttle_rate\":0,\"queue_length\":0}";
+  private static final int DEFAULT_QUEUE_SIZE = 1000;
+  private static final long INITIAL_BACKOFF_MS = 1000;
+  private static final long MAX_BACKOFF_MS = 60000;
+  private static final long METRICS_LOG_INTERVAL_MS = 60000;
+
+  private WebsocketConfig websocketConfig;
   private WebsocketClient websocketClient;
+  private WebsocketMetrics metrics;
+  private WebsocketFrameQueue<WebsocketFrame> frameQueue;
+  private Thread dispatcherThread;
+  private volatile boolean running;
 
   public WebsocketProtocol() {
   }
@@ -47,9 +79,7 @@ public class WebsocketProtocol extends SpecificDataStreamAdapter {
   public WebsocketProtocol(SpecificAdapterStreamDescription adapterDescription) {
     super(adapterDescription);
 
-    //getConfigurations(adapterDescription);
-
-    //this.jsonObjectParser = new JsonObjectParser();
+    getConfigurations(adapterDescription);
   }
 
   @Override
@@ -57,7 +87,21 @@ public class WebsocketProtocol extends SpecificDataStreamAdapter {
     SpecificAdapterStreamDescription description = SpecificDataStreamAdapterBuilder.create(ID,
             "Turtlebot Map", "")
             .iconUrl("ros.png")
-            .category(AdapterType.Manufacturing).build();
+            .category(AdapterType.Manufacturing)
+            .requiredTextParameter(Labels.from(URL_KEY, "URL", "Websocket endpoint, e.g. ws://localhost:9090"),
+                    DEFAULT_URL)
+            .requiredTextParameter(Labels.from(HEADERS_KEY, "HTTP Headers",
+                    "Headers sent with the handshake, e.g. Authorization: Bearer abc; X-Client: sp"), "")
+            .requiredTextParameter(Labels.from(INITIAL_MESSAGE_KEY, "Initial Message",
+                    "Message sent after the connection has been opened"), DEFAULT_INITIAL_MESSAGE)
+            .requiredIntegerParameter(Labels.from(QUEUE_SIZE_KEY, "Queue Size",
+                    "Maximum number of frames buffered before the overflow policy applies"), DEFAULT_QUEUE_SIZE)
+            .requiredSingleValueSelection(Labels.from(OVERFLOW_POLICY_KEY, "Overflow Policy",
+                    "Behaviour when the pipeline cannot keep up with incoming frames"),
+                    Options.from(
+                            new Tuple2<>("Drop oldest", WebsocketConfig.OverflowPolicy.DROP_OLDEST.name()),
+                            new Tuple2<>("Block", WebsocketConfig.OverflowPolicy.BLOCK.name())))
+            .build();
     description.setAppId(ID);
 
 
@@ -66,18 +110,28 @@ public class WebsocketProtocol extends SpecificDataStreamAdapter {
 
   @Override
   public void startAdapter() throws AdapterException {
+    this.metrics = new WebsocketMetrics();
+    this.frameQueue = new WebsocketFrameQueue<>(websocketConfig.getQueueSize(),
+            websocketConfig.getOverflowPolicy(), metrics);
     try {
-      this.websocketClient = new WebsocketClient(adapterPipeline, new URI("ws://192.168.178" +
-              ".40:9090"));
-      this.websocketClient.connect();
+      this.websocketClient = new WebsocketClient(websocketConfig, frameQueue, metrics);
     } catch (URISyntaxException e) {
-      e.printStackTrace();
+      throw new AdapterException("Invalid websocket url " + websocketConfig.getUrl());
     }
+
+    this.running = true;
+    this.dispatcherThread = new Thread(this::dispatchFrames);
+    this.dispatcherThread.start();
+    this.websocketClient.connect();
   }
 
   @Override
   public void stopAdapter() throws AdapterException {
-    this.websocketClient.close();
+    this.running = false;
+    this.websocketClient.shutdown();
+    this.dispatcherThread.interrupt();
+    this.frameQueue.clear();
+    LOG.info("Stopped websocket adapter for {}: {}", websocketConfig.getUrl(), metrics);
   }
 
   @Override
@@ -97,5 +151,71 @@ public class WebsocketProtocol extends SpecificDataStreamAdapter {
   public String getId() {
     return ID;
   }
-}
 
+  private void dispatchFrames() {
+    JsonParser parser = new JsonParser();
+    long lastMetricsLog = System.currentTimeMillis();
+    while (running) {
+      try {
+        WebsocketFrame frame = frameQueue.poll(1, TimeUnit.SECONDS);
+        if (frame != null) {
+          adapterPipeline.process(toEvent(frame, parser));
+          metrics.onFrameProcessed();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        LOG.error("Could not process websocket frame", e);
+      }
+
+      if (System.currentTimeMillis() - lastMetricsLog > METRICS_LOG_INTERVAL_MS) {
+        LOG.info("Websocket adapter for {}: {}, queued={}", websocketConfig.getUrl(), metrics, frameQueue.size());
+        lastMetricsLog = System.currentTimeMillis();
+      }
+    }
+  }
+
+  private Map<String, Object> toEvent(WebsocketFrame frame, JsonParser parser) {
+    Map<String, Object> event = new HashMap<>();
+    event.put("timestamp", System.currentTimeMillis());
+    if (frame.isBinary()) {
+      event.put("data", Base64.getEncoder().encodeToString(frame.getPayload()));
+    } else {
+      String message = frame.getText();
+      JsonElement jsonElement = parser.parse(message);
+      if (jsonElement.isJsonObject() && jsonElement.getAsJsonObject().has("data")) {
+        event.put("data", jsonElement.getAsJsonObject().get("data").getAsString());
+      } else {
+        event.put("data", message);
+      }
+    }
+    return event;
+  }
+
+  private void getConfigurations(SpecificAdapterStreamDescription adapterDescription) {
+    ParameterExtractor extractor = new ParameterExtractor(adapterDescription.getConfig());
+    String url = extractor.singleValue(URL_KEY, String.class);
+    String headers = extractor.singleValue(HEADERS_KEY, String.class);
+    String initialMessage = extractor.singleValue(INITIAL_MESSAGE_KEY, String.class);
+    Integer queueSize = extractor.singleValue(QUEUE_SIZE_KEY, Integer.class);
+    String overflowPolicy = extractor.selectedSingleValueInternalName(OVERFLOW_POLICY_KEY);
+
+    this.websocketConfig = new WebsocketConfig(url, parseHeaders(headers), initialMessage, queueSize,
+            WebsocketConfig.OverflowPolicy.valueOf(overflowPolicy), INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+  }
+
+  private Map<String, String> parseHeaders(String headers) {
+    Map<String, String> result = new HashMap<>();
+    if (headers == null) {
+      return result;
+    }
+    for (String header : headers.split(";")) {
+      int separator = header.indexOf(':');
+      if (separator > 0) {
+        result.put(header.substring(0, separator).trim(), header.substring(separator + 1).trim());
+      }
+    }
+    return result;
+  }
+}
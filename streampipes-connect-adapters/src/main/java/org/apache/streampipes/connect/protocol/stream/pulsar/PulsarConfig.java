@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream.pulsar;
+
+public class PulsarConfig {
+
+  public static final int DEFAULT_RECEIVER_QUEUE_SIZE = 1000;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+  public static final int DEFAULT_BATCH_TIMEOUT_MS = 100;
+  public static final int DEFAULT_PARSER_THREADS = 1;
+  public static final int DEFAULT_MAX_REDELIVER_COUNT = 3;
+
+  private final Integer receiverQueueSize;
+  private final Integer maxBatchSize;
+  private final Integer batchTimeoutMs;
+  private final Integer parserThreads;
+  private final Integer maxRedeliverCount;
+
+  public PulsarConfig(Integer receiverQueueSize, Integer maxBatchSize, Integer batchTimeoutMs,
+                      Integer parserThreads, Integer maxRedeliverCount) {
+    this.receiverQueueSize = receiverQueueSize;
+    this.maxBatchSize = maxBatchSize;
+    this.batchTimeoutMs = batchTimeoutMs;
+    this.parserThreads = parserThreads;
+    this.maxRedeliverCount = maxRedeliverCount;
+  }
+
+  public static PulsarConfig defaultConfig() {
+    return new PulsarConfig(DEFAULT_RECEIVER_QUEUE_SIZE, DEFAULT_MAX_BATCH_SIZE, DEFAULT_BATCH_TIMEOUT_MS,
+            DEFAULT_PARSER_THREADS, DEFAULT_MAX_REDELIVER_COUNT);
+  }
+
+  public Integer getReceiverQueueSize() {
+    return receiverQueueSize;
+  }
+
+  public Integer getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public Integer getBatchTimeoutMs() {
+    return batchTimeoutMs;
+  }
+
+  public Integer getParserThreads() {
+    return parserThreads;
+  }
+
+  /**
+   * Number of redeliveries after which a message is moved to the dead letter topic, 0 to redeliver forever.
+   */
+  public Integer getMaxRedeliverCount() {
+    return maxRedeliverCount;
+  }
+}
@@ -19,28 +19,65 @@ package org.apache.streampipes.connect.protocol.stream.pulsar;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.ConsumerBuilder;
+import org.apache.pulsar.client.api.DeadLetterPolicy;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.SubscriptionType;
 import org.apache.streampipes.messaging.InternalEventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class PulsarConsumer implements Runnable {
 
-  private InternalEventProcessor<byte[]> adapterConsumer;
+  private static final Logger LOG = LoggerFactory.getLogger(PulsarConsumer.class);
+
+  private static final long METRICS_LOG_INTERVAL_MS = 60000;
+  private static final String DEAD_LETTER_TOPIC_SUFFIX = "-DLQ";
+
+  // one processor per lane, each lane is handled by a single thread at a time
+  private List<InternalEventProcessor<byte[]>> laneProcessors;
   private String brokerUrl;
   private String topic;
+  private PulsarConfig config;
   private Integer maxElementsToReceive = -1;
-  private Integer messageCount = 0;
-  private Boolean running = true;
+  private volatile Integer messageCount = 0;
+  private volatile boolean running = true;
 
   private PulsarClient pulsarClient;
-
+  private ExecutorService parserPool;
+  private final PulsarConsumerMetrics metrics = new PulsarConsumerMetrics();
 
   public PulsarConsumer(String brokerUrl, String topic, InternalEventProcessor<byte[]> adapterConsumer) {
     this.brokerUrl = brokerUrl;
     this.topic = topic;
-    this.adapterConsumer = adapterConsumer;
+    this.config = PulsarConfig.defaultConfig();
+    this.laneProcessors = Collections.singletonList(adapterConsumer);
+  }
+
+  /**
+   * Creates a consumer which hands the messages of each parser lane to its own processor.
+   */
+  public PulsarConsumer(String brokerUrl, String topic, PulsarConfig config,
+                        Supplier<InternalEventProcessor<byte[]>> laneProcessorFactory) {
+    this.brokerUrl = brokerUrl;
+    this.topic = topic;
+    this.config = config;
+    this.laneProcessors = new ArrayList<>();
+    for (int i = 0; i < Math.max(1, config.getParserThreads()); i++) {
+      this.laneProcessors.add(laneProcessorFactory.get());
+    }
   }
 
   public PulsarConsumer(String brokerUrl, String topic, InternalEventProcessor<byte[]> adapterConsumer,
@@ -52,29 +89,140 @@ public class PulsarConsumer implements Runnable {
   @Override
   public void run() {
     this.running = true;
+    if (config.getParserThreads() > 1) {
+      this.parserPool = Executors.newFixedThreadPool(config.getParserThreads());
+    }
     try {
       this.pulsarClient = PulsarUtils.makePulsarClient(this.brokerUrl);
 
-      Consumer<byte[]> consumer = this.pulsarClient.newConsumer()
+      ConsumerBuilder<byte[]> consumerBuilder = this.pulsarClient.newConsumer()
               .topic(this.topic)
               .subscriptionName(RandomStringUtils.randomAlphanumeric(10))
               .subscriptionType(SubscriptionType.Shared)
-              .subscribe();
+              .receiverQueueSize(config.getReceiverQueueSize());
+      if (config.getMaxRedeliverCount() > 0) {
+        consumerBuilder.deadLetterPolicy(DeadLetterPolicy.builder()
+                .maxRedeliverCount(config.getMaxRedeliverCount())
+                .deadLetterTopic(this.topic + DEAD_LETTER_TOPIC_SUFFIX)
+                .build());
+      }
+      Consumer<byte[]> consumer = consumerBuilder.subscribe();
 
+      long lastMetricsLog = System.currentTimeMillis();
       while (running && ((maxElementsToReceive == -1) || (this.messageCount <= maxElementsToReceive))) {
-        Message msg = consumer.receive();
-        adapterConsumer.onEvent(msg.getData());
-        consumer.acknowledge(msg);
-        this.messageCount++;
+        List<Message<byte[]>> batch = receiveBatch(consumer);
+        if (batch.isEmpty()) {
+          continue;
+        }
+        long batchReceived = System.nanoTime();
+        metrics.onReceived(batch.size());
+
+        int failed = handOff(consumer, batch);
+        metrics.onAcknowledged(batch.size() - failed, System.nanoTime() - batchReceived);
+        metrics.onFailed(failed);
+        this.messageCount += batch.size();
+
+        if (System.currentTimeMillis() - lastMetricsLog > METRICS_LOG_INTERVAL_MS) {
+          LOG.info("Pulsar consumer on topic {}: {}", topic, metrics);
+          lastMetricsLog = System.currentTimeMillis();
+        }
       }
 
       consumer.close();
       this.pulsarClient.close();
     } catch (PulsarClientException e) {
-      e.printStackTrace();
+      if (running) {
+        LOG.error("Could not consume from Pulsar topic {}", topic, e);
+      }
+    } finally {
+      if (parserPool != null) {
+        parserPool.shutdownNow();
+      }
     }
   }
 
+  private List<Message<byte[]>> receiveBatch(Consumer<byte[]> consumer) throws PulsarClientException {
+    List<Message<byte[]>> batch = new ArrayList<>();
+    int maxBatchSize = maxElementsToReceive == -1 ? config.getMaxBatchSize() :
+            Math.min(config.getMaxBatchSize(), Math.max(1, maxElementsToReceive - messageCount));
+    long deadline = System.currentTimeMillis() + config.getBatchTimeoutMs();
+
+    while (running && batch.size() < maxBatchSize) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        break;
+      }
+      Message<byte[]> msg = consumer.receive((int) remaining, TimeUnit.MILLISECONDS);
+      if (msg == null) {
+        break;
+      }
+      batch.add(msg);
+    }
+    return batch;
+  }
+
+  /**
+   * Hands the messages of a batch to the lane processors and acknowledges each message once it has been
+   * processed.
+   *
+   * @return the number of messages which could not be processed
+   */
+  private int handOff(Consumer<byte[]> consumer, List<Message<byte[]>> batch) {
+    if (parserPool == null) {
+      return processLane(consumer, batch, laneProcessors.get(0));
+    }
+
+    List<List<Message<byte[]>>> lanes = PulsarUtils.partitionByKey(batch, PulsarUtils::routingKey,
+            laneProcessors.size());
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < lanes.size(); i++) {
+      List<Message<byte[]>> lane = lanes.get(i);
+      InternalEventProcessor<byte[]> processor = laneProcessors.get(i);
+      if (!lane.isEmpty()) {
+        results.add(parserPool.submit(() -> processLane(consumer, lane, processor)));
+      }
+    }
+
+    int failed = 0;
+    for (Future<Integer> result : results) {
+      try {
+        failed += result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      } catch (ExecutionException e) {
+        // the remaining messages of the lane are not acknowledged and redelivered once the consumer closes
+        LOG.error("Could not process batch of Pulsar messages", e);
+      }
+    }
+    return failed;
+  }
+
+  private int processLane(Consumer<byte[]> consumer, List<Message<byte[]>> lane,
+                          InternalEventProcessor<byte[]> processor) {
+    int failed = 0;
+    for (Message<byte[]> msg : lane) {
+      try {
+        processor.onEvent(msg.getData());
+        acknowledge(consumer, msg);
+      } catch (RuntimeException e) {
+        LOG.error("Could not process Pulsar message {}", msg.getMessageId(), e);
+        // redelivered by the broker and moved to the dead letter topic once it keeps failing
+        consumer.negativeAcknowledge(msg);
+        failed++;
+      }
+    }
+    return failed;
+  }
+
+  private void acknowledge(Consumer<byte[]> consumer, Message<byte[]> msg) {
+    // acknowledgements are grouped by the client, so acknowledging every message does not cost a round trip
+    consumer.acknowledgeAsync(msg).exceptionally(e -> {
+      LOG.warn("Could not acknowledge Pulsar message {}", msg.getMessageId(), e);
+      return null;
+    });
+  }
+
   public void stop() throws PulsarClientException {
     this.running = false;
     this.pulsarClient.close();
@@ -84,5 +232,8 @@ public class PulsarConsumer implements Runnable {
     return this.messageCount;
   }
 
+  public PulsarConsumerMetrics getMetrics() {
+    return this.metrics;
+  }
 
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.connect.protocol.stream.pulsar;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PulsarConsumerMetrics {
+
+  private final AtomicLong receivedMessages = new AtomicLong();
+  private final AtomicLong acknowledgedMessages = new AtomicLong();
+  private final AtomicLong failedMessages = new AtomicLong();
+  private final AtomicLong totalAckLatencyNanos = new AtomicLong();
+  private final AtomicLong ackedBatches = new AtomicLong();
+  private final long startTime = System.nanoTime();
+
+  void onReceived(int count) {
+    this.receivedMessages.addAndGet(count);
+  }
+
+  void onAcknowledged(int count, long latencyNanos) {
+    this.acknowledgedMessages.addAndGet(count);
+    this.totalAckLatencyNanos.addAndGet(latencyNanos);
+    this.ackedBatches.incrementAndGet();
+  }
+
+  void onFailed(int count) {
+    this.failedMessages.addAndGet(count);
+  }
+
+  public long getReceivedMessages() {
+    return receivedMessages.get();
+  }
+
+  public long getAcknowledgedMessages() {
+    return acknowledgedMessages.get();
+  }
+
+  public long getFailedMessages() {
+    return failedMessages.get();
+  }
+
+  /**
+   * Number of messages received by this consumer which have not been acknowledged, including the negatively
+   * acknowledged ones.
+   */
+  public long getBacklog() {
+    return getReceivedMessages() - getAcknowledgedMessages();
+  }
+
+  public double getReceiveRate() {
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+    return elapsedSeconds > 0 ? getReceivedMessages() / elapsedSeconds : 0.0;
+  }
+
+  public double getAverageAckLatencyMillis() {
+    long batches = ackedBatches.get();
+    return batches > 0 ? (totalAckLatencyNanos.get() / 1e6) / batches : 0.0;
+  }
+
+  @Override
+  public String toString() {
+    return "received=" + getReceivedMessages()
+            + ", acknowledged=" + getAcknowledgedMessages()
+            + ", backlog=" + getBacklog()
+            + ", failedMessages=" + getFailedMessages()
+            + ", receiveRate=" + String.format("%.2f", getReceiveRate()) + "/s"
+            + ", avgAckLatency=" + String.format("%.3f", getAverageAckLatencyMillis()) + "ms";
+  }
+}
@@ -19,11 +19,9 @@ package org.apache.streampipes.connect.protocol.stream.pulsar;
 
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.sdk.helpers.Locales;
 import org.apache.streampipes.sdk.utils.Assets;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.apache.streampipes.connect.SendToPipeline;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
 import org.apache.streampipes.connect.adapter.model.generic.Format;
 import org.apache.streampipes.connect.adapter.model.generic.Parser;
@@ -43,19 +41,23 @@ import org.apache.streampipes.sdk.helpers.Labels;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerProvidedOptions {
 
-  private static final Logger LOG = LoggerFactory.getLogger(PulsarProtocol.class);
-
   public static final String ID = "org.apache.streampipes.connect.protocol.stream.pulsar";
 
   private static final String PULSAR_BROKER_HOST = "pulsar-broker-host";
   private static final String PULSAR_BROKER_PORT = "pulsar-broker-port";
   private static final String PULSAR_TOPIC = "pulsar-topic";
+  private static final String PULSAR_RECEIVER_QUEUE_SIZE = "pulsar-receiver-queue-size";
+  private static final String PULSAR_MAX_BATCH_SIZE = "pulsar-max-batch-size";
+  private static final String PULSAR_PARSER_THREADS = "pulsar-parser-threads";
+  private static final String PULSAR_MAX_REDELIVER_COUNT = "pulsar-max-redeliver-count";
 
   private Thread thread;
   private PulsarConsumer pulsarConsumer;
+  private PulsarConfig pulsarConfig = PulsarConfig.defaultConfig();
 
   public PulsarProtocol() {
 
@@ -65,6 +67,11 @@ public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerP
     super(parser, format, brokerUrl, topic);
   }
 
+  public PulsarProtocol(Parser parser, Format format, String brokerUrl, String topic, PulsarConfig pulsarConfig) {
+    this(parser, format, brokerUrl, topic);
+    this.pulsarConfig = pulsarConfig;
+  }
+
   @Override
   protected List<byte[]> getNByteElements(int n) throws ParseException {
     List<byte[]> elements = new ArrayList<>();
@@ -91,8 +98,15 @@ public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerP
     Integer brokerPort = extractor.singleValue(PULSAR_BROKER_PORT, Integer.class);
     String brokerUrl = brokerHost + ":" + brokerPort;
     String topic = extractor.singleValue(PULSAR_TOPIC, String.class);
+    Integer receiverQueueSize = extractor.singleValue(PULSAR_RECEIVER_QUEUE_SIZE, Integer.class);
+    Integer maxBatchSize = extractor.singleValue(PULSAR_MAX_BATCH_SIZE, Integer.class);
+    Integer parserThreads = extractor.singleValue(PULSAR_PARSER_THREADS, Integer.class);
+    Integer maxRedeliverCount = extractor.singleValue(PULSAR_MAX_REDELIVER_COUNT, Integer.class);
 
-    return new PulsarProtocol(parser, format, brokerUrl, topic);
+    PulsarConfig pulsarConfig = new PulsarConfig(receiverQueueSize, maxBatchSize,
+            PulsarConfig.DEFAULT_BATCH_TIMEOUT_MS, parserThreads, maxRedeliverCount);
+
+    return new PulsarProtocol(parser, format, brokerUrl, topic, pulsarConfig);
   }
 
   @Override
@@ -105,6 +119,12 @@ public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerP
             .requiredTextParameter(Labels.withId(PULSAR_BROKER_HOST))
             .requiredIntegerParameter(Labels.withId(PULSAR_BROKER_PORT), 6650)
             .requiredTextParameter(Labels.withId(PULSAR_TOPIC))
+            .requiredIntegerParameter(Labels.withId(PULSAR_RECEIVER_QUEUE_SIZE),
+                    PulsarConfig.DEFAULT_RECEIVER_QUEUE_SIZE)
+            .requiredIntegerParameter(Labels.withId(PULSAR_MAX_BATCH_SIZE), PulsarConfig.DEFAULT_MAX_BATCH_SIZE)
+            .requiredIntegerParameter(Labels.withId(PULSAR_PARSER_THREADS), PulsarConfig.DEFAULT_PARSER_THREADS)
+            .requiredIntegerParameter(Labels.withId(PULSAR_MAX_REDELIVER_COUNT),
+                    PulsarConfig.DEFAULT_MAX_REDELIVER_COUNT)
 //            .requiredSingleValueSelectionFromContainer(Labels.from(PULSAR_TOPIC, "Topic",
 //                    "Example: topic"), Arrays.asList(PULSAR_BROKER_HOST, PULSAR_BROKER_PORT))
             .build();
@@ -112,9 +132,8 @@ public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerP
 
   @Override
   public void run(AdapterPipeline adapterPipeline) {
-    SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
-    this.pulsarConsumer = new PulsarConsumer(this.brokerUrl,
-            this.topic, stk::emit);
+    this.pulsarConsumer = new PulsarConsumer(this.brokerUrl, this.topic, pulsarConfig,
+            () -> new LaneEventProcessor(makeLaneFormat(), adapterPipeline));
 
     thread = new Thread(this.pulsarConsumer);
     thread.start();
@@ -146,4 +165,54 @@ public class PulsarProtocol extends BrokerProtocol implements ResolvesContainerP
       return new ArrayList<>();
     }
   }
+
+  /**
+   * Formats are only created from their description, which is not handed to protocols. A format without
+   * configuration is therefore recreated for every lane, while a configured format is shared by the lanes
+   * and parses one message at a time.
+   */
+  private Format makeLaneFormat() {
+    if (pulsarConfig.getParserThreads() <= 1 || !format.declareModel().getConfig().isEmpty()) {
+      return format;
+    }
+    return format.getInstance(format.declareModel());
+  }
+
+  /**
+   * Parses the messages of one lane and serializes the hand-off to the adapter pipeline, whose elements are
+   * not thread-safe. Messages which cannot be parsed are rejected, so that the consumer negatively
+   * acknowledges them.
+   */
+  private class LaneEventProcessor implements InternalEventProcessor<byte[]> {
+
+    private final Format laneFormat;
+    private final AdapterPipeline adapterPipeline;
+
+    LaneEventProcessor(Format laneFormat, AdapterPipeline adapterPipeline) {
+      this.laneFormat = laneFormat;
+      this.adapterPipeline = adapterPipeline;
+    }
+
+    @Override
+    public void onEvent(byte[] payload) {
+      Map<String, Object> event;
+      try {
+        if (laneFormat == format) {
+          synchronized (format) {
+            event = laneFormat.parse(payload);
+          }
+        } else {
+          event = laneFormat.parse(payload);
+        }
+      } catch (Exception e) {
+        throw new SpRuntimeException("Could not parse Pulsar message", e);
+      }
+
+      if (event != null) {
+        synchronized (adapterPipeline) {
+          adapterPipeline.process(event);
+        }
+      }
+    }
+  }
 }
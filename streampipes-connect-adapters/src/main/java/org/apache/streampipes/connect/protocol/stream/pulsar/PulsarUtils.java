@@ -17,9 +17,14 @@
  */
 package org.apache.streampipes.connect.protocol.stream.pulsar;
 
+import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
 public class PulsarUtils {
 
   private static final String PULSAR_SCHEME = "pulsar://";
@@ -30,4 +35,28 @@ public class PulsarUtils {
             .serviceUrl(serviceUrl)
             .build();
   }
+
+  /**
+   * Messages with a key are routed by key, all others by the partition they were received from.
+   */
+  public static String routingKey(Message<?> message) {
+    return message.hasKey() ? message.getKey() : message.getTopicName();
+  }
+
+  /**
+   * Splits a batch into a fixed number of lanes so that all items sharing a routing key end up in the same
+   * lane, preserving their relative order.
+   */
+  public static <T> List<List<T>> partitionByKey(List<T> items, Function<T, String> keyExtractor, int lanes) {
+    List<List<T>> result = new ArrayList<>(lanes);
+    for (int i = 0; i < lanes; i++) {
+      result.add(new ArrayList<>());
+    }
+    for (T item : items) {
+      String key = keyExtractor.apply(item);
+      int lane = key == null ? 0 : Math.floorMod(key.hashCode(), lanes);
+      result.get(lane).add(item);
+    }
+    return result;
+  }
 }
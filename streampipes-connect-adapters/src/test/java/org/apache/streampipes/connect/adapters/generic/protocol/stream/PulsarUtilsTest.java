@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.adapters.generic.protocol.stream;
+
+import org.apache.streampipes.connect.protocol.stream.pulsar.PulsarUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PulsarUtilsTest {
+
+    @Test
+    public void partitionByKeyKeepsKeysTogetherAndInOrder() {
+        List<String> batch = Arrays.asList("a1", "b1", "a2", "c1", "b2", "a3");
+        Function<String, String> key = s -> s.substring(0, 1);
+
+        List<List<String>> lanes = PulsarUtils.partitionByKey(batch, key, 2);
+
+        assertEquals(2, lanes.size());
+        assertEquals(batch.size(), lanes.get(0).size() + lanes.get(1).size());
+        for (List<String> lane : lanes) {
+            if (lane.contains("a1")) {
+                assertTrue(lane.indexOf("a1") < lane.indexOf("a2"));
+                assertTrue(lane.indexOf("a2") < lane.indexOf("a3"));
+            }
+            if (lane.contains("b1")) {
+                assertTrue(lane.indexOf("b1") < lane.indexOf("b2"));
+            }
+        }
+    }
+
+    @Test
+    public void partitionByKeySingleLane() {
+        List<String> batch = Arrays.asList("a1", "b1", "a2");
+
+        List<List<String>> lanes = PulsarUtils.partitionByKey(batch, s -> null, 1);
+
+        assertEquals(1, lanes.size());
+        assertEquals(batch, lanes.get(0));
+    }
+}
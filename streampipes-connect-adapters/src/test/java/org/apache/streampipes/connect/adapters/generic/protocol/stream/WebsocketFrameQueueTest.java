@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.adapters.generic.protocol.stream;
+
+import org.apache.streampipes.connect.protocol.stream.WebsocketConfig;
+import org.apache.streampipes.connect.protocol.stream.WebsocketFrameQueue;
+import org.apache.streampipes.connect.protocol.stream.WebsocketMetrics;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WebsocketFrameQueueTest {
+
+    @Test
+    public void dropOldestKeepsNewestFrames() throws InterruptedException {
+        WebsocketMetrics metrics = new WebsocketMetrics();
+        WebsocketFrameQueue<Integer> queue =
+                new WebsocketFrameQueue<>(3, WebsocketConfig.OverflowPolicy.DROP_OLDEST, metrics);
+
+        for (int i = 0; i < 5; i++) {
+            queue.put(i);
+        }
+
+        assertEquals(3, queue.size());
+        assertEquals(2, metrics.getDroppedFrames());
+        assertEquals(Integer.valueOf(2), queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(Integer.valueOf(3), queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(Integer.valueOf(4), queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void blockWaitsForFreeCapacity() throws InterruptedException {
+        WebsocketMetrics metrics = new WebsocketMetrics();
+        WebsocketFrameQueue<Integer> queue =
+                new WebsocketFrameQueue<>(1, WebsocketConfig.OverflowPolicy.BLOCK, metrics);
+        queue.put(0);
+
+        CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(1);
+                done.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(Integer.valueOf(0), queue.poll(0, TimeUnit.MILLISECONDS));
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(1), queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, metrics.getDroppedFrames());
+    }
+}
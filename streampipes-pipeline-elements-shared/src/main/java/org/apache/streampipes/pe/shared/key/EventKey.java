@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.key;
+
+import org.apache.streampipes.model.runtime.Event;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Composite group key of an event. The values are stored in the order of the key selectors and the hash
+ * code is computed once, as Flink hashes every key at least twice when routing and accessing keyed state.
+ */
+public final class EventKey implements Serializable, Comparable<EventKey> {
+
+  private static final String[] NO_VALUES = new String[0];
+
+  public static final EventKey EMPTY = new EventKey(NO_VALUES);
+
+  private final String[] values;
+  private final int hash;
+
+  private EventKey(String[] values) {
+    this.values = values;
+    this.hash = Arrays.hashCode(values);
+  }
+
+  public static EventKey of(String... values) {
+    return values.length == 0 ? EMPTY : new EventKey(values);
+  }
+
+  /**
+   * Builds the key of an event from the string values of the given property selectors.
+   */
+  public static EventKey of(Event event, String... selectors) {
+    if (selectors.length == 0) {
+      return EMPTY;
+    }
+    String[] values = new String[selectors.length];
+    for (int i = 0; i < selectors.length; i++) {
+      values[i] = event.getFieldBySelector(selectors[i]).getAsPrimitive().getAsString();
+    }
+    return new EventKey(values);
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public String get(int index) {
+    return values[index];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    EventKey other = (EventKey) o;
+    return hash == other.hash && Arrays.equals(values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public int compareTo(EventKey other) {
+    int length = Math.min(values.length, other.values.length);
+    for (int i = 0; i < length; i++) {
+      int result = values[i].compareTo(other.values[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(values.length, other.values.length);
+  }
+
+  @Override
+  public String toString() {
+    return values.length == 1 ? values[0] : String.join(",", values);
+  }
+}
@@ -16,27 +16,31 @@
  *
  */
 
-package org.apache.streampipes.processors.statistics.flink.extensions;
+package org.apache.streampipes.pe.shared.key;
 
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.streampipes.model.runtime.Event;
 
-import java.io.Serializable;
+import java.util.List;
 
-public class MapKeySelector implements Serializable {
+/**
+ * Keys events by the values of the given property selectors. Without selectors, all events are assigned
+ * to {@link EventKey#EMPTY}.
+ */
+public class EventKeySelector implements KeySelector<Event, EventKey> {
+
+  private final String[] selectors;
 
-  private String groupBy;
+  public EventKeySelector(String... selectors) {
+    this.selectors = selectors;
+  }
 
-  public MapKeySelector(String groupBy) {
-    this.groupBy = groupBy;
+  public EventKeySelector(List<String> selectors) {
+    this(selectors.toArray(new String[0]));
   }
 
-  public KeySelector<Event, String> getKeySelector() {
-    return new KeySelector<Event, String>() {
-      @Override
-      public String getKey(Event in) throws Exception {
-        return in.getFieldBySelector(groupBy).getAsPrimitive().getAsString();
-      }
-    };
+  @Override
+  public EventKey getKey(Event event) {
+    return EventKey.of(event, selectors);
   }
 }
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.ListField;
+import org.apache.streampipes.model.runtime.field.NestedField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes events exchanged between Flink operators. Fields are written as a compact tagged tree of
+ * typed values instead of letting Kryo walk the generic object graph of every field. Source and schema
+ * information are shared by all fields of an event and are written once.
+ *
+ * <p>All events of a stream carry the same schema information, so the serializer keeps the serialized form
+ * of the last written schema and the deserialized form of the last read schema. Every record still contains
+ * the schema bytes, as records in state backends and network buffers have to be readable on their own, but
+ * the schema object graph is only walked when it changes.</p>
+ *
+ * <p>Flink types events as generic types, so the serializer is registered with the Kryo fallback of the
+ * execution config, see {@link #register(StreamExecutionEnvironment)}.</p>
+ */
+public class EventKryoSerializer extends Serializer<Event> {
+
+  private static final byte PRIMITIVE = 0;
+  private static final byte LIST = 1;
+  private static final byte NESTED = 2;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte STRING_VALUE = 1;
+  private static final byte INT_VALUE = 2;
+  private static final byte LONG_VALUE = 3;
+  private static final byte FLOAT_VALUE = 4;
+  private static final byte DOUBLE_VALUE = 5;
+  private static final byte BOOLEAN_VALUE = 6;
+  private static final byte OBJECT_VALUE = 7;
+
+  private Kryo schemaKryo;
+
+  private SchemaInfo writtenSchemaInfo;
+  private byte[] writtenSchemaBytes;
+
+  private SchemaInfo readSchemaInfo;
+  private byte[] readSchemaBytes;
+
+  public static void register(StreamExecutionEnvironment env) {
+    env.getConfig().registerTypeWithKryoSerializer(Event.class, EventKryoSerializer.class);
+  }
+
+  @Override
+  public void write(Kryo kryo, Output output, Event event) {
+    SourceInfo sourceInfo = event.getSourceInfo();
+    output.writeBoolean(sourceInfo != null);
+    if (sourceInfo != null) {
+      output.writeString(sourceInfo.getSourceId());
+      output.writeString(sourceInfo.getSelectorPrefix());
+    }
+    writeSchemaInfo(kryo, output, event.getSchemaInfo());
+    writeFields(kryo, output, event.getFields());
+  }
+
+  @Override
+  public Event read(Kryo kryo, Input input, Class<Event> type) {
+    SourceInfo sourceInfo = null;
+    if (input.readBoolean()) {
+      sourceInfo = new SourceInfo(input.readString(), input.readString());
+    }
+    SchemaInfo schemaInfo = readSchemaInfo(kryo, input);
+    return new Event(readFields(kryo, input), sourceInfo, schemaInfo);
+  }
+
+  @Override
+  public Event copy(Kryo kryo, Event original) {
+    Map<String, AbstractField> fields = new LinkedHashMap<>();
+    original.getFields().forEach((key, field) -> fields.put(key, copyField(kryo, field)));
+
+    SourceInfo sourceInfo = original.getSourceInfo();
+    if (sourceInfo != null) {
+      sourceInfo = new SourceInfo(sourceInfo.getSourceId(), sourceInfo.getSelectorPrefix());
+    }
+    SchemaInfo schemaInfo = original.getSchemaInfo();
+    if (schemaInfo != null) {
+      schemaInfo = kryo.copy(schemaInfo);
+    }
+    return new Event(fields, sourceInfo, schemaInfo);
+  }
+
+  private void writeSchemaInfo(Kryo kryo, Output output, SchemaInfo schemaInfo) {
+    if (writtenSchemaBytes == null || schemaInfo != writtenSchemaInfo) {
+      Output schemaOutput = new Output(256, -1);
+      getSchemaKryo(kryo).writeClassAndObject(schemaOutput, schemaInfo);
+      writtenSchemaBytes = schemaOutput.toBytes();
+      writtenSchemaInfo = schemaInfo;
+    }
+    output.writeVarInt(writtenSchemaBytes.length, true);
+    output.writeBytes(writtenSchemaBytes);
+  }
+
+  private SchemaInfo readSchemaInfo(Kryo kryo, Input input) {
+    byte[] schemaBytes = input.readBytes(input.readVarInt(true));
+    if (!Arrays.equals(schemaBytes, readSchemaBytes)) {
+      readSchemaInfo = (SchemaInfo) getSchemaKryo(kryo).readClassAndObject(new Input(schemaBytes));
+      readSchemaBytes = schemaBytes;
+    }
+    return readSchemaInfo;
+  }
+
+  // schemas use their own Kryo instance, so that their bytes do not depend on the references already
+  // written for the enclosing record and can be reused as they are
+  private Kryo getSchemaKryo(Kryo kryo) {
+    if (schemaKryo == null) {
+      schemaKryo = new Kryo();
+      schemaKryo.setClassLoader(kryo.getClassLoader());
+      schemaKryo.setInstantiatorStrategy(kryo.getInstantiatorStrategy());
+    }
+    return schemaKryo;
+  }
+
+  private void writeFields(Kryo kryo, Output output, Map<String, AbstractField> fields) {
+    output.writeVarInt(fields.size(), true);
+    for (Map.Entry<String, AbstractField> entry : fields.entrySet()) {
+      output.writeString(entry.getKey());
+      writeField(kryo, output, entry.getValue());
+    }
+  }
+
+  private Map<String, AbstractField> readFields(Kryo kryo, Input input) {
+    int size = input.readVarInt(true);
+    Map<String, AbstractField> fields = new LinkedHashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      fields.put(input.readString(), readField(kryo, input));
+    }
+    return fields;
+  }
+
+  private void writeField(Kryo kryo, Output output, AbstractField field) {
+    String fieldNameIn = field.getFieldNameIn();
+    String fieldNameOut = field.getFieldNameOut();
+
+    if (field instanceof PrimitiveField) {
+      output.writeByte(PRIMITIVE);
+    } else if (field instanceof ListField) {
+      output.writeByte(LIST);
+    } else {
+      output.writeByte(NESTED);
+    }
+    output.writeString(fieldNameIn);
+    // fields are rarely renamed, so an unchanged output name is written as a single flag
+    boolean renamed = fieldNameIn == null ? fieldNameOut != null : !fieldNameIn.equals(fieldNameOut);
+    output.writeBoolean(renamed);
+    if (renamed) {
+      output.writeString(fieldNameOut);
+    }
+
+    if (field instanceof PrimitiveField) {
+      writeValue(kryo, output, field.getRawValue());
+    } else if (field instanceof ListField) {
+      List<AbstractField> items = field.getAsList().getRawValue();
+      output.writeVarInt(items.size(), true);
+      for (AbstractField item : items) {
+        writeField(kryo, output, item);
+      }
+    } else {
+      writeFields(kryo, output, field.getAsComposite().getRawValue());
+    }
+  }
+
+  private AbstractField readField(Kryo kryo, Input input) {
+    byte fieldType = input.readByte();
+    String fieldNameIn = input.readString();
+    String fieldNameOut = input.readBoolean() ? input.readString() : fieldNameIn;
+
+    if (fieldType == PRIMITIVE) {
+      return new PrimitiveField(fieldNameIn, fieldNameOut, readValue(kryo, input));
+    } else if (fieldType == LIST) {
+      int size = input.readVarInt(true);
+      List<AbstractField> items = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        items.add(readField(kryo, input));
+      }
+      return new ListField(fieldNameIn, fieldNameOut, items);
+    } else {
+      return new NestedField(fieldNameIn, fieldNameOut, readFields(kryo, input));
+    }
+  }
+
+  private void writeValue(Kryo kryo, Output output, Object value) {
+    if (value == null) {
+      output.writeByte(NULL_VALUE);
+    } else if (value instanceof String) {
+      output.writeByte(STRING_VALUE);
+      output.writeString((String) value);
+    } else if (value instanceof Integer) {
+      output.writeByte(INT_VALUE);
+      output.writeVarInt((Integer) value, false);
+    } else if (value instanceof Long) {
+      output.writeByte(LONG_VALUE);
+      output.writeVarLong((Long) value, false);
+    } else if (value instanceof Float) {
+      output.writeByte(FLOAT_VALUE);
+      output.writeFloat((Float) value);
+    } else if (value instanceof Double) {
+      output.writeByte(DOUBLE_VALUE);
+      output.writeDouble((Double) value);
+    } else if (value instanceof Boolean) {
+      output.writeByte(BOOLEAN_VALUE);
+      output.writeBoolean((Boolean) value);
+    } else {
+      output.writeByte(OBJECT_VALUE);
+      kryo.writeClassAndObject(output, value);
+    }
+  }
+
+  private Object readValue(Kryo kryo, Input input) {
+    switch (input.readByte()) {
+      case STRING_VALUE:
+        return input.readString();
+      case INT_VALUE:
+        return input.readVarInt(false);
+      case LONG_VALUE:
+        return input.readVarLong(false);
+      case FLOAT_VALUE:
+        return input.readFloat();
+      case DOUBLE_VALUE:
+        return input.readDouble();
+      case BOOLEAN_VALUE:
+        return input.readBoolean();
+      case OBJECT_VALUE:
+        return kryo.readClassAndObject(input);
+      default:
+        return null;
+    }
+  }
+
+  private AbstractField copyField(Kryo kryo, AbstractField field) {
+    if (field instanceof PrimitiveField) {
+      Object value = field.getRawValue();
+      if (value != null && !isImmutableValue(value)) {
+        value = kryo.copy(value);
+      }
+      return new PrimitiveField(field.getFieldNameIn(), field.getFieldNameOut(), value);
+    } else if (field instanceof ListField) {
+      List<AbstractField> items = new ArrayList<>();
+      for (AbstractField item : field.getAsList().getRawValue()) {
+        items.add(copyField(kryo, item));
+      }
+      return new ListField(field.getFieldNameIn(), field.getFieldNameOut(), items);
+    } else {
+      Map<String, AbstractField> fields = new LinkedHashMap<>();
+      field.getAsComposite().getRawValue().forEach((key, value) -> fields.put(key, copyField(kryo, value)));
+      return new NestedField(field.getFieldNameIn(), field.getFieldNameOut(), fields);
+    }
+  }
+
+  private boolean isImmutableValue(Object value) {
+    return value instanceof String || value instanceof Number || value instanceof Boolean;
+  }
+}
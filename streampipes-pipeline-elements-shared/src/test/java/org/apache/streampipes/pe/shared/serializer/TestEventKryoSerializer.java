@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
+import org.junit.Before;
+import org.junit.Test;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestEventKryoSerializer {
+
+  private Kryo kryo;
+
+  @Before
+  public void setUp() {
+    kryo = new Kryo();
+    // same fallback as the Kryo instances created by Flink
+    ((Kryo.DefaultInstantiatorStrategy) kryo.getInstantiatorStrategy())
+            .setFallbackInstantiatorStrategy(new StdInstantiatorStrategy());
+    kryo.register(Event.class, new EventKryoSerializer());
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Event event = makeEvent(new SchemaInfo(null, new ArrayList<>()));
+
+    Event result = roundTrip(event).get(0);
+
+    assertEquals(event.getRaw(), result.getRaw());
+    assertEquals("topic", result.getSourceInfo().getSourceId());
+    assertEquals("s0", result.getSourceInfo().getSelectorPrefix());
+    assertNotNull(result.getSchemaInfo());
+    assertEquals(Float.class, result.getFieldBySelector("s0::float").getRawValue().getClass());
+    assertEquals(Long.class, result.getFieldBySelector("s0::long").getRawValue().getClass());
+  }
+
+  @Test
+  public void testNullValues() {
+    Map<String, AbstractField> fields = new LinkedHashMap<>();
+    fields.put("value", new PrimitiveField("value", "value", null));
+    Event event = new Event(fields, null, null);
+
+    Event result = roundTrip(event).get(0);
+
+    assertNull(result.getSourceInfo());
+    assertNull(result.getSchemaInfo());
+    assertEquals(1, result.getFields().size());
+    assertNull(result.getFields().get("value").getRawValue());
+  }
+
+  @Test
+  public void testSchemaIsReadOncePerChange() {
+    SchemaInfo first = new SchemaInfo(null, new ArrayList<>());
+    SchemaInfo second = new SchemaInfo(null, new ArrayList<>(Arrays.asList("a", "b")));
+
+    List<Event> result = roundTrip(makeEvent(first), makeEvent(first), makeEvent(second), makeEvent(first));
+
+    assertSame(result.get(0).getSchemaInfo(), result.get(1).getSchemaInfo());
+    assertNotSame(result.get(1).getSchemaInfo(), result.get(2).getSchemaInfo());
+    assertNotSame(result.get(2).getSchemaInfo(), result.get(3).getSchemaInfo());
+    assertEquals(makeEvent(first).getRaw(), result.get(3).getRaw());
+  }
+
+  @Test
+  public void testCopyIsIndependent() {
+    Event event = makeEvent(new SchemaInfo(null, new ArrayList<>()));
+
+    Event copy = kryo.copy(event);
+
+    assertEquals(event.getRaw(), copy.getRaw());
+    assertNotSame(event.getSourceInfo(), copy.getSourceInfo());
+    assertNotSame(event.getSchemaInfo(), copy.getSchemaInfo());
+    assertEquals(event.getSourceInfo().getSelectorPrefix(), copy.getSourceInfo().getSelectorPrefix());
+    assertNotSame(event.getFieldBySelector("s0::date").getRawValue(),
+            copy.getFieldBySelector("s0::date").getRawValue());
+
+    copy.updateFieldBySelector("s0::nested::value", 42);
+    assertEquals(1, event.getFieldBySelector("s0::nested::value").getAsPrimitive().getAsInt().intValue());
+  }
+
+  private List<Event> roundTrip(Event... events) {
+    Output output = new Output(1024, -1);
+    for (Event event : events) {
+      kryo.writeObject(output, event);
+    }
+    Input input = new Input(output.toBytes());
+    List<Event> result = new ArrayList<>();
+    for (int i = 0; i < events.length; i++) {
+      result.add(kryo.readObject(input, Event.class));
+    }
+    return result;
+  }
+
+  private Event makeEvent(SchemaInfo schemaInfo) {
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("value", 1);
+    nested.put("unit", "m");
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("string", "a");
+    map.put("int", 1);
+    map.put("long", 2L);
+    map.put("float", 3.0f);
+    map.put("double", 4.0);
+    map.put("boolean", true);
+    map.put("date", new Date(1000));
+    map.put("list", Arrays.asList(1, 2, 3));
+    map.put("nested", nested);
+    return EventFactory.fromMap(map, new SourceInfo("topic", "s0"), schemaInfo);
+  }
+}
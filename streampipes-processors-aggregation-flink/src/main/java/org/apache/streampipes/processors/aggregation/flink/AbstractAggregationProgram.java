@@ -17,6 +17,8 @@
  */
 package org.apache.streampipes.processors.aggregation.flink;
 
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.streampipes.pe.shared.serializer.EventKryoSerializer;
 import org.apache.streampipes.processors.aggregation.flink.config.AggregationFlinkConfig;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 import org.apache.streampipes.wrapper.flink.FlinkDeploymentConfig;
@@ -38,5 +40,8 @@ public abstract class AbstractAggregationProgram<B extends EventProcessorBinding
             AggregationFlinkConfig.INSTANCE.getFlinkHost(), AggregationFlinkConfig.INSTANCE.getFlinkPort());
   }
 
+  @Override
+  public void appendEnvironmentConfig(StreamExecutionEnvironment env) {
+    EventKryoSerializer.register(env);
+  }
 }
-
@@ -19,70 +19,72 @@
 package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.flink.util.Collector;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.sdk.helpers.EpProperties;
-import org.apache.streampipes.sdk.helpers.Labels;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 
 public class Aggregation implements Serializable {
 
   private AggregationType aggregationType;
-//  private String fieldToAggregate;
-  private List<String> fieldsToAggregate;
-  private List<String> keyIdentifiers;
+  private String[] fieldsToAggregate;
+  private String[] outputRuntimeNames;
 
-  // Used for keyed streams
-  public Aggregation(AggregationType aggregationType, List<String> fieldsToAggregate, List<String> keyIdentifiers) {
+  public Aggregation(AggregationType aggregationType, List<String> fieldsToAggregate) {
     this.aggregationType = aggregationType;
-    this.fieldsToAggregate = fieldsToAggregate;
-    this.keyIdentifiers = keyIdentifiers;
+    this.fieldsToAggregate = fieldsToAggregate.toArray(new String[0]);
+    this.outputRuntimeNames = new String[this.fieldsToAggregate.length];
+    for (int i = 0; i < this.fieldsToAggregate.length; i++) {
+      String propertyPrefix = StringUtils.substringAfterLast(this.fieldsToAggregate[i], ":");
+      this.outputRuntimeNames[i] = propertyPrefix + "_" + aggregationType.toString().toLowerCase();
+    }
   }
 
-  // Used for not keyed streams
-  public Aggregation(AggregationType aggregationType, List<String> fieldsToAggregate) {
-    this.aggregationType = aggregationType;
-    this.fieldsToAggregate = fieldsToAggregate;
-    this.keyIdentifiers = null;
+  public AggregationAccumulator createAccumulator() {
+    return new AggregationAccumulator(fieldsToAggregate.length);
   }
 
+  public void add(Event event, AggregationAccumulator accumulator) {
+    for (int i = 0; i < fieldsToAggregate.length; i++) {
+      accumulator.add(i, event.getFieldBySelector(fieldsToAggregate[i]).getAsPrimitive().getAsDouble());
+    }
+    accumulator.count++;
+    accumulator.lastEvent = event;
+  }
 
-  protected Double getAggregate(List<Double> values) {
+  /**
+   * Combines consecutive panes, oldest first, into the aggregate of the whole window.
+   */
+  public AggregationAccumulator combine(Iterable<AggregationAccumulator> panes) {
+    AggregationAccumulator result = createAccumulator();
+    for (AggregationAccumulator pane : panes) {
+      result.merge(pane);
+    }
+    return result;
+  }
+
+  public double getAggregate(AggregationAccumulator accumulator, int field) {
     if (aggregationType == AggregationType.AVG) {
-      return values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+      return accumulator.count > 0 ? accumulator.sums[field] / accumulator.count : 0;
     } else if (aggregationType == AggregationType.MAX) {
-      return Collections.max(values);
+      return accumulator.maxs[field];
     } else if (aggregationType == AggregationType.MIN) {
-      return Collections.min(values);
+      return accumulator.mins[field];
     } else {
-      return values.stream().mapToDouble(Double::doubleValue).sum();
+      return accumulator.sums[field];
     }
   }
 
-  // Gets called every time a new event is fired, i.e. when an aggregation has to be calculated
-  protected void process(Iterable<Event> input, Collector<Event> out) {
-    List<Double> values = new ArrayList<>();
-    Event lastEvent = new Event();
-
-    // Adds the values of all recent events in input to aggregate them later
-    // Dumps thereby all previous events and only emits the most recent event in the window with the
-    // aggregated value added
-    for (Event anInput : input) {
-      for(String aggregate : fieldsToAggregate) {
-        values.add(anInput.getFieldBySelector(aggregate).getAsPrimitive().getAsDouble());
-        lastEvent = anInput;
-
-        String propertyPrefix = StringUtils.substringAfterLast(aggregate, ":");
-        String runtimeName = propertyPrefix + "_" + aggregationType.toString().toLowerCase();
-
-        lastEvent.addField(runtimeName, getAggregate(values));
-      }
+  // Emits the fields of the most recent event of the window with the aggregated values added. The last event
+  // is kept in keyed state, so the output is a new event instead of the stored one.
+  public Event toOutputEvent(AggregationAccumulator accumulator) {
+    Event lastEvent = accumulator.lastEvent;
+    Event outputEvent = new Event(new HashMap<>(lastEvent.getFields()), lastEvent.getSourceInfo(),
+            lastEvent.getSchemaInfo());
+    for (int i = 0; i < fieldsToAggregate.length; i++) {
+      outputEvent.addField(outputRuntimeNames[i], getAggregate(accumulator, i));
     }
-
-    out.collect(lastEvent);
+    return outputEvent;
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Running aggregate of one pane, i.e. a slice of a window. Public fields and the default constructor make
+ * Flink treat this class as a POJO, so only the contained event falls back to generic serialization.
+ */
+public class AggregationAccumulator implements Serializable {
+
+  public long count;
+  public double[] sums;
+  public double[] mins;
+  public double[] maxs;
+  public long windowEnd;
+  public EventKey key;
+  public Event lastEvent;
+
+  public AggregationAccumulator() {
+  }
+
+  public AggregationAccumulator(int numberOfFields) {
+    this.sums = new double[numberOfFields];
+    this.mins = new double[numberOfFields];
+    this.maxs = new double[numberOfFields];
+    Arrays.fill(mins, Double.POSITIVE_INFINITY);
+    Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+  }
+
+  public void add(int field, double value) {
+    sums[field] += value;
+    mins[field] = Math.min(mins[field], value);
+    maxs[field] = Math.max(maxs[field], value);
+  }
+
+  /**
+   * Merges a later pane into this one.
+   */
+  public void merge(AggregationAccumulator other) {
+    for (int i = 0; i < sums.length; i++) {
+      sums[i] += other.sums[i];
+      mins[i] = Math.min(mins[i], other.mins[i]);
+      maxs[i] = Math.max(maxs[i], other.maxs[i]);
+    }
+    count += other.count;
+    if (other.lastEvent != null) {
+      lastEvent = other.lastEvent;
+    }
+    windowEnd = Math.max(windowEnd, other.windowEnd);
+  }
+}
@@ -18,19 +18,16 @@
 
 package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
 
-import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.KeyedStream;
-import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
 import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
 import org.apache.streampipes.processors.aggregation.flink.AbstractAggregationProgram;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class AggregationProgram extends AbstractAggregationProgram<AggregationParameters> {
 
   public AggregationProgram(AggregationParameters params, boolean debug) {
@@ -43,42 +40,27 @@ public class AggregationProgram extends AbstractAggregationProgram<AggregationPa
     return getKeyedStream(dataStreams[0]);
   }
 
+  // Without grouping, all events share the empty key and are aggregated in a single window as before
   private DataStream<Event> getKeyedStream(DataStream<Event> dataStream) {
-    if (bindingParams.getGroupBy().size() > 0) {
-      KeyedStream<Event, Map<String, String>> keyedStream = dataStream.keyBy(getKeySelector());
-      if (bindingParams.getTimeWindow()) {
-        return keyedStream
-                .window(SlidingEventTimeWindows.of(Time.seconds(bindingParams.getWindowSize()), Time.seconds(bindingParams.getOutputEvery())))
-                .apply(new TimeAggregation(bindingParams.getAggregationType(), bindingParams.getAggregateKeyList(), bindingParams.getGroupBy()));
-      } else {
-        return keyedStream
-                .countWindow(bindingParams.getWindowSize(), bindingParams.getOutputEvery())
-                .apply(new CountAggregation(bindingParams.getAggregationType(), bindingParams.getAggregateKeyList(), bindingParams.getGroupBy()));
-      }
+    Aggregation aggregation = new Aggregation(bindingParams.getAggregationType(),
+            bindingParams.getAggregateKeyList());
+    KeyedStream<Event, EventKey> keyedStream = dataStream
+            .keyBy(new EventKeySelector(bindingParams.getGroupBy()));
+
+    if (bindingParams.getTimeWindow()) {
+      long windowSizeMillis = Time.seconds(bindingParams.getWindowSize()).toMilliseconds();
+      long slideMillis = Time.seconds(bindingParams.getOutputEvery()).toMilliseconds();
+      long paneSizeMillis = TimePaneAggregation.paneSize(windowSizeMillis, slideMillis);
+
+      return keyedStream
+              .window(TumblingEventTimeWindows.of(Time.milliseconds(paneSizeMillis)))
+              .aggregate(new IncrementalAggregation(aggregation), new PaneWindowFunction())
+              .keyBy(new PaneKeySelector())
+              .process(new TimePaneAggregation(aggregation, windowSizeMillis, slideMillis));
     } else {
-      if (bindingParams.getTimeWindow()) {
-        return dataStream
-                .timeWindowAll(Time.seconds(bindingParams.getWindowSize()), Time.seconds(bindingParams.getOutputEvery()))
-                .apply(new TimeAggregation(bindingParams.getAggregationType(), bindingParams.getAggregateKeyList()));
-      } else {
-        return dataStream
-                .countWindowAll(bindingParams.getWindowSize(), bindingParams.getOutputEvery())
-                .apply(new CountAggregation(bindingParams.getAggregationType(), bindingParams.getAggregateKeyList()));
-      }
+      return keyedStream
+              .process(new CountPaneAggregation(aggregation, bindingParams.getWindowSize(),
+                      bindingParams.getOutputEvery()));
     }
   }
-
-  private KeySelector<Event, Map<String, String>> getKeySelector() {
-    List<String> groupBy = bindingParams.getGroupBy();
-    return new KeySelector<Event, Map<String, String>>() {
-      @Override
-      public Map<String, String> getKey(Event event) throws Exception {
-        Map<String, String> keys = new HashMap<>();
-        for (String groupBy : groupBy) {
-          keys.put(groupBy, event.getFieldBySelector(groupBy).getAsPrimitive().getAsString());
-        }
-        return keys;
-      }
-    };
-  }
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sliding count window built from panes of gcd(window size, slide) elements. Every element is aggregated
+ * into the current pane; every slide, the panes of the last window are combined.
+ */
+public class CountPaneAggregation extends KeyedProcessFunction<EventKey, Event, Event> {
+
+  private Aggregation aggregation;
+  private long paneSize;
+  private int panesPerWindow;
+  private int panesPerSlide;
+
+  private transient ValueState<AggregationAccumulator> currentPane;
+  private transient ListState<AggregationAccumulator> panes;
+  private transient ValueState<Long> completedPanes;
+
+  public CountPaneAggregation(Aggregation aggregation, int windowSize, int slide) {
+    this.aggregation = aggregation;
+    this.paneSize = TimePaneAggregation.paneSize(windowSize, slide);
+    this.panesPerWindow = (int) (windowSize / paneSize);
+    this.panesPerSlide = (int) (slide / paneSize);
+  }
+
+  @Override
+  public void open(Configuration parameters) {
+    this.currentPane = getRuntimeContext().getState(new ValueStateDescriptor<>("current-pane",
+            AggregationAccumulator.class));
+    this.panes = getRuntimeContext().getListState(new ListStateDescriptor<>("panes",
+            AggregationAccumulator.class));
+    this.completedPanes = getRuntimeContext().getState(new ValueStateDescriptor<>("completed-panes",
+            Long.class));
+  }
+
+  @Override
+  public void processElement(Event event, Context ctx, Collector<Event> out) throws Exception {
+    AggregationAccumulator pane = currentPane.value();
+    if (pane == null) {
+      pane = aggregation.createAccumulator();
+    }
+    aggregation.add(event, pane);
+
+    if (pane.count < paneSize) {
+      currentPane.update(pane);
+      return;
+    }
+
+    currentPane.clear();
+    List<AggregationAccumulator> windowPanes = new ArrayList<>();
+    panes.get().forEach(windowPanes::add);
+    windowPanes.add(pane);
+    if (windowPanes.size() > panesPerWindow) {
+      windowPanes = new ArrayList<>(windowPanes.subList(windowPanes.size() - panesPerWindow, windowPanes.size()));
+    }
+    panes.update(windowPanes);
+
+    long completed = completedPanes.value() == null ? 1 : completedPanes.value() + 1;
+    completedPanes.update(completed % panesPerSlide);
+    if (completed % panesPerSlide == 0) {
+      out.collect(aggregation.toOutputEvent(aggregation.combine(windowPanes)));
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Pre-aggregates each element into the accumulator of its pane as soon as it arrives, so that windows do
+ * not need to buffer their elements.
+ */
+public class IncrementalAggregation implements AggregateFunction<Event, AggregationAccumulator,
+        AggregationAccumulator> {
+
+  private Aggregation aggregation;
+
+  public IncrementalAggregation(Aggregation aggregation) {
+    this.aggregation = aggregation;
+  }
+
+  @Override
+  public AggregationAccumulator createAccumulator() {
+    return aggregation.createAccumulator();
+  }
+
+  @Override
+  public AggregationAccumulator add(Event event, AggregationAccumulator accumulator) {
+    aggregation.add(event, accumulator);
+    return accumulator;
+  }
+
+  @Override
+  public AggregationAccumulator getResult(AggregationAccumulator accumulator) {
+    return accumulator;
+  }
+
+  @Override
+  public AggregationAccumulator merge(AggregationAccumulator a, AggregationAccumulator b) {
+    a.merge(b);
+    return a;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+/**
+ * Stamps the pre-aggregated pane with its key and the end of its time window.
+ */
+public class PaneWindowFunction extends ProcessWindowFunction<AggregationAccumulator, AggregationAccumulator,
+        EventKey, TimeWindow> {
+
+  @Override
+  public void process(EventKey key, Context context, Iterable<AggregationAccumulator> elements,
+                      Collector<AggregationAccumulator> out) {
+    for (AggregationAccumulator pane : elements) {
+      pane.windowEnd = context.window().getEnd();
+      pane.key = key;
+      out.collect(pane);
+    }
+  }
+}
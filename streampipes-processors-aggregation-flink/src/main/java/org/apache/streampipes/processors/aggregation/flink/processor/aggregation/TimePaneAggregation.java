@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sliding time window built from tumbling panes of gcd(window size, slide). Every element is aggregated
+ * into exactly one pane; when a window ends, only the panes it covers are combined.
+ */
+public class TimePaneAggregation extends KeyedProcessFunction<EventKey, AggregationAccumulator, Event> {
+
+  private Aggregation aggregation;
+  private long windowSizeMillis;
+  private long slideMillis;
+  private long paneSizeMillis;
+
+  private transient ListState<AggregationAccumulator> panes;
+
+  public TimePaneAggregation(Aggregation aggregation, long windowSizeMillis, long slideMillis) {
+    this.aggregation = aggregation;
+    this.windowSizeMillis = windowSizeMillis;
+    this.slideMillis = slideMillis;
+    this.paneSizeMillis = paneSize(windowSizeMillis, slideMillis);
+  }
+
+  public static long paneSize(long windowSize, long slide) {
+    return slide == 0 ? windowSize : paneSize(slide, windowSize % slide);
+  }
+
+  @Override
+  public void open(Configuration parameters) {
+    this.panes = getRuntimeContext().getListState(new ListStateDescriptor<>("panes",
+            AggregationAccumulator.class));
+  }
+
+  @Override
+  public void processElement(AggregationAccumulator pane, Context ctx, Collector<Event> out) throws Exception {
+    panes.add(pane);
+    // the first window covering this pane ends at the next slide boundary
+    long windowEnd = ((pane.windowEnd + slideMillis - 1) / slideMillis) * slideMillis;
+    ctx.timerService().registerEventTimeTimer(windowEnd - 1);
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<Event> out) throws Exception {
+    long windowEnd = timestamp + 1;
+    long windowStart = windowEnd - windowSizeMillis;
+
+    List<AggregationAccumulator> windowPanes = new ArrayList<>();
+    List<AggregationAccumulator> remainingPanes = new ArrayList<>();
+    for (AggregationAccumulator pane : panes.get()) {
+      long paneStart = pane.windowEnd - paneSizeMillis;
+      if (paneStart >= windowStart && pane.windowEnd <= windowEnd) {
+        windowPanes.add(pane);
+      }
+      // keep panes which are covered by the next window
+      if (paneStart >= windowStart + slideMillis) {
+        remainingPanes.add(pane);
+      }
+    }
+
+    if (!windowPanes.isEmpty()) {
+      windowPanes.sort((a, b) -> Long.compare(a.windowEnd, b.windowEnd));
+      out.collect(aggregation.toOutputEvent(aggregation.combine(windowPanes)));
+    }
+
+    panes.update(remainingPanes);
+    if (!remainingPanes.isEmpty()) {
+      ctx.timerService().registerEventTimeTimer(windowEnd + slideMillis - 1);
+    }
+  }
+}
@@ -45,6 +45,7 @@ public class CountProgram extends AbstractAggregationProgram<CountParameters> {
 
   @Override
   public void appendEnvironmentConfig(StreamExecutionEnvironment env) {
+    super.appendEnvironmentConfig(env);
     env.setStreamTimeCharacteristic(TimeCharacteristic.IngestionTime);
   }
 
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestAggregationAccumulator {
+
+  @Test
+  public void testMergePanes() {
+    AggregationAccumulator first = new AggregationAccumulator(2);
+    first.add(0, 1.0);
+    first.add(1, 10.0);
+    first.count = 1;
+    first.windowEnd = 1000;
+
+    AggregationAccumulator second = new AggregationAccumulator(2);
+    second.add(0, 3.0);
+    second.add(1, -2.0);
+    second.add(0, 5.0);
+    second.add(1, 4.0);
+    second.count = 2;
+    second.windowEnd = 2000;
+
+    first.merge(second);
+
+    assertEquals(3, first.count);
+    assertEquals(9.0, first.sums[0], 0.0);
+    assertEquals(12.0, first.sums[1], 0.0);
+    assertEquals(1.0, first.mins[0], 0.0);
+    assertEquals(-2.0, first.mins[1], 0.0);
+    assertEquals(5.0, first.maxs[0], 0.0);
+    assertEquals(10.0, first.maxs[1], 0.0);
+    assertEquals(2000, first.windowEnd);
+  }
+
+  @Test
+  public void testPaneSize() {
+    assertEquals(10000, TimePaneAggregation.paneSize(60000, 10000));
+    assertEquals(5000, TimePaneAggregation.paneSize(15000, 10000));
+    assertEquals(3, TimePaneAggregation.paneSize(3, 3));
+    assertEquals(1, TimePaneAggregation.paneSize(7, 3));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.aggregation.flink.processor.aggregation;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestPaneAggregation {
+
+  private static final String VALUE = "s0::value";
+
+  @Test
+  public void testCountWindowEmitsEverySlide() throws Exception {
+    Aggregation aggregation = new Aggregation(AggregationType.SUM, Collections.singletonList(VALUE));
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness =
+            new KeyedOneInputStreamOperatorTestHarness<>(
+                    new KeyedProcessOperator<>(new CountPaneAggregation(aggregation, 4, 2)),
+                    new EventKeySelector(), TypeInformation.of(EventKey.class));
+    harness.open();
+
+    List<Event> input = new ArrayList<>();
+    for (int i = 1; i <= 8; i++) {
+      Event event = makeEvent("a", i);
+      input.add(event);
+      harness.processElement(new StreamRecord<>(event, i));
+    }
+
+    List<Event> output = harness.extractOutputValues();
+    assertEquals(4, output.size());
+    assertSum(3.0, output.get(0));
+    assertSum(10.0, output.get(1));
+    assertSum(18.0, output.get(2));
+    assertSum(26.0, output.get(3));
+    assertEquals(8.0, output.get(3).getFieldBySelector(VALUE).getAsPrimitive().getAsDouble(), 0.0);
+
+    // the last event of a pane is kept in state and must not be modified by the output
+    for (Event event : input) {
+      assertFalse(event.getFields().containsKey("value_sum"));
+    }
+    harness.close();
+  }
+
+  @Test
+  public void testCountWindowPerKey() throws Exception {
+    Aggregation aggregation = new Aggregation(AggregationType.MAX, Collections.singletonList(VALUE));
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness =
+            new KeyedOneInputStreamOperatorTestHarness<>(
+                    new KeyedProcessOperator<>(new CountPaneAggregation(aggregation, 2, 2)),
+                    new EventKeySelector("s0::sensorId"), TypeInformation.of(EventKey.class));
+    harness.open();
+
+    harness.processElement(new StreamRecord<>(makeEvent("a", 1), 1));
+    harness.processElement(new StreamRecord<>(makeEvent("b", 10), 2));
+    harness.processElement(new StreamRecord<>(makeEvent("a", 3), 3));
+    harness.processElement(new StreamRecord<>(makeEvent("b", 5), 4));
+
+    List<Event> output = harness.extractOutputValues();
+    assertEquals(2, output.size());
+    assertEquals("a", output.get(0).getFieldBySelector("s0::sensorId").getAsPrimitive().getAsString());
+    assertEquals(3.0, output.get(0).getFieldByRuntimeName("value_max").getAsPrimitive().getAsDouble(), 0.0);
+    assertEquals("b", output.get(1).getFieldBySelector("s0::sensorId").getAsPrimitive().getAsString());
+    assertEquals(10.0, output.get(1).getFieldByRuntimeName("value_max").getAsPrimitive().getAsDouble(), 0.0);
+    harness.close();
+  }
+
+  @Test
+  public void testTimeWindowCombinesCoveredPanes() throws Exception {
+    Aggregation aggregation = new Aggregation(AggregationType.SUM, Collections.singletonList(VALUE));
+    KeyedOneInputStreamOperatorTestHarness<EventKey, AggregationAccumulator, Event> harness =
+            new KeyedOneInputStreamOperatorTestHarness<>(
+                    new KeyedProcessOperator<>(new TimePaneAggregation(aggregation, 10000, 5000)),
+                    new PaneKeySelector(), TypeInformation.of(EventKey.class));
+    harness.open();
+
+    harness.processElement(new StreamRecord<>(makePane(aggregation, 5000, 1, 2), 4999));
+    harness.processElement(new StreamRecord<>(makePane(aggregation, 10000, 4), 9999));
+
+    harness.processWatermark(new Watermark(4999));
+    assertEquals(1, harness.extractOutputValues().size());
+
+    harness.processWatermark(new Watermark(9999));
+    harness.processWatermark(new Watermark(14999));
+    harness.processWatermark(new Watermark(19999));
+
+    List<Event> output = harness.extractOutputValues();
+    assertEquals(3, output.size());
+    // [-5000, 5000), [0, 10000), [5000, 15000)
+    assertSum(3.0, output.get(0));
+    assertSum(7.0, output.get(1));
+    assertSum(4.0, output.get(2));
+    harness.close();
+  }
+
+  private void assertSum(double expected, Event event) {
+    assertEquals(expected, event.getFieldByRuntimeName("value_sum").getAsPrimitive().getAsDouble(), 0.0);
+  }
+
+  private AggregationAccumulator makePane(Aggregation aggregation, long windowEnd, double... values) {
+    AggregationAccumulator pane = aggregation.createAccumulator();
+    for (double value : values) {
+      aggregation.add(makeEvent("a", value), pane);
+    }
+    pane.windowEnd = windowEnd;
+    pane.key = EventKey.EMPTY;
+    return pane;
+  }
+
+  private Event makeEvent(String sensorId, double value) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("sensorId", sensorId);
+    map.put("value", value);
+    return EventFactory.fromMap(map, new SourceInfo("test-topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.predicate;
+
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+public class EventPredicates {
+
+  /**
+   * Tests the numerical value of the field with the given selector. The value is unboxed once and passed to
+   * the primitive predicate.
+   */
+  public static EventPredicate numeric(String selector, DoublePredicate predicate) {
+    FieldAccessor field = new FieldAccessor(selector);
+    return event -> predicate.test(field.getDouble(event));
+  }
+
+  public static EventPredicate text(String selector, Predicate<String> predicate) {
+    FieldAccessor field = new FieldAccessor(selector);
+    return event -> predicate.test(field.getString(event));
+  }
+
+  /**
+   * Matches if all of the given predicates match, evaluated in the given order until the first one fails.
+   */
+  public static EventPredicate allOf(EventPredicate... predicates) {
+    return event -> {
+      for (EventPredicate predicate : predicates) {
+        if (!predicate.test(event)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Matches if any of the given predicates matches, evaluated in the given order until the first one matches.
+   */
+  public static EventPredicate anyOf(EventPredicate... predicates) {
+    return event -> {
+      for (EventPredicate predicate : predicates) {
+        if (predicate.test(event)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+}
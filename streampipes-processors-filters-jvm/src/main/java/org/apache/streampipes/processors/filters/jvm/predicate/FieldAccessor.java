@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.predicate;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.NestedField;
+
+/**
+ * Accessor for a field of incoming events. The field selector (e.g. {@code s0::position::latitude}) is split
+ * into the runtime names of the field path once, so that events are only looked up by runtime name.
+ */
+public class FieldAccessor {
+
+  private static final String SELECTOR_DELIMITER = "::";
+
+  private final String selector;
+  private final String[] path;
+
+  public FieldAccessor(String selector) {
+    this.selector = selector;
+    String[] parts = selector.split(SELECTOR_DELIMITER);
+    // the first part is the prefix of the input stream
+    this.path = new String[Math.max(parts.length - 1, 0)];
+    System.arraycopy(parts, 1, this.path, 0, this.path.length);
+  }
+
+  public AbstractField getField(Event event) {
+    AbstractField field = path.length > 0 ? event.getFields().get(path[0]) : null;
+    for (int i = 1; i < path.length && field != null; i++) {
+      field = field instanceof NestedField ? ((NestedField) field).getRawValue().get(path[i]) : null;
+    }
+    // falls back to the regular selector lookup for fields not reachable by runtime name
+    return field != null ? field : event.getFieldBySelector(selector);
+  }
+
+  public double getDouble(Event event) {
+    return getField(event).getAsPrimitive().getAsDouble();
+  }
+
+  public String getString(Event event) {
+    return getField(event).getAsPrimitive().getAsString();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.predicate;
+
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+
+/**
+ * Compiles the numerical operators of the filter processors (greater/equal, greater than, less/equal, less than,
+ * equal, inequal) into primitive predicates, so that the operator is not dispatched again for each event.
+ */
+public class NumericalPredicates {
+
+  public static final double EQUALITY_TOLERANCE = 0.000001;
+
+  public static DoublePredicate fromOperator(ComparisonOperator operator, double threshold) {
+    switch (operator) {
+      case GE:
+        return greaterOrEqual(threshold);
+      case GT:
+        return greaterThan(threshold);
+      case LE:
+        return lessOrEqual(threshold);
+      case LT:
+        return lessThan(threshold);
+      case EQ:
+        return equal(threshold);
+      case IE:
+        return inequal(threshold);
+      default:
+        throw new IllegalArgumentException("Unknown numerical operator " + operator);
+    }
+  }
+
+  /**
+   * Matches values within the inclusive range [min, max].
+   */
+  public static DoublePredicate between(double min, double max) {
+    return value -> value >= min && value <= max;
+  }
+
+  /**
+   * Matches values equal to one of the given values, with the tolerance of {@link #EQUALITY_TOLERANCE}. The
+   * values are sorted once, so each test is a binary search.
+   */
+  public static DoublePredicate in(double... values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return value -> {
+      int index = Arrays.binarySearch(sorted, value);
+      if (index >= 0) {
+        return true;
+      }
+      int insertion = -index - 1;
+      return (insertion < sorted.length && sorted[insertion] - value < EQUALITY_TOLERANCE)
+              || (insertion > 0 && value - sorted[insertion - 1] < EQUALITY_TOLERANCE);
+    };
+  }
+
+  private static DoublePredicate greaterOrEqual(double threshold) {
+    return value -> value >= threshold;
+  }
+
+  private static DoublePredicate greaterThan(double threshold) {
+    return value -> value > threshold;
+  }
+
+  private static DoublePredicate lessOrEqual(double threshold) {
+    return value -> value <= threshold;
+  }
+
+  private static DoublePredicate lessThan(double threshold) {
+    return value -> value < threshold;
+  }
+
+  private static DoublePredicate equal(double threshold) {
+    return value -> Math.abs(value - threshold) < EQUALITY_TOLERANCE;
+  }
+
+  private static DoublePredicate inequal(double threshold) {
+    return value -> Math.abs(value - threshold) > EQUALITY_TOLERANCE;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.predicate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the text operators of the filter processors (matches, contains) into predicates.
+ */
+public class TextPredicates {
+
+  public static Predicate<String> fromOperator(TextOperator operator, String keyword) {
+    switch (operator) {
+      case MATCHES:
+        return matches(keyword);
+      case CONTAINS:
+        return contains(keyword);
+      default:
+        throw new IllegalArgumentException("Unknown text operator " + operator);
+    }
+  }
+
+  /**
+   * Matches values equal to one of the given keywords.
+   */
+  public static Predicate<String> in(Collection<String> keywords) {
+    Set<String> set = new HashSet<>(keywords);
+    return set::contains;
+  }
+
+  /**
+   * Matches values which match the given regular expression as a whole. The expression is compiled once.
+   */
+  public static Predicate<String> regex(String regex) {
+    Pattern pattern = Pattern.compile(regex);
+    return value -> pattern.matcher(value).matches();
+  }
+
+  private static Predicate<String> matches(String keyword) {
+    return keyword::equals;
+  }
+
+  private static Predicate<String> contains(String keyword) {
+    return value -> value.contains(keyword);
+  }
+}
@@ -20,20 +20,35 @@ package org.apache.streampipes.processors.filters.jvm.processor.limit;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowFactory;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowTimer;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.window.Window;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RateLimit implements EventProcessor<RateLimitParameters> {
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimit.class);
+
     private final static String DEFAULT_GROUP = "default";
+    private final static long TIMER_TICK_MILLIS = 10;
+    private final static int TIMER_TICKS_PER_WHEEL = 512;
+
     private Boolean groupingEnabled;
     private String groupingField;
+    private Integer maxGroups;
+    private Long groupIdleTimeout;
     private ConcurrentMap<Object, Window> windows;
     private WindowFactory factory;
+    private WindowTimer timer;
+    private WindowTimer.Timeout evictionTimeout;
+    private AtomicLong droppedEvents;
 
     @Override
     public void onInvocation(RateLimitParameters parameters,
@@ -41,31 +56,76 @@ public class RateLimit implements EventProcessor<RateLimitParameters> {
                              EventProcessorRuntimeContext runtimeContext) {
         this.groupingEnabled = parameters.getGroupingEnabled();
         this.groupingField = parameters.getGroupingField();
+        this.maxGroups = parameters.getMaxGroups();
+        this.groupIdleTimeout = parameters.getGroupIdleTimeout();
         this.windows = new ConcurrentHashMap<>();
+        this.droppedEvents = new AtomicLong();
+        this.timer = new WindowTimer(TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMER_TICKS_PER_WHEEL);
+        this.timer.start();
         this.factory = new WindowFactory(
                 parameters.getWindowType(),
                 parameters.getWindowExpression(),
                 parameters.getEventSelection(),
-                outputCollector);
+                outputCollector,
+                timer);
+        scheduleIdleGroupEviction();
     }
 
     @Override
     public void onEvent(Event event, SpOutputCollector spOutputCollector) throws SpRuntimeException {
         Object group = groupingEnabled ? getGroupKey(event) : DEFAULT_GROUP;
         Window window = windows.get(group);
-        if (window == null) {
+        if (window == null || !window.onEvent(event)) {
+            if (window == null && windows.size() >= maxGroups) {
+                droppedEvents.incrementAndGet();
+                return;
+            }
             window = factory.create();
             window.init();
             windows.put(group, window);
+            window.onEvent(event);
         }
-        window.onEvent(event);
     }
 
     @Override
     public void onDetach() throws SpRuntimeException {
+        LOG.info("Rate limit detached, active groups: {}, events dropped due to group limit: {}",
+                getActiveGroups(), getDroppedEvents());
+        if (this.evictionTimeout != null) {
+            this.evictionTimeout.cancel();
+        }
         for (Window window : this.windows.values()) {
             window.destroy();
         }
+        this.windows.clear();
+        this.timer.stop();
+    }
+
+    public int getActiveGroups() {
+        return windows.size();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    private void scheduleIdleGroupEviction() {
+        this.evictionTimeout = timer.schedule(() -> {
+            evictIdleGroups();
+            scheduleIdleGroupEviction();
+        }, Math.max(groupIdleTimeout / 2, TIMER_TICK_MILLIS), TimeUnit.MILLISECONDS);
+    }
+
+    private void evictIdleGroups() {
+        long now = System.currentTimeMillis();
+        windows.forEach((group, window) -> {
+            if (window.isIdle(now, groupIdleTimeout)) {
+                window.flush();
+                window.destroy();
+                windows.remove(group, window);
+            }
+        });
+        LOG.debug("Rate limit active groups: {}, dropped events: {}", getActiveGroups(), getDroppedEvents());
     }
 
     private Object getGroupKey(Event event) {
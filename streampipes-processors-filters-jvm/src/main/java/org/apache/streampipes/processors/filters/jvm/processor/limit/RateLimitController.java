@@ -48,11 +48,15 @@ public class RateLimitController extends StandaloneEventProcessingDeclarer<RateL
     private static final String CRON_WINDOW_EXPR = "cron-window-expr";
     private static final String GROUPING_FIELD = "grouping-field";
     private static final String GROUPING_ENABLED = "grouping-enabled";
+    private static final String MAX_GROUPS = "max-groups";
+    private static final String GROUP_IDLE_TIMEOUT = "group-idle-timeout";
     private static final String OPTION_FALSE = "False";
     private static final String OPTION_TRUE = "True";
     private static final String OPTION_FIRST = "First";
     private static final String OPTION_LAST = "Last";
     private static final String OPTION_ALL = "All";
+    private static final Integer DEFAULT_MAX_GROUPS = 100000;
+    private static final Integer DEFAULT_GROUP_IDLE_TIMEOUT = 300000;
 
     @Override
     public DataProcessorDescription declareModel() {
@@ -75,6 +79,8 @@ public class RateLimitController extends StandaloneEventProcessingDeclarer<RateL
                                 StaticProperties.integerFreeTextProperty(Labels.withId(LENGTH_WINDOW_SIZE))))
                 .requiredSingleValueSelection(Labels.withId(EVENT_SELECTION),
                         Options.from(OPTION_FIRST, OPTION_LAST, OPTION_ALL))
+                .requiredIntegerParameter(Labels.withId(MAX_GROUPS), DEFAULT_MAX_GROUPS)
+                .requiredIntegerParameter(Labels.withId(GROUP_IDLE_TIMEOUT), DEFAULT_GROUP_IDLE_TIMEOUT)
                 .outputStrategy(OutputStrategies.keep())
                 .build();
     }
@@ -86,21 +92,23 @@ public class RateLimitController extends StandaloneEventProcessingDeclarer<RateL
         String groupingField = extractor.mappingPropertyValue(GROUPING_FIELD);
         EventSelection eventSelection = EventSelection.valueOf(extractor
                 .selectedSingleValue(EVENT_SELECTION, String.class).toUpperCase());
+        Integer maxGroups = extractor.singleValueParameter(MAX_GROUPS, Integer.class);
+        Long groupIdleTimeout = extractor.singleValueParameter(GROUP_IDLE_TIMEOUT, Integer.class).longValue();
         String windowType = extractor.selectedAlternativeInternalId(WINDOW_TYPE);
         if (TIME_WINDOW.equals(windowType)) {
             Integer windowSize = extractor.singleValueParameter(TIME_WINDOW_SIZE, Integer.class);
             RateLimitParameters params = new RateLimitParameters(graph, WindowType.TIME,
-                    windowSize, groupingEnabled, groupingField, eventSelection);
+                    windowSize, groupingEnabled, groupingField, eventSelection, maxGroups, groupIdleTimeout);
             return new ConfiguredEventProcessor<>(params, RateLimit::new);
         } else if (CRON_WINDOW.equals(windowType)) {
             String cronExpression = extractor.singleValueParameter(CRON_WINDOW_EXPR, String.class);
             RateLimitParameters params = new RateLimitParameters(graph, WindowType.CRON,
-                    cronExpression, groupingEnabled, groupingField, eventSelection);
+                    cronExpression, groupingEnabled, groupingField, eventSelection, maxGroups, groupIdleTimeout);
             return new ConfiguredEventProcessor<>(params, RateLimit::new);
         } else {
             Integer windowSize = extractor.singleValueParameter(LENGTH_WINDOW_SIZE, Integer.class);
             RateLimitParameters params = new RateLimitParameters(graph, WindowType.LENGTH,
-                    windowSize, groupingEnabled, groupingField, eventSelection);
+                    windowSize, groupingEnabled, groupingField, eventSelection, maxGroups, groupIdleTimeout);
             return new ConfiguredEventProcessor<>(params, RateLimit::new);
         }
     }
@@ -28,19 +28,25 @@ public class RateLimitParameters extends EventProcessorBindingParams {
     private Boolean groupingEnabled;
     private String groupingField;
     private Object windowExpression;
+    private Integer maxGroups;
+    private Long groupIdleTimeout;
 
     public RateLimitParameters(DataProcessorInvocation graph,
                                WindowType windowType,
                                Object windowExpression,
                                Boolean groupingEnabled,
                                String groupingField,
-                               EventSelection eventSelection) {
+                               EventSelection eventSelection,
+                               Integer maxGroups,
+                               Long groupIdleTimeout) {
         super(graph);
         this.eventSelection = eventSelection;
         this.windowType = windowType;
         this.groupingEnabled = groupingEnabled;
         this.groupingField = groupingField;
         this.windowExpression = windowExpression;
+        this.maxGroups = maxGroups;
+        this.groupIdleTimeout = groupIdleTimeout;
     }
 
     public WindowType getWindowType() {
@@ -63,4 +69,12 @@ public class RateLimitParameters extends EventProcessorBindingParams {
         return eventSelection;
     }
 
+    public Integer getMaxGroups() {
+        return maxGroups;
+    }
+
+    public Long getGroupIdleTimeout() {
+        return groupIdleTimeout;
+    }
+
 }
@@ -28,24 +28,27 @@ public class WindowFactory {
     private final Object windowExpression;
     private final EventSelection eventSelection;
     private final SpOutputCollector outputCollector;
+    private final WindowTimer timer;
 
     public WindowFactory(WindowType windowType,
                          Object windowExpression,
                          EventSelection eventSelection,
-                         SpOutputCollector outputCollector) {
+                         SpOutputCollector outputCollector,
+                         WindowTimer timer) {
         this.windowType = windowType;
         this.windowExpression = windowExpression;
         this.eventSelection = eventSelection;
         this.outputCollector = outputCollector;
+        this.timer = timer;
     }
 
     public Window create() {
         if (WindowType.TIME == windowType) {
-            return new TimeWindow((Integer) windowExpression, eventSelection, outputCollector);
+            return new TimeWindow((Integer) windowExpression, eventSelection, outputCollector, timer);
         } else if (WindowType.LENGTH == windowType) {
             return new LengthWindow((Integer) windowExpression, eventSelection, outputCollector);
         } else if (WindowType.CRON == windowType) {
-            return new CronWindow((String) windowExpression, eventSelection, outputCollector);
+            return new CronWindow((String) windowExpression, eventSelection, outputCollector, timer);
         } else {
             return null;
         }
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.limit.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel driving all time-based windows of a rate limit instance from a single thread.
+ * Timeouts are hashed into buckets by their deadline tick; timeouts further away than one revolution of the
+ * wheel carry the number of remaining rounds. Scheduled tasks run on the timer thread.
+ */
+public class WindowTimer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WindowTimer.class);
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts;
+
+    private Thread workerThread;
+    private volatile boolean running;
+    private long startTime;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public WindowTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        int wheelSize = Integer.highestOneBit(Math.max(ticksPerWheel - 1, 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            this.wheel[i] = new ArrayList<>();
+        }
+        this.mask = wheelSize - 1;
+        this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+    }
+
+    public synchronized void start() {
+        if (!running) {
+            this.running = true;
+            this.startTime = System.nanoTime();
+            this.workerThread = new Thread(this::run, "rate-limit-window-timer");
+            this.workerThread.setDaemon(true);
+            this.workerThread.start();
+        }
+    }
+
+    public synchronized void stop() {
+        this.running = false;
+        if (workerThread != null) {
+            workerThread.interrupt();
+            workerThread = null;
+        }
+        pendingTimeouts.clear();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Schedules a task at an absolute point in time (epoch milliseconds). Tasks re-scheduling themselves
+     * against absolute times do not accumulate the delay of the timer ticks.
+     */
+    public Timeout scheduleAt(Runnable task, long timeMillis) {
+        return schedule(task, Math.max(timeMillis - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+            }
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadline - startTime) / tickNanos, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket) {
+        List<Timeout> expired = new ArrayList<>();
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                expired.add(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+
+        // tasks may schedule follow-up timeouts, which are picked up with the next tick
+        for (Timeout timeout : expired) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                LOG.error("Error while triggering rate limit window", e);
+            }
+        }
+    }
+
+    public static class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+        }
+    }
+}
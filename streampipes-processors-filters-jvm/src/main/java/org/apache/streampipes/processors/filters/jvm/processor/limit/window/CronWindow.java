@@ -17,30 +17,44 @@
  */
 package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
-import org.apache.streampipes.processors.filters.jvm.processor.limit.util.SchedulerUtil;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowTimer;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Trigger;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Date;
 
 public class CronWindow extends ScheduleWindow {
     private String cronExpression;
+    private CronExpression parsedCronExpression;
 
     public CronWindow(String cronExpression,
                       EventSelection eventSelection,
-                      SpOutputCollector outputCollector) {
-        super(eventSelection, outputCollector);
+                      SpOutputCollector outputCollector,
+                      WindowTimer timer) {
+        super(eventSelection, outputCollector, timer);
         this.cronExpression = cronExpression;
     }
 
     @Override
-    JobDetail getJob() {
-        return SchedulerUtil.createJob(this);
+    public synchronized void init() throws SpRuntimeException {
+        try {
+            this.parsedCronExpression = new CronExpression(cronExpression);
+        } catch (ParseException e) {
+            throw new SpRuntimeException("Invalid cron expression: " + cronExpression, e);
+        }
+        super.init();
     }
 
     @Override
-    Trigger getTrigger() {
-        return SchedulerUtil.getCronTrigger(cronExpression);
+    long nextTriggerTime(long previousTriggerTime, long currentTimeMillis) {
+        Date next = parsedCronExpression.getNextValidTimeAfter(new Date(previousTriggerTime));
+        if (next != null && next.getTime() < currentTimeMillis) {
+            next = parsedCronExpression.getNextValidTimeAfter(new Date(currentTimeMillis));
+        }
+        return next != null ? next.getTime() : -1;
     }
 
 }
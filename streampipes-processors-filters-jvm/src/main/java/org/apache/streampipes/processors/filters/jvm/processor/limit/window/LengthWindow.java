@@ -29,6 +29,8 @@ public class LengthWindow implements Window {
     private EventSelection eventSelection;
     private SpOutputCollector outputCollector;
     private List<Event> events;
+    private long lastEventTime;
+    private boolean destroyed;
 
     public LengthWindow(Integer windowSize,
                         EventSelection eventSelection,
@@ -41,22 +43,47 @@ public class LengthWindow implements Window {
 
     @Override
     public void init() {
-        // do nothing.
+        this.lastEventTime = System.currentTimeMillis();
     }
 
     @Override
-    public void onEvent(Event event) {
+    public synchronized boolean onEvent(Event event) {
+        if (destroyed) {
+            return false;
+        }
+        lastEventTime = System.currentTimeMillis();
         events.add(event);
         onTrigger();
+        return true;
+    }
+
+    @Override
+    public synchronized void flush() {
+        // the first event of a window has already been emitted when it arrived
+        if (!events.isEmpty()) {
+            if (eventSelection == EventSelection.LAST) {
+                emit(events.get(events.size() - 1));
+            } else if (eventSelection == EventSelection.ALL) {
+                events.forEach(this::emit);
+            }
+            events.clear();
+        }
+    }
+
+    @Override
+    public synchronized boolean isIdle(long currentTimeMillis, long idleTimeoutMillis) {
+        // partially filled length windows expire as well, they are flushed before they are discarded
+        return currentTimeMillis - lastEventTime > idleTimeoutMillis;
     }
 
     @Override
-    public void destroy() {
+    public synchronized void destroy() {
+        destroyed = true;
         events.clear();
     }
 
     @Override
-    public void onTrigger() {
+    public synchronized void onTrigger() {
         if (events.size() == 1) {
             if (eventSelection == EventSelection.FIRST) {
                 emit(events.get(0));
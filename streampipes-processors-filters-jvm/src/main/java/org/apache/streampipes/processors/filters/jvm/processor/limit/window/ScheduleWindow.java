@@ -20,53 +20,59 @@ package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowTimer;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
-import org.quartz.Trigger;
-import org.quartz.impl.StdSchedulerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
 
 public abstract class ScheduleWindow implements Window {
     private EventSelection eventSelection;
     private SpOutputCollector outputCollector;
     private List<Event> events;
-    private Scheduler scheduler;
-    private static int schedulerCount = 0;
+    private WindowTimer timer;
+    private WindowTimer.Timeout timeout;
+    private long nextTriggerTime;
+    private long lastEventTime;
+    private boolean destroyed;
 
     ScheduleWindow(EventSelection eventSelection,
-                   SpOutputCollector outputCollector) {
+                   SpOutputCollector outputCollector,
+                   WindowTimer timer) {
         this.eventSelection = eventSelection;
         this.outputCollector = outputCollector;
+        this.timer = timer;
         this.events = new ArrayList<>();
     }
 
-    abstract JobDetail getJob();
-
-    abstract Trigger getTrigger();
+    /**
+     * @param previousTriggerTime the time the window was scheduled to be triggered at before (or the creation
+     *                            time of the window)
+     * @param currentTimeMillis   the current time
+     * @return the time (epoch milliseconds) the window is triggered at next, or a negative value if the window
+     * will not be triggered again
+     */
+    abstract long nextTriggerTime(long previousTriggerTime, long currentTimeMillis);
 
     @Override
-    public void init() throws SpRuntimeException {
-        try {
-            scheduler = new StdSchedulerFactory(getSchedulerProps()).getScheduler();
-            scheduler.start();
-            scheduler.scheduleJob(getJob(), getTrigger());
-        } catch (SchedulerException e) {
-            throw new SpRuntimeException("Unable to initialize time window scheduler.", e);
-        }
+    public synchronized void init() throws SpRuntimeException {
+        this.lastEventTime = System.currentTimeMillis();
+        this.nextTriggerTime = lastEventTime;
+        scheduleNextTrigger();
     }
 
     @Override
-    public void onEvent(Event event) {
+    public synchronized boolean onEvent(Event event) {
+        if (destroyed) {
+            return false;
+        }
+        lastEventTime = System.currentTimeMillis();
         events.add(event);
+        return true;
     }
 
     @Override
-    public void onTrigger() {
+    public synchronized void onTrigger() {
         if (!events.isEmpty()) {
             switch (eventSelection) {
                 case FIRST:
@@ -84,31 +90,40 @@ public abstract class ScheduleWindow implements Window {
     }
 
     @Override
-    public void destroy() throws SpRuntimeException {
+    public synchronized void flush() {
+        onTrigger();
+    }
+
+    @Override
+    public synchronized boolean isIdle(long currentTimeMillis, long idleTimeoutMillis) {
+        return events.isEmpty() && currentTimeMillis - lastEventTime > idleTimeoutMillis;
+    }
+
+    @Override
+    public synchronized void destroy() throws SpRuntimeException {
+        destroyed = true;
         events.clear();
-        if (scheduler != null) {
-            try {
-                scheduler.clear();
-                scheduler.shutdown();
-                scheduler = null;
-            } catch (SchedulerException e) {
-                throw new SpRuntimeException("Unable to shutdown time window scheduler.", e);
-            }
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
         }
     }
 
-    private void emit(Event e) {
-        outputCollector.collect(e);
+    private synchronized void fire() {
+        if (!destroyed) {
+            onTrigger();
+            scheduleNextTrigger();
+        }
     }
 
-    private Properties getSchedulerProps() {
-        Properties properties = new Properties();
-        properties.setProperty("org.quartz.scheduler.instanceName", "WindowSchedulerName:" + (++schedulerCount));
-        properties.setProperty("org.quartz.scheduler.instanceId", "WindowSchedulerID:" + schedulerCount);
-        properties.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
-        properties.setProperty("org.quartz.threadPool.threadCount", "3");
-        properties.setProperty("org.quartz.threadPool.threadPriority", "5");
-        return properties;
+    private void scheduleNextTrigger() {
+        // windows are scheduled against the time they were due, not the time they actually fired
+        this.nextTriggerTime = nextTriggerTime(nextTriggerTime, System.currentTimeMillis());
+        this.timeout = nextTriggerTime >= 0 ? timer.scheduleAt(this::fire, nextTriggerTime) : null;
+    }
+
+    private void emit(Event e) {
+        outputCollector.collect(e);
     }
 
 }
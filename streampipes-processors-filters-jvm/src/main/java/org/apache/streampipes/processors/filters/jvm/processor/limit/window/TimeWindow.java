@@ -18,29 +18,28 @@
 package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
-import org.apache.streampipes.processors.filters.jvm.processor.limit.util.SchedulerUtil;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowTimer;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Trigger;
 
 public class TimeWindow extends ScheduleWindow {
     private Integer windowSize;
 
     public TimeWindow(Integer windowSize,
                       EventSelection eventSelection,
-                      SpOutputCollector outputCollector) {
-        super(eventSelection, outputCollector);
+                      SpOutputCollector outputCollector,
+                      WindowTimer timer) {
+        super(eventSelection, outputCollector, timer);
         this.windowSize = windowSize;
     }
 
     @Override
-    JobDetail getJob() {
-        return SchedulerUtil.createJob(this);
-    }
-
-    @Override
-    Trigger getTrigger() {
-        return SchedulerUtil.getFixedRateTrigger(windowSize);
+    long nextTriggerTime(long previousTriggerTime, long currentTimeMillis) {
+        long next = previousTriggerTime + windowSize;
+        if (next < currentTimeMillis) {
+            // windows missed while the timer was stalled are skipped, the window boundaries stay the same
+            next += ((currentTimeMillis - next) / windowSize + 1) * windowSize;
+        }
+        return next;
     }
 
 }
@@ -24,10 +24,23 @@ public interface Window {
 
     void init() throws SpRuntimeException;
 
-    void onEvent(Event event) throws SpRuntimeException;
+    /**
+     * @return false if the window has already been destroyed and did not accept the event
+     */
+    boolean onEvent(Event event) throws SpRuntimeException;
 
     void onTrigger();
 
+    /**
+     * Emits the events collected so far according to the event selection, before an idle window is discarded.
+     */
+    void flush();
+
+    /**
+     * A window is idle if it did not receive any event within the given timeout and can be discarded.
+     */
+    boolean isIdle(long currentTimeMillis, long idleTimeoutMillis);
+
     void destroy() throws SpRuntimeException;
 
 }
@@ -15,19 +15,15 @@
  * limitations under the License.
  *
  */
-package org.apache.streampipes.processors.filters.jvm.processor.limit.util;
-
-import org.apache.streampipes.processors.filters.jvm.processor.limit.window.Window;
-import org.quartz.Job;
-import org.quartz.JobDataMap;
-import org.quartz.JobExecutionContext;
-
-public class ProcessJob implements Job {
-
-    public void execute(JobExecutionContext context) {
-        JobDataMap dataMap = context.getJobDetail().getJobDataMap();
-        Window window = (Window) dataMap.get(SchedulerUtil.WINDOW_KEY);
-        window.onTrigger();
-    }
+package org.apache.streampipes.processors.filters.jvm.processor.merge;
 
+public enum LateEventPolicy {
+  /**
+   * Events older than already evicted events of the same stream are discarded.
+   */
+  DROP,
+  /**
+   * Late events are still matched against the buffered events of the other stream, but never buffered.
+   */
+  MATCH
 }
@@ -24,30 +24,29 @@ import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.List;
 
 public class MergeByTime implements EventProcessor<MergeByTimeParameters> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(MergeByTime.class);
+
   private EventSchema outputSchema;
   private List<String> outputKeySelectors;
 
-  private String timestampFieldStream0;
-  private String timestampFieldStream1;
-  private Integer timeInterval;
-
-  private StreamBuffer streamBufferS0;
-  private StreamBuffer streamBufferS1;
+  private StreamMatcher matcher;
 
   @Override
   public void onInvocation(MergeByTimeParameters composeParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
     this.outputSchema = composeParameters.getGraph().getOutputStream().getEventSchema();
     this.outputKeySelectors = composeParameters.getOutputKeySelectors();
-    this.timestampFieldStream0 = composeParameters.getTimestampFieldStream1();
-    this.timestampFieldStream1 = composeParameters.getTimestampFieldStream2();
-    this.timeInterval = composeParameters.getTimeInterval();
-
-    this.streamBufferS0 = new StreamBuffer(this.timestampFieldStream0);
-    this.streamBufferS1 = new StreamBuffer(this.timestampFieldStream1);
+    this.matcher = new StreamMatcher(composeParameters.getTimestampFieldStream1(),
+            composeParameters.getTimestampFieldStream2(),
+            composeParameters.getTimeInterval(),
+            composeParameters.getBufferSize(),
+            composeParameters.getLateEventPolicy());
   }
 
 
@@ -55,51 +54,18 @@ public class MergeByTime implements EventProcessor<MergeByTimeParameters> {
   public void onEvent(Event event, SpOutputCollector spOutputCollector) {
     String streamId = event.getSourceInfo().getSelectorPrefix();
 
-    // Decide to which buffer the event should be added
-    if ("s0".equals(streamId)) {
-      this.streamBufferS0.add(event);
-    } else {
-      this.streamBufferS1.add(event);
-    }
-
-    // Calculate matching events between data streams
-    for (Event e0 : this.streamBufferS0.getList()) {
-      long time0 = e0.getFieldBySelector(timestampFieldStream0).getAsPrimitive().getAsLong();
-      for (Event e1 : this.streamBufferS1.getList()) {
-        long time1 = e1.getFieldBySelector(timestampFieldStream1).getAsPrimitive().getAsLong();
-
-        if (time0 + timeInterval > time1 && time1 > time0 - timeInterval) {
-          Event resultingEvent = mergeEvents(e0, e1);
-          spOutputCollector.collect(resultingEvent);
-          this.streamBufferS0.removeOldEvents(time0);
-          this.streamBufferS1.removeOldEvents(time1);
-        }
-      }
-    }
-
-    // Clean up buffer if events do not match to avoid buffer overflow
-    if (this.streamBufferS0.getLength() > 0 && this.streamBufferS1.getLength() > 0) {
-      Event e0 = this.streamBufferS0.get(0);
-      Event e1 = this.streamBufferS1.get(0);
-
-      long time0 = e0.getFieldBySelector(this.timestampFieldStream0).getAsPrimitive().getAsLong();
-      long time1 = e1.getFieldBySelector(this.timestampFieldStream1).getAsPrimitive().getAsLong();
-
-      if (time0 > time1) {
-        this.streamBufferS0.removeOldEvents(time0);
-        this.streamBufferS1.removeOldEvents(time0);
-      } else {
-        this.streamBufferS0.removeOldEvents(time1);
-        this.streamBufferS1.removeOldEvents(time1);
-      }
+    // Decide to which buffer the event belongs
+    Event[] match = matcher.match(event, "s0".equals(streamId));
+    if (match != null) {
+      spOutputCollector.collect(mergeEvents(match[0], match[1]));
     }
-
   }
 
   @Override
   public void onDetach() {
-    this.streamBufferS0.reset();
-    this.streamBufferS1.reset();
+    LOG.info("Merge by time detached, dropped late events: {}, evicted unmatched events due to full buffer: {}",
+            matcher.getDroppedLateEvents(), matcher.getEvictedEvents());
+    this.matcher.reset();
   }
 
   private Event mergeEvents(Event e1, Event e2) {
@@ -28,7 +28,9 @@ import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
 import org.apache.streampipes.sdk.helpers.EpRequirements;
 import org.apache.streampipes.sdk.helpers.Labels;
 import org.apache.streampipes.sdk.helpers.Locales;
+import org.apache.streampipes.sdk.helpers.Options;
 import org.apache.streampipes.sdk.helpers.OutputStrategies;
+import org.apache.streampipes.sdk.helpers.Tuple2;
 import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcessingDeclarer;
@@ -41,6 +43,10 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
   private static final String TIMESTAMP_MAPPING_STREAM_2_KEY = "timestamp_mapping_stream_2";
   private static final String NUMBER_MAPPING = "number_mapping";
   private static final String TIME_INTERVAL = "time-interval";
+  private static final String BUFFER_SIZE = "buffer-size";
+  private static final String LATE_EVENT_POLICY = "late-event-policy";
+
+  private static final Integer DEFAULT_BUFFER_SIZE = 10000;
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -57,6 +63,10 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
                     Labels.withId(TIMESTAMP_MAPPING_STREAM_2_KEY),
                     PropertyScope.NONE).build())
             .requiredIntegerParameter(Labels.withId(TIME_INTERVAL), NUMBER_MAPPING)
+            .requiredIntegerParameter(Labels.withId(BUFFER_SIZE), DEFAULT_BUFFER_SIZE)
+            .requiredSingleValueSelection(Labels.withId(LATE_EVENT_POLICY),
+                    Options.from(new Tuple2<>("Drop", LateEventPolicy.DROP.name()),
+                            new Tuple2<>("Match", LateEventPolicy.MATCH.name())))
             .outputStrategy(OutputStrategies.custom(true))
             .build();
   }
@@ -70,9 +80,13 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
     String timestampFieldStream1 = extractor.mappingPropertyValue(TIMESTAMP_MAPPING_STREAM_1_KEY);
     String timestampFieldStream2 = extractor.mappingPropertyValue(TIMESTAMP_MAPPING_STREAM_2_KEY);
     Integer timeInterval = extractor.singleValueParameter(TIME_INTERVAL, Integer.class);
+    Integer bufferSize = extractor.singleValueParameter(BUFFER_SIZE, Integer.class);
+    LateEventPolicy lateEventPolicy =
+            LateEventPolicy.valueOf(extractor.selectedSingleValueInternalName(LATE_EVENT_POLICY, String.class));
 
     MergeByTimeParameters staticParam = new MergeByTimeParameters(
-            graph, outputKeySelectors, timestampFieldStream1, timestampFieldStream2, timeInterval);
+            graph, outputKeySelectors, timestampFieldStream1, timestampFieldStream2, timeInterval, bufferSize,
+            lateEventPolicy);
 
     return new ConfiguredEventProcessor<>(staticParam, MergeByTime::new);
   }
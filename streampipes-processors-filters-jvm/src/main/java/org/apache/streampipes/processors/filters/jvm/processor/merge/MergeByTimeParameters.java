@@ -28,14 +28,19 @@ public class MergeByTimeParameters extends EventProcessorBindingParams {
   private String timestampFieldStream1;
   private String timestampFieldStream2;
   private Integer timeInterval;
+  private Integer bufferSize;
+  private LateEventPolicy lateEventPolicy;
 
   public MergeByTimeParameters(DataProcessorInvocation graph, List<String> outputKeySelectors,
-                               String timestampFieldStream1, String timestampFieldStream2, Integer timeInterval) {
+                               String timestampFieldStream1, String timestampFieldStream2, Integer timeInterval,
+                               Integer bufferSize, LateEventPolicy lateEventPolicy) {
     super(graph);
     this.outputKeySelectors = outputKeySelectors;
     this.timestampFieldStream1 = timestampFieldStream1;
     this.timestampFieldStream2 = timestampFieldStream2;
     this.timeInterval = timeInterval;
+    this.bufferSize = bufferSize;
+    this.lateEventPolicy = lateEventPolicy;
   }
 
   public List<String> getOutputKeySelectors() {
@@ -53,4 +58,12 @@ public class MergeByTimeParameters extends EventProcessorBindingParams {
   public Integer getTimeInterval() {
     return timeInterval;
   }
+
+  public Integer getBufferSize() {
+    return bufferSize;
+  }
+
+  public LateEventPolicy getLateEventPolicy() {
+    return lateEventPolicy;
+  }
 }
@@ -20,46 +20,141 @@ package org.apache.streampipes.processors.filters.jvm.processor.merge;
 
 import org.apache.streampipes.model.runtime.Event;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-
+/**
+ * Fixed-capacity ring buffer of events ordered by timestamp. Timestamps are kept in a primitive array so
+ * that matching is a binary search and does not need to access the events themselves.
+ */
 public class StreamBuffer {
-    private String timestampProperty;
-    private List<Event> buffer;
 
-    public StreamBuffer(String timestampProperty) {
-        buffer = new LinkedList<>();
+    private final String timestampProperty;
+    private final long[] timestamps;
+    private final Event[] events;
+
+    private int head;
+    private int size;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long evictedUntil = Long.MIN_VALUE;
+
+    public StreamBuffer(String timestampProperty, int capacity) {
         this.timestampProperty = timestampProperty;
+        this.timestamps = new long[capacity];
+        this.events = new Event[capacity];
     }
 
-    public void add(Event event) {
-        buffer.add(event);
+    public long getTimestamp(Event event) {
+        return event.getFieldBySelector(timestampProperty).getAsPrimitive().getAsLong();
     }
 
-    public int getLength(){
-        return buffer.size();
+    /**
+     * Adds an event at its position in timestamp order. If the buffer is full, the oldest event is evicted.
+     *
+     * @return false if the oldest event had to be evicted to make room for the new one
+     */
+    public boolean add(Event event, long timestamp) {
+        boolean evicted = false;
+        if (size == events.length) {
+            removeFirst(true);
+            evicted = true;
+        }
+
+        int position = size;
+        while (position > 0 && timestampAt(position - 1) > timestamp) {
+            set(position, timestampAt(position - 1), eventAt(position - 1));
+            position--;
+        }
+        set(position, timestamp, event);
+        size++;
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        return !evicted;
     }
 
-    public List<Event> getList() {
-        return this.buffer;
+    /**
+     * Returns the index of the first event with a timestamp greater than the given value, or -1 if there is
+     * no such event.
+     */
+    public int firstAfter(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size ? low : -1;
     }
 
-    public Event get(int i) {
-        return this.buffer.get(i);
+    /**
+     * Removes all events with a timestamp lower or equal to the given value because they have been matched.
+     * Consumed events do not make later events of this stream late.
+     */
+    public void consumeUntil(long timestamp) {
+        while (size > 0 && timestampAt(0) <= timestamp) {
+            removeFirst(false);
+        }
     }
 
-    public void removeOldEvents(long timestamp) {
-        Iterator itr = this.buffer.iterator();
-        while (itr.hasNext())
-        {
-            Event e = (Event) itr.next();
-            if (e.getFieldBySelector(timestampProperty).getAsPrimitive().getAsLong() <= timestamp)
-                itr.remove();
+    /**
+     * Evicts all events with a timestamp lower or equal to the given value because they can no longer match.
+     */
+    public void evictUntil(long timestamp) {
+        while (size > 0 && timestampAt(0) <= timestamp) {
+            removeFirst(true);
         }
     }
 
+    /**
+     * True if an event with a later or equal timestamp has already been evicted unmatched, i.e. the event
+     * arrives too late.
+     */
+    public boolean isLate(long timestamp) {
+        return timestamp <= evictedUntil;
+    }
+
+    public long timestampAt(int i) {
+        return timestamps[index(i)];
+    }
+
+    public Event eventAt(int i) {
+        return events[index(i)];
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public int getLength() {
+        return size;
+    }
+
     public void reset() {
-        this.buffer = new LinkedList<>();
+        for (int i = 0; i < events.length; i++) {
+            events[i] = null;
+        }
+        head = 0;
+        size = 0;
+        maxTimestamp = Long.MIN_VALUE;
+        evictedUntil = Long.MIN_VALUE;
+    }
+
+    private void removeFirst(boolean evicted) {
+        if (evicted) {
+            evictedUntil = Math.max(evictedUntil, timestamps[head]);
+        }
+        events[head] = null;
+        head = (head + 1) % events.length;
+        size--;
+    }
+
+    private void set(int i, long timestamp, Event event) {
+        int index = index(i);
+        timestamps[index] = timestamp;
+        events[index] = event;
+    }
+
+    private int index(int i) {
+        return (head + i) % events.length;
     }
 }
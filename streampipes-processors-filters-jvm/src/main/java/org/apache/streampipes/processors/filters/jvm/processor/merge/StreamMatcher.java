@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.merge;
+
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Matches the events of two streams whose timestamps lie within a time interval of each other.
+ */
+class StreamMatcher {
+
+  private final int timeInterval;
+  private final LateEventPolicy lateEventPolicy;
+
+  private final StreamBuffer streamBufferS0;
+  private final StreamBuffer streamBufferS1;
+
+  private long droppedLateEvents;
+  private long evictedEvents;
+
+  StreamMatcher(String timestampFieldStream0,
+                String timestampFieldStream1,
+                int timeInterval,
+                int bufferSize,
+                LateEventPolicy lateEventPolicy) {
+    this.timeInterval = timeInterval;
+    this.lateEventPolicy = lateEventPolicy;
+    this.streamBufferS0 = new StreamBuffer(timestampFieldStream0, bufferSize);
+    this.streamBufferS1 = new StreamBuffer(timestampFieldStream1, bufferSize);
+  }
+
+  /**
+   * Matches the event against the buffered events of the other stream.
+   *
+   * @return the matching pair ordered by stream (first stream, second stream), or null if there is no match
+   */
+  Event[] match(Event event, boolean fromS0) {
+    StreamBuffer ownBuffer = fromS0 ? this.streamBufferS0 : this.streamBufferS1;
+    StreamBuffer otherBuffer = fromS0 ? this.streamBufferS1 : this.streamBufferS0;
+
+    long timestamp = ownBuffer.getTimestamp(event);
+    boolean late = ownBuffer.isLate(timestamp);
+    if (late && lateEventPolicy == LateEventPolicy.DROP) {
+      this.droppedLateEvents++;
+      return null;
+    }
+
+    Event[] result = null;
+    // Find the oldest event of the other stream within the time interval
+    int match = otherBuffer.firstAfter(timestamp - timeInterval);
+    if (match != -1 && otherBuffer.timestampAt(match) < timestamp + timeInterval) {
+      Event matchingEvent = otherBuffer.eventAt(match);
+      result = fromS0 ? new Event[]{event, matchingEvent} : new Event[]{matchingEvent, event};
+      otherBuffer.consumeUntil(otherBuffer.timestampAt(match));
+    } else if (!late) {
+      if (!ownBuffer.add(event, timestamp)) {
+        this.evictedEvents++;
+      }
+    }
+
+    // Events can no longer match once the other stream has advanced beyond their time interval
+    evict(this.streamBufferS0, this.streamBufferS1);
+    evict(this.streamBufferS1, this.streamBufferS0);
+    return result;
+  }
+
+  long getDroppedLateEvents() {
+    return droppedLateEvents;
+  }
+
+  long getEvictedEvents() {
+    return evictedEvents;
+  }
+
+  void reset() {
+    this.streamBufferS0.reset();
+    this.streamBufferS1.reset();
+  }
+
+  private void evict(StreamBuffer buffer, StreamBuffer otherBuffer) {
+    if (otherBuffer.getMaxTimestamp() != Long.MIN_VALUE) {
+      buffer.evictUntil(otherBuffer.getMaxTimestamp() - timeInterval);
+    }
+  }
+}
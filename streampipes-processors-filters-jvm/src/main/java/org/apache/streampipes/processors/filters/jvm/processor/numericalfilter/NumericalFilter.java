@@ -19,45 +19,29 @@
 package org.apache.streampipes.processors.filters.jvm.processor.numericalfilter;
 
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.filters.jvm.predicate.ComparisonOperator;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicate;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicates;
+import org.apache.streampipes.processors.filters.jvm.predicate.NumericalPredicates;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
 public class NumericalFilter implements EventProcessor<NumericalFilterParameters> {
 
-  private NumericalFilterParameters params;
+  private EventPredicate filter;
 
   @Override
   public void onInvocation(NumericalFilterParameters numericalFilterParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext
           runtimeContext) {
-    this.params = numericalFilterParameters;
+    this.filter = EventPredicates.numeric(numericalFilterParameters.getFilterProperty(),
+            NumericalPredicates.fromOperator(ComparisonOperator.of(numericalFilterParameters.getNumericalOperator()),
+                    numericalFilterParameters.getThreshold()));
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector out) {
-    Boolean satisfiesFilter = false;
-
-    Double value = event.getFieldBySelector(params.getFilterProperty()).getAsPrimitive()
-            .getAsDouble();
-
-    //Double value = Double.parseDouble(String.valueOf(in.get(params.getFilterProperty())));
-    Double threshold = params.getThreshold();
-
-    if (params.getNumericalOperator() == NumericalOperator.EQ) {
-      satisfiesFilter = (Math.abs(value - threshold) < 0.000001);
-    } else if (params.getNumericalOperator() == NumericalOperator.GE) {
-      satisfiesFilter = (value >= threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.GT) {
-      satisfiesFilter = value > threshold;
-    } else if (params.getNumericalOperator() == NumericalOperator.LE) {
-      satisfiesFilter = (value <= threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.LT) {
-      satisfiesFilter = (value < threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.IE) {
-      satisfiesFilter = (Math.abs(value - threshold) > 0.000001);
-    }
-
-    if (satisfiesFilter) {
+    if (filter.test(event)) {
       out.collect(event);
     }
   }
@@ -19,57 +19,37 @@
 package org.apache.streampipes.processors.filters.jvm.processor.numericaltextfilter;
 
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.filters.jvm.predicate.ComparisonOperator;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicate;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicates;
+import org.apache.streampipes.processors.filters.jvm.predicate.NumericalPredicates;
+import org.apache.streampipes.processors.filters.jvm.predicate.TextOperator;
+import org.apache.streampipes.processors.filters.jvm.predicate.TextPredicates;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
 public class NumericalTextFilter implements EventProcessor<NumericalTextFilterParameters> {
 
-  private NumericalTextFilterParameters params;
+  private EventPredicate filter;
 
   @Override
   public void onInvocation(NumericalTextFilterParameters numericalTextFilterParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext
           runtimeContext) {
-    this.params = numericalTextFilterParameters;
+    EventPredicate numberFilter = EventPredicates.numeric(numericalTextFilterParameters.getNumberProperty(),
+            NumericalPredicates.fromOperator(
+                    ComparisonOperator.of(numericalTextFilterParameters.getNumericalOperator()),
+                    numericalTextFilterParameters.getNumberThreshold()));
+    EventPredicate textFilter = EventPredicates.text(numericalTextFilterParameters.getTextProperty(),
+            TextPredicates.fromOperator(TextOperator.of(numericalTextFilterParameters.getTextOperator()),
+                    numericalTextFilterParameters.getTextKeyword()));
+
+    this.filter = numberFilter.and(textFilter);
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector out) {
-    boolean satisfiesNumberFilter = false;
-    boolean satisfiesTextFilter = false;
-
-    Double numbervalue = event.getFieldBySelector(params.getNumberProperty())
-            .getAsPrimitive()
-            .getAsDouble();
-
-    String value = event.getFieldBySelector(params.getTextProperty())
-            .getAsPrimitive()
-            .getAsString();
-
-    //Double value = Double.parseDouble(String.valueOf(in.get(params.getFilterProperty())));
-    Double threshold = params.getNumberThreshold();
-
-    if (params.getNumericalOperator() == NumericalOperator.EQ) {
-      satisfiesNumberFilter = (Math.abs(numbervalue - threshold) < 0.000001);
-    } else if (params.getNumericalOperator() == NumericalOperator.GE) {
-      satisfiesNumberFilter = (numbervalue >= threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.GT) {
-      satisfiesNumberFilter = numbervalue > threshold;
-    } else if (params.getNumericalOperator() == NumericalOperator.LE) {
-      satisfiesNumberFilter = (numbervalue <= threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.LT) {
-      satisfiesNumberFilter = (numbervalue < threshold);
-    } else if (params.getNumericalOperator() == NumericalOperator.IE) {
-      satisfiesNumberFilter = (Math.abs(numbervalue - threshold) > 0.000001);
-    }
-
-    if (params.getTextOperator() == StringOperator.MATCHES) {
-      satisfiesTextFilter = (value.equals(params.getTextKeyword()));
-    } else if (params.getTextOperator() == StringOperator.CONTAINS) {
-      satisfiesTextFilter = (value.contains(params.getTextKeyword()));
-    }
-
-    if (satisfiesNumberFilter && satisfiesTextFilter) {
+    if (filter.test(event)) {
       out.collect(event);
     }
   }
@@ -19,33 +19,28 @@
 package org.apache.streampipes.processors.filters.jvm.processor.textfilter;
 
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicate;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicates;
+import org.apache.streampipes.processors.filters.jvm.predicate.TextOperator;
+import org.apache.streampipes.processors.filters.jvm.predicate.TextPredicates;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
 public class TextFilter implements EventProcessor<TextFilterParameters> {
 
-  private TextFilterParameters params;
+  private EventPredicate filter;
 
   @Override
   public void onInvocation(TextFilterParameters textFilterParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
-    this.params = textFilterParameters;
+    this.filter = EventPredicates.text(textFilterParameters.getFilterProperty(),
+            TextPredicates.fromOperator(TextOperator.of(textFilterParameters.getStringOperator()),
+                    textFilterParameters.getKeyword()));
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector out) {
-    Boolean satisfiesFilter = false;
-    String value = event.getFieldBySelector(params.getFilterProperty())
-            .getAsPrimitive()
-            .getAsString();
-
-    if (params.getStringOperator() == StringOperator.MATCHES) {
-      satisfiesFilter = (value.equals(params.getKeyword()));
-    } else if (params.getStringOperator() == StringOperator.CONTAINS) {
-      satisfiesFilter = (value.contains(params.getKeyword()));
-    }
-
-    if (satisfiesFilter) {
+    if (filter.test(event)) {
       out.collect(event);
     }
   }
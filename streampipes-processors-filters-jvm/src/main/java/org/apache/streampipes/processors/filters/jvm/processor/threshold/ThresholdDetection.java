@@ -19,51 +19,30 @@
 package org.apache.streampipes.processors.filters.jvm.processor.threshold;
 
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.filters.jvm.predicate.ComparisonOperator;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicate;
+import org.apache.streampipes.processors.filters.jvm.predicate.EventPredicates;
+import org.apache.streampipes.processors.filters.jvm.predicate.NumericalPredicates;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
 public class ThresholdDetection implements EventProcessor<ThresholdDetectionParameters> {
 
-  private ThresholdDetectionParameters params;
+  private EventPredicate threshold;
 
   @Override
   public void onInvocation(ThresholdDetectionParameters numericalFilterParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext
           runtimeContext) {
-    this.params = numericalFilterParameters;
+    this.threshold = EventPredicates.numeric(numericalFilterParameters.getFilterProperty(),
+            NumericalPredicates.fromOperator(ComparisonOperator.of(numericalFilterParameters.getNumericalOperator()),
+                    numericalFilterParameters.getThreshold()));
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector out) {
-    Boolean satisfiesFilter = false;
-
-    Double value = event.getFieldBySelector(params.getFilterProperty()).getAsPrimitive()
-            .getAsDouble();
-
-    //Double value = Double.parseDouble(String.valueOf(in.get(params.getFilterProperty())));
-    Double threshold = params.getThreshold();
-
-    if (params.getNumericalOperator() == ThresholdDetectionOperator.EQ) {
-      satisfiesFilter = (Math.abs(value - threshold) < 0.000001);
-    } else if (params.getNumericalOperator() == ThresholdDetectionOperator.GE) {
-      satisfiesFilter = (value >= threshold);
-    } else if (params.getNumericalOperator() == ThresholdDetectionOperator.GT) {
-      satisfiesFilter = value > threshold;
-    } else if (params.getNumericalOperator() == ThresholdDetectionOperator.LE) {
-      satisfiesFilter = (value <= threshold);
-    } else if (params.getNumericalOperator() == ThresholdDetectionOperator.LT) {
-      satisfiesFilter = (value < threshold);
-    } else if (params.getNumericalOperator() == ThresholdDetectionOperator.IE) {
-      satisfiesFilter = (Math.abs(value - threshold) > 0.000001);
-    }
-
-    if (satisfiesFilter) {
-      event.addField("thresholdDetected", true);
-      out.collect(event);
-    } else {
-      event.addField("thresholdDetected", false);
-      out.collect(event);
-    }
+    event.addField("thresholdDetected", threshold.test(event));
+    out.collect(event);
   }
 
   @Override
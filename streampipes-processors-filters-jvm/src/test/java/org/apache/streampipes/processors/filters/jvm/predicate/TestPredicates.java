@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.predicate;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.processors.filters.jvm.processor.numericalfilter.NumericalOperator;
+import org.apache.streampipes.processors.filters.jvm.processor.textfilter.StringOperator;
+import org.apache.streampipes.processors.filters.jvm.processor.threshold.ThresholdDetectionOperator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestPredicates {
+
+  @Test
+  public void testNumericalOperators() {
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.GE, 5.0), false, true, true);
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.GT, 5.0), false, false, true);
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.LE, 5.0), true, true, false);
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.LT, 5.0), true, false, false);
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.EQ, 5.0), false, true, false);
+    assertMatches(NumericalPredicates.fromOperator(ComparisonOperator.IE, 5.0), true, false, true);
+  }
+
+  @Test
+  public void testOperatorsOfAllProcessorsAreMapped() {
+    for (ComparisonOperator operator : ComparisonOperator.values()) {
+      assertEquals(operator, ComparisonOperator.of(NumericalOperator.valueOf(operator.name())));
+      assertEquals(operator, ComparisonOperator.of(ThresholdDetectionOperator.valueOf(operator.name())));
+      assertEquals(operator, ComparisonOperator.of(
+              org.apache.streampipes.processors.filters.jvm.processor.numericaltextfilter.NumericalOperator
+                      .valueOf(operator.name())));
+    }
+    assertEquals(ComparisonOperator.values().length, NumericalOperator.values().length);
+    assertEquals(ComparisonOperator.values().length, ThresholdDetectionOperator.values().length);
+
+    for (TextOperator operator : TextOperator.values()) {
+      assertEquals(operator, TextOperator.of(StringOperator.valueOf(operator.name())));
+      assertEquals(operator, TextOperator.of(
+              org.apache.streampipes.processors.filters.jvm.processor.numericaltextfilter.StringOperator
+                      .valueOf(operator.name())));
+    }
+    assertEquals(TextOperator.values().length, StringOperator.values().length);
+  }
+
+  @Test
+  public void testRangeAndSetPredicates() {
+    assertMatches(NumericalPredicates.between(4.0, 5.0), true, true, false);
+    assertFalse(NumericalPredicates.between(4.0, 5.0).test(3.9));
+
+    DoublePredicate in = NumericalPredicates.in(6.0, 4.0);
+    assertMatches(in, true, false, true);
+    assertTrue(in.test(4.0000001));
+    assertFalse(in.test(4.1));
+    assertFalse(NumericalPredicates.in().test(4.0));
+
+    Predicate<String> keywords = TextPredicates.in(Arrays.asList("pipe", "stream"));
+    assertTrue(keywords.test("stream"));
+    assertFalse(keywords.test("streampipes"));
+  }
+
+  @Test
+  public void testRegexPredicate() {
+    Predicate<String> regex = TextPredicates.regex("stream.*s");
+
+    assertTrue(regex.test("streampipes"));
+    assertFalse(regex.test("stream"));
+    assertFalse(regex.test("apache streampipes"));
+  }
+
+  @Test
+  public void testTextOperators() {
+    Predicate<String> matches = TextPredicates.fromOperator(TextOperator.MATCHES, "pipe");
+    Predicate<String> contains = TextPredicates.fromOperator(TextOperator.CONTAINS, "pipe");
+
+    assertTrue(matches.test("pipe"));
+    assertFalse(matches.test("streampipes"));
+    assertTrue(contains.test("streampipes"));
+    assertFalse(contains.test("stream"));
+  }
+
+  @Test
+  public void testEventPredicates() {
+    Event event = makeEvent(7.5, "streampipes");
+
+    EventPredicate number = EventPredicates.numeric("s0::value",
+            NumericalPredicates.fromOperator(ComparisonOperator.GT, 5.0));
+    EventPredicate text = EventPredicates.text("s0::text",
+            TextPredicates.fromOperator(TextOperator.CONTAINS, "pipe"));
+    EventPredicate nested = EventPredicates.numeric("s0::position::latitude",
+            NumericalPredicates.fromOperator(ComparisonOperator.LT, 50.0));
+
+    assertTrue(number.test(event));
+    assertTrue(text.test(event));
+    assertTrue(nested.test(event));
+    assertTrue(number.and(text).test(event));
+    assertFalse(number.and(text).test(makeEvent(2.5, "streampipes")));
+    assertFalse(number.and(text).test(makeEvent(7.5, "stream")));
+  }
+
+  @Test
+  public void testCombinedPredicates() {
+    EventPredicate number = EventPredicates.numeric("s0::value",
+            NumericalPredicates.fromOperator(ComparisonOperator.GT, 5.0));
+    EventPredicate text = EventPredicates.text("s0::text",
+            TextPredicates.fromOperator(TextOperator.CONTAINS, "pipe"));
+
+    Event both = makeEvent(7.5, "streampipes");
+    Event numberOnly = makeEvent(7.5, "stream");
+    Event none = makeEvent(2.5, "stream");
+
+    assertTrue(number.or(text).test(numberOnly));
+    assertFalse(number.or(text).test(none));
+    assertFalse(number.negate().test(both));
+    assertTrue(number.and(text.negate()).test(numberOnly));
+
+    assertTrue(EventPredicates.allOf(number, text).test(both));
+    assertFalse(EventPredicates.allOf(number, text).test(numberOnly));
+    assertTrue(EventPredicates.allOf().test(none));
+    assertTrue(EventPredicates.anyOf(number, text).test(numberOnly));
+    assertFalse(EventPredicates.anyOf(number, text).test(none));
+    assertFalse(EventPredicates.anyOf().test(both));
+  }
+
+  @Test
+  public void testFieldAccessor() {
+    Event event = makeEvent(7.5, "streampipes");
+
+    assertEquals(7.5, new FieldAccessor("s0::value").getDouble(event), 0.0);
+    assertEquals("streampipes", new FieldAccessor("s0::text").getString(event));
+    assertEquals(49.0, new FieldAccessor("s0::position::latitude").getDouble(event), 0.0);
+  }
+
+  private void assertMatches(DoublePredicate predicate, boolean below, boolean equal, boolean above) {
+    assertEquals(below, predicate.test(4.0));
+    assertEquals(equal, predicate.test(5.0));
+    assertEquals(above, predicate.test(6.0));
+  }
+
+  private Event makeEvent(double value, String text) {
+    Map<String, Object> position = new HashMap<>();
+    position.put("latitude", 49.0);
+    position.put("longitude", 8.4);
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("value", value);
+    map.put("text", text);
+    map.put("position", position);
+    return EventFactory.fromMap(map, new SourceInfo("test-topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+}
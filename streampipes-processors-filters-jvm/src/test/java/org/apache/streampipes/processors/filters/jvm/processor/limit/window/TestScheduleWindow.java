@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
+
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowTimer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestScheduleWindow {
+
+    private static final String TIMER_THREAD_NAME = "rate-limit-window-timer";
+
+    @Test
+    public void testTimeWindowIsTriggeredAtFixedRate() {
+        TimeWindow window = new TimeWindow(100, EventSelection.LAST, null, null);
+
+        // a trigger that fired late does not shift the following windows
+        assertEquals(1100, window.nextTriggerTime(1000, 1007));
+        assertEquals(1200, window.nextTriggerTime(1100, 1100));
+    }
+
+    @Test
+    public void testTimeWindowSkipsMissedWindows() {
+        TimeWindow window = new TimeWindow(100, EventSelection.LAST, null, null);
+
+        assertEquals(1400, window.nextTriggerTime(1000, 1350));
+    }
+
+    @Test
+    public void testCronWindowIsTriggeredAtCronTimes() {
+        CronWindow window = new CronWindow("0/5 * * * * ?", EventSelection.LAST, null,
+                new WindowTimer(10, TimeUnit.MILLISECONDS, 8));
+        window.init();
+
+        assertEquals(15000, window.nextTriggerTime(10000, 10003));
+        assertEquals(25000, window.nextTriggerTime(10000, 23000));
+
+        window.destroy();
+    }
+
+    @Test
+    public void testManyKeysShareOneTimerThread() throws InterruptedException {
+        int keys = 100000;
+        WindowTimer timer = new WindowTimer(10, TimeUnit.MILLISECONDS, 512);
+        timer.start();
+        long timerThreads = countTimerThreads();
+
+        Set<Integer> triggeredKeys = ConcurrentHashMap.newKeySet();
+        Set<Thread> triggerThreads = ConcurrentHashMap.newKeySet();
+        List<Window> windows = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            int key = i;
+            Window window = new TimeWindow(50, EventSelection.LAST, null, timer) {
+                @Override
+                public synchronized void onTrigger() {
+                    triggeredKeys.add(key);
+                    triggerThreads.add(Thread.currentThread());
+                    super.onTrigger();
+                }
+            };
+            window.init();
+            windows.add(window);
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (triggeredKeys.size() < keys && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(keys, triggeredKeys.size());
+        assertEquals(1, triggerThreads.size());
+        assertEquals(timerThreads, countTimerThreads());
+
+        windows.forEach(Window::destroy);
+        timer.stop();
+    }
+
+    private long countTimerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> TIMER_THREAD_NAME.equals(thread.getName()))
+                .count();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.merge;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestStreamMatcher {
+
+  private static final int TIME_INTERVAL = 10;
+
+  @Test
+  public void testOutOfOrderEventsBehindMatchesAreNotLate() {
+    StreamMatcher matcher = makeMatcher(100, LateEventPolicy.DROP);
+
+    assertNull(matcher.match(event("s0", 100), true));
+    assertMatch(100, 105, matcher.match(event("s1", 105), false));
+
+    // the match consumed s0 events up to 100, but nothing of s0 was evicted
+    assertNull(matcher.match(event("s0", 95), true));
+    assertNull(matcher.match(event("s0", 120), true));
+    assertMatch(95, 97, matcher.match(event("s1", 97), false));
+    assertMatch(120, 118, matcher.match(event("s1", 118), false));
+
+    assertEquals(0, matcher.getDroppedLateEvents());
+  }
+
+  @Test
+  public void testEventsBehindEvictedEventsAreDropped() {
+    StreamMatcher matcher = makeMatcher(100, LateEventPolicy.DROP);
+
+    assertNull(matcher.match(event("s0", 0), true));
+    // s1 advances beyond the interval of s0@0, which is evicted unmatched
+    assertNull(matcher.match(event("s1", 50), false));
+
+    assertNull(matcher.match(event("s0", -5), true));
+    assertEquals(1, matcher.getDroppedLateEvents());
+
+    assertMatch(45, 50, matcher.match(event("s0", 45), true));
+  }
+
+  @Test
+  public void testLateEventsAreMatchedButNotBuffered() {
+    StreamMatcher matcher = makeMatcher(100, LateEventPolicy.MATCH);
+
+    assertNull(matcher.match(event("s0", 0), true));
+    assertNull(matcher.match(event("s1", 50), false));
+
+    assertNull(matcher.match(event("s0", -5), true));
+    assertEquals(0, matcher.getDroppedLateEvents());
+
+    // s0@-5 has not been buffered
+    assertNull(matcher.match(event("s1", -3), false));
+  }
+
+  @Test
+  public void testFullBufferEvictsOldestEvent() {
+    StreamMatcher matcher = makeMatcher(2, LateEventPolicy.DROP);
+
+    assertNull(matcher.match(event("s0", 1), true));
+    assertNull(matcher.match(event("s0", 3), true));
+    assertNull(matcher.match(event("s0", 2), true));
+    assertEquals(1, matcher.getEvictedEvents());
+
+    assertNull(matcher.match(event("s0", 1), true));
+    assertEquals(1, matcher.getDroppedLateEvents());
+
+    assertMatch(2, 5, matcher.match(event("s1", 5), false));
+  }
+
+  private StreamMatcher makeMatcher(int bufferSize, LateEventPolicy policy) {
+    return new StreamMatcher("s0::timestamp", "s1::timestamp", TIME_INTERVAL, bufferSize, policy);
+  }
+
+  private void assertMatch(long expectedS0, long expectedS1, Event[] match) {
+    assertEquals(expectedS0, timestamp(match[0], "s0"));
+    assertEquals(expectedS1, timestamp(match[1], "s1"));
+  }
+
+  private long timestamp(Event event, String stream) {
+    return event.getFieldBySelector(stream + "::timestamp").getAsPrimitive().getAsLong();
+  }
+
+  private Event event(String stream, long timestamp) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("timestamp", timestamp);
+    return EventFactory.fromMap(map, new SourceInfo("topic-" + stream, stream),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+}
@@ -17,6 +17,8 @@
  */
 package org.apache.streampipes.processor.geo.flink;
 
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.streampipes.pe.shared.serializer.EventKryoSerializer;
 import org.apache.streampipes.processor.geo.flink.config.GeoFlinkConfig;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 import org.apache.streampipes.wrapper.flink.FlinkDeploymentConfig;
@@ -38,5 +40,8 @@ public abstract class AbstractGeoProgram<B extends EventProcessorBindingParams>
             GeoFlinkConfig.INSTANCE.getFlinkHost(), GeoFlinkConfig.INSTANCE.getFlinkPort());
   }
 
+  @Override
+  public void appendEnvironmentConfig(StreamExecutionEnvironment env) {
+    EventKryoSerializer.register(env);
+  }
 }
-
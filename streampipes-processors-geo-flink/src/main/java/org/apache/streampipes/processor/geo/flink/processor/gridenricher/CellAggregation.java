@@ -16,13 +16,10 @@
  *
  */
 
-package org.apache.streampipes.processors.statistics.flink.extensions;
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
 
-import org.apache.flink.api.common.functions.Function;
-
-import java.io.Serializable;
-
-public interface TimestampMappingFunction<IN> extends Function, Serializable {
-
-  Long getTimestamp(IN in);
+public enum CellAggregation {
+  NONE,
+  COUNT,
+  COUNT_AVERAGE
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
+
+/**
+ * Encodes coordinates into hierarchical cell ids. Geohash and quadkey ids share the property that the id of
+ * a coarser resolution is a prefix of the id of a finer one, so all resolutions are derived from a single
+ * encoding at the finest resolution. The numeric variants return the interleaved cell bits without
+ * allocating.
+ */
+public class CellIdEncoder {
+
+  private static final char[] GEOHASH_ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+  private static final double MAX_MERCATOR_SIN = 0.9999;
+
+  private CellIdEncoder() {
+
+  }
+
+  /**
+   * Returns the geohash of the given coordinate as 5 * precision bits, longitude first.
+   */
+  public static long geohash(double latitude, double longitude, int precision) {
+    int bits = precision * 5;
+    int lonBits = (bits + 1) / 2;
+    int latBits = bits / 2;
+    long lon = quantize((longitude + 180.0) / 360.0, lonBits);
+    long lat = quantize((latitude + 90.0) / 180.0, latBits);
+
+    long hash = 0;
+    for (int i = 0; i < bits; i++) {
+      hash <<= 1;
+      if ((i & 1) == 0) {
+        hash |= (lon >>> (--lonBits)) & 1L;
+      } else {
+        hash |= (lat >>> (--latBits)) & 1L;
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the Web Mercator quadkey of the given coordinate as 2 * level bits, one base-4 digit per level.
+   */
+  public static long quadkey(double latitude, double longitude, int level) {
+    double sinLat = Math.max(-MAX_MERCATOR_SIN, Math.min(MAX_MERCATOR_SIN, Math.sin(Math.toRadians(latitude))));
+    long x = quantize((longitude + 180.0) / 360.0, level);
+    long y = quantize(0.5 - Math.log((1 + sinLat) / (1 - sinLat)) / (4 * Math.PI), level);
+
+    long key = 0;
+    for (int i = level - 1; i >= 0; i--) {
+      key = (key << 2) | ((x >>> i) & 1L) | (((y >>> i) & 1L) << 1);
+    }
+    return key;
+  }
+
+  /**
+   * Writes the cell id of the given coordinate at the given resolution into the buffer, which must hold at
+   * least resolution characters. Prefixes of the buffer are the cell ids of all coarser resolutions.
+   */
+  public static void encode(CellEncoding encoding, double latitude, double longitude, int resolution,
+                            char[] buffer) {
+    if (encoding == CellEncoding.GEOHASH) {
+      long hash = geohash(latitude, longitude, resolution);
+      for (int i = resolution - 1; i >= 0; i--) {
+        buffer[i] = GEOHASH_ALPHABET[(int) (hash & 31L)];
+        hash >>>= 5;
+      }
+    } else if (encoding == CellEncoding.QUADKEY) {
+      long key = quadkey(latitude, longitude, resolution);
+      for (int i = resolution - 1; i >= 0; i--) {
+        buffer[i] = (char) ('0' + (key & 3L));
+        key >>>= 2;
+      }
+    }
+  }
+
+  private static long quantize(double fraction, int bits) {
+    long cells = 1L << bits;
+    long cell = (long) (fraction * cells);
+    return Math.max(0, Math.min(cells - 1, cell));
+  }
+}
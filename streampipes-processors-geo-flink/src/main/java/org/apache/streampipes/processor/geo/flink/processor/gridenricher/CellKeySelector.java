@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Keys enriched events by the id of the finest cell, or by the grid coordinates if no cell id encoding is
+ * configured.
+ */
+public class CellKeySelector implements KeySelector<Event, String> {
+
+  private final String cellIdKey;
+
+  public CellKeySelector(EnrichmentSettings settings) {
+    this.cellIdKey = settings.getCellEncoding() == CellEncoding.NONE ? null :
+            SpatialGridConstants.cellIdKey(settings.getMaxResolution());
+  }
+
+  @Override
+  public String getKey(Event event) {
+    if (cellIdKey != null) {
+      return event.getFieldByRuntimeName(cellIdKey).getAsPrimitive().getAsString();
+    }
+    return event.getFieldByRuntimeName(SpatialGridConstants.GRID_X_KEY).getAsPrimitive().getAsString()
+            + ":" + event.getFieldByRuntimeName(SpatialGridConstants.GRID_Y_KEY).getAsPrimitive().getAsString();
+  }
+}
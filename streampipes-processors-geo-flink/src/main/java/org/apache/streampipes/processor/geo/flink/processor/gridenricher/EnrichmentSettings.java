@@ -30,6 +30,14 @@ public class EnrichmentSettings implements Serializable {
   private String latPropertyName;
   private String lngPropertyName;
 
+  private CellEncoding cellEncoding = CellEncoding.NONE;
+  private int minResolution;
+  private int maxResolution;
+
+  private CellAggregation cellAggregation = CellAggregation.NONE;
+  private String aggregatePropertyName;
+  private long aggregateTtlMillis;
+
   public EnrichmentSettings() {
   }
 
@@ -41,6 +49,19 @@ public class EnrichmentSettings implements Serializable {
     this.lngPropertyName = lngPropertyName;
   }
 
+  public EnrichmentSettings(double latitudeStart, double longitudeStart, int cellSize, String latPropertyName,
+                            String lngPropertyName, CellEncoding cellEncoding, int minResolution,
+                            int maxResolution, CellAggregation cellAggregation, String aggregatePropertyName,
+                            long aggregateTtlMillis) {
+    this(latitudeStart, longitudeStart, cellSize, latPropertyName, lngPropertyName);
+    this.cellEncoding = cellEncoding;
+    this.minResolution = minResolution;
+    this.maxResolution = maxResolution;
+    this.cellAggregation = cellAggregation;
+    this.aggregatePropertyName = aggregatePropertyName;
+    this.aggregateTtlMillis = aggregateTtlMillis;
+  }
+
   public double getLatitudeStart() {
     return latitudeStart;
   }
@@ -80,4 +101,52 @@ public class EnrichmentSettings implements Serializable {
   public void setLngPropertyName(String lngPropertyName) {
     this.lngPropertyName = lngPropertyName;
   }
+
+  public CellEncoding getCellEncoding() {
+    return cellEncoding;
+  }
+
+  public void setCellEncoding(CellEncoding cellEncoding) {
+    this.cellEncoding = cellEncoding;
+  }
+
+  public int getMinResolution() {
+    return minResolution;
+  }
+
+  public void setMinResolution(int minResolution) {
+    this.minResolution = minResolution;
+  }
+
+  public int getMaxResolution() {
+    return maxResolution;
+  }
+
+  public void setMaxResolution(int maxResolution) {
+    this.maxResolution = maxResolution;
+  }
+
+  public CellAggregation getCellAggregation() {
+    return cellAggregation;
+  }
+
+  public void setCellAggregation(CellAggregation cellAggregation) {
+    this.cellAggregation = cellAggregation;
+  }
+
+  public String getAggregatePropertyName() {
+    return aggregatePropertyName;
+  }
+
+  public void setAggregatePropertyName(String aggregatePropertyName) {
+    this.aggregatePropertyName = aggregatePropertyName;
+  }
+
+  public long getAggregateTtlMillis() {
+    return aggregateTtlMillis;
+  }
+
+  public void setAggregateTtlMillis(long aggregateTtlMillis) {
+    this.aggregateTtlMillis = aggregateTtlMillis;
+  }
 }
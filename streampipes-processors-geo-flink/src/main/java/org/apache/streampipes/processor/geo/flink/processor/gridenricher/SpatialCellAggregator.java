@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
+
+import org.apache.flink.api.common.state.StateTtlConfig;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Maintains a rolling count and, optionally, the average of a numeric property per grid cell. The statistics
+ * of a cell are kept in keyed state and are reset once the cell did not receive events for the configured
+ * time to live.
+ */
+public class SpatialCellAggregator extends KeyedProcessFunction<String, Event, Event> {
+
+  private final CellAggregation aggregation;
+  private final String aggregatePropertyName;
+  private final long ttlMillis;
+
+  private transient ValueState<CellStatistics> statistics;
+
+  public SpatialCellAggregator(EnrichmentSettings settings) {
+    this.aggregation = settings.getCellAggregation();
+    this.aggregatePropertyName = settings.getAggregatePropertyName();
+    this.ttlMillis = settings.getAggregateTtlMillis();
+  }
+
+  @Override
+  public void open(Configuration parameters) {
+    ValueStateDescriptor<CellStatistics> descriptor = new ValueStateDescriptor<>("grid-cell-statistics",
+            CellStatistics.class);
+    if (ttlMillis > 0) {
+      descriptor.enableTimeToLive(StateTtlConfig
+              .newBuilder(Time.milliseconds(ttlMillis))
+              .setUpdateType(StateTtlConfig.UpdateType.OnCreateAndWrite)
+              .setStateVisibility(StateTtlConfig.StateVisibility.NeverReturnExpired)
+              .build());
+    }
+    this.statistics = getRuntimeContext().getState(descriptor);
+  }
+
+  @Override
+  public void processElement(Event in, Context ctx, Collector<Event> out) throws Exception {
+    CellStatistics current = statistics.value();
+    if (current == null) {
+      current = new CellStatistics();
+    }
+
+    if (aggregation == CellAggregation.COUNT_AVERAGE) {
+      current.add(in.getFieldBySelector(aggregatePropertyName).getAsPrimitive().getAsDouble());
+    } else {
+      current.increment();
+    }
+    statistics.update(current);
+
+    in.addField(SpatialGridConstants.GRID_CELL_COUNT_KEY, current.getCount());
+    if (aggregation == CellAggregation.COUNT_AVERAGE) {
+      in.addField(SpatialGridConstants.GRID_CELL_AVERAGE_KEY, current.getAverage());
+    }
+    out.collect(in);
+  }
+}
@@ -20,46 +20,59 @@ package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
 
 import java.io.Serializable;
 
+/**
+ * Assigns coordinates to square cells of a fixed size in meters, counted south and east from the starting
+ * location. The longitude width of a cell is derived from the latitude of its row, so cells keep their size
+ * away from the starting latitude. All methods work on primitives and do not allocate.
+ */
 public class SpatialGridCalculator implements Serializable {
 
-  private double SOUTHDIFF = 0.004491556;
-  private double EASTDIFF = 0.005986;
-
-  private Integer cellSize;
-  private Double startLat;
-  private Double startLon;
+  private static final double METERS_PER_DEGREE_LATITUDE = 111320.6;
+  private static final double MIN_COS_LATITUDE = 1e-6;
 
-  private EnrichmentSettings settings;
+  private final int cellSize;
+  private final double startLat;
+  private final double startLon;
+  private final double latitudeStep;
 
   public SpatialGridCalculator(EnrichmentSettings settings) {
-    this.settings = settings;
     this.startLat = settings.getLatitudeStart();
     this.startLon = settings.getLongitudeStart();
     this.cellSize = settings.getCellSize();
-    this.SOUTHDIFF = (cellSize / 500.0) * SOUTHDIFF;
-    this.EASTDIFF = (cellSize / 500.0) * EASTDIFF;
+    this.latitudeStep = cellSize / METERS_PER_DEGREE_LATITUDE;
   }
 
-  public CellOption computeCells(double latitude, double longitude) {
+  public int cellY(double latitude) {
+    return (int) Math.floor((startLat - latitude) / latitudeStep) + 1;
+  }
 
-    int cellX = calculateXCoordinate(longitude);
-    int cellY = calculateYCoordinate(latitude);
+  public int cellX(int cellY, double longitude) {
+    return (int) Math.floor((longitude - startLon) / longitudeStep(cellY)) + 1;
+  }
 
-    return new CellOption(cellX, cellY, startLat - (cellY * SOUTHDIFF),
-            startLon + (cellX *
-            EASTDIFF), startLat - ((cellY + 1) * SOUTHDIFF), startLon + (
-                    (cellX + 1) * EASTDIFF),
-            cellSize);
+  public double latitudeNW(int cellY) {
+    return startLat - ((cellY - 1) * latitudeStep);
   }
 
-  private int calculateXCoordinate(double longitude) {
-    Double ret = (Math.abs(startLon - longitude) / EASTDIFF);
-    return ret.intValue() + 1;
+  public double latitudeSE(int cellY) {
+    return startLat - (cellY * latitudeStep);
   }
 
-  private int calculateYCoordinate(double latitude) {
-    Double ret = (Math.abs(startLat - latitude) / SOUTHDIFF);
-    return ret.intValue() + 1;
+  public double longitudeNW(int cellY, int cellX) {
+    return startLon + ((cellX - 1) * longitudeStep(cellY));
   }
 
+  public double longitudeSE(int cellY, int cellX) {
+    return startLon + (cellX * longitudeStep(cellY));
+  }
+
+  public int getCellSize() {
+    return cellSize;
+  }
+
+  private double longitudeStep(int cellY) {
+    double rowCenter = startLat - ((cellY - 0.5) * latitudeStep);
+    double cos = Math.max(Math.cos(Math.toRadians(rowCenter)), MIN_COS_LATITUDE);
+    return cellSize / (METERS_PER_DEGREE_LATITUDE * cos);
+  }
 }
@@ -27,5 +27,12 @@ public class SpatialGridConstants {
   public static final String GRID_LAT_SE_KEY = "grid-latitude-se";
   public static final String GRID_LON_SE_KEY = "grid-longitude-se";
   public static final String GRID_CELLSIZE_KEY = "grid-cellsize";
+  public static final String GRID_CELL_ID_PREFIX = "grid-cell-id-";
+  public static final String GRID_CELL_COUNT_KEY = "grid-cell-count";
+  public static final String GRID_CELL_AVERAGE_KEY = "grid-cell-average";
+
+  public static String cellIdKey(int resolution) {
+    return GRID_CELL_ID_PREFIX + resolution;
+  }
 
 }
@@ -24,37 +24,62 @@ import org.apache.streampipes.model.runtime.Event;
 
 public class SpatialGridEnricher implements FlatMapFunction<Event, Event> {
 
-  private EnrichmentSettings settings;
-  private SpatialGridCalculator calculator;
+  private final EnrichmentSettings settings;
+  private final SpatialGridCalculator calculator;
+  private final String[] cellIdKeys;
+
+  private transient char[] cellIdBuffer;
 
   public SpatialGridEnricher(EnrichmentSettings settings) {
     this.settings = settings;
     this.calculator = new SpatialGridCalculator(settings);
+    this.cellIdKeys = makeCellIdKeys(settings);
   }
 
   @Override
   public void flatMap(Event in, Collector<Event> out) throws
           Exception {
-    Double latitude = in.getFieldBySelector(settings.getLatPropertyName()).getAsPrimitive()
+    double latitude = in.getFieldBySelector(settings.getLatPropertyName()).getAsPrimitive()
             .getAsDouble();
-    Double longitude = in.getFieldBySelector(settings.getLngPropertyName()).getAsPrimitive().getAsDouble();
+    double longitude = in.getFieldBySelector(settings.getLngPropertyName()).getAsPrimitive().getAsDouble();
 
-    CellOption result = calculator.computeCells(latitude, longitude);
-//    System.out.println("x=" +result.getCellX() +", y=" +result.getCellY());
+    int cellY = calculator.cellY(latitude);
+    int cellX = calculator.cellX(cellY, longitude);
 
-    out.collect(toOutput(in, result));
-  }
+    in.addField(SpatialGridConstants.GRID_X_KEY, cellX);
+    in.addField(SpatialGridConstants.GRID_Y_KEY, cellY);
+    in.addField(SpatialGridConstants.GRID_CELLSIZE_KEY, calculator.getCellSize());
+    in.addField(SpatialGridConstants.GRID_LAT_NW_KEY, calculator.latitudeNW(cellY));
+    in.addField(SpatialGridConstants.GRID_LON_NW_KEY, calculator.longitudeNW(cellY, cellX));
+    in.addField(SpatialGridConstants.GRID_LAT_SE_KEY, calculator.latitudeSE(cellY));
+    in.addField(SpatialGridConstants.GRID_LON_SE_KEY, calculator.longitudeSE(cellY, cellX));
 
-  private Event toOutput(Event in, CellOption result) {
-    in.addField(SpatialGridConstants.GRID_X_KEY, result.getCellX());
-    in.addField(SpatialGridConstants.GRID_Y_KEY, result.getCellY());
-    in.addField(SpatialGridConstants.GRID_CELLSIZE_KEY, result.getCellSize());
-    in.addField(SpatialGridConstants.GRID_LAT_NW_KEY, result.getLatitudeNW());
-    in.addField(SpatialGridConstants.GRID_LON_NW_KEY, result.getLongitudeNW());
-    in.addField(SpatialGridConstants.GRID_LAT_SE_KEY, result.getLatitudeSE());
-    in.addField(SpatialGridConstants.GRID_LON_SE_KEY, result.getLongitudeSE());
+    if (cellIdKeys.length > 0) {
+      appendCellIds(in, latitude, longitude);
+    }
 
-    return in;
+    out.collect(in);
   }
 
+  private void appendCellIds(Event in, double latitude, double longitude) {
+    int maxResolution = settings.getMaxResolution();
+    if (cellIdBuffer == null) {
+      cellIdBuffer = new char[maxResolution];
+    }
+    CellIdEncoder.encode(settings.getCellEncoding(), latitude, longitude, maxResolution, cellIdBuffer);
+    for (int i = 0; i < cellIdKeys.length; i++) {
+      in.addField(cellIdKeys[i], new String(cellIdBuffer, 0, settings.getMinResolution() + i));
+    }
+  }
+
+  public static String[] makeCellIdKeys(EnrichmentSettings settings) {
+    if (settings.getCellEncoding() == CellEncoding.NONE) {
+      return new String[0];
+    }
+    String[] keys = new String[settings.getMaxResolution() - settings.getMinResolution() + 1];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = SpatialGridConstants.cellIdKey(settings.getMinResolution() + i);
+    }
+    return keys;
+  }
 }
@@ -18,8 +18,11 @@
 
 package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.container.api.ResolvesContainerProvidedOutputStrategy;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.schema.EventSchema;
 import org.apache.streampipes.model.schema.PropertyScope;
 import org.apache.streampipes.processor.geo.flink.config.GeoFlinkConfig;
 import org.apache.streampipes.sdk.StaticProperties;
@@ -33,7 +36,8 @@ import org.apache.streampipes.vocabulary.SO;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorDeclarer;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 
-public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<SpatialGridEnrichmentParameters> {
+public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<SpatialGridEnrichmentParameters>
+        implements ResolvesContainerProvidedOutputStrategy<DataProcessorInvocation, ProcessingElementParameterExtractor> {
 
   private static final String MAPPING_LATITUDE = "mapping-latitude";
   private static final String MAPPING_LONGITUDE = "mapping-longitude";
@@ -41,6 +45,17 @@ public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<
   private static final String CELLSIZE = "cellSize";
   private static final String STARTING_CELL = "startingCell";
 
+  private static final String CELL_ENCODING = "cell-encoding";
+  private static final String MIN_RESOLUTION = "min-resolution";
+  private static final String MAX_RESOLUTION = "max-resolution";
+
+  private static final String CELL_AGGREGATION = "cell-aggregation";
+  private static final String AGGREGATION_NONE = "aggregation-none";
+  private static final String AGGREGATION_COUNT = "aggregation-count";
+  private static final String AGGREGATION_COUNT_AVERAGE = "aggregation-count-average";
+  private static final String MAPPING_AGGREGATE = "mapping-aggregate";
+  private static final String AGGREGATE_TTL = "aggregate-ttl";
+
   @Override
   public DataProcessorDescription declareModel() {
     return ProcessingElementBuilder.create("org.apache.streampipes.processor.geo.flink")
@@ -53,19 +68,25 @@ public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<
                     .requiredPropertyWithUnaryMapping(EpRequirements.domainPropertyReq(Geo.lng)
                             , Labels.withId(MAPPING_LONGITUDE), PropertyScope.MEASUREMENT_PROPERTY)
                     .build())
-            .outputStrategy(OutputStrategies.append(
-                    EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_X_KEY, SO.Number),
-                    EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_Y_KEY, SO.Number),
-                    EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LAT_NW_KEY, Geo.lat),
-                    EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LON_NW_KEY, Geo.lng),
-                    EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LAT_SE_KEY, Geo.lat),
-                    EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LON_SE_KEY, Geo.lng),
-                    EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_CELLSIZE_KEY, SO.Number)))
+            .outputStrategy(OutputStrategies.customTransformation())
             .requiredIntegerParameter(Labels.withId(CELLSIZE),
                     100, 10000, 100)
             .requiredOntologyConcept(Labels.withId(STARTING_CELL), StaticProperties
                     .supportedDomainProperty(Geo.lat, true), StaticProperties
                     .supportedDomainProperty(Geo.lng, true))
+            .requiredSingleValueSelection(Labels.withId(CELL_ENCODING),
+                    Options.from(new Tuple2<>("None", CellEncoding.NONE.name()),
+                            new Tuple2<>("Geohash", CellEncoding.GEOHASH.name()),
+                            new Tuple2<>("Quadkey", CellEncoding.QUADKEY.name())))
+            .requiredIntegerParameter(Labels.withId(MIN_RESOLUTION), 5)
+            .requiredIntegerParameter(Labels.withId(MAX_RESOLUTION), 7)
+            .requiredAlternatives(Labels.withId(CELL_AGGREGATION),
+                    Alternatives.from(Labels.withId(AGGREGATION_NONE)),
+                    Alternatives.from(Labels.withId(AGGREGATION_COUNT)),
+                    Alternatives.from(Labels.withId(AGGREGATION_COUNT_AVERAGE),
+                            StaticProperties.mappingPropertyUnary(Labels.withId(MAPPING_AGGREGATE),
+                                    RequirementsSelector.FIRST_INPUT_STREAM, PropertyScope.MEASUREMENT_PROPERTY)))
+            .requiredIntegerParameter(Labels.withId(AGGREGATE_TTL), 3600)
             .build();
   }
 
@@ -82,11 +103,27 @@ public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<
     Double startingLongitude = extractor.supportedOntologyPropertyValue(STARTING_CELL, Geo.lng,
             Double.class);
 
+    CellEncoding cellEncoding = CellEncoding.valueOf(extractor.selectedSingleValueInternalName(CELL_ENCODING,
+            String.class));
+    int maxResolution = maxResolution(extractor, cellEncoding);
+    int minResolution = minResolution(extractor, maxResolution);
+
+    CellAggregation cellAggregation = cellAggregation(extractor);
+    String aggregatePropertyName = cellAggregation == CellAggregation.COUNT_AVERAGE
+            ? extractor.mappingPropertyValue(MAPPING_AGGREGATE) : null;
+    Integer aggregateTtlSeconds = extractor.singleValueParameter(AGGREGATE_TTL, Integer.class);
+
     EnrichmentSettings enrichmentSettings = new EnrichmentSettings(
             startingLatitude, startingLongitude,
             cellSize,
             latitudePropertyName,
-            longitudePropertyName);
+            longitudePropertyName,
+            cellEncoding,
+            minResolution,
+            maxResolution,
+            cellAggregation,
+            aggregatePropertyName,
+            aggregateTtlSeconds * 1000L);
 
     SpatialGridEnrichmentParameters params = new SpatialGridEnrichmentParameters(graph,
             enrichmentSettings);
@@ -94,4 +131,62 @@ public class SpatialGridEnrichmentController extends FlinkDataProcessorDeclarer<
     return new SpatialGridEnrichmentProgram(params, GeoFlinkConfig.INSTANCE.getDebug());
 
   }
+
+  @Override
+  public EventSchema resolveOutputStrategy(DataProcessorInvocation processingElement,
+                                           ProcessingElementParameterExtractor extractor) throws SpRuntimeException {
+    EventSchema eventSchema = processingElement.getInputStreams().get(0).getEventSchema();
+
+    eventSchema.addEventProperty(EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_X_KEY, SO.Number));
+    eventSchema.addEventProperty(EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_Y_KEY, SO.Number));
+    eventSchema.addEventProperty(EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LAT_NW_KEY, Geo.lat));
+    eventSchema.addEventProperty(EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LON_NW_KEY, Geo.lng));
+    eventSchema.addEventProperty(EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LAT_SE_KEY, Geo.lat));
+    eventSchema.addEventProperty(EpProperties.doubleEp(Labels.empty(), SpatialGridConstants.GRID_LON_SE_KEY, Geo.lng));
+    eventSchema.addEventProperty(EpProperties.integerEp(Labels.empty(), SpatialGridConstants.GRID_CELLSIZE_KEY,
+            SO.Number));
+
+    CellEncoding cellEncoding = CellEncoding.valueOf(extractor.selectedSingleValueInternalName(CELL_ENCODING,
+            String.class));
+    if (cellEncoding != CellEncoding.NONE) {
+      int maxResolution = maxResolution(extractor, cellEncoding);
+      int minResolution = minResolution(extractor, maxResolution);
+      for (int resolution = minResolution; resolution <= maxResolution; resolution++) {
+        eventSchema.addEventProperty(EpProperties.stringEp(Labels.empty(),
+                SpatialGridConstants.cellIdKey(resolution), SO.Text));
+      }
+    }
+
+    CellAggregation cellAggregation = cellAggregation(extractor);
+    if (cellAggregation != CellAggregation.NONE) {
+      eventSchema.addEventProperty(EpProperties.longEp(Labels.empty(), SpatialGridConstants.GRID_CELL_COUNT_KEY,
+              SO.Number));
+    }
+    if (cellAggregation == CellAggregation.COUNT_AVERAGE) {
+      eventSchema.addEventProperty(EpProperties.doubleEp(Labels.empty(),
+              SpatialGridConstants.GRID_CELL_AVERAGE_KEY, SO.Number));
+    }
+
+    return eventSchema;
+  }
+
+  private CellAggregation cellAggregation(ProcessingElementParameterExtractor extractor) {
+    String selectedAggregation = extractor.selectedAlternativeInternalId(CELL_AGGREGATION);
+    if (AGGREGATION_COUNT.equals(selectedAggregation)) {
+      return CellAggregation.COUNT;
+    } else if (AGGREGATION_COUNT_AVERAGE.equals(selectedAggregation)) {
+      return CellAggregation.COUNT_AVERAGE;
+    } else {
+      return CellAggregation.NONE;
+    }
+  }
+
+  private int maxResolution(ProcessingElementParameterExtractor extractor, CellEncoding cellEncoding) {
+    return Math.max(1, Math.min(cellEncoding.getMaxResolution(),
+            extractor.singleValueParameter(MAX_RESOLUTION, Integer.class)));
+  }
+
+  private int minResolution(ProcessingElementParameterExtractor extractor, int maxResolution) {
+    return Math.max(1, Math.min(maxResolution, extractor.singleValueParameter(MIN_RESOLUTION, Integer.class)));
+  }
 }
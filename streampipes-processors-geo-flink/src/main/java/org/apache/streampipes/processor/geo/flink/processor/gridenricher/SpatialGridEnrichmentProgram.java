@@ -30,6 +30,14 @@ public class SpatialGridEnrichmentProgram extends AbstractGeoProgram<SpatialGrid
 
   @Override
   protected DataStream<Event> getApplicationLogic(DataStream<Event>[] messageStream) {
-    return messageStream[0].flatMap(new SpatialGridEnricher(params.getEnrichmentSettings()));
+    EnrichmentSettings settings = params.getEnrichmentSettings();
+    DataStream<Event> enriched = messageStream[0].flatMap(new SpatialGridEnricher(settings));
+
+    if (settings.getCellAggregation() == CellAggregation.NONE) {
+      return enriched;
+    }
+    return enriched
+            .keyBy(new CellKeySelector(settings))
+            .process(new SpatialCellAggregator(settings));
   }
 }
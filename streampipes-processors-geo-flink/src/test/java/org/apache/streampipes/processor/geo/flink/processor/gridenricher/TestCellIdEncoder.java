@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestCellIdEncoder {
+
+  @Test
+  public void testGeohashReference() {
+    assertEquals("u4pruydqqvj", encode(CellEncoding.GEOHASH, 57.64911, 10.40744, 11));
+    assertEquals("ezs42", encode(CellEncoding.GEOHASH, 42.6, -5.6, 5));
+    assertEquals("9q8yyk8ytp", encode(CellEncoding.GEOHASH, 37.7749, -122.4194, 10));
+  }
+
+  @Test
+  public void testGeohashBounds() {
+    assertEquals("0", encode(CellEncoding.GEOHASH, -90, -180, 1));
+    assertEquals("zzzzzzzzzzzz", encode(CellEncoding.GEOHASH, 90, 180, 12));
+    assertEquals("s00000000000", encode(CellEncoding.GEOHASH, 0, 0, 12));
+  }
+
+  @Test
+  public void testQuadkeyReference() {
+    // tile x = 3, y = 5 at level 3
+    assertEquals("213", encode(CellEncoding.QUADKEY, -50.0, -22.5, 3));
+    assertEquals("0", encode(CellEncoding.QUADKEY, 45.0, -90.0, 1));
+    assertEquals("3", encode(CellEncoding.QUADKEY, -45.0, 90.0, 1));
+    assertEquals("021230030", encode(CellEncoding.QUADKEY, 47.6062, -122.3321, 9));
+  }
+
+  @Test
+  public void testCoarserIdsArePrefixes() {
+    for (CellEncoding encoding : new CellEncoding[]{CellEncoding.GEOHASH, CellEncoding.QUADKEY}) {
+      String finest = encode(encoding, 49.0069, 8.4037, 12);
+      for (int resolution = 1; resolution < 12; resolution++) {
+        assertEquals(finest.substring(0, resolution), encode(encoding, 49.0069, 8.4037, resolution));
+      }
+    }
+  }
+
+  @Test
+  public void testNumericGeohashMatchesCharacters() {
+    long hash = CellIdEncoder.geohash(57.64911, 10.40744, 11);
+    StringBuilder decoded = new StringBuilder();
+    String alphabet = "0123456789bcdefghjkmnpqrstuvwxyz";
+    for (int i = 10; i >= 0; i--) {
+      decoded.append(alphabet.charAt((int) ((hash >>> (5 * i)) & 31L)));
+    }
+    assertEquals("u4pruydqqvj", decoded.toString());
+  }
+
+  private static String encode(CellEncoding encoding, double latitude, double longitude, int resolution) {
+    char[] buffer = new char[resolution];
+    CellIdEncoder.encode(encoding, latitude, longitude, resolution, buffer);
+    return new String(buffer);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processor.geo.flink.processor.gridenricher;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSpatialGridCalculator {
+
+  private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+  @Test
+  public void testReferenceCell() {
+    SpatialGridCalculator calculator = calculator(49.0, 8.0, 1000);
+
+    int cellY = calculator.cellY(48.9712);
+    int cellX = calculator.cellX(cellY, 8.0541);
+
+    assertEquals(4, cellY);
+    assertEquals(4, cellX);
+    assertEquals(48.973051, calculator.latitudeNW(cellY), 1e-6);
+    assertEquals(48.964068, calculator.latitudeSE(cellY), 1e-6);
+    assertEquals(8.041051, calculator.longitudeNW(cellY, cellX), 1e-6);
+    assertEquals(8.054735, calculator.longitudeSE(cellY, cellX), 1e-6);
+  }
+
+  @Test
+  public void testCellsKeepTheirSizeAwayFromTheStart() {
+    for (double latitude : new double[]{0.0, 41.0, 60.0, 75.0}) {
+      SpatialGridCalculator calculator = calculator(latitude, 10.0, 500);
+      int cellY = calculator.cellY(latitude - 0.001);
+      double rowCenter = (calculator.latitudeNW(cellY) + calculator.latitudeSE(cellY)) / 2;
+
+      double width = distance(rowCenter, calculator.longitudeNW(cellY, 1), rowCenter,
+              calculator.longitudeSE(cellY, 1));
+      double height = distance(calculator.latitudeNW(cellY), 10.0, calculator.latitudeSE(cellY), 10.0);
+
+      assertEquals(500, width, 2);
+      assertEquals(500, height, 2);
+    }
+  }
+
+  @Test
+  public void testPointsLieInTheirCell() {
+    SpatialGridCalculator calculator = calculator(60.0, 10.0, 250);
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      double latitude = 59.9 - random.nextDouble() * 0.5;
+      double longitude = 10.0 + random.nextDouble() * 0.5;
+      int cellY = calculator.cellY(latitude);
+      int cellX = calculator.cellX(cellY, longitude);
+
+      assertTrue(latitude <= calculator.latitudeNW(cellY) && latitude > calculator.latitudeSE(cellY));
+      assertTrue(longitude >= calculator.longitudeNW(cellY, cellX)
+              && longitude < calculator.longitudeSE(cellY, cellX));
+    }
+  }
+
+  @Test
+  public void testStartingCorner() {
+    SpatialGridCalculator calculator = calculator(49.0, 8.0, 1000);
+
+    int cellY = calculator.cellY(48.9999);
+    assertEquals(1, cellY);
+    assertEquals(1, calculator.cellX(cellY, 8.0001));
+    assertEquals(49.0, calculator.latitudeNW(1), 0.0);
+    assertEquals(8.0, calculator.longitudeNW(1, 1), 0.0);
+  }
+
+  @Test
+  public void testPointsBeforeTheStart() {
+    SpatialGridCalculator calculator = calculator(49.0, 8.0, 1000);
+
+    int cellY = calculator.cellY(49.0001);
+    assertEquals(0, cellY);
+    assertEquals(0, calculator.cellX(cellY, 7.9999));
+    assertEquals(-1, calculator.cellY(49.01));
+  }
+
+  private static SpatialGridCalculator calculator(double latitude, double longitude, int cellSize) {
+    return new SpatialGridCalculator(new EnrichmentSettings(latitude, longitude, cellSize, "lat", "lng"));
+  }
+
+  private static double distance(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+            * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+  }
+}
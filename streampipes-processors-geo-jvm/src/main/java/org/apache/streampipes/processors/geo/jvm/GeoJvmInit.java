@@ -28,6 +28,7 @@ import org.apache.streampipes.messaging.jms.SpJmsProtocolFactory;
 import org.apache.streampipes.messaging.kafka.SpKafkaProtocolFactory;
 import org.apache.streampipes.messaging.mqtt.SpMqttProtocolFactory;
 import org.apache.streampipes.processors.geo.jvm.config.GeoJvmConfig;
+import org.apache.streampipes.processors.geo.jvm.jts.processor.geofence.GeofenceController;
 import org.apache.streampipes.processors.geo.jvm.jts.processor.latLngToGeo.LatLngToGeoController;
 import org.apache.streampipes.processors.geo.jvm.jts.processor.setEPSG.SetEpsgController;
 import org.apache.streampipes.processors.geo.jvm.jts.processor.trajectory.CreateTrajectoryFromPointsController;
@@ -49,6 +50,7 @@ public class GeoJvmInit extends StandaloneModelSubmitter {
             .add(new SetEpsgController())
             .add(new LatLngToGeoController())
             .add(new CreateTrajectoryFromPointsController())
+            .add(new GeofenceController())
             .add(new SpeedCalculatorController())
             .add(new StaticDistanceCalculatorController());
 
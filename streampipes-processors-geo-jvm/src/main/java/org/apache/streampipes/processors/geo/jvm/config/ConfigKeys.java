@@ -23,4 +23,8 @@ public class ConfigKeys {
     final static String PORT = "SP_PORT";
     final static String SERVICE_NAME_KEY = "SP_SERVICE_NAME";
     final static String GOOGLE_API_KEY = "SP_GOOGLE_API_KEY";
+    final static String GEONAMES_FILE = "SP_GEONAMES_FILE";
+    final static String GEOCODING_CACHE_SIZE = "SP_GEOCODING_CACHE_SIZE";
+    final static String GEOCODING_CACHE_TTL_HOURS = "SP_GEOCODING_CACHE_TTL_HOURS";
+    final static String GEOCODING_CACHE_FILE = "SP_GEOCODING_CACHE_FILE";
 }
@@ -39,6 +39,11 @@ public enum GeoJvmConfig implements PeConfig {
     config.register(ConfigKeys.PORT, 8090, "Port for the pe esper");
 
     config.registerPassword(ConfigKeys.GOOGLE_API_KEY, "", "Google API Key for the routing service");
+    config.register(ConfigKeys.GEONAMES_FILE, System.getProperty("java.io.tmpdir") + "/streampipes/cities1000.zip",
+            "Location of the geonames data set used for reverse geocoding");
+    config.register(ConfigKeys.GEOCODING_CACHE_SIZE, 10000, "Maximum number of cached geocoding results");
+    config.register(ConfigKeys.GEOCODING_CACHE_TTL_HOURS, 24, "Time-to-live of cached geocoding results");
+    config.register(ConfigKeys.GEOCODING_CACHE_FILE, "", "File to persist cached geocoding results (disabled if empty)");
 
     config.register(ConfigKeys.SERVICE_NAME_KEY, service_name, "The name of the service");
 
@@ -63,6 +68,22 @@ public enum GeoJvmConfig implements PeConfig {
     return config.getString(ConfigKeys.GOOGLE_API_KEY);
   }
 
+  public String getGeonamesFile() {
+    return config.getString(ConfigKeys.GEONAMES_FILE);
+  }
+
+  public int getGeocodingCacheSize() {
+    return config.getInteger(ConfigKeys.GEOCODING_CACHE_SIZE);
+  }
+
+  public int getGeocodingCacheTtlHours() {
+    return config.getInteger(ConfigKeys.GEOCODING_CACHE_TTL_HOURS);
+  }
+
+  public String getGeocodingCacheFile() {
+    return config.getString(ConfigKeys.GEOCODING_CACHE_FILE);
+  }
+
   @Override
   public String getId() {
     return service_id;
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.helper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A read-only spatial index of polygonal zones, e.g., geofences. Zones are loaded once from a GeoJSON file
+ * (<code>.json</code> or <code>.geojson</code>) or from a text file with one WKT or hex encoded WKB geometry per
+ * line, optionally preceded by a zone id and a tab. The envelopes of all zones are kept in a {@link STRtree},
+ * candidates are tested against a {@link PreparedGeometry}.
+ * <p>
+ * Instances are not thread-safe, as prepared geometries build their point locators lazily.
+ */
+public class SpGeofenceIndex {
+
+  private static final int EPSG_WGS84 = 4326;
+  private static final String[] GEOJSON_ID_PROPERTIES = {"id", "name"};
+
+  private final GeometryFactory factory;
+  private final STRtree tree;
+  private final String[] zoneIds;
+  private final ZoneVisitor visitor;
+
+  private SpGeofenceIndex(GeometryFactory factory, List<String> zoneIds, List<PreparedGeometry> zones) {
+    this.factory = factory;
+    this.zoneIds = zoneIds.toArray(new String[0]);
+    this.tree = new STRtree();
+    for (int i = 0; i < zones.size(); i++) {
+      PreparedGeometry zone = zones.get(i);
+      tree.insert(zone.getGeometry().getEnvelopeInternal(), new Zone(i, zone));
+    }
+    this.tree.build();
+    this.visitor = new ZoneVisitor();
+  }
+
+  /**
+   * Loads all polygonal zones of a file. Zone coordinates are expected as longitude/latitude (EPSG:4326).
+   *
+   * @param file a GeoJSON file or a text file with one geometry per line
+   * @return the index of all polygonal zones in the file
+   * @throws IOException if the file cannot be read or does not contain any polygonal zone
+   */
+  public static SpGeofenceIndex load(Path file) throws IOException {
+    GeometryFactory factory = SpGeometryBuilder.getGeometryFactory(EPSG_WGS84);
+    List<String> zoneIds = new ArrayList<>();
+    List<PreparedGeometry> zones = new ArrayList<>();
+
+    String fileName = file.getFileName().toString().toLowerCase();
+    if (fileName.endsWith(".json") || fileName.endsWith(".geojson")) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        readGeoJson(new JsonParser().parse(reader), factory, zoneIds, zones);
+      } catch (RuntimeException e) {
+        throw new IOException("Invalid GeoJSON file " + file + ": " + e.getMessage(), e);
+      }
+    } else {
+      readGeometryLines(file, zoneIds, zones);
+    }
+
+    if (zones.isEmpty()) {
+      throw new IOException("No polygonal zones found in " + file);
+    }
+    return new SpGeofenceIndex(factory, zoneIds, zones);
+  }
+
+  /**
+   * Collects the zones that cover the given position into the buffer.
+   *
+   * @param buffer receives the zone numbers in ascending order, grown if needed
+   * @return the number of zones that cover the position
+   */
+  public int locate(double longitude, double latitude, ZoneBuffer buffer) {
+    Point point = factory.createPoint(new Coordinate(longitude, latitude));
+    visitor.reset(point, buffer);
+    tree.query(point.getEnvelopeInternal(), visitor);
+    buffer.sort();
+    return buffer.size();
+  }
+
+  public String getZoneId(int zone) {
+    return zoneIds[zone];
+  }
+
+  public int size() {
+    return zoneIds.length;
+  }
+
+  private static void readGeometryLines(Path file, List<String> zoneIds, List<PreparedGeometry> zones)
+          throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        int separator = line.indexOf('\t');
+        String id = separator > 0 ? line.substring(0, separator).trim() : String.valueOf(lineNumber);
+        String geometry = separator > 0 ? line.substring(separator + 1).trim() : line;
+        addZone(id, SpGeometryBuilder.createSPGeom(geometry, EPSG_WGS84), zoneIds, zones);
+      }
+    }
+  }
+
+  private static void readGeoJson(JsonElement element, GeometryFactory factory, List<String> zoneIds,
+                                  List<PreparedGeometry> zones) {
+    JsonObject object = element.getAsJsonObject();
+    String type = object.get("type").getAsString();
+    if ("FeatureCollection".equals(type)) {
+      JsonArray features = object.getAsJsonArray("features");
+      for (int i = 0; i < features.size(); i++) {
+        JsonObject feature = features.get(i).getAsJsonObject();
+        addZone(featureId(feature, zoneIds.size()), toGeometry(feature.get("geometry"), factory), zoneIds, zones);
+      }
+    } else if ("Feature".equals(type)) {
+      addZone(featureId(object, 0), toGeometry(object.get("geometry"), factory), zoneIds, zones);
+    } else {
+      addZone("0", toGeometry(object, factory), zoneIds, zones);
+    }
+  }
+
+  private static String featureId(JsonObject feature, int position) {
+    if (feature.has("id") && !feature.get("id").isJsonNull()) {
+      return feature.get("id").getAsString();
+    }
+    JsonElement properties = feature.get("properties");
+    if (properties != null && properties.isJsonObject()) {
+      for (String property : GEOJSON_ID_PROPERTIES) {
+        JsonElement value = properties.getAsJsonObject().get(property);
+        if (value != null && value.isJsonPrimitive()) {
+          return value.getAsString();
+        }
+      }
+    }
+    return String.valueOf(position);
+  }
+
+  private static Geometry toGeometry(JsonElement element, GeometryFactory factory) {
+    if (element == null || element.isJsonNull()) {
+      return factory.createPoint();
+    }
+    JsonObject geometry = element.getAsJsonObject();
+    String type = geometry.get("type").getAsString();
+    if ("Polygon".equals(type)) {
+      return toPolygon(geometry.getAsJsonArray("coordinates"), factory);
+    } else if ("MultiPolygon".equals(type)) {
+      JsonArray polygons = geometry.getAsJsonArray("coordinates");
+      Polygon[] result = new Polygon[polygons.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = toPolygon(polygons.get(i).getAsJsonArray(), factory);
+      }
+      return factory.createMultiPolygon(result);
+    }
+    // points and lines cannot contain positions
+    return factory.createPoint();
+  }
+
+  private static Polygon toPolygon(JsonArray rings, GeometryFactory factory) {
+    LinearRing shell = toRing(rings.get(0).getAsJsonArray(), factory);
+    LinearRing[] holes = new LinearRing[rings.size() - 1];
+    for (int i = 0; i < holes.length; i++) {
+      holes[i] = toRing(rings.get(i + 1).getAsJsonArray(), factory);
+    }
+    return factory.createPolygon(shell, holes);
+  }
+
+  private static LinearRing toRing(JsonArray positions, GeometryFactory factory) {
+    Coordinate[] coordinates = new Coordinate[positions.size()];
+    for (int i = 0; i < coordinates.length; i++) {
+      JsonArray position = positions.get(i).getAsJsonArray();
+      coordinates[i] = new Coordinate(position.get(0).getAsDouble(), position.get(1).getAsDouble());
+    }
+    return factory.createLinearRing(coordinates);
+  }
+
+  private static void addZone(String id, Geometry geometry, List<String> zoneIds, List<PreparedGeometry> zones) {
+    if (geometry instanceof Polygonal && !geometry.isEmpty()) {
+      zoneIds.add(id);
+      zones.add(PreparedGeometryFactory.prepare(geometry));
+    }
+  }
+
+  private static class Zone {
+
+    private final int number;
+    private final PreparedGeometry geometry;
+
+    Zone(int number, PreparedGeometry geometry) {
+      this.number = number;
+      this.geometry = geometry;
+    }
+  }
+
+  private static class ZoneVisitor implements ItemVisitor {
+
+    private Point point;
+    private ZoneBuffer buffer;
+
+    void reset(Point point, ZoneBuffer buffer) {
+      this.point = point;
+      this.buffer = buffer;
+      buffer.clear();
+    }
+
+    @Override
+    public void visitItem(Object item) {
+      Zone zone = (Zone) item;
+      if (zone.geometry.covers(point)) {
+        buffer.add(zone.number);
+      }
+    }
+  }
+
+  /**
+   * A reusable, growable list of zone numbers.
+   */
+  public static class ZoneBuffer {
+
+    private int[] zones = new int[8];
+    private int size;
+
+    public int get(int index) {
+      return zones[index];
+    }
+
+    public int size() {
+      return size;
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    void add(int zone) {
+      if (size == zones.length) {
+        zones = Arrays.copyOf(zones, size * 2);
+      }
+      zones[size++] = zone;
+    }
+
+    void sort() {
+      Arrays.sort(zones, 0, size);
+    }
+  }
+}
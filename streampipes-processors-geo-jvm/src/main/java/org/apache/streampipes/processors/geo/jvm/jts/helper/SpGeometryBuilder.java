@@ -20,8 +20,13 @@ package org.apache.streampipes.processors.geo.jvm.jts.helper;
 
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
 import org.locationtech.jts.io.WKTReader;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class SpGeometryBuilder {
 
   final static double LONGITUDE_MIN = -180.00;
@@ -29,6 +34,11 @@ public class SpGeometryBuilder {
   final static double LATITUDE_MIN = -90;
   final static double LATITUDE_MAX = 90;
 
+  // factories are immutable and shared, readers are bound to a factory and not thread-safe
+  private static final Map<Integer, GeometryFactory> FACTORIES = new ConcurrentHashMap<>();
+  private static final ThreadLocal<Map<Integer, WKTReader>> WKT_READERS = ThreadLocal.withInitial(HashMap::new);
+  private static final ThreadLocal<Map<Integer, WKBReader>> WKB_READERS = ThreadLocal.withInitial(HashMap::new);
+
 
   /**
    * Creates a {@link org.locationtech.jts.geom.Point} from <code>Latitude</code> and <code> Longitude</code> values
@@ -40,8 +50,7 @@ public class SpGeometryBuilder {
    */
   public static Point createSPGeom(Double lng, Double lat, Integer epsg) {
     Point point;
-    PrecisionModel precisionModel = getPrecisionModel(epsg);
-    GeometryFactory geomFactory = new GeometryFactory(precisionModel, epsg);
+    GeometryFactory geomFactory = getGeometryFactory(epsg);
 
     //check if value is not null due missing stream value
     if ((lng != null) && (lat != null)) {
@@ -64,25 +73,27 @@ public class SpGeometryBuilder {
 
 
   /**
-   * creates a Geometry from a wkt_string. string has to be valid and is not be checked. If invalid, an empty point
-   * geom is returned. method calls getPrecision method and creates a jts geometry factory and a WKT-parser object.
-   * from the wktString the
+   * creates a Geometry from a wkt_string or a hex encoded wkb_string (see {@link SpGeometryWriter}). string has to
+   * be valid and is not be checked. If invalid, an empty point geom is returned. The geometry factory and the
+   * WKT/WKB-parser objects are cached per epsg code (and thread).
    *
-   * @param wktString Well-known text representation of the input geometry
+   * @param wktString Well-known text or hex encoded well-known binary representation of the input geometry
    * @param epsg      EPSG Code representing SRID
    * @return {@link org.locationtech.jts.geom.Geometry}. An empty point geometry is created if {@link org.locationtech.jts.io.ParseException} due invalid WKT-String
    */
   public static Geometry createSPGeom(String wktString, Integer epsg) {
 
     Geometry geom;
-    PrecisionModel prec = getPrecisionModel(epsg);
-
-    GeometryFactory geomFactory = new GeometryFactory(prec, epsg);
-    WKTReader wktReader = new WKTReader(geomFactory);
+    GeometryFactory geomFactory = getGeometryFactory(epsg);
 
     try {
-      geom = wktReader.read(wktString);
-    } catch (ParseException e) {
+      if (isHexWkb(wktString)) {
+        geom = WKB_READERS.get().computeIfAbsent(epsg, key -> new WKBReader(geomFactory))
+                .read(WKBReader.hexToBytes(wktString));
+      } else {
+        geom = WKT_READERS.get().computeIfAbsent(epsg, key -> new WKTReader(geomFactory)).read(wktString);
+      }
+    } catch (ParseException | RuntimeException e) {
       // if wktString is invalid, an empty point geometry will be created as returnedGeom
       geom = geomFactory.createPoint();
     }
@@ -91,6 +102,38 @@ public class SpGeometryBuilder {
   }
 
 
+  /**
+   * Returns the shared {@link org.locationtech.jts.geom.GeometryFactory} of an EPSG code, which uses the
+   * precision model of the EPSG code.
+   *
+   * @param epsg EPSG Code representing SRID
+   * @return {@link org.locationtech.jts.geom.GeometryFactory}
+   */
+  public static GeometryFactory getGeometryFactory(Integer epsg) {
+    return FACTORIES.computeIfAbsent(epsg, key -> new GeometryFactory(getPrecisionModel(key), key));
+  }
+
+
+  /**
+   * Checks whether a string is a hex encoded WKB geometry, which starts with the byte order (00 or 01).
+   *
+   * @param geometry WKT or hex encoded WKB string
+   * @return true if the string only consists of an even number of hex digits
+   */
+  static boolean isHexWkb(String geometry) {
+    int length = geometry.length();
+    if (length < 10 || length % 2 != 0 || geometry.charAt(0) != '0') {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (Character.digit(geometry.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
   /**
    * Is in wgs coordinate range boolean.
    *
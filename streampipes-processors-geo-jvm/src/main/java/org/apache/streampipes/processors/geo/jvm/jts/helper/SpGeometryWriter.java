@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.helper;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTWriter;
+
+public class SpGeometryWriter {
+
+  /**
+   * Output representation of a geometry in an event.
+   */
+  public enum Format {
+    WKT, WKB
+  }
+
+  // writers keep internal buffers and are not thread-safe
+  private static final ThreadLocal<WKTWriter> WKT_WRITER = ThreadLocal.withInitial(WKTWriter::new);
+  private static final ThreadLocal<WKBWriter> WKB_WRITER =
+      ThreadLocal.withInitial(() -> new WKBWriter(2, ByteOrderValues.LITTLE_ENDIAN));
+
+
+  /**
+   * Writes a geometry as well-known text or as hex encoded well-known binary. Both representations can be read by
+   * {@link SpGeometryBuilder#createSPGeom(String, Integer)}.
+   *
+   * @param geom   {@link org.locationtech.jts.geom.Geometry} to write
+   * @param format output representation
+   * @return WKT or hex encoded WKB string
+   */
+  public static String write(Geometry geom, Format format) {
+    if (format == Format.WKB) {
+      return WKBWriter.toHex(WKB_WRITER.get().write(geom));
+    } else {
+      return WKT_WRITER.get().write(geom);
+    }
+  }
+}
@@ -24,7 +24,10 @@ public class SpTrajectoryBuilder {
 
     private int numberSubPoints;
     private String description;
-    private CoordinateList coordinateList;
+    // ring buffer of the sub-points, the oldest point is at index head
+    private CoordinateXYM[] coordinates;
+    private int head;
+    private int size;
 
     /**
      * Constructor of SpTrajectory
@@ -34,7 +37,7 @@ public class SpTrajectoryBuilder {
     public SpTrajectoryBuilder(int numberSubPoints, String description) {
         this.numberSubPoints = numberSubPoints;
         this.description = description;
-        this.coordinateList = new CoordinateList();
+        this.coordinates = new CoordinateXYM[numberSubPoints];
     }
 
 
@@ -52,10 +55,11 @@ public class SpTrajectoryBuilder {
      * @param m stores an extra integer to the sub-point of a trajectory {@link org.locationtech.jts.geom.CoordinateXYM#M}
      */
     public void addPointToTrajectory(Point point, Integer m) {
-        coordinateList.add(createSingleTrajectoryCoordinate(point, m));
-        if (coordinateList.size() > numberSubPoints) {
+        if (size == numberSubPoints) {
             removeOldestPoint();
         }
+        coordinates[(head + size) % numberSubPoints] = createSingleTrajectoryCoordinate(point, m);
+        size++;
     }
 
 
@@ -69,10 +73,13 @@ public class SpTrajectoryBuilder {
      */
     public LineString returnAsLineString(GeometryFactory factory){
         LineString geom;
-        if ( coordinateList.size() > 1) {
+        if (size > 1) {
             //only linestring if more than 2 points.
-            // reverse output of linestring. so last added point is first
-            geom = factory.createLineString(coordinateList.toCoordinateArray());
+            Coordinate[] lineCoordinates = new Coordinate[size];
+            for (int i = 0; i < size; i++) {
+                lineCoordinates[i] = coordinates[(head + i) % numberSubPoints];
+            }
+            geom = factory.createLineString(lineCoordinates);
         } else {
             geom = factory.createLineString();
         }
@@ -81,10 +88,12 @@ public class SpTrajectoryBuilder {
     }
 
     /**
-     * removes the oldest point (Index 0) from the CoordinateList object.
+     * removes the oldest point from the ring buffer by advancing its head.
      */
     private void removeOldestPoint(){
-        coordinateList.remove(0);
+        coordinates[head] = null;
+        head = (head + 1) % numberSubPoints;
+        size--;
     }
 
     /**
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.processor.geofence;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeofenceIndex;
+import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
+import org.apache.streampipes.wrapper.routing.SpOutputCollector;
+import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+public class Geofence implements EventProcessor<GeofenceParameter>, GeofenceTracker.TransitionListener {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Geofence.class);
+
+  private SpGeofenceIndex index;
+  private SpGeofenceIndex.ZoneBuffer zones;
+  private GeofenceTracker<EventKey> tracker;
+
+  private String latitudeFieldName;
+  private String longitudeFieldName;
+  private String timestampFieldName;
+  private String[] entityFieldNames;
+
+  private Event currentEvent;
+  private SpOutputCollector currentCollector;
+
+  private long checks;
+  private long transitions;
+
+  @Override
+  public void onInvocation(GeofenceParameter params, SpOutputCollector spOutputCollector,
+                           EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
+    try {
+      this.index = SpGeofenceIndex.load(Paths.get(params.getGeofenceFile()));
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not load geofences from " + params.getGeofenceFile() + ": "
+              + e.getMessage());
+    }
+    LOG.info("Loaded {} geofences from {}", index.size(), params.getGeofenceFile());
+
+    this.zones = new SpGeofenceIndex.ZoneBuffer();
+    this.tracker = new GeofenceTracker<>(params.getDwellSeconds() * 1000L,
+            params.getIdleTimeoutSeconds() * 1000L);
+    this.latitudeFieldName = params.getLatitude();
+    this.longitudeFieldName = params.getLongitude();
+    this.timestampFieldName = params.getTimestamp();
+    this.entityFieldNames = params.getEntityFieldNames().toArray(new String[0]);
+  }
+
+  @Override
+  public void onEvent(Event in, SpOutputCollector out) throws SpRuntimeException {
+    double latitude = in.getFieldBySelector(latitudeFieldName).getAsPrimitive().getAsDouble();
+    double longitude = in.getFieldBySelector(longitudeFieldName).getAsPrimitive().getAsDouble();
+    long timestamp = in.getFieldBySelector(timestampFieldName).getAsPrimitive().getAsLong();
+
+    index.locate(longitude, latitude, zones);
+    checks++;
+
+    this.currentEvent = in;
+    this.currentCollector = out;
+    tracker.update(EventKey.of(in, entityFieldNames), zones, timestamp, this);
+    this.currentEvent = null;
+    this.currentCollector = null;
+  }
+
+  @Override
+  public void onTransition(GeofenceTracker.Transition transition, int zone, long durationMillis) {
+    Event outEvent = new Event(new HashMap<>(), currentEvent.getSourceInfo(), currentEvent.getSchemaInfo());
+    currentEvent.getFields().forEach((key, value) -> outEvent.addField(value));
+    outEvent.addField(GeofenceController.TRANSITION_RUNTIME, transition.name());
+    outEvent.addField(GeofenceController.GEOFENCE_ID_RUNTIME, index.getZoneId(zone));
+    outEvent.addField(GeofenceController.DURATION_RUNTIME, durationMillis);
+    transitions++;
+    currentCollector.collect(outEvent);
+  }
+
+  @Override
+  public void onDetach() throws SpRuntimeException {
+    LOG.info("Geofence detached, checked positions: {}, transitions: {}, entities in geofences: {}, evicted idle "
+            + "entities: {}", checks, transitions, tracker.size(), tracker.getEvictedEntities());
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.processor.geofence;
+
+import org.apache.streampipes.model.DataProcessorType;
+import org.apache.streampipes.model.graph.DataProcessorDescription;
+import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
+import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
+import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
+import org.apache.streampipes.sdk.helpers.*;
+import org.apache.streampipes.sdk.utils.Assets;
+import org.apache.streampipes.vocabulary.Geo;
+import org.apache.streampipes.vocabulary.SO;
+import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
+import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcessingDeclarer;
+
+import java.util.List;
+
+public class GeofenceController extends StandaloneEventProcessingDeclarer<GeofenceParameter> {
+
+  public final static String LAT_KEY = "latitude-key";
+  public final static String LNG_KEY = "longitude-key";
+  public final static String TIMESTAMP_KEY = "timestamp-key";
+  public final static String ENTITY_KEY = "entity-key";
+  public final static String GEOFENCE_FILE_KEY = "geofence-file-key";
+  public final static String DWELL_KEY = "dwell-key";
+  public final static String IDLE_TIMEOUT_KEY = "idle-timeout-key";
+
+  public final static String TRANSITION_KEY = "transition-key";
+  public final static String TRANSITION_RUNTIME = "geofenceTransition";
+  public final static String GEOFENCE_ID_KEY = "geofence-id-key";
+  public final static String GEOFENCE_ID_RUNTIME = "geofenceId";
+  public final static String DURATION_KEY = "duration-key";
+  public final static String DURATION_RUNTIME = "geofenceDuration";
+
+
+  @Override
+  public DataProcessorDescription declareModel() {
+    return ProcessingElementBuilder
+        .create("org.apache.streampipes.processors.geo.jvm.jts.processor.geofence")
+        .category(DataProcessorType.GEO)
+        .withAssets(Assets.DOCUMENTATION)
+        .withLocales(Locales.EN)
+        .requiredStream(
+            StreamRequirementsBuilder
+                .create()
+                .requiredPropertyWithUnaryMapping(
+                    EpRequirements.domainPropertyReq(Geo.lat),
+                    Labels.withId(LAT_KEY), PropertyScope.MEASUREMENT_PROPERTY
+                )
+                .requiredPropertyWithUnaryMapping(
+                    EpRequirements.domainPropertyReq(Geo.lng),
+                    Labels.withId(LNG_KEY), PropertyScope.MEASUREMENT_PROPERTY
+                )
+                .requiredPropertyWithUnaryMapping(
+                    EpRequirements.timestampReq(),
+                    Labels.withId(TIMESTAMP_KEY), PropertyScope.HEADER_PROPERTY
+                )
+                .requiredPropertyWithNaryMapping(
+                    EpRequirements.anyProperty(),
+                    Labels.withId(ENTITY_KEY), PropertyScope.DIMENSION_PROPERTY
+                )
+                .build()
+        )
+        .requiredTextParameter(
+            Labels.withId(GEOFENCE_FILE_KEY)
+        )
+        .requiredIntegerParameter(
+            Labels.withId(DWELL_KEY), 60
+        )
+        .requiredIntegerParameter(
+            Labels.withId(IDLE_TIMEOUT_KEY), 3600
+        )
+        .outputStrategy(OutputStrategies.append(
+            EpProperties.stringEp(
+                Labels.withId(TRANSITION_KEY),
+                TRANSITION_RUNTIME,
+                SO.Text
+            ),
+            EpProperties.stringEp(
+                Labels.withId(GEOFENCE_ID_KEY),
+                GEOFENCE_ID_RUNTIME,
+                SO.Text
+            ),
+            EpProperties.longEp(
+                Labels.withId(DURATION_KEY),
+                DURATION_RUNTIME,
+                SO.Number
+            ))
+        )
+        .build();
+  }
+
+
+  @Override
+  public ConfiguredEventProcessor<GeofenceParameter> onInvocation(DataProcessorInvocation graph, ProcessingElementParameterExtractor extractor) {
+
+    String lat = extractor.mappingPropertyValue(LAT_KEY);
+    String lng = extractor.mappingPropertyValue(LNG_KEY);
+    String timestamp = extractor.mappingPropertyValue(TIMESTAMP_KEY);
+    List<String> entityFieldNames = extractor.mappingPropertyValues(ENTITY_KEY);
+
+    String geofenceFile = extractor.singleValueParameter(GEOFENCE_FILE_KEY, String.class);
+    Integer dwellSeconds = extractor.singleValueParameter(DWELL_KEY, Integer.class);
+    Integer idleTimeoutSeconds = extractor.singleValueParameter(IDLE_TIMEOUT_KEY, Integer.class);
+
+    GeofenceParameter params = new GeofenceParameter(graph, lat, lng, timestamp, entityFieldNames, geofenceFile,
+        dwellSeconds, idleTimeoutSeconds);
+
+    return new ConfiguredEventProcessor<>(params, Geofence::new);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.processor.geofence;
+
+import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
+
+import java.util.List;
+
+public class GeofenceParameter extends EventProcessorBindingParams {
+
+  private String latitude;
+  private String longitude;
+  private String timestamp;
+  private List<String> entityFieldNames;
+  private String geofenceFile;
+  private Integer dwellSeconds;
+  private Integer idleTimeoutSeconds;
+
+  public GeofenceParameter(DataProcessorInvocation graph, String latitude, String longitude, String timestamp,
+                           List<String> entityFieldNames, String geofenceFile, Integer dwellSeconds,
+                           Integer idleTimeoutSeconds) {
+    super(graph);
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.timestamp = timestamp;
+    this.entityFieldNames = entityFieldNames;
+    this.geofenceFile = geofenceFile;
+    this.dwellSeconds = dwellSeconds;
+    this.idleTimeoutSeconds = idleTimeoutSeconds;
+  }
+
+  public String getLatitude() {
+    return latitude;
+  }
+
+  public String getLongitude() {
+    return longitude;
+  }
+
+  public String getTimestamp() {
+    return timestamp;
+  }
+
+  public List<String> getEntityFieldNames() {
+    return entityFieldNames;
+  }
+
+  public String getGeofenceFile() {
+    return geofenceFile;
+  }
+
+  public Integer getDwellSeconds() {
+    return dwellSeconds;
+  }
+
+  public Integer getIdleTimeoutSeconds() {
+    return idleTimeoutSeconds;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.processor.geofence;
+
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeofenceIndex;
+import org.apache.streampipes.processors.geo.jvm.processor.util.IdleEntityMap;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the zones each entity is currently in and reports when an entity enters a zone, leaves it or stays in
+ * it for longer than the dwell time. Only entities inside at least one zone are kept; entities that did not
+ * report a position for longer than the idle timeout (in event time) are evicted without an exit.
+ *
+ * @param <K> the type of the entity key
+ */
+public class GeofenceTracker<K> {
+
+  public enum Transition {
+    ENTER,
+    EXIT,
+    DWELL
+  }
+
+  public interface TransitionListener {
+    void onTransition(Transition transition, int zone, long durationMillis);
+  }
+
+  private static final int[] NO_ZONES = new int[0];
+  private static final long[] NO_TIMES = new long[0];
+  private static final boolean[] NO_FLAGS = new boolean[0];
+
+  private final long dwellMillis;
+  private final IdleEntityMap<K, Membership> memberships;
+
+  private int[] scratchZones = new int[8];
+  private long[] scratchEnteredAt = new long[8];
+  private boolean[] scratchDwelled = new boolean[8];
+
+  /**
+   * @param dwellMillis       time inside a zone after which a dwell transition is reported, 0 to disable
+   * @param idleTimeoutMillis time after which a silent entity is evicted, 0 to keep all entities
+   */
+  public GeofenceTracker(long dwellMillis, long idleTimeoutMillis) {
+    this.dwellMillis = dwellMillis;
+    this.memberships = new IdleEntityMap<>(idleTimeoutMillis, membership -> membership.lastTimestamp);
+  }
+
+  /**
+   * Compares the zones that currently contain an entity with its previous zones and reports all transitions.
+   *
+   * @param current the zones that contain the current position in ascending order
+   */
+  public void update(K key, SpGeofenceIndex.ZoneBuffer current, long timestamp, TransitionListener listener) {
+    Membership membership = memberships.get(key);
+
+    if (membership == null && current.size() == 0) {
+      memberships.evictIdleEntities(timestamp);
+      return;
+    }
+    if (membership == null) {
+      membership = new Membership();
+      memberships.put(key, membership);
+    }
+
+    ensureScratchCapacity(current.size());
+    int previousSize = membership.zones.length;
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    boolean changed = false;
+
+    while (i < previousSize || j < current.size()) {
+      if (j == current.size() || (i < previousSize && membership.zones[i] < current.get(j))) {
+        listener.onTransition(Transition.EXIT, membership.zones[i], duration(membership.enteredAt[i], timestamp));
+        changed = true;
+        i++;
+      } else if (i == previousSize || current.get(j) < membership.zones[i]) {
+        listener.onTransition(Transition.ENTER, current.get(j), 0L);
+        scratchZones[size] = current.get(j);
+        scratchEnteredAt[size] = timestamp;
+        scratchDwelled[size++] = false;
+        changed = true;
+        j++;
+      } else {
+        boolean dwelled = membership.dwelled[i];
+        long duration = duration(membership.enteredAt[i], timestamp);
+        if (!dwelled && dwellMillis > 0 && duration >= dwellMillis) {
+          listener.onTransition(Transition.DWELL, membership.zones[i], duration);
+          membership.dwelled[i] = true;
+          dwelled = true;
+        }
+        scratchZones[size] = membership.zones[i];
+        scratchEnteredAt[size] = membership.enteredAt[i];
+        scratchDwelled[size++] = dwelled;
+        i++;
+        j++;
+      }
+    }
+
+    membership.lastTimestamp = timestamp;
+    if (size == 0) {
+      memberships.remove(key);
+    } else if (changed) {
+      membership.zones = Arrays.copyOf(scratchZones, size);
+      membership.enteredAt = Arrays.copyOf(scratchEnteredAt, size);
+      membership.dwelled = Arrays.copyOf(scratchDwelled, size);
+    }
+    memberships.evictIdleEntities(timestamp);
+  }
+
+  public int size() {
+    return memberships.size();
+  }
+
+  public long getEvictedEntities() {
+    return memberships.getEvictedEntities();
+  }
+
+  private long duration(long enteredAt, long timestamp) {
+    return Math.max(0L, timestamp - enteredAt);
+  }
+
+  private void ensureScratchCapacity(int capacity) {
+    if (scratchZones.length < capacity) {
+      scratchZones = new int[capacity];
+      scratchEnteredAt = new long[capacity];
+      scratchDwelled = new boolean[capacity];
+    }
+  }
+
+  private static class Membership {
+
+    private int[] zones = NO_ZONES;
+    private long[] enteredAt = NO_TIMES;
+    private boolean[] dwelled = NO_FLAGS;
+    private long lastTimestamp;
+  }
+}
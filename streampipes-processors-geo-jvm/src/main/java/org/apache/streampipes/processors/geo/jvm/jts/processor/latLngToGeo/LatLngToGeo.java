@@ -19,6 +19,7 @@
 package org.apache.streampipes.processors.geo.jvm.jts.processor.latLngToGeo;
 
 import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryBuilder;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.locationtech.jts.geom.Point;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
@@ -33,6 +34,8 @@ public class LatLngToGeo implements EventProcessor<LatLngToGeoParameter> {
   private String latitude;
   private String longitude;
   private String epsg_code;
+  private SpGeometryWriter.Format format;
+  private String geomRuntimeName;
 
 
   @Override
@@ -42,6 +45,8 @@ public class LatLngToGeo implements EventProcessor<LatLngToGeoParameter> {
     this.latitude = params.getLat();
     this.longitude = params.getLng();
     this.epsg_code = params.getEpsg();
+    this.format = params.getFormat();
+    this.geomRuntimeName = LatLngToGeoController.getOutputRuntimeName(format);
 
   }
 
@@ -55,7 +60,7 @@ public class LatLngToGeo implements EventProcessor<LatLngToGeoParameter> {
     Point geom = SpGeometryBuilder.createSPGeom(lng, lat, epsg);
 
     if (!geom.isEmpty()) {
-      in.addField(LatLngToGeoController.WKT_RUNTIME, geom.toString());
+      in.addField(geomRuntimeName, SpGeometryWriter.write(geom, format));
       out.collect(in);
     } else {
       LOG.warn("An empty point geometry in " + LatLngToGeoController.EPA_NAME + " is created due" +
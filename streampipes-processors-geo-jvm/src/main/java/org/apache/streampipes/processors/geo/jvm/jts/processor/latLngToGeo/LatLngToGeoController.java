@@ -18,29 +18,34 @@
 
 package org.apache.streampipes.processors.geo.jvm.jts.processor.latLngToGeo;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.container.api.ResolvesContainerProvidedOutputStrategy;
 import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.schema.EventSchema;
 import org.apache.streampipes.model.schema.PropertyScope;
-import org.apache.streampipes.sdk.builder.PrimitivePropertyBuilder;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
 import org.apache.streampipes.sdk.helpers.*;
 import org.apache.streampipes.sdk.utils.Assets;
-import org.apache.streampipes.sdk.utils.Datatypes;
 import org.apache.streampipes.vocabulary.Geo;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcessingDeclarer;
 
-public class LatLngToGeoController extends StandaloneEventProcessingDeclarer<LatLngToGeoParameter> {
+public class LatLngToGeoController extends StandaloneEventProcessingDeclarer<LatLngToGeoParameter>
+    implements ResolvesContainerProvidedOutputStrategy<DataProcessorInvocation, ProcessingElementParameterExtractor> {
 
 
   public final static String LAT_KEY = "latitude-key";
   public final static String LNG_KEY = "longitude-key";
   public final static String EPSG_KEY = "epsg-key";
+  public final static String FORMAT_KEY = "format-key";
 
   public final static String WKT_RUNTIME = "geomWKT";
+  public final static String WKB_RUNTIME = "geomWKB";
   public final static String EPA_NAME = "Create Point from Latitude and Longitude";
 
   @Override
@@ -63,13 +68,10 @@ public class LatLngToGeoController extends StandaloneEventProcessingDeclarer<Lat
                     Labels.withId(EPSG_KEY), PropertyScope.MEASUREMENT_PROPERTY)
                 .build()
         )
-        .outputStrategy(
-            OutputStrategies.append(
-                PrimitivePropertyBuilder
-                    .create(Datatypes.String, WKT_RUNTIME)
-                    .domainProperty("http://www.opengis.net/ont/geosparql#Geometry")
-                    .build())
-        )
+        .requiredSingleValueSelection(Labels.withId(FORMAT_KEY),
+            Options.from(new Tuple2<>("WKT", SpGeometryWriter.Format.WKT.name()),
+                new Tuple2<>("WKB (hex)", SpGeometryWriter.Format.WKB.name())))
+        .outputStrategy(OutputStrategies.customTransformation())
         .build();
   }
 
@@ -79,9 +81,36 @@ public class LatLngToGeoController extends StandaloneEventProcessingDeclarer<Lat
     String lat = extractor.mappingPropertyValue(LAT_KEY);
     String lng = extractor.mappingPropertyValue(LNG_KEY);
     String epsg = extractor.mappingPropertyValue(EPSG_KEY);
+    SpGeometryWriter.Format format = getFormat(extractor);
 
-    LatLngToGeoParameter params = new LatLngToGeoParameter(graph, epsg, lat, lng);
+    LatLngToGeoParameter params = new LatLngToGeoParameter(graph, epsg, lat, lng, format);
 
     return new ConfiguredEventProcessor<>(params, LatLngToGeo::new);
   }
+
+  @Override
+  public EventSchema resolveOutputStrategy(DataProcessorInvocation processingElement, ProcessingElementParameterExtractor extractor) throws SpRuntimeException {
+    EventSchema eventSchema = processingElement.getInputStreams().get(0).getEventSchema();
+    String runtimeName = getOutputRuntimeName(getFormat(extractor));
+
+    eventSchema.addEventProperty(EpProperties.stringEp(Labels.from(runtimeName, "Point geometry", ""), runtimeName,
+        "http://www.opengis.net/ont/geosparql#Geometry"));
+
+    return eventSchema;
+  }
+
+  /**
+   * The name of the appended geometry field reflects its format, as WKT and WKB values can't be told apart by
+   * their semantic type.
+   *
+   * @param format output format of the geometry
+   * @return {@link #WKT_RUNTIME} or {@link #WKB_RUNTIME}
+   */
+  public static String getOutputRuntimeName(SpGeometryWriter.Format format) {
+    return format == SpGeometryWriter.Format.WKB ? WKB_RUNTIME : WKT_RUNTIME;
+  }
+
+  private static SpGeometryWriter.Format getFormat(ProcessingElementParameterExtractor extractor) {
+    return SpGeometryWriter.Format.valueOf(extractor.selectedSingleValueInternalName(FORMAT_KEY, String.class));
+  }
 }
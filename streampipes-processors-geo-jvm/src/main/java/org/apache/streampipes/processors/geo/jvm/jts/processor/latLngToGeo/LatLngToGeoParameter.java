@@ -19,6 +19,7 @@
 package org.apache.streampipes.processors.geo.jvm.jts.processor.latLngToGeo;
 
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 public class LatLngToGeoParameter extends EventProcessorBindingParams {
@@ -26,12 +27,15 @@ public class LatLngToGeoParameter extends EventProcessorBindingParams {
   private String epsg;
   private String lat;
   private String lng;
+  private SpGeometryWriter.Format format;
 
-  public LatLngToGeoParameter(DataProcessorInvocation graph, String epsg, String lat, String lng) {
+  public LatLngToGeoParameter(DataProcessorInvocation graph, String epsg, String lat, String lng,
+                              SpGeometryWriter.Format format) {
     super(graph);
     this.epsg = epsg;
     this.lat = lat;
     this.lng = lng;
+    this.format = format;
   }
 
 
@@ -46,4 +50,8 @@ public class LatLngToGeoParameter extends EventProcessorBindingParams {
   public String getLng() {
     return lng;
   }
+
+  public SpGeometryWriter.Format getFormat() {
+    return format;
+  }
 }
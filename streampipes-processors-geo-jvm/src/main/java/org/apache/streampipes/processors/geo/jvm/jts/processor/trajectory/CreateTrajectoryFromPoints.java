@@ -21,6 +21,7 @@ package org.apache.streampipes.processors.geo.jvm.jts.processor.trajectory;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryBuilder;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.apache.streampipes.processors.geo.jvm.jts.helper.SpTrajectoryBuilder;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
@@ -38,6 +39,8 @@ public class CreateTrajectoryFromPoints implements EventProcessor<CreateTrajecto
   private String geom_wkt;
   private String epsg_code;
   private String m_value;
+  private SpGeometryWriter.Format format;
+  private String trajectoryRuntimeName;
 
   @Override
   public void onInvocation(CreateTrajectoryFromPointsParameter params, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
@@ -46,6 +49,8 @@ public class CreateTrajectoryFromPoints implements EventProcessor<CreateTrajecto
     this.geom_wkt = params.getWkt();
     this.epsg_code = params.getEpsg();
     this.m_value = params.getM();
+    this.format = params.getFormat();
+    this.trajectoryRuntimeName = CreateTrajectoryFromPointsController.getOutputRuntimeName(format);
 
     trajectory = new SpTrajectoryBuilder(params.getSubpoints(), params.getDescription());
   }
@@ -68,7 +73,7 @@ public class CreateTrajectoryFromPoints implements EventProcessor<CreateTrajecto
 
     // adds to stream
     in.addField(CreateTrajectoryFromPointsController.DESCRIPTION_RUNTIME, trajectory.getDescription());
-    in.addField(CreateTrajectoryFromPointsController.WKT_RUNTIME, geom.toString());
+    in.addField(trajectoryRuntimeName, SpGeometryWriter.write(geom, format));
     out.collect(in);
   }
 
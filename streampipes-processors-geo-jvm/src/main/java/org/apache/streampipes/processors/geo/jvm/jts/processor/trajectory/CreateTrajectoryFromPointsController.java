@@ -18,10 +18,14 @@
 
 package org.apache.streampipes.processors.geo.jvm.jts.processor.trajectory;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.container.api.ResolvesContainerProvidedOutputStrategy;
 import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.schema.EventSchema;
 import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
@@ -31,7 +35,8 @@ import org.apache.streampipes.vocabulary.SO;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcessingDeclarer;
 
-public class CreateTrajectoryFromPointsController extends StandaloneEventProcessingDeclarer<CreateTrajectoryFromPointsParameter> {
+public class CreateTrajectoryFromPointsController extends StandaloneEventProcessingDeclarer<CreateTrajectoryFromPointsParameter>
+    implements ResolvesContainerProvidedOutputStrategy<DataProcessorInvocation, ProcessingElementParameterExtractor> {
 
 
   public final static String POINT_KEY = "point-key";
@@ -39,9 +44,10 @@ public class CreateTrajectoryFromPointsController extends StandaloneEventProcess
   public final static String M_KEY = "m-key";
   public final static String DESCRIPTION_KEY = "description-key";
   public final static String SUBPOINTS_KEY = "subpoints-key";
+  public final static String FORMAT_KEY = "format-key";
 
-  public final static String WKT_KEY = "trajectory-key";
   public final static String WKT_RUNTIME = "trajectoryWKT";
+  public final static String WKB_RUNTIME = "trajectoryWKB";
 
   public final static String DESCRIPTION_RUNTIME = "trajectoryDescription";
 
@@ -77,19 +83,10 @@ public class CreateTrajectoryFromPointsController extends StandaloneEventProcess
             Labels.withId(SUBPOINTS_KEY),
             2, 30, 1
         )
-
-        .outputStrategy(OutputStrategies.append(
-            EpProperties.stringEp(
-                Labels.withId(DESCRIPTION_KEY),
-                DESCRIPTION_RUNTIME,
-                SO.Text
-            ),
-            EpProperties.stringEp(
-                Labels.withId(WKT_KEY),
-                WKT_RUNTIME,
-                "http://www.opengis.net/ont/geosparql#Geometry")
-            )
-        )
+        .requiredSingleValueSelection(Labels.withId(FORMAT_KEY),
+            Options.from(new Tuple2<>("WKT", SpGeometryWriter.Format.WKT.name()),
+                new Tuple2<>("WKB (hex)", SpGeometryWriter.Format.WKB.name())))
+        .outputStrategy(OutputStrategies.customTransformation())
         .build();
   }
 
@@ -104,10 +101,43 @@ public class CreateTrajectoryFromPointsController extends StandaloneEventProcess
 
     String description = extractor.singleValueParameter(DESCRIPTION_KEY, String.class);
     Integer subpoints = extractor.singleValueParameter(SUBPOINTS_KEY, Integer.class);
+    SpGeometryWriter.Format format = getFormat(extractor);
 
 
-    CreateTrajectoryFromPointsParameter params = new CreateTrajectoryFromPointsParameter(graph, wkt, epsg, description, subpoints, m);
+    CreateTrajectoryFromPointsParameter params = new CreateTrajectoryFromPointsParameter(graph, wkt, epsg, description, subpoints, m, format);
 
     return new ConfiguredEventProcessor<>(params, CreateTrajectoryFromPoints::new);
   }
+
+  @Override
+  public EventSchema resolveOutputStrategy(DataProcessorInvocation processingElement, ProcessingElementParameterExtractor extractor) throws SpRuntimeException {
+    EventSchema eventSchema = processingElement.getInputStreams().get(0).getEventSchema();
+    String runtimeName = getOutputRuntimeName(getFormat(extractor));
+
+    eventSchema.addEventProperty(EpProperties.stringEp(
+        Labels.from(DESCRIPTION_RUNTIME, "Trajectory description", ""),
+        DESCRIPTION_RUNTIME,
+        SO.Text));
+    eventSchema.addEventProperty(EpProperties.stringEp(
+        Labels.from(runtimeName, "Trajectory geometry", ""),
+        runtimeName,
+        "http://www.opengis.net/ont/geosparql#Geometry"));
+
+    return eventSchema;
+  }
+
+  /**
+   * The name of the appended trajectory field reflects its format, as WKT and WKB values can't be told apart by
+   * their semantic type.
+   *
+   * @param format output format of the trajectory
+   * @return {@link #WKT_RUNTIME} or {@link #WKB_RUNTIME}
+   */
+  public static String getOutputRuntimeName(SpGeometryWriter.Format format) {
+    return format == SpGeometryWriter.Format.WKB ? WKB_RUNTIME : WKT_RUNTIME;
+  }
+
+  private static SpGeometryWriter.Format getFormat(ProcessingElementParameterExtractor extractor) {
+    return SpGeometryWriter.Format.valueOf(extractor.selectedSingleValueInternalName(FORMAT_KEY, String.class));
+  }
 }
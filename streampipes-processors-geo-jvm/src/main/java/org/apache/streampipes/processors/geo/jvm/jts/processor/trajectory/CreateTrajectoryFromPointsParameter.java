@@ -19,6 +19,7 @@
 package org.apache.streampipes.processors.geo.jvm.jts.processor.trajectory;
 
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeometryWriter;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 public class CreateTrajectoryFromPointsParameter extends EventProcessorBindingParams {
@@ -28,14 +29,16 @@ public class CreateTrajectoryFromPointsParameter extends EventProcessorBindingPa
   private String description;
   private Integer subpoints;
   private String m;
+  private SpGeometryWriter.Format format;
 
-  public CreateTrajectoryFromPointsParameter(DataProcessorInvocation graph, String wkt, String epsg, String description, Integer subpoints, String m) {
+  public CreateTrajectoryFromPointsParameter(DataProcessorInvocation graph, String wkt, String epsg, String description, Integer subpoints, String m, SpGeometryWriter.Format format) {
     super(graph);
     this.wkt = wkt;
     this.epsg = epsg;
     this.description = description;
     this.subpoints = subpoints;
     this.m = m;
+    this.format = format;
   }
 
   public String getEpsg() {
@@ -57,4 +60,8 @@ public class CreateTrajectoryFromPointsParameter extends EventProcessorBindingPa
   public String getM() {
     return m;
   }
+
+  public SpGeometryWriter.Format getFormat() {
+    return format;
+  }
 }
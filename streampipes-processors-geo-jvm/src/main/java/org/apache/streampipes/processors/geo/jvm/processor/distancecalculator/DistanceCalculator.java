@@ -37,10 +37,10 @@ public class DistanceCalculator implements EventProcessor<DistanceCalculatorPara
   @Override
   public void onEvent(Event event, SpOutputCollector out) {
 
-    float lat1 = event.getFieldBySelector(this.params.getLat1PropertyName()).getAsPrimitive().getAsFloat();
-    float long1 = event.getFieldBySelector(this.params.getLong1PropertyName()).getAsPrimitive().getAsFloat();
-    float lat2 = event.getFieldBySelector(this.params.getLat2PropertyName()).getAsPrimitive().getAsFloat();
-    float long2 = event.getFieldBySelector(this.params.getLong2PropertyName()).getAsPrimitive().getAsFloat();
+    double lat1 = event.getFieldBySelector(this.params.getLat1PropertyName()).getAsPrimitive().getAsDouble();
+    double long1 = event.getFieldBySelector(this.params.getLong1PropertyName()).getAsPrimitive().getAsDouble();
+    double lat2 = event.getFieldBySelector(this.params.getLat2PropertyName()).getAsPrimitive().getAsDouble();
+    double long2 = event.getFieldBySelector(this.params.getLong2PropertyName()).getAsPrimitive().getAsDouble();
 
     double resultDist = DistanceUtil.dist(lat1, long1, lat2, long2);
 
@@ -17,26 +17,44 @@
  */
 package org.apache.streampipes.processors.geo.jvm.processor.geocoder;
 
-import com.google.maps.GeoApiContext;
-import com.google.maps.GeocodingApi;
-import com.google.maps.errors.ApiException;
-import com.google.maps.model.GeocodingResult;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.geo.jvm.processor.geocoder.util.EmitMode;
+import org.apache.streampipes.processors.geo.jvm.processor.geocoder.util.GeocodingEngine;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
 public class GoogleMapsGeocoding implements EventProcessor<GoogleMapsGeocodingParameters> {
 
-  private GeoApiContext context;
+  private static final Logger LOG = LoggerFactory.getLogger(GoogleMapsGeocoding.class);
+
+  // events waiting for a geocoding result, further events block the event thread
+  private static final int MAX_PENDING_EVENTS = 1000;
+
+  private GeocodingEngine engine;
   private String placeField;
+  private EmitMode emitMode;
+  private SpOutputCollector collector;
+
+  private Semaphore pendingPermits;
+  private Deque<PendingEvent> pendingEvents;
+  // guarded by this, set once detached so that late lookups do not emit anymore
+  private boolean detached;
 
   @Override
   public void onInvocation(GoogleMapsGeocodingParameters parameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
     this.placeField = parameters.getPlaceField();
+    this.emitMode = parameters.getEmitMode();
+    this.collector = spOutputCollector;
     String googleMapsApiKey = parameters.getGoogleMapsApiKey();
 
     if (googleMapsApiKey == null || googleMapsApiKey.equals("")) {
@@ -44,9 +62,11 @@ public class GoogleMapsGeocoding implements EventProcessor<GoogleMapsGeocodingPa
               " API key?");
     }
 
-    this.context = new GeoApiContext.Builder()
-            .apiKey(googleMapsApiKey)
-            .build();
+    this.engine = new GeocodingEngine(googleMapsApiKey, parameters.getMaxConcurrentRequests(),
+            parameters.getRequestsPerSecond());
+    this.pendingPermits = new Semaphore(MAX_PENDING_EVENTS);
+    this.pendingEvents = new ArrayDeque<>();
+    this.detached = false;
   }
 
   @Override
@@ -54,28 +74,77 @@ public class GoogleMapsGeocoding implements EventProcessor<GoogleMapsGeocodingPa
     String placename = event.getFieldBySelector(placeField).getAsPrimitive().getAsString();
 
     try {
-      GeocodingResult[] results =  GeocodingApi.geocode(context,
-              placename).await();
-
-      Double latitude = results[0].geometry.location.lat;
-      Double longitude = results[0].geometry.location.lng;
-
-      event.addField("latitude", latitude);
-      event.addField("longitude", longitude);
+      pendingPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SpRuntimeException("Interrupted while waiting for geocoding results");
+    }
 
-      collector.collect(event);
+    CompletableFuture<double[]> location = engine.geocode(placename);
+    if (emitMode == EmitMode.ORDERED) {
+      synchronized (this) {
+        pendingEvents.add(new PendingEvent(event, location));
+      }
+      location.whenComplete((result, error) -> emitCompleted());
+    } else {
+      location.whenComplete((result, error) -> {
+        synchronized (this) {
+          emit(new PendingEvent(event, location));
+        }
+      });
+    }
+  }
 
-    } catch (ApiException | InterruptedException | IOException e) {
-      e.printStackTrace();
-      throw new SpRuntimeException("Could not fetch geocoding result");
+  @Override
+  public void onDetach() throws SpRuntimeException {
+    // waits for running lookups for a bounded time, their results are emitted by the lookup threads
+    engine.shutdown();
+
+    // results of lookups which did not finish in time must not be emitted after detaching
+    synchronized (this) {
+      emitCompleted();
+      detached = true;
+      int discarded = MAX_PENDING_EVENTS - pendingPermits.availablePermits();
+      if (discarded > 0) {
+        LOG.warn("Geocoding detached with {} unresolved events, discarding them", discarded);
+      }
+      pendingEvents.clear();
     }
+  }
 
+  // emits the completed events at the head of the queue, so that the input order is kept
+  private synchronized void emitCompleted() {
+    while (!pendingEvents.isEmpty() && pendingEvents.peek().location.isDone()) {
+      emit(pendingEvents.poll());
+    }
+  }
 
+  // called while holding the lock of this processor
+  private void emit(PendingEvent pendingEvent) {
+    if (detached) {
+      return;
+    }
+    pendingPermits.release();
+    double[] location;
+    try {
+      location = pendingEvent.location.join();
+    } catch (CompletionException e) {
+      LOG.warn("Could not fetch geocoding result, dropping event: {}", e.getCause().getMessage());
+      return;
+    }
 
+    pendingEvent.event.addField("latitude", location[0]);
+    pendingEvent.event.addField("longitude", location[1]);
+    collector.collect(pendingEvent.event);
   }
 
-  @Override
-  public void onDetach() throws SpRuntimeException {
+  private static class PendingEvent {
+    private final Event event;
+    private final CompletableFuture<double[]> location;
 
+    PendingEvent(Event event, CompletableFuture<double[]> location) {
+      this.event = event;
+      this.location = location;
+    }
   }
 }
@@ -22,6 +22,7 @@ import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
 import org.apache.streampipes.model.schema.PropertyScope;
 import org.apache.streampipes.processors.geo.jvm.config.GeoJvmConfig;
+import org.apache.streampipes.processors.geo.jvm.processor.geocoder.util.EmitMode;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
@@ -29,7 +30,9 @@ import org.apache.streampipes.sdk.helpers.EpProperties;
 import org.apache.streampipes.sdk.helpers.EpRequirements;
 import org.apache.streampipes.sdk.helpers.Labels;
 import org.apache.streampipes.sdk.helpers.Locales;
+import org.apache.streampipes.sdk.helpers.Options;
 import org.apache.streampipes.sdk.helpers.OutputStrategies;
+import org.apache.streampipes.sdk.helpers.Tuple2;
 import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.vocabulary.Geo;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
@@ -38,6 +41,9 @@ import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcess
 public class GoogleMapsGeocodingController extends StandaloneEventProcessingDeclarer<GoogleMapsGeocodingParameters> {
 
   private static final String PLACE_MAPPING = "place-mapping";
+  private static final String MAX_CONCURRENT_REQUESTS = "max-concurrent-requests";
+  private static final String REQUESTS_PER_SECOND = "requests-per-second";
+  private static final String EMIT_MODE = "emit-mode";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -51,6 +57,11 @@ public class GoogleMapsGeocodingController extends StandaloneEventProcessingDecl
                             Labels.withId(PLACE_MAPPING),
                             PropertyScope.NONE)
                     .build())
+            .requiredIntegerParameter(Labels.withId(MAX_CONCURRENT_REQUESTS), 4)
+            .requiredIntegerParameter(Labels.withId(REQUESTS_PER_SECOND), 10)
+            .requiredSingleValueSelection(Labels.withId(EMIT_MODE),
+                    Options.from(new Tuple2<>("In order", EmitMode.ORDERED.name()),
+                            new Tuple2<>("As available", EmitMode.UNORDERED.name())))
             .outputStrategy(OutputStrategies.append(
                     EpProperties.doubleEp(Labels.empty(), "latitude", Geo.lat),
                     EpProperties.stringEp(Labels.empty(), "longitude", Geo.lng)
@@ -62,9 +73,12 @@ public class GoogleMapsGeocodingController extends StandaloneEventProcessingDecl
   public ConfiguredEventProcessor<GoogleMapsGeocodingParameters> onInvocation(DataProcessorInvocation graph, ProcessingElementParameterExtractor extractor) {
     String placeField = extractor.mappingPropertyValue(PLACE_MAPPING);
     String googleMapsApiKey = GeoJvmConfig.INSTANCE.getGoogleApiKey();
+    Integer maxConcurrentRequests = extractor.singleValueParameter(MAX_CONCURRENT_REQUESTS, Integer.class);
+    Integer requestsPerSecond = extractor.singleValueParameter(REQUESTS_PER_SECOND, Integer.class);
+    EmitMode emitMode = EmitMode.valueOf(extractor.selectedSingleValueInternalName(EMIT_MODE, String.class));
 
     GoogleMapsGeocodingParameters params = new GoogleMapsGeocodingParameters(graph, placeField,
-            googleMapsApiKey);
+            googleMapsApiKey, maxConcurrentRequests, requestsPerSecond, emitMode);
 
     return new ConfiguredEventProcessor<>(params, GoogleMapsGeocoding::new);
   }
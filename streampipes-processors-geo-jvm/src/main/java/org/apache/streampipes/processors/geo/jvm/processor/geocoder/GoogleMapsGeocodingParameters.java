@@ -18,18 +18,26 @@
 package org.apache.streampipes.processors.geo.jvm.processor.geocoder;
 
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.processors.geo.jvm.processor.geocoder.util.EmitMode;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 public class GoogleMapsGeocodingParameters extends EventProcessorBindingParams {
 
   private String placeField;
   private String googleMapsApiKey;
+  private Integer maxConcurrentRequests;
+  private Integer requestsPerSecond;
+  private EmitMode emitMode;
 
   public GoogleMapsGeocodingParameters(DataProcessorInvocation graph, String placeField,
-                                       String googleMapsApiKey) {
+                                       String googleMapsApiKey, Integer maxConcurrentRequests,
+                                       Integer requestsPerSecond, EmitMode emitMode) {
     super(graph);
     this.placeField = placeField;
     this.googleMapsApiKey = googleMapsApiKey;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.requestsPerSecond = requestsPerSecond;
+    this.emitMode = emitMode;
   }
 
   public String getPlaceField() {
@@ -39,4 +47,16 @@ public class GoogleMapsGeocodingParameters extends EventProcessorBindingParams {
   public String getGoogleMapsApiKey() {
     return googleMapsApiKey;
   }
+
+  public Integer getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  public Integer getRequestsPerSecond() {
+    return requestsPerSecond;
+  }
+
+  public EmitMode getEmitMode() {
+    return emitMode;
+  }
 }
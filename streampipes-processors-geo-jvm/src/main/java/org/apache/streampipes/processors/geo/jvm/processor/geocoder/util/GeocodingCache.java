@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.geocoder.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded LRU cache of geocoding results keyed by the normalized address. Entries expire after a
+ * time-to-live and can be persisted to a file, so that known addresses survive restarts.
+ */
+public class GeocodingCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeocodingCache.class);
+
+  private final int maxSize;
+  private final long ttlMillis;
+  private final Path file;
+  private final LongSupplier clock;
+  private final LinkedHashMap<String, Entry> entries;
+
+  public GeocodingCache(int maxSize, long ttlMillis, Path file) {
+    this(maxSize, ttlMillis, file, System::currentTimeMillis);
+  }
+
+  GeocodingCache(int maxSize, long ttlMillis, Path file, LongSupplier clock) {
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+    this.file = file;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > GeocodingCache.this.maxSize;
+      }
+    };
+  }
+
+  public static String normalize(String address) {
+    return address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the cached coordinates of an address, or {@code null} if the address is unknown or expired.
+   */
+  public synchronized double[] get(String address) {
+    String key = normalize(address);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (isExpired(entry, clock.getAsLong())) {
+      entries.remove(key);
+      return null;
+    }
+    return new double[]{entry.latitude, entry.longitude};
+  }
+
+  public synchronized void put(String address, double latitude, double longitude) {
+    entries.put(normalize(address), new Entry(latitude, longitude, clock.getAsLong()));
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Loads the persisted entries which are not yet expired, if a file is configured.
+   */
+  public synchronized void load() {
+    if (file == null || !Files.exists(file)) {
+      return;
+    }
+    long now = clock.getAsLong();
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] columns = line.split("\t");
+        if (columns.length == 4) {
+          Entry entry = new Entry(Double.parseDouble(columns[1]), Double.parseDouble(columns[2]),
+                  Long.parseLong(columns[3]));
+          if (!isExpired(entry, now)) {
+            entries.put(columns[0], entry);
+          }
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      LOG.warn("Could not load geocoding cache from {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Writes all entries to the configured file, replacing its content atomically.
+   */
+  public synchronized void persist() {
+    if (file == null) {
+      return;
+    }
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path tempFile = Files.createTempFile(directory, "geocoding", ".tmp");
+      try (BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+          out.write(entry.getKey() + "\t" + entry.getValue().latitude + "\t" + entry.getValue().longitude
+                  + "\t" + entry.getValue().created);
+          out.newLine();
+        }
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Could not persist geocoding cache to {}: {}", file, e.getMessage());
+    }
+  }
+
+  private boolean isExpired(Entry entry, long now) {
+    return ttlMillis > 0 && now - entry.created > ttlMillis;
+  }
+
+  private static class Entry {
+    private final double latitude;
+    private final double longitude;
+    private final long created;
+
+    Entry(double latitude, double longitude, long created) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.created = created;
+    }
+  }
+}
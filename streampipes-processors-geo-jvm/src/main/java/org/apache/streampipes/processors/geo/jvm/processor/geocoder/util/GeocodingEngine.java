@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.geocoder.util;
+
+import com.google.maps.GeoApiContext;
+import com.google.maps.GeocodingApi;
+import com.google.maps.model.GeocodingResult;
+import org.apache.streampipes.processors.geo.jvm.config.GeoJvmConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves addresses asynchronously with the Google Maps geocoding API. Results are served from a
+ * cache shared by all geocoders of the JVM; concurrent requests of the same address are coalesced,
+ * remote requests are limited in number and rate.
+ */
+public class GeocodingEngine {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeocodingEngine.class);
+
+  private static GeocodingCache sharedCache;
+
+  private final GeoApiContext context;
+  private final GeocodingCache cache;
+  private final TokenBucket rateLimiter;
+  private final ExecutorService executor;
+  private final Map<String, CompletableFuture<double[]>> pendingLookups;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong remoteLookups = new AtomicLong();
+  private final AtomicLong remoteLatencyNanos = new AtomicLong();
+
+  public GeocodingEngine(String googleMapsApiKey, int maxConcurrentRequests, double requestsPerSecond) {
+    this.context = new GeoApiContext.Builder()
+            .apiKey(googleMapsApiKey)
+            .build();
+    this.cache = getSharedCache();
+    this.rateLimiter = new TokenBucket(requestsPerSecond);
+    this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, runnable -> {
+      Thread thread = new Thread(runnable, "geocoding-lookup");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.pendingLookups = new ConcurrentHashMap<>();
+  }
+
+  private static synchronized GeocodingCache getSharedCache() {
+    if (sharedCache == null) {
+      String file = GeoJvmConfig.INSTANCE.getGeocodingCacheFile();
+      sharedCache = new GeocodingCache(GeoJvmConfig.INSTANCE.getGeocodingCacheSize(),
+              TimeUnit.HOURS.toMillis(GeoJvmConfig.INSTANCE.getGeocodingCacheTtlHours()),
+              file == null || file.isEmpty() ? null : Paths.get(file));
+      sharedCache.load();
+    }
+    return sharedCache;
+  }
+
+  /**
+   * Returns the latitude and longitude of an address. The future completes exceptionally if the
+   * address could not be resolved.
+   */
+  public CompletableFuture<double[]> geocode(String address) {
+    double[] cached = cache.get(address);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return CompletableFuture.completedFuture(cached);
+    }
+    misses.incrementAndGet();
+
+    String key = GeocodingCache.normalize(address);
+    CompletableFuture<double[]> lookup = new CompletableFuture<>();
+    CompletableFuture<double[]> pending = pendingLookups.putIfAbsent(key, lookup);
+    if (pending != null) {
+      return pending;
+    }
+
+    executor.execute(() -> {
+      try {
+        lookup.complete(lookup(address));
+      } catch (Exception e) {
+        failures.incrementAndGet();
+        lookup.completeExceptionally(e);
+      } finally {
+        pendingLookups.remove(key, lookup);
+      }
+    });
+    return lookup;
+  }
+
+  private double[] lookup(String address) throws Exception {
+    rateLimiter.acquire();
+    long start = System.nanoTime();
+    GeocodingResult[] results = GeocodingApi.geocode(context, address).await();
+    remoteLatencyNanos.addAndGet(System.nanoTime() - start);
+    remoteLookups.incrementAndGet();
+
+    if (results.length == 0) {
+      throw new IllegalArgumentException("No geocoding result for " + address);
+    }
+    double[] location = new double[]{results[0].geometry.location.lat, results[0].geometry.location.lng};
+    cache.put(address, location[0], location[1]);
+    return location;
+  }
+
+  /**
+   * Waits for pending lookups and persists the cache.
+   */
+  public void shutdown() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    context.shutdown();
+    cache.persist();
+
+    long lookups = hits.get() + misses.get();
+    LOG.info("Geocoding detached, lookups: {}, cache hit rate: {}, failures: {}, mean remote latency: {} ms",
+            lookups, lookups == 0 ? 0 : (double) hits.get() / lookups, failures.get(),
+            remoteLookups.get() == 0 ? 0 : remoteLatencyNanos.get() / remoteLookups.get() / 1000000);
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getMeanRemoteLatencyNanos() {
+    long count = remoteLookups.get();
+    return count == 0 ? 0 : remoteLatencyNanos.get() / count;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.geocoder.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate of requests: a token is added every 1/rate seconds up to a burst of one second.
+ */
+public class TokenBucket {
+
+  private final double tokensPerNano;
+  private final double capacity;
+  private final LongSupplier nanoClock;
+
+  private double tokens;
+  private long lastRefill;
+
+  public TokenBucket(double permitsPerSecond) {
+    this(permitsPerSecond, System::nanoTime);
+  }
+
+  TokenBucket(double permitsPerSecond, LongSupplier nanoClock) {
+    if (permitsPerSecond <= 0) {
+      throw new IllegalArgumentException("The rate must be positive");
+    }
+    this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.capacity = Math.max(1, permitsPerSecond);
+    this.nanoClock = nanoClock;
+    this.tokens = capacity;
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  /**
+   * Blocks until a token is available.
+   */
+  public void acquire() throws InterruptedException {
+    long waitNanos;
+    while ((waitNanos = tryAcquire()) > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  // Returns 0 if a token was taken, otherwise the time until the next token is available.
+  synchronized long tryAcquire() {
+    long now = nanoClock.getAsLong();
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+    lastRefill = now;
+    if (tokens >= 1) {
+      tokens -= 1;
+      return 0;
+    }
+    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+  }
+}
@@ -20,16 +20,18 @@ package org.apache.streampipes.processors.geo.jvm.processor.revgeocoder;
 import org.apache.http.client.fluent.Request;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.geo.jvm.config.GeoJvmConfig;
 import org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode.GeoName;
 import org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode.ReverseGeoCode;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.zip.ZipInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 public class ReverseGeocoding implements EventProcessor<ReverseGeocodingParameters> {
 
@@ -46,15 +48,19 @@ public class ReverseGeocoding implements EventProcessor<ReverseGeocodingParamete
     this.latitudeField = parameters.getLatitudeField();
     this.longitudeField = parameters.getLongitudeField();
 
+    Path citiesDataset = Paths.get(GeoJvmConfig.INSTANCE.getGeonamesFile());
     try {
-      InputStream stream = downloadCitiesDataSet();
-      if (stream != null) {
-        ZipInputStream zipInputStream = null;
-        zipInputStream = new ZipInputStream(stream);
-          this.reverseGeoCode = new ReverseGeoCode(zipInputStream, false);
+      if (!Files.exists(citiesDataset)) {
+        downloadCitiesDataSet(citiesDataset);
       }
     } catch (IOException e) {
-      throw new SpRuntimeException("Could not download cities file...");
+      throw new SpRuntimeException("Could not download cities file to " + citiesDataset, e);
+    }
+
+    try {
+      this.reverseGeoCode = ReverseGeoCode.getInstance(citiesDataset);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not load cities file " + citiesDataset, e);
     }
   }
 
@@ -64,6 +70,10 @@ public class ReverseGeocoding implements EventProcessor<ReverseGeocodingParamete
     Double longitude = event.getFieldBySelector(longitudeField).getAsPrimitive().getAsDouble();
 
     GeoName geoName = this.reverseGeoCode.nearestPlace(latitude, longitude);
+    if (geoName == null) {
+      // the cities file contains no places
+      return;
+    }
 
     event.addField("place", geoName.name + ", " + geoName.country);
     collector.collect(event);
@@ -74,9 +84,19 @@ public class ReverseGeocoding implements EventProcessor<ReverseGeocodingParamete
 
   }
 
-  private InputStream downloadCitiesDataSet() throws IOException {
-    byte[] citiesDataset = Request.Get(CITIES_DATASET_URL).execute().returnContent().asBytes();
-    return new ByteArrayInputStream(citiesDataset);
+  private static synchronized void downloadCitiesDataSet(Path target) throws IOException {
+    if (Files.exists(target)) {
+      return;
+    }
+    Path directory = target.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path tempFile = Files.createTempFile(directory, "cities", ".tmp");
+    try {
+      Request.Get(CITIES_DATASET_URL).execute().saveContent(tempFile.toFile());
+      Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
   }
 
 }
@@ -22,90 +22,29 @@ THE SOFTWARE.
 
 package org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode;
 
-import static java.lang.Math.*;
-
-import org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode.kdtree.KDNodeComparator;
-
-import java.util.Comparator;
-
 /**
  * Created by Daniel Glasson on 18/05/2014.
- * This class works with a placenames files from http://download.geonames.org/export/dump/
+ * A place of the geonames files from http://download.geonames.org/export/dump/ as returned by a
+ * {@link GeoNameIndex} query, including its distance to the queried location.
  */
 
-public class GeoName extends KDNodeComparator<GeoName> {
-    public String name;
-    public boolean majorPlace; // Major or minor place
-    public double latitude;
-    public double longitude;
-    public double point[] = new double[3]; // The 3D coordinates of the point
-    public String country;
-
-    GeoName(String data) {
-        String[] names = data.split("\t");
-        name = names[1];
-        majorPlace = names[6].equals("P");
-        latitude = Double.parseDouble(names[4]);
-        longitude = Double.parseDouble(names[5]);
-        setPoint();
-        country = names[8];
-    }
+public class GeoName {
+    public final String name;
+    public final String country;
+    public final double latitude;
+    public final double longitude;
+    public final double distance; // Distance to the queried location in meters
 
-    GeoName(Double latitude, Double longitude) {
-        name = country = "Search";
+    GeoName(String name, String country, double latitude, double longitude, double distance) {
+        this.name = name;
+        this.country = country;
         this.latitude = latitude;
         this.longitude = longitude;
-        setPoint();
-    }
-
-    private void setPoint() {
-        point[0] = cos(toRadians(latitude)) * cos(toRadians(longitude));
-        point[1] = cos(toRadians(latitude)) * sin(toRadians(longitude));
-        point[2] = sin(toRadians(latitude));
+        this.distance = distance;
     }
 
     @Override
     public String toString() {
         return name;
     }
-
-    @Override
-    protected double squaredDistance(GeoName other) {
-        double x = this.point[0] - other.point[0];
-        double y = this.point[1] - other.point[1];
-        double z = this.point[2] - other.point[2];
-        return (x*x) + (y*y) + (z*z);
-    }
-
-    @Override
-    protected double axisSquaredDistance(GeoName other, int axis) {
-        double distance = point[axis] - other.point[axis];
-        return distance * distance;
-    }
-
-    @Override
-    protected Comparator<GeoName> getComparator(int axis) {
-        return GeoNameComparator.values()[axis];
-    }
-
-    protected static enum GeoNameComparator implements Comparator<GeoName> {
-        x {
-            @Override
-            public int compare(GeoName a, GeoName b) {
-                return Double.compare(a.point[0], b.point[0]);
-            }
-        },
-        y {
-            @Override
-            public int compare(GeoName a, GeoName b) {
-                return Double.compare(a.point[1], b.point[1]);
-            }
-        },
-        z {
-            @Override
-            public int compare(GeoName a, GeoName b) {
-                return Double.compare(a.point[2], b.point[2]);
-            }
-        };
-    }
 }
@@ -0,0 +1,403 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.asin;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+import static java.lang.Math.toDegrees;
+import static java.lang.Math.toRadians;
+
+/**
+ * A read-only spatial index of place names, stored as an implicit KD-tree in flat arrays.
+ * <p>
+ * Places are stored as points on the unit sphere. The root of each index range [from, to) is located
+ * at its middle, the left subtree in [from, mid) and the right subtree in [mid + 1, to). Hence, the tree
+ * requires no node objects and can be persisted and memory-mapped as is:
+ * <pre>
+ * int magic, int version, int count, int labelBytes
+ * float[3 * count] coordinates (x, y, z)
+ * int[count + 1]   label offsets
+ * byte[labelBytes] labels (UTF-8, "name\tcountry")
+ * </pre>
+ * Queries only use absolute reads, so that a single instance can be shared between threads.
+ */
+public final class GeoNameIndex {
+
+  private static final int MAGIC = 0x53504745;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+
+  private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+  private final int count;
+  private final FloatBuffer coordinates;
+  private final IntBuffer labelOffsets;
+  private final ByteBuffer labels;
+
+  private GeoNameIndex(ByteBuffer buffer) throws IOException {
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported geonames index format");
+    }
+    this.count = buffer.getInt(8);
+    int labelBytes = buffer.getInt(12);
+
+    int position = HEADER_BYTES;
+    this.coordinates = slice(buffer, position, 3 * count * Float.BYTES).asFloatBuffer();
+    position += 3 * count * Float.BYTES;
+    this.labelOffsets = slice(buffer, position, (count + 1) * Integer.BYTES).asIntBuffer();
+    position += (count + 1) * Integer.BYTES;
+    this.labels = slice(buffer, position, labelBytes);
+  }
+
+  /**
+   * Memory-maps a previously built index file.
+   */
+  public static GeoNameIndex open(Path indexFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+      return new GeoNameIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Builds an index from a geonames text file (see http://download.geonames.org/export/dump/) and
+   * writes it to the given file. The file is replaced atomically, so that concurrent readers never
+   * observe a partially written index.
+   */
+  public static void build(InputStream placenames, Path indexFile) throws IOException {
+    List<float[]> points = new ArrayList<>();
+    List<byte[]> labels = new ArrayList<>();
+
+    BufferedReader in = new BufferedReader(new InputStreamReader(placenames, StandardCharsets.UTF_8));
+    String line;
+    while ((line = in.readLine()) != null) {
+      String[] columns = line.split("\t");
+      if (columns.length < 9) {
+        continue;
+      }
+      points.add(toPoint(Double.parseDouble(columns[4]), Double.parseDouble(columns[5])));
+      labels.add((columns[1] + "\t" + columns[8]).getBytes(StandardCharsets.UTF_8));
+    }
+
+    int count = points.size();
+    float[] coordinates = new float[3 * count];
+    for (int i = 0; i < count; i++) {
+      System.arraycopy(points.get(i), 0, coordinates, 3 * i, 3);
+    }
+    int[] order = new int[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    arrange(coordinates, order, 0, count, 0);
+
+    Path tempFile = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "geonames", ".tmp");
+    try {
+      write(tempFile, coordinates, order, labels);
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      // only left over if writing or moving the index failed
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static void write(Path file, float[] coordinates, int[] order, List<byte[]> labels) throws IOException {
+    int count = order.length;
+    try (OutputStream os = Files.newOutputStream(file);
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+      int labelBytes = 0;
+      for (byte[] label : labels) {
+        labelBytes += label.length;
+      }
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(count);
+      out.writeInt(labelBytes);
+      for (int i = 0; i < count; i++) {
+        int point = 3 * order[i];
+        out.writeFloat(coordinates[point]);
+        out.writeFloat(coordinates[point + 1]);
+        out.writeFloat(coordinates[point + 2]);
+      }
+      int offset = 0;
+      for (int i = 0; i < count; i++) {
+        out.writeInt(offset);
+        offset += labels.get(order[i]).length;
+      }
+      out.writeInt(offset);
+      for (int i = 0; i < count; i++) {
+        out.write(labels.get(order[i]));
+      }
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Returns the nearest place, or {@code null} if the index is empty.
+   */
+  public GeoName nearest(double latitude, double longitude) {
+    List<GeoName> places = nearest(latitude, longitude, 1);
+    return places.isEmpty() ? null : places.get(0);
+  }
+
+  /**
+   * Returns the k nearest places, ordered by their distance.
+   */
+  public List<GeoName> nearest(double latitude, double longitude, int k) {
+    if (k <= 0 || count == 0) {
+      return Collections.emptyList();
+    }
+    float[] search = toPoint(latitude, longitude);
+    Candidates candidates = new Candidates(min(k, count));
+    searchNearest(search, 0, count, 0, candidates);
+    return candidates.toGeoNames();
+  }
+
+  /**
+   * Returns all places within the given distance (meters), ordered by their distance.
+   */
+  public List<GeoName> within(double latitude, double longitude, double radiusMeters) {
+    if (count == 0) {
+      return Collections.emptyList();
+    }
+    double chord = 2 * sin(min(radiusMeters / EARTH_RADIUS_METERS, PI) / 2);
+    float[] search = toPoint(latitude, longitude);
+    List<Integer> matches = new ArrayList<>();
+    searchWithin(search, chord * chord, 0, count, 0, matches);
+
+    List<GeoName> places = new ArrayList<>(matches.size());
+    for (int node : matches) {
+      places.add(toGeoName(node, squaredDistance(search, node)));
+    }
+    places.sort((a, b) -> Double.compare(a.distance, b.distance));
+    return places;
+  }
+
+  private void searchNearest(float[] search, int from, int to, int axis, Candidates candidates) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    candidates.offer(mid, squaredDistance(search, mid));
+
+    double delta = search[axis] - coordinates.get(3 * mid + axis);
+    int nextAxis = (axis + 1) % 3;
+    if (delta < 0) {
+      searchNearest(search, from, mid, nextAxis, candidates);
+      if (delta * delta < candidates.bound()) {
+        searchNearest(search, mid + 1, to, nextAxis, candidates);
+      }
+    } else {
+      searchNearest(search, mid + 1, to, nextAxis, candidates);
+      if (delta * delta < candidates.bound()) {
+        searchNearest(search, from, mid, nextAxis, candidates);
+      }
+    }
+  }
+
+  private void searchWithin(float[] search, double bound, int from, int to, int axis, List<Integer> matches) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    if (squaredDistance(search, mid) <= bound) {
+      matches.add(mid);
+    }
+
+    double delta = search[axis] - coordinates.get(3 * mid + axis);
+    int nextAxis = (axis + 1) % 3;
+    if (delta < 0 || delta * delta <= bound) {
+      searchWithin(search, bound, from, mid, nextAxis, matches);
+    }
+    if (delta >= 0 || delta * delta <= bound) {
+      searchWithin(search, bound, mid + 1, to, nextAxis, matches);
+    }
+  }
+
+  private double squaredDistance(float[] search, int node) {
+    int point = 3 * node;
+    double x = search[0] - coordinates.get(point);
+    double y = search[1] - coordinates.get(point + 1);
+    double z = search[2] - coordinates.get(point + 2);
+    return x * x + y * y + z * z;
+  }
+
+  private GeoName toGeoName(int node, double squaredDistance) {
+    int point = 3 * node;
+    double x = coordinates.get(point);
+    double y = coordinates.get(point + 1);
+    double z = coordinates.get(point + 2);
+
+    int start = labelOffsets.get(node);
+    byte[] label = new byte[labelOffsets.get(node + 1) - start];
+    for (int i = 0; i < label.length; i++) {
+      label[i] = labels.get(start + i);
+    }
+    String[] parts = new String(label, StandardCharsets.UTF_8).split("\t", 2);
+
+    double distance = 2 * EARTH_RADIUS_METERS * asin(min(sqrt(squaredDistance) / 2, 1));
+    return new GeoName(parts[0], parts.length > 1 ? parts[1] : "",
+            toDegrees(asin(max(-1, min(1, z)))), toDegrees(atan2(y, x)), distance);
+  }
+
+  private static float[] toPoint(double latitude, double longitude) {
+    double lat = toRadians(latitude);
+    double lng = toRadians(longitude);
+    return new float[]{(float) (cos(lat) * cos(lng)), (float) (cos(lat) * sin(lng)), (float) sin(lat)};
+  }
+
+  // Recursively places the median of each range (by the axis of its depth) in the middle of the range.
+  private static void arrange(float[] coordinates, int[] order, int from, int to, int axis) {
+    if (to - from <= 1) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    select(coordinates, order, from, to - 1, mid, axis);
+    int nextAxis = (axis + 1) % 3;
+    arrange(coordinates, order, from, mid, nextAxis);
+    arrange(coordinates, order, mid + 1, to, nextAxis);
+  }
+
+  // Hoare's selection: afterwards, order[k] is in its sorted position within [left, right].
+  private static void select(float[] coordinates, int[] order, int left, int right, int k, int axis) {
+    while (right > left) {
+      float pivot = coordinates[3 * order[(left + right) >>> 1] + axis];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (coordinates[3 * order[i] + axis] < pivot) {
+          i++;
+        }
+        while (coordinates[3 * order[j] + axis] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int tmp = order[i];
+          order[i] = order[j];
+          order[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(position);
+    duplicate.limit(position + length);
+    return duplicate.slice();
+  }
+
+  // Bounded max-heap of the k nearest nodes found so far.
+  private final class Candidates {
+    private final int[] nodes;
+    private final double[] distances;
+    private int size;
+
+    Candidates(int k) {
+      this.nodes = new int[k];
+      this.distances = new double[k];
+    }
+
+    double bound() {
+      return size < nodes.length ? Double.POSITIVE_INFINITY : distances[0];
+    }
+
+    void offer(int node, double distance) {
+      if (size < nodes.length) {
+        int i = size++;
+        while (i > 0 && distances[(i - 1) / 2] < distance) {
+          nodes[i] = nodes[(i - 1) / 2];
+          distances[i] = distances[(i - 1) / 2];
+          i = (i - 1) / 2;
+        }
+        nodes[i] = node;
+        distances[i] = distance;
+      } else if (distance < distances[0]) {
+        int i = 0;
+        while (true) {
+          int child = 2 * i + 1;
+          if (child >= size) {
+            break;
+          }
+          if (child + 1 < size && distances[child + 1] > distances[child]) {
+            child++;
+          }
+          if (distances[child] <= distance) {
+            break;
+          }
+          nodes[i] = nodes[child];
+          distances[i] = distances[child];
+          i = child;
+        }
+        nodes[i] = node;
+        distances[i] = distance;
+      }
+    }
+
+    List<GeoName> toGeoNames() {
+      Integer[] sorted = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        sorted[i] = i;
+      }
+      Arrays.sort(sorted, (a, b) -> Double.compare(distances[a], distances[b]));
+      List<GeoName> places = new ArrayList<>(size);
+      for (int i : sorted) {
+        places.add(toGeoName(nodes[i], distances[i]));
+      }
+      return places;
+    }
+  }
+}
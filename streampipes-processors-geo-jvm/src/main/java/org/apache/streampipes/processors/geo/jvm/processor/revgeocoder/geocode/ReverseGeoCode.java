@@ -24,88 +24,95 @@ THE SOFTWARE.
 package org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode;
 
 
-import org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode.kdtree.KDTree;
-
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 /**
  * Created by Daniel Glasson on 18/05/2014.
- * Uses KD-trees to quickly find the nearest point
+ * Uses a KD-tree to quickly find the nearest point
  * <p>
- * ReverseGeoCode reverseGeoCode = new ReverseGeoCode(new FileInputStream("c:\\AU.txt"), true);
- * System.out.println("Nearest to -23.456, 123.456 is " + geocode.nearestPlace(-23.456, 123.456));
+ * ReverseGeoCode reverseGeoCode = ReverseGeoCode.getInstance(Paths.get("cities1000.zip"));
+ * System.out.println("Nearest to -23.456, 123.456 is " + reverseGeoCode.nearestPlace(-23.456, 123.456));
  */
 public class ReverseGeoCode {
-  KDTree<GeoName> kdTree;
+
+  private static final String INDEX_SUFFIX = ".idx";
+
+  // one index per data set and JVM, shared by all processor instances
+  private static final Map<Path, ReverseGeoCode> INSTANCES = new ConcurrentHashMap<>();
+
+  private final GeoNameIndex index;
+
+  private ReverseGeoCode(GeoNameIndex index) {
+    this.index = index;
+  }
 
   // Get placenames from http://download.geonames.org/export/dump/
 
   /**
-   * Parse the zipped geonames file.
+   * Returns the reverse geocoder of a zipped geonames file. The index is built only once and stored
+   * next to the data file, later invocations (also of other JVMs) memory-map the stored index.
    *
-   * @param zippedPlacednames a {@link ZipInputStream} zip file downloaded from http://download.geonames.org/export/dump/; can not be null.
-   * @param majorOnly         only include major cities in KD-tree.
-   * @throws IOException          if there is a problem reading the {@link ZipInputStream}.
-   * @throws NullPointerException if zippedPlacenames is {@code null}.
+   * @param zippedPlacenames a zip file downloaded from http://download.geonames.org/export/dump/.
+   * @throws IOException if there is a problem reading the data file or the index.
    */
-  public ReverseGeoCode(ZipInputStream zippedPlacednames, boolean majorOnly) throws IOException {
+  public static ReverseGeoCode getInstance(Path zippedPlacenames) throws IOException {
+    Path key = zippedPlacenames.toAbsolutePath().normalize();
+    ReverseGeoCode instance = INSTANCES.get(key);
+    if (instance == null) {
+      synchronized (INSTANCES) {
+        instance = INSTANCES.get(key);
+        if (instance == null) {
+          instance = new ReverseGeoCode(loadIndex(key));
+          INSTANCES.put(key, instance);
+        }
+      }
+    }
+    return instance;
+  }
+
+  private static GeoNameIndex loadIndex(Path zippedPlacenames) throws IOException {
+    Path indexFile = zippedPlacenames.resolveSibling(zippedPlacenames.getFileName() + INDEX_SUFFIX);
+    if (!Files.exists(indexFile)
+            || Files.getLastModifiedTime(indexFile).compareTo(Files.getLastModifiedTime(zippedPlacenames)) < 0) {
+      try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(zippedPlacenames))) {
+        GeoNameIndex.build(nextPlacenamesEntry(zipInputStream), indexFile);
+      }
+    }
+    return GeoNameIndex.open(indexFile);
+  }
+
+  private static InputStream nextPlacenamesEntry(ZipInputStream zippedPlacenames) throws IOException {
     //depending on which zip file is given,
     //country specific zip files have read me files
     //that we should ignore
     ZipEntry entry;
     do {
-      entry = zippedPlacednames.getNextEntry();
-    } while (entry.getName().equals("readme.txt"));
-
-    createKdTree(zippedPlacednames, majorOnly);
-
-  }
+      entry = zippedPlacenames.getNextEntry();
+    } while (entry != null && entry.getName().equals("readme.txt"));
 
-  public ReverseGeoCode(InputStream inputStream, boolean majorOnly, boolean extract) throws IOException {
-    createKdTree(inputStream, majorOnly);
+    if (entry == null) {
+      throw new IOException("No placenames found in zip file");
+    }
+    return zippedPlacenames;
   }
 
-  /**
-   * Parse the raw text geonames file.
-   *
-   * @param placenames the text file downloaded from http://download.geonames.org/export/dump/; can not be null.
-   * @param majorOnly  only include major cities in KD-tree.
-   * @throws IOException          if there is a problem reading the stream.
-   * @throws NullPointerException if zippedPlacenames is {@code null}.
-   */
-  public ReverseGeoCode(InputStream placenames, boolean majorOnly) throws IOException {
-    createKdTree(placenames, majorOnly);
+  public GeoName nearestPlace(double latitude, double longitude) {
+    return index.nearest(latitude, longitude);
   }
 
-  private void createKdTree(InputStream placenames, boolean majorOnly)
-          throws IOException {
-    ArrayList<GeoName> arPlaceNames;
-    arPlaceNames = new ArrayList<GeoName>();
-    // Read the geonames file in the directory
-    BufferedReader in = new BufferedReader(new InputStreamReader(placenames));
-    String str;
-    try {
-      while ((str = in.readLine()) != null) {
-        GeoName newPlace = new GeoName(str);
-        if (!majorOnly || newPlace.majorPlace) {
-          arPlaceNames.add(newPlace);
-        }
-      }
-    } catch (IOException ex) {
-      throw ex;
-    } finally {
-      in.close();
-    }
-    kdTree = new KDTree<GeoName>(arPlaceNames);
+  public List<GeoName> nearestPlaces(double latitude, double longitude, int k) {
+    return index.nearest(latitude, longitude, k);
   }
 
-  public GeoName nearestPlace(double latitude, double longitude) {
-    return kdTree.findNearest(new GeoName(latitude, longitude));
+  public List<GeoName> placesWithin(double latitude, double longitude, double radiusMeters) {
+    return index.within(latitude, longitude, radiusMeters);
   }
 }
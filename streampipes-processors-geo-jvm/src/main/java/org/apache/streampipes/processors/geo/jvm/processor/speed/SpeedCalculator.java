@@ -16,71 +16,56 @@
  */
 package org.apache.streampipes.processors.geo.jvm.processor.speed;
 
-import org.apache.commons.collections.buffer.CircularFifoBuffer;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.processors.geo.jvm.processor.util.DistanceUtil;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.geo.jvm.processor.util.MotionTracker;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SpeedCalculator implements EventProcessor<SpeedCalculatorParameters> {
 
-  private CircularFifoBuffer buffer;
+  private static final Logger LOG = LoggerFactory.getLogger(SpeedCalculator.class);
+
+  private MotionTracker<EventKey> tracker;
 
   private String latitudeFieldName;
   private String longitudeFieldName;
   private String timestampFieldName;
+  private String[] entityFieldNames;
 
   @Override
   public void onInvocation(SpeedCalculatorParameters parameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
-    this.buffer = new CircularFifoBuffer(parameters.getCountWindowSize());
+    this.tracker = new MotionTracker<>(parameters.getCountWindowSize(),
+            parameters.getIdleTimeoutSeconds() * 1000L);
     this.latitudeFieldName = parameters.getLatitudeFieldName();
     this.longitudeFieldName = parameters.getLongitudeFieldName();
     this.timestampFieldName = parameters.getTimestampFieldName();
+    this.entityFieldNames = parameters.getEntityFieldNames().toArray(new String[0]);
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector collector) throws SpRuntimeException {
-    if (this.buffer.isFull()) {
-      Event firstEvent = (Event) buffer.get();
-      Float speed = calculateSpeed(firstEvent, event);
-      event.addField("speed", speed);
+    double latitude = event.getFieldBySelector(latitudeFieldName).getAsPrimitive().getAsDouble();
+    double longitude = event.getFieldBySelector(longitudeFieldName).getAsPrimitive().getAsDouble();
+    long timestamp = event.getFieldBySelector(timestampFieldName).getAsPrimitive().getAsLong();
+
+    MotionTracker.Track track = tracker.update(EventKey.of(event, entityFieldNames), latitude, longitude, timestamp);
+    if (track.hasSpeed()) {
+      event.addField("speed", track.getSpeed());
+      event.addField("acceleration", track.getAcceleration());
+      event.addField("heading", track.getHeading());
+      event.addField("totalDistance", track.getTotalDistance());
       collector.collect(event);
     }
-    this.buffer.add(event);
-  }
-
-  private Float calculateSpeed(Event firstEvent, Event currentEvent) {
-    Float firstLatitude = getFloat(firstEvent, latitudeFieldName);
-    Float firstLongitude = getFloat(firstEvent, longitudeFieldName);
-    Long firstTimestamp = getLong(firstEvent, timestampFieldName);
-
-    Float currentLatitude = getFloat(currentEvent, latitudeFieldName);
-    Float currentLongitude = getFloat(currentEvent, longitudeFieldName);
-    Long currentTimestamp = getLong(currentEvent, timestampFieldName);
-
-    Float distanceInKm = DistanceUtil.dist(firstLatitude, firstLongitude, currentLatitude,
-            currentLongitude);
-
-    Long durationInSeconds = (currentTimestamp - firstTimestamp) / 1000;
-
-    Float speedInKilometersPerSecond = distanceInKm / durationInSeconds;
-    Float speedInKilometerPerHour = speedInKilometersPerSecond * 3600;
-
-    return speedInKilometerPerHour;
-  }
-
-  private Long getLong(Event event, String fieldName) {
-    return event.getFieldBySelector(fieldName).getAsPrimitive().getAsLong();
-  }
-
-  private Float getFloat(Event event, String fieldName) {
-    return event.getFieldBySelector(fieldName).getAsPrimitive().getAsFloat();
   }
 
   @Override
   public void onDetach() throws SpRuntimeException {
-
+    LOG.info("Speed calculator detached, tracked entities: {}, evicted idle entities: {}",
+            tracker.size(), tracker.getEvictedTracks());
   }
 }
@@ -36,6 +36,7 @@ import org.apache.streampipes.wrapper.standalone.ConfiguredEventProcessor;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcessingDeclarer;
 
 import java.net.URI;
+import java.util.List;
 
 public class SpeedCalculatorController extends StandaloneEventProcessingDeclarer<SpeedCalculatorParameters> {
 
@@ -44,6 +45,8 @@ public class SpeedCalculatorController extends StandaloneEventProcessingDeclarer
   private static final String LONGITUDE_KEY = "longitude-key" ;
   private static final String SPEED_KEY = "speed-key";
   private static final String COUNT_WINDOW_KEY = "count-window-key";
+  private static final String ENTITY_KEY = "entity-key";
+  private static final String IDLE_TIMEOUT_KEY = "idle-timeout-key";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -60,13 +63,31 @@ public class SpeedCalculatorController extends StandaloneEventProcessingDeclarer
                       , Labels.withId(LATITUDE_KEY), PropertyScope.MEASUREMENT_PROPERTY)
               .requiredPropertyWithUnaryMapping(EpRequirements.domainPropertyReq(Geo.lng)
                       , Labels.withId(LONGITUDE_KEY), PropertyScope.MEASUREMENT_PROPERTY)
+              .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
+                      Labels.withId(ENTITY_KEY), PropertyScope.DIMENSION_PROPERTY)
               .build())
             .requiredIntegerParameter(Labels.withId(COUNT_WINDOW_KEY))
+            .requiredIntegerParameter(Labels.withId(IDLE_TIMEOUT_KEY), 600)
             .outputStrategy(
               OutputStrategies.append(PrimitivePropertyBuilder
-                      .create(Datatypes.Float,"speed")
+                      .create(Datatypes.Double,"speed")
                       .domainProperty(SO.Number)
                       .measurementUnit(URI.create("http://qudt.org/vocab/unit#KilometerPerHour"))
+                      .build(),
+                      PrimitivePropertyBuilder
+                      .create(Datatypes.Double,"acceleration")
+                      .domainProperty(SO.Number)
+                      .measurementUnit(URI.create("http://qudt.org/vocab/unit#MeterPerSecondSquared"))
+                      .build(),
+                      PrimitivePropertyBuilder
+                      .create(Datatypes.Double,"heading")
+                      .domainProperty(SO.Number)
+                      .measurementUnit(URI.create("http://qudt.org/vocab/unit#DegreeAngle"))
+                      .build(),
+                      PrimitivePropertyBuilder
+                      .create(Datatypes.Double,"totalDistance")
+                      .domainProperty(SO.Number)
+                      .measurementUnit(URI.create("http://qudt.org/vocab/unit#Kilometer"))
                       .build())
             )
             .build();
@@ -79,10 +100,14 @@ public class SpeedCalculatorController extends StandaloneEventProcessingDeclarer
     String longitudeFieldName = extractor.mappingPropertyValue(LONGITUDE_KEY);
     String timestampFieldName = extractor.mappingPropertyValue(TIMESTAMP_KEY);
 
+    List<String> entityFieldNames = extractor.mappingPropertyValues(ENTITY_KEY);
+
     Integer countWindowSize = extractor.singleValueParameter(COUNT_WINDOW_KEY, Integer.class);
+    Integer idleTimeoutSeconds = extractor.singleValueParameter(IDLE_TIMEOUT_KEY, Integer.class);
 
     SpeedCalculatorParameters staticParam = new SpeedCalculatorParameters(graph,
-            latitudeFieldName, longitudeFieldName, timestampFieldName, countWindowSize);
+            latitudeFieldName, longitudeFieldName, timestampFieldName, countWindowSize,
+            entityFieldNames, idleTimeoutSeconds);
 
     return new ConfiguredEventProcessor<>(staticParam, SpeedCalculator::new);
   }
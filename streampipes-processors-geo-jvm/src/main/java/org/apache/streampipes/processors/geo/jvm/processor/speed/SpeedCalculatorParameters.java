@@ -19,23 +19,31 @@ package org.apache.streampipes.processors.geo.jvm.processor.speed;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
+import java.util.List;
+
 public class SpeedCalculatorParameters extends EventProcessorBindingParams {
 
   private String latitudeFieldName;
   private String longitudeFieldName;
   private String timestampFieldName;
   private Integer countWindowSize;
+  private List<String> entityFieldNames;
+  private Integer idleTimeoutSeconds;
 
   public SpeedCalculatorParameters(DataProcessorInvocation graph,
                                    String latitudeFieldName,
                                    String longitudeFieldName,
                                    String timestampFieldName,
-                                   Integer countWindowSize) {
+                                   Integer countWindowSize,
+                                   List<String> entityFieldNames,
+                                   Integer idleTimeoutSeconds) {
     super(graph);
     this.latitudeFieldName = latitudeFieldName;
     this.longitudeFieldName = longitudeFieldName;
     this.timestampFieldName = timestampFieldName;
     this.countWindowSize = countWindowSize;
+    this.entityFieldNames = entityFieldNames;
+    this.idleTimeoutSeconds = idleTimeoutSeconds;
   }
 
   public String getLatitudeFieldName() {
@@ -53,4 +61,12 @@ public class SpeedCalculatorParameters extends EventProcessorBindingParams {
   public Integer getCountWindowSize() {
     return countWindowSize;
   }
+
+  public List<String> getEntityFieldNames() {
+    return entityFieldNames;
+  }
+
+  public Integer getIdleTimeoutSeconds() {
+    return idleTimeoutSeconds;
+  }
 }
@@ -42,13 +42,13 @@ public class StaticDistanceCalculator implements EventProcessor<StaticDistanceCa
 
   @Override
   public void onEvent(Event event, SpOutputCollector collector) throws SpRuntimeException {
-    Float latitude = event.getFieldBySelector(latitudeFieldName).getAsPrimitive().getAsFloat();
-    Float longitude = event.getFieldBySelector(longitudeFieldName).getAsPrimitive().getAsFloat();
+    double latitude = event.getFieldBySelector(latitudeFieldName).getAsPrimitive().getAsDouble();
+    double longitude = event.getFieldBySelector(longitudeFieldName).getAsPrimitive().getAsDouble();
 
-    Float distance = DistanceUtil.dist(latitude, longitude, selectedLocationLatitude,
+    double distance = DistanceUtil.dist(latitude, longitude, selectedLocationLatitude,
             selectedLocationLongitude);
 
-    event.addField("distance", distance);
+    event.addField("distance", (float) distance);
 
     collector.collect(event);
   }
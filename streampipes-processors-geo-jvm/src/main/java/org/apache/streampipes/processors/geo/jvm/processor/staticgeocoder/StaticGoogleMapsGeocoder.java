@@ -17,17 +17,14 @@
  */
 package org.apache.streampipes.processors.geo.jvm.processor.staticgeocoder;
 
-import com.google.maps.GeoApiContext;
-import com.google.maps.GeocodingApi;
-import com.google.maps.errors.ApiException;
-import com.google.maps.model.GeocodingResult;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.geo.jvm.processor.geocoder.util.GeocodingEngine;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 public class StaticGoogleMapsGeocoder implements EventProcessor<StaticGoogleMapsGeocodingParameters> {
 
@@ -44,18 +41,17 @@ public class StaticGoogleMapsGeocoder implements EventProcessor<StaticGoogleMaps
               " API key?");
     }
 
-    GeoApiContext context = new GeoApiContext.Builder()
-            .apiKey(googleMapsApiKey)
-            .build();
-
+    // served from the shared geocoding cache, if the place was resolved before
+    GeocodingEngine engine = new GeocodingEngine(googleMapsApiKey, 1, 1);
     try {
-      GeocodingResult[] results = GeocodingApi.geocode(context,
-              place).await();
-      this.latitude = results[0].geometry.location.lat;
-      this.longitude = results[0].geometry.location.lng;
-    } catch (ApiException | IOException | InterruptedException e) {
+      double[] location = engine.geocode(place).get();
+      this.latitude = location[0];
+      this.longitude = location[1];
+    } catch (ExecutionException | InterruptedException e) {
       e.printStackTrace();
       throw new SpRuntimeException("Could not fetch geocoding result");
+    } finally {
+      engine.shutdown();
     }
   }
 
@@ -18,17 +18,34 @@ package org.apache.streampipes.processors.geo.jvm.processor.util;
 
 public class DistanceUtil {
 
-  public static float dist(float lat1, float lng1, float lat2, float lng2) {
-    double earthRadius = 6371000; //meters
+  private static final double EARTH_RADIUS_METERS = 6371000;
+
+  /**
+   * Great-circle distance between two points in kilometers (haversine formula).
+   */
+  public static double dist(double lat1, double lng1, double lat2, double lng2) {
     double dLat = Math.toRadians(lat2-lat1);
     double dLng = Math.toRadians(lng2-lng1);
-    double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
-            Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                    Math.sin(dLng/2) * Math.sin(dLng/2);
+    double sinLat = Math.sin(dLat/2);
+    double sinLng = Math.sin(dLng/2);
+    double a = sinLat * sinLat +
+            Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
     double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-    float dist = (float) (earthRadius * c);
 
-    return dist / 1000;
+    return EARTH_RADIUS_METERS * c / 1000;
+  }
+
+  /**
+   * Initial bearing from the first to the second point in degrees, clockwise from north in [0, 360).
+   */
+  public static double bearing(double lat1, double lng1, double lat2, double lng2) {
+    double phi1 = Math.toRadians(lat1);
+    double phi2 = Math.toRadians(lat2);
+    double dLng = Math.toRadians(lng2-lng1);
+    double y = Math.sin(dLng) * Math.cos(phi2);
+    double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLng);
+
+    return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
   }
 
 }
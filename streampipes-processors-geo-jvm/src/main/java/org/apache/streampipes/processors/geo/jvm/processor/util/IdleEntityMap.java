@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps per-entity state and evicts entities that did not report a position for longer than the idle timeout
+ * (in event time). The map is in access order, so that the least recently updated entity is always the eldest
+ * entry and eviction stops at the first entity that is still active.
+ *
+ * @param <K> the type of the entity key
+ * @param <V> the type of the entity state
+ */
+public class IdleEntityMap<K, V> {
+
+  private final long idleTimeoutMillis;
+  private final ToLongFunction<V> lastTimestamp;
+  private final LinkedHashMap<K, V> entities;
+
+  private long currentTime = Long.MIN_VALUE;
+  private long evictedEntities;
+
+  /**
+   * @param idleTimeoutMillis time after which a silent entity is evicted, 0 to keep all entities
+   * @param lastTimestamp     returns the timestamp of the latest position of an entity
+   */
+  public IdleEntityMap(long idleTimeoutMillis, ToLongFunction<V> lastTimestamp) {
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.lastTimestamp = lastTimestamp;
+    this.entities = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  public V get(K key) {
+    return entities.get(key);
+  }
+
+  public void put(K key, V value) {
+    entities.put(key, value);
+  }
+
+  public void remove(K key) {
+    entities.remove(key);
+  }
+
+  public int size() {
+    return entities.size();
+  }
+
+  public long getEvictedEntities() {
+    return evictedEntities;
+  }
+
+  /**
+   * Advances the event time to the given timestamp and evicts all entities that became idle.
+   */
+  public void evictIdleEntities(long timestamp) {
+    currentTime = Math.max(currentTime, timestamp);
+    if (idleTimeoutMillis <= 0) {
+      return;
+    }
+    Iterator<Map.Entry<K, V>> iterator = entities.entrySet().iterator();
+    while (iterator.hasNext()) {
+      if (lastTimestamp.applyAsLong(iterator.next().getValue()) >= currentTime - idleTimeoutMillis) {
+        break;
+      }
+      iterator.remove();
+      evictedEntities++;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.util;
+
+/**
+ * Tracks the motion of many entities, e.g., vehicles. Each entity keeps the positions of its last events in
+ * primitive ring buffers, from which speed, acceleration, heading and the travelled distance are derived.
+ * Entities that did not report a position for longer than the idle timeout (in event time) are evicted.
+ *
+ * @param <K> the type of the entity key
+ */
+public class MotionTracker<K> {
+
+  private final int windowSize;
+  private final IdleEntityMap<K, Track> tracks;
+
+  /**
+   * @param windowSize        the speed is computed between the current and the windowSize-th previous position
+   * @param idleTimeoutMillis time after which a silent entity is evicted, 0 to keep all entities
+   */
+  public MotionTracker(int windowSize, long idleTimeoutMillis) {
+    this.windowSize = Math.max(1, windowSize);
+    this.tracks = new IdleEntityMap<>(idleTimeoutMillis, track -> track.lastTimestamp);
+  }
+
+  /**
+   * Adds the position of an entity and returns its updated track.
+   */
+  public Track update(K key, double latitude, double longitude, long timestamp) {
+    Track track = tracks.get(key);
+    if (track == null) {
+      track = new Track(windowSize);
+      tracks.put(key, track);
+    }
+    track.add(latitude, longitude, timestamp);
+
+    tracks.evictIdleEntities(timestamp);
+    return track;
+  }
+
+  public int size() {
+    return tracks.size();
+  }
+
+  public long getEvictedTracks() {
+    return tracks.getEvictedEntities();
+  }
+
+  public static class Track {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] timestamps;
+    private int next;
+    private int size;
+
+    private long lastTimestamp;
+    private boolean hasSpeed;
+    private double speed;
+    private long speedTimestamp;
+    private double acceleration;
+    private double heading;
+    private double totalDistance;
+
+    Track(int windowSize) {
+      this.latitudes = new double[windowSize];
+      this.longitudes = new double[windowSize];
+      this.timestamps = new long[windowSize];
+    }
+
+    void add(double latitude, double longitude, long timestamp) {
+      int capacity = timestamps.length;
+      if (size > 0) {
+        int previous = (next + capacity - 1) % capacity;
+        double step = DistanceUtil.dist(latitudes[previous], longitudes[previous], latitude, longitude);
+        totalDistance += step;
+        if (step > 0) {
+          heading = DistanceUtil.bearing(latitudes[previous], longitudes[previous], latitude, longitude);
+        }
+      }
+
+      // the slot to be overwritten holds the oldest position of a full window
+      if (size == capacity && timestamp > timestamps[next]) {
+        double hours = (timestamp - timestamps[next]) / 3600000.0;
+        double currentSpeed = DistanceUtil.dist(latitudes[next], longitudes[next], latitude, longitude) / hours;
+        acceleration = hasSpeed && timestamp > speedTimestamp
+                ? (currentSpeed - speed) / 3.6 / ((timestamp - speedTimestamp) / 1000.0)
+                : 0;
+        speed = currentSpeed;
+        speedTimestamp = timestamp;
+        hasSpeed = true;
+      }
+
+      latitudes[next] = latitude;
+      longitudes[next] = longitude;
+      timestamps[next] = timestamp;
+      next = (next + 1) % capacity;
+      size = Math.min(size + 1, capacity);
+      lastTimestamp = timestamp;
+    }
+
+    /**
+     * Whether the speed has been computed for the latest position.
+     */
+    public boolean hasSpeed() {
+      return hasSpeed && speedTimestamp == lastTimestamp;
+    }
+
+    /**
+     * Speed over the window in km/h.
+     */
+    public double getSpeed() {
+      return speed;
+    }
+
+    /**
+     * Change of speed since the previous speed value in m/s^2.
+     */
+    public double getAcceleration() {
+      return acceleration;
+    }
+
+    /**
+     * Direction of the latest movement in degrees, clockwise from north.
+     */
+    public double getHeading() {
+      return heading;
+    }
+
+    /**
+     * Distance travelled since the entity was first seen in km.
+     */
+    public double getTotalDistance() {
+      return totalDistance;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.helper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestSpGeofenceIndex {
+
+  private static final String GEOJSON = "{\"type\": \"FeatureCollection\", \"features\": ["
+          + "{\"type\": \"Feature\", \"id\": \"a\", \"properties\": {}, \"geometry\": {\"type\": \"Polygon\", "
+          + "\"coordinates\": [[[8, 49], [9, 49], [9, 50], [8, 50], [8, 49]]]}},"
+          + "{\"type\": \"Feature\", \"properties\": {\"name\": \"b\"}, \"geometry\": {\"type\": \"Polygon\", "
+          + "\"coordinates\": [[[8.5, 49.5], [9.5, 49.5], [9.5, 50.5], [8.5, 50.5], [8.5, 49.5]]]}},"
+          + "{\"type\": \"Feature\", \"properties\": {\"name\": \"point\"}, \"geometry\": {\"type\": \"Point\", "
+          + "\"coordinates\": [8.7, 49.7]}},"
+          + "{\"type\": \"Feature\", \"id\": \"c\", \"geometry\": {\"type\": \"Polygon\", \"coordinates\": ["
+          + "[[0, 0], [10, 0], [10, 10], [0, 10], [0, 0]], [[4, 4], [6, 4], [6, 6], [4, 6], [4, 4]]]}},"
+          + "{\"type\": \"Feature\", \"id\": \"d\", \"geometry\": {\"type\": \"MultiPolygon\", \"coordinates\": ["
+          + "[[[20, 0], [21, 0], [21, 1], [20, 1], [20, 0]]], [[[22, 0], [23, 0], [23, 1], [22, 1], [22, 0]]]]}}"
+          + "]}";
+
+  private static final String WKT = "# zones\n"
+          + "north\tPOLYGON((0 0, 10 0, 10 10, 0 10, 0 0))\n"
+          + "\n"
+          + "POLYGON((5 5, 15 5, 15 15, 5 15, 5 5))\n"
+          + "LINESTRING(0 0, 1 1)\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final SpGeofenceIndex.ZoneBuffer zones = new SpGeofenceIndex.ZoneBuffer();
+
+  @Test
+  public void testGeoJson() throws IOException {
+    SpGeofenceIndex index = SpGeofenceIndex.load(write("zones.geojson", GEOJSON));
+
+    assertEquals(4, index.size());
+    assertZones(index, 8.7, 49.7, "a", "b");
+    assertZones(index, 8.2, 49.2, "a");
+    assertZones(index, 9.2, 50.2, "b");
+    assertZones(index, 8.0, 49.5, "a");
+    assertZones(index, 7.9, 49.5);
+  }
+
+  @Test
+  public void testGeoJsonHolesAndMultiPolygons() throws IOException {
+    SpGeofenceIndex index = SpGeofenceIndex.load(write("zones.json", GEOJSON));
+
+    assertZones(index, 2, 2, "c");
+    assertZones(index, 5, 5);
+    assertZones(index, 20.5, 0.5, "d");
+    assertZones(index, 22.5, 0.5, "d");
+    assertZones(index, 21.5, 0.5);
+  }
+
+  @Test
+  public void testWkt() throws IOException {
+    SpGeofenceIndex index = SpGeofenceIndex.load(write("zones.txt", WKT));
+
+    assertEquals(2, index.size());
+    assertZones(index, 2, 2, "north");
+    assertZones(index, 7, 7, "north", "4");
+    assertZones(index, 12, 12, "4");
+    assertZones(index, -1, 2);
+  }
+
+  @Test(expected = IOException.class)
+  public void testNoPolygonalZones() throws IOException {
+    SpGeofenceIndex.load(write("zones.txt", "LINESTRING(0 0, 1 1)\n"));
+  }
+
+  private Path write(String fileName, String content) throws IOException {
+    return Files.write(folder.getRoot().toPath().resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void assertZones(SpGeofenceIndex index, double longitude, double latitude, String... expectedIds) {
+    assertEquals(expectedIds.length, index.locate(longitude, latitude, zones));
+    assertEquals(expectedIds.length, zones.size());
+    for (int i = 0; i < expectedIds.length; i++) {
+      assertEquals(expectedIds[i], index.getZoneId(zones.get(i)));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.helper;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSpGeometryWriter {
+
+  private static final String[] GEOMETRIES = {
+          "POINT (8.1 49.2)",
+          "LINESTRING (8.1 49.2, 8.15 49.25, 8.2 49.3)",
+          "LINESTRING EMPTY",
+          "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (4 4, 6 4, 6 6, 4 6, 4 4))",
+          "MULTIPOINT ((1 2), (3 4))"
+  };
+
+  @Test
+  public void testWkbRoundTrip() {
+    for (String wkt : GEOMETRIES) {
+      Geometry geom = SpGeometryBuilder.createSPGeom(wkt, 4326);
+      String wkb = SpGeometryWriter.write(geom, SpGeometryWriter.Format.WKB);
+
+      // little endian byte order marker
+      assertTrue(wkb, wkb.startsWith("01"));
+      assertTrue(wkb, SpGeometryBuilder.isHexWkb(wkb));
+
+      Geometry read = SpGeometryBuilder.createSPGeom(wkb, 4326);
+      assertTrue(wkt, geom.equalsExact(read));
+      assertEquals(4326, read.getSRID());
+    }
+  }
+
+  @Test
+  public void testWkbIsLittleEndian() {
+    Geometry point = SpGeometryBuilder.createSPGeom("POINT (1 2)", 4326);
+
+    // byte order, geometry type 1 and the x/y doubles 1.0 and 2.0, each least significant byte first
+    assertEquals("0101000000000000000000F03F0000000000000040",
+            SpGeometryWriter.write(point, SpGeometryWriter.Format.WKB));
+  }
+
+  @Test
+  public void testWktRoundTrip() {
+    for (String wkt : GEOMETRIES) {
+      Geometry geom = SpGeometryBuilder.createSPGeom(wkt, 4326);
+      String written = SpGeometryWriter.write(geom, SpGeometryWriter.Format.WKT);
+
+      assertFalse(written, SpGeometryBuilder.isHexWkb(written));
+      assertTrue(wkt, geom.equalsExact(SpGeometryBuilder.createSPGeom(written, 4326)));
+    }
+  }
+
+  @Test
+  public void testHexWkbDetection() {
+    assertTrue(SpGeometryBuilder.isHexWkb("0101000000000000000000F03F0000000000000040"));
+    assertTrue(SpGeometryBuilder.isHexWkb("0101000000000000000000f03f0000000000000040"));
+    assertTrue(SpGeometryBuilder.isHexWkb("00000000013FF00000000000004000000000000000"));
+
+    assertFalse(SpGeometryBuilder.isHexWkb("POINT (1 2)"));
+    assertFalse(SpGeometryBuilder.isHexWkb(""));
+    // too short for a geometry header
+    assertFalse(SpGeometryBuilder.isHexWkb("01010000"));
+    // odd number of hex digits
+    assertFalse(SpGeometryBuilder.isHexWkb("0101000000000000000000F03F000000000000004"));
+    // no byte order marker
+    assertFalse(SpGeometryBuilder.isHexWkb("1101000000000000000000F03F0000000000000040"));
+    assertFalse(SpGeometryBuilder.isHexWkb("0101000000000000000000F03F00000000000000XY"));
+  }
+
+  @Test
+  public void testInvalidWkbCreatesEmptyPoint() {
+    Geometry geom = SpGeometryBuilder.createSPGeom("0101000000000000", 4326);
+
+    assertEquals("Point", geom.getGeometryType());
+    assertTrue(geom.isEmpty());
+  }
+}
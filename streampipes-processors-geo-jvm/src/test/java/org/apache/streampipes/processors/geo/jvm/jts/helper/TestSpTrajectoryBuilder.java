@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.helper;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSpTrajectoryBuilder {
+
+  private final GeometryFactory factory = SpGeometryBuilder.getGeometryFactory(4326);
+
+  @Test
+  public void testDescription() {
+    assertEquals("bus 42", new SpTrajectoryBuilder(2, "bus 42").getDescription());
+  }
+
+  @Test
+  public void testLessThanTwoPointsIsEmpty() {
+    SpTrajectoryBuilder trajectory = new SpTrajectoryBuilder(5, "");
+    assertTrue(trajectory.returnAsLineString(factory).isEmpty());
+
+    trajectory.addPointToTrajectory(SpGeometryBuilder.createSPGeom(8.0, 49.0, 4326), 0);
+    assertTrue(trajectory.returnAsLineString(factory).isEmpty());
+  }
+
+  @Test
+  public void testRingWrapsAroundForAllSubPointCounts() {
+    // the sub-point count is restricted to 2..30 by the controller
+    for (int numberSubPoints = 2; numberSubPoints <= 30; numberSubPoints++) {
+      SpTrajectoryBuilder trajectory = new SpTrajectoryBuilder(numberSubPoints, "");
+
+      // fill the ring several times so the head passes every index
+      for (int added = 1; added <= 3 * numberSubPoints + 1; added++) {
+        trajectory.addPointToTrajectory(SpGeometryBuilder.createSPGeom(lng(added), lat(added), 4326), added);
+        LineString line = trajectory.returnAsLineString(factory);
+
+        int expectedSize = Math.min(added, numberSubPoints);
+        if (expectedSize < 2) {
+          assertTrue(line.isEmpty());
+          continue;
+        }
+        assertEquals(expectedSize, line.getNumPoints());
+        // oldest point first, newest point last
+        int first = added - expectedSize + 1;
+        for (int i = 0; i < expectedSize; i++) {
+          Coordinate coordinate = line.getCoordinateN(i);
+          assertEquals(lng(first + i), coordinate.getX(), 0.0);
+          assertEquals(lat(first + i), coordinate.getY(), 0.0);
+          assertEquals(first + i, coordinate.getM(), 0.0);
+        }
+      }
+    }
+  }
+
+  private double lng(int index) {
+    return 8.0 + index / 100.0;
+  }
+
+  private double lat(int index) {
+    return 49.0 + index / 1000.0;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.jts.processor.geofence;
+
+import org.apache.streampipes.processors.geo.jvm.jts.helper.SpGeofenceIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestGeofenceTracker {
+
+  private static final String ZONES = "a\tPOLYGON((0 0, 2 0, 2 2, 0 2, 0 0))\n"
+          + "b\tPOLYGON((1 0, 3 0, 3 2, 1 2, 1 0))\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private SpGeofenceIndex index;
+  private SpGeofenceIndex.ZoneBuffer zones;
+  private List<String> transitions;
+
+  @Before
+  public void setUp() throws IOException {
+    Path file = Files.write(folder.getRoot().toPath().resolve("zones.txt"), ZONES.getBytes(StandardCharsets.UTF_8));
+    this.index = SpGeofenceIndex.load(file);
+    this.zones = new SpGeofenceIndex.ZoneBuffer();
+    this.transitions = new ArrayList<>();
+  }
+
+  @Test
+  public void testTransitions() {
+    GeofenceTracker<String> tracker = new GeofenceTracker<>(1000, 0);
+
+    assertTransitions(tracker, "x", -1, 1, 0);
+    assertEquals(0, tracker.size());
+
+    assertTransitions(tracker, "x", 0.5, 1, 100, "ENTER a 0");
+    assertTransitions(tracker, "x", 0.5, 1, 600);
+    assertTransitions(tracker, "x", 1.5, 1, 1100, "DWELL a 1000", "ENTER b 0");
+    assertTransitions(tracker, "x", 1.5, 1, 1500);
+    assertTransitions(tracker, "x", 2.5, 1, 2500, "EXIT a 2400", "DWELL b 1400");
+    assertEquals(1, tracker.size());
+
+    assertTransitions(tracker, "x", 4, 1, 3000, "EXIT b 1900");
+    assertEquals(0, tracker.size());
+  }
+
+  @Test
+  public void testDwellDisabled() {
+    GeofenceTracker<String> tracker = new GeofenceTracker<>(0, 0);
+
+    assertTransitions(tracker, "x", 0.5, 1, 0, "ENTER a 0");
+    assertTransitions(tracker, "x", 0.5, 1, 10000);
+    assertTransitions(tracker, "x", -1, 1, 20000, "EXIT a 20000");
+  }
+
+  @Test
+  public void testEntitiesAreIndependent() {
+    GeofenceTracker<String> tracker = new GeofenceTracker<>(1000, 0);
+
+    assertTransitions(tracker, "x", 0.5, 1, 0, "ENTER a 0");
+    assertTransitions(tracker, "y", 2.5, 1, 0, "ENTER b 0");
+    assertTransitions(tracker, "y", 1.5, 1, 500, "ENTER a 0");
+    assertTransitions(tracker, "x", -1, 1, 600, "EXIT a 600");
+    assertEquals(1, tracker.size());
+  }
+
+  @Test
+  public void testIdleEntitiesAreEvictedWithoutExit() {
+    GeofenceTracker<String> tracker = new GeofenceTracker<>(0, 5000);
+
+    assertTransitions(tracker, "x", 0.5, 1, 0, "ENTER a 0");
+    assertTransitions(tracker, "y", 2.5, 1, 5000, "ENTER b 0");
+    assertEquals(2, tracker.size());
+
+    assertTransitions(tracker, "z", -1, 1, 6000);
+    assertEquals(1, tracker.size());
+    assertEquals(1, tracker.getEvictedEntities());
+
+    // the evicted entity is treated as a new one
+    assertTransitions(tracker, "x", 0.5, 1, 6500, "ENTER a 0");
+  }
+
+  private void assertTransitions(GeofenceTracker<String> tracker, String entity, double longitude,
+                                 double latitude, long timestamp, String... expected) {
+    transitions.clear();
+    index.locate(longitude, latitude, zones);
+    tracker.update(entity, zones, timestamp, (transition, zone, duration) ->
+            transitions.add(transition.name() + " " + index.getZoneId(zone) + " " + duration));
+    assertEquals(expected.length == 0 ? Collections.emptyList() : Arrays.asList(expected), transitions);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.geocoder.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestGeocodingCache {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicLong clock = new AtomicLong(1000);
+
+  @Test
+  public void testNormalizedAddress() {
+    GeocodingCache cache = new GeocodingCache(10, 0, null, clock::get);
+    cache.put("  Haid-und-Neu-Str. 10,\tKarlsruhe ", 49.0, 8.4);
+
+    assertArrayEquals(new double[]{49.0, 8.4}, cache.get("haid-und-neu-str. 10, KARLSRUHE"), 0.0);
+    assertNull(cache.get("Haid-und-Neu-Str. 12, Karlsruhe"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    GeocodingCache cache = new GeocodingCache(2, 0, null, clock::get);
+    cache.put("a", 1, 1);
+    cache.put("b", 2, 2);
+    // accessing a makes b the least recently used entry
+    cache.get("a");
+    cache.put("c", 3, 3);
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertArrayEquals(new double[]{1, 1}, cache.get("a"), 0.0);
+    assertArrayEquals(new double[]{3, 3}, cache.get("c"), 0.0);
+  }
+
+  @Test
+  public void testExpiry() {
+    GeocodingCache cache = new GeocodingCache(10, 500, null, clock::get);
+    cache.put("a", 1, 1);
+
+    clock.addAndGet(500);
+    assertArrayEquals(new double[]{1, 1}, cache.get("a"), 0.0);
+
+    clock.addAndGet(1);
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testPersistAndLoad() {
+    Path file = folder.getRoot().toPath().resolve("cache").resolve("geocoding.tsv");
+    GeocodingCache cache = new GeocodingCache(10, 0, file, clock::get);
+    cache.put("a", 49.0123456789, 8.4);
+    cache.put("b", -33.9, 151.2);
+    cache.persist();
+
+    GeocodingCache loaded = new GeocodingCache(10, 0, file, clock::get);
+    loaded.load();
+
+    assertEquals(2, loaded.size());
+    assertArrayEquals(new double[]{49.0123456789, 8.4}, loaded.get("a"), 0.0);
+    assertArrayEquals(new double[]{-33.9, 151.2}, loaded.get("b"), 0.0);
+  }
+
+  @Test
+  public void testExpiredEntriesAreNotLoaded() {
+    Path file = folder.getRoot().toPath().resolve("geocoding.tsv");
+    GeocodingCache cache = new GeocodingCache(10, 500, file, clock::get);
+    cache.put("a", 1, 1);
+    clock.addAndGet(400);
+    cache.put("b", 2, 2);
+    cache.persist();
+
+    clock.addAndGet(200);
+    GeocodingCache loaded = new GeocodingCache(10, 500, file, clock::get);
+    loaded.load();
+
+    assertEquals(1, loaded.size());
+    assertNull(loaded.get("a"));
+    assertArrayEquals(new double[]{2, 2}, loaded.get("b"), 0.0);
+  }
+
+  @Test
+  public void testMissingFile() {
+    GeocodingCache cache = new GeocodingCache(10, 0, folder.getRoot().toPath().resolve("missing.tsv"),
+            clock::get);
+    cache.load();
+
+    assertEquals(0, cache.size());
+  }
+}
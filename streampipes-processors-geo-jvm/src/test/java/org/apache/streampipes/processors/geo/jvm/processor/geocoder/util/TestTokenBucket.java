@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.geocoder.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestTokenBucket {
+
+  private final AtomicLong clock = new AtomicLong(0);
+
+  @Test
+  public void testBurstUpToRate() {
+    TokenBucket bucket = new TokenBucket(5, clock::get);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, bucket.tryAcquire());
+    }
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.tryAcquire());
+  }
+
+  @Test
+  public void testRefill() {
+    TokenBucket bucket = new TokenBucket(5, clock::get);
+    for (int i = 0; i < 5; i++) {
+      bucket.tryAcquire();
+    }
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertEquals(0, bucket.tryAcquire());
+  }
+
+  @Test
+  public void testCapacityIsBounded() {
+    TokenBucket bucket = new TokenBucket(2, clock::get);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.tryAcquire());
+  }
+
+  @Test
+  public void testRateBelowOne() {
+    TokenBucket bucket = new TokenBucket(0.5, clock::get);
+
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.tryAcquire());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRate() {
+    new TokenBucket(0);
+  }
+}
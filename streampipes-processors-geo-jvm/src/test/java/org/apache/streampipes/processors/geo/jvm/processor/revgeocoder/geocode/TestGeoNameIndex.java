@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.revgeocoder.geocode;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestGeoNameIndex {
+
+  private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+  // coordinates are stored as floats on the unit sphere, which limits the precision to about a meter
+  private static final double TOLERANCE_METERS = 2.0;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<Place> places;
+  private GeoNameIndex index;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(42);
+    places = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      places.add(new Place("place" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+    }
+    // clusters around the poles, the antimeridian and a city with duplicate coordinates
+    for (int i = 0; i < 50; i++) {
+      places.add(new Place("north" + i, 89 + random.nextDouble(), random.nextDouble() * 360 - 180));
+      places.add(new Place("dateline" + i, random.nextDouble() * 10, 179.5 + random.nextDouble()
+              - (i % 2 == 0 ? 0 : 359)));
+      places.add(new Place("karlsruhe" + i, 49.0069, 8.4037));
+    }
+    index = buildIndex(places);
+  }
+
+  @Test
+  public void testNearestMatchesBruteForce() {
+    Random random = new Random(7);
+    for (int i = 0; i < 500; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      GeoName nearest = index.nearest(latitude, longitude);
+      double expected = bruteForce(latitude, longitude).get(0).distance;
+      assertEquals(expected, nearest.distance, TOLERANCE_METERS);
+      assertEquals(expected, findPlace(nearest.name).distanceTo(latitude, longitude), TOLERANCE_METERS);
+    }
+  }
+
+  @Test
+  public void testKNearestMatchesBruteForce() {
+    Random random = new Random(11);
+    for (int i = 0; i < 100; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      List<GeoName> nearest = index.nearest(latitude, longitude, 20);
+      List<Place> expected = bruteForce(latitude, longitude);
+
+      assertEquals(20, nearest.size());
+      for (int k = 0; k < nearest.size(); k++) {
+        assertEquals(expected.get(k).distance, nearest.get(k).distance, TOLERANCE_METERS);
+      }
+    }
+    // queries near the antimeridian find places on both sides of it
+    List<GeoName> dateline = index.nearest(5, 180, 5);
+    for (GeoName place : dateline) {
+      assertTrue(place.name.startsWith("dateline"));
+    }
+  }
+
+  @Test
+  public void testWithinMatchesBruteForce() {
+    Random random = new Random(13);
+    for (int i = 0; i < 100; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      double radius = random.nextDouble() * 1500000;
+
+      Set<String> found = new HashSet<>();
+      double previousDistance = 0;
+      for (GeoName place : index.within(latitude, longitude, radius)) {
+        found.add(place.name);
+        assertTrue(place.distance >= previousDistance);
+        assertTrue(place.distance <= radius + TOLERANCE_METERS);
+        previousDistance = place.distance;
+      }
+      for (Place place : bruteForce(latitude, longitude)) {
+        if (place.distance < radius - TOLERANCE_METERS) {
+          assertTrue(found.contains(place.name));
+        }
+      }
+    }
+
+    assertEquals(50, index.within(49.0069, 8.4037, 10).size());
+  }
+
+  @Test
+  public void testResolvesLabelAndCoordinates() {
+    GeoName place = index.nearest(49.01, 8.40);
+    assertTrue(place.name.startsWith("karlsruhe"));
+    assertEquals("DE", place.country);
+    assertEquals(49.0069, place.latitude, 1e-4);
+    assertEquals(8.4037, place.longitude, 1e-4);
+    assertEquals(places.size(), index.size());
+  }
+
+  @Test
+  public void testEmptyIndex() throws Exception {
+    GeoNameIndex empty = buildIndex(new ArrayList<>());
+    assertEquals(0, empty.size());
+    assertNull(empty.nearest(0, 0));
+    assertTrue(empty.nearest(0, 0, 3).isEmpty());
+    assertTrue(empty.within(0, 0, 1000).isEmpty());
+  }
+
+  @Test
+  public void testFailedBuildLeavesNoTemporaryFile() throws Exception {
+    File directory = folder.newFolder();
+    // an index file which cannot be replaced
+    Path indexFile = directory.toPath().resolve("geonames.idx");
+    Files.createDirectories(indexFile.resolve("not-empty"));
+
+    try {
+      GeoNameIndex.build(new ByteArrayInputStream(toGeonames(places)), indexFile);
+      fail("The index file must not be replaced");
+    } catch (IOException e) {
+      assertArrayEquals(new String[]{"geonames.idx"}, directory.list());
+    }
+  }
+
+  private GeoNameIndex buildIndex(List<Place> places) throws Exception {
+    Path indexFile = folder.newFolder().toPath().resolve("geonames.idx");
+    GeoNameIndex.build(new ByteArrayInputStream(toGeonames(places)), indexFile);
+    return GeoNameIndex.open(indexFile);
+  }
+
+  private byte[] toGeonames(List<Place> places) {
+    StringBuilder geonames = new StringBuilder();
+    for (int i = 0; i < places.size(); i++) {
+      Place place = places.get(i);
+      geonames.append(i).append('\t').append(place.name).append('\t').append(place.name).append("\t\t")
+              .append(place.latitude).append('\t').append(place.longitude).append("\tP\tPPL\tDE\n");
+    }
+    return geonames.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private List<Place> bruteForce(double latitude, double longitude) {
+    List<Place> sorted = new ArrayList<>();
+    for (Place place : places) {
+      Place copy = new Place(place.name, place.latitude, place.longitude);
+      copy.distance = place.distanceTo(latitude, longitude);
+      sorted.add(copy);
+    }
+    sorted.sort(Comparator.comparingDouble(place -> place.distance));
+    return sorted;
+  }
+
+  private Place findPlace(String name) {
+    for (Place place : places) {
+      if (place.name.equals(name)) {
+        return place;
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  private static class Place {
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+    private double distance;
+
+    Place(String name, double latitude, double longitude) {
+      this.name = name;
+      this.latitude = latitude;
+      this.longitude = longitude;
+    }
+
+    // haversine distance in meters
+    double distanceTo(double latitude, double longitude) {
+      double dLat = Math.toRadians(latitude - this.latitude);
+      double dLng = Math.toRadians(longitude - this.longitude);
+      double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(this.latitude))
+              * Math.cos(Math.toRadians(latitude)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+      return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+  }
+}
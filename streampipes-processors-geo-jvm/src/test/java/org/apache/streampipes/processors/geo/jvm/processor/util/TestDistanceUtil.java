@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestDistanceUtil {
+
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void testDistance() {
+    // one degree of longitude on the equator
+    assertEquals(111.194927, DistanceUtil.dist(0, 0, 0, 1), DELTA);
+    assertEquals(0.0, DistanceUtil.dist(49.0069, 8.4037, 49.0069, 8.4037), 0.0);
+    assertEquals(525.4, DistanceUtil.dist(49.0069, 8.4037, 52.52, 13.405), 0.1);
+  }
+
+  @Test
+  public void testBearingOfCardinalDirections() {
+    assertEquals(0.0, DistanceUtil.bearing(0, 0, 1, 0), DELTA);
+    assertEquals(90.0, DistanceUtil.bearing(0, 0, 0, 1), DELTA);
+    assertEquals(180.0, DistanceUtil.bearing(0, 0, -1, 0), DELTA);
+    assertEquals(270.0, DistanceUtil.bearing(0, 0, 0, -1), DELTA);
+  }
+
+  @Test
+  public void testBearingIsInitialGreatCircleCourse() {
+    assertEquals(44.995636, DistanceUtil.bearing(0, 0, 1, 1), DELTA);
+    // from Karlsruhe to Berlin
+    assertEquals(40.086380, DistanceUtil.bearing(49.0069, 8.4037, 52.52, 13.405), DELTA);
+    // across the antimeridian, the short way is east
+    assertEquals(90.0, DistanceUtil.bearing(0, 179.5, 0, -179.5), DELTA);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.geo.jvm.processor.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestMotionTracker {
+
+  private static final double DELTA = 1e-9;
+
+  // one hundredth of a degree of longitude on the equator in km
+  private static final double STEP_KM = DistanceUtil.dist(0, 0, 0, 0.01);
+
+  @Test
+  public void testSpeedIsComputedOnceTheWindowIsFull() {
+    MotionTracker<String> tracker = new MotionTracker<>(2, 0);
+
+    assertFalse(tracker.update("a", 0, 0, 0).hasSpeed());
+    assertFalse(tracker.update("a", 0, 0.01, 10000).hasSpeed());
+
+    MotionTracker.Track track = tracker.update("a", 0, 0.02, 20000);
+    assertTrue(track.hasSpeed());
+    // two steps within 20 seconds
+    assertEquals(2 * STEP_KM / (20 / 3600.0), track.getSpeed(), DELTA);
+    assertEquals(400.3017, track.getSpeed(), 1e-4);
+    assertEquals(0.0, track.getAcceleration(), DELTA);
+  }
+
+  @Test
+  public void testRingBufferWrapsAround() {
+    int windowSize = 3;
+    MotionTracker<String> tracker = new MotionTracker<>(windowSize, 0);
+    double[] longitudes = new double[20];
+    long[] timestamps = new long[20];
+    for (int i = 0; i < longitudes.length; i++) {
+      // steps of growing length at varying intervals
+      longitudes[i] = i == 0 ? 0 : longitudes[i - 1] + 0.001 * i;
+      timestamps[i] = i == 0 ? 0 : timestamps[i - 1] + 1000 + 500 * (i % 3);
+
+      MotionTracker.Track track = tracker.update("a", 0, longitudes[i], timestamps[i]);
+      assertEquals(i >= windowSize, track.hasSpeed());
+      if (i >= windowSize) {
+        int oldest = i - windowSize;
+        double hours = (timestamps[i] - timestamps[oldest]) / 3600000.0;
+        assertEquals(DistanceUtil.dist(0, longitudes[oldest], 0, longitudes[i]) / hours, track.getSpeed(), DELTA);
+      }
+    }
+  }
+
+  @Test
+  public void testAcceleration() {
+    MotionTracker<String> tracker = new MotionTracker<>(1, 0);
+    tracker.update("a", 0, 0, 0);
+    MotionTracker.Track track = tracker.update("a", 0, 0.01, 10000);
+    double firstSpeed = track.getSpeed();
+    assertEquals(0.0, track.getAcceleration(), DELTA);
+
+    // twice the distance in the same time
+    track = tracker.update("a", 0, 0.03, 20000);
+    assertEquals(2 * firstSpeed, track.getSpeed(), 1e-6);
+    assertEquals(firstSpeed / 3.6 / 10, track.getAcceleration(), 1e-6);
+
+    // back to the first speed
+    track = tracker.update("a", 0, 0.04, 30000);
+    assertEquals(-firstSpeed / 3.6 / 10, track.getAcceleration(), 1e-6);
+  }
+
+  @Test
+  public void testHeadingFollowsTheLatestMovement() {
+    MotionTracker<String> tracker = new MotionTracker<>(1, 0);
+    tracker.update("a", 0, 0, 0);
+
+    assertEquals(90.0, tracker.update("a", 0, 0.01, 1000).getHeading(), 1e-6);
+    assertEquals(0.0, tracker.update("a", 0.01, 0.01, 2000).getHeading(), 1e-6);
+    assertEquals(270.0, tracker.update("a", 0.01, 0, 3000).getHeading(), 1e-6);
+    assertEquals(180.0, tracker.update("a", 0, 0, 4000).getHeading(), 1e-6);
+    // a stationary entity keeps its heading
+    assertEquals(180.0, tracker.update("a", 0, 0, 5000).getHeading(), 1e-6);
+  }
+
+  @Test
+  public void testTotalDistanceIncludesPositionsBeforeTheWindowIsFull() {
+    MotionTracker<String> tracker = new MotionTracker<>(5, 0);
+    tracker.update("a", 0, 0, 0);
+    tracker.update("a", 0, 0.01, 1000);
+    tracker.update("a", 0, 0.01, 2000);
+    MotionTracker.Track track = tracker.update("a", 0, 0, 3000);
+
+    assertFalse(track.hasSpeed());
+    assertEquals(2 * STEP_KM, track.getTotalDistance(), DELTA);
+  }
+
+  @Test
+  public void testPositionsWithoutElapsedTimeHaveNoSpeed() {
+    MotionTracker<String> tracker = new MotionTracker<>(1, 0);
+    tracker.update("a", 0, 0, 1000);
+    assertFalse(tracker.update("a", 0, 0.01, 1000).hasSpeed());
+    assertTrue(tracker.update("a", 0, 0.02, 2000).hasSpeed());
+  }
+
+  @Test
+  public void testEntitiesAreTrackedIndependently() {
+    MotionTracker<String> tracker = new MotionTracker<>(1, 0);
+    tracker.update("a", 0, 0, 0);
+    tracker.update("b", 10, 10, 0);
+
+    MotionTracker.Track a = tracker.update("a", 0, 0.01, 10000);
+    MotionTracker.Track b = tracker.update("b", 10, 10, 10000);
+    assertNotSame(a, b);
+    assertEquals(STEP_KM * 360, a.getSpeed(), DELTA);
+    assertEquals(0.0, b.getSpeed(), DELTA);
+    assertEquals(2, tracker.size());
+  }
+
+  @Test
+  public void testIdleEntitiesAreEvicted() {
+    MotionTracker<String> tracker = new MotionTracker<>(1, 1000);
+    MotionTracker.Track a = tracker.update("a", 0, 0, 0);
+    tracker.update("b", 0, 0, 500);
+
+    // a is updated before idle entities are evicted, so its late position continues the track
+    assertSame(a, tracker.update("a", 0, 0.01, 1200));
+    // b has been silent for more than the timeout
+    tracker.update("c", 0, 0, 1600);
+    assertEquals(2, tracker.size());
+    assertEquals(1, tracker.getEvictedTracks());
+
+    // an evicted entity starts a new track
+    MotionTracker.Track b = tracker.update("b", 0, 0.01, 1700);
+    assertFalse(b.hasSpeed());
+    assertEquals(0.0, b.getTotalDistance(), DELTA);
+  }
+}
@@ -22,4 +22,9 @@ public class ConfigKeys {
     final static String HOST = "SP_HOST";
     final static String PORT = "SP_PORT";
     final static String SERVICE_NAME_KEY = "SP_SERVICE_NAME";
+    final static String IMAGE_WORKER_THREADS = "SP_IMAGE_WORKER_THREADS";
+    final static String IMAGE_DECODE_CACHE_SIZE = "SP_IMAGE_DECODE_CACHE_SIZE";
+    final static String CLASSIFICATION_MODEL_DIR = "SP_IMAGE_CLASSIFICATION_MODEL_DIR";
+    final static String CLASSIFICATION_MODEL_SHA256 = "SP_IMAGE_CLASSIFICATION_MODEL_SHA256";
+    final static String CLASSIFICATION_MODEL_DOWNLOAD = "SP_IMAGE_CLASSIFICATION_MODEL_DOWNLOAD";
 }
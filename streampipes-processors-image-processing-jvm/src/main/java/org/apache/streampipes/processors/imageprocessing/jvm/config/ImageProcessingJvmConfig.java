@@ -41,6 +41,16 @@ public enum ImageProcessingJvmConfig implements PeConfig {
 		config.register(ConfigKeys.PORT, 8090, "Port for the pe image processing");
 
 		config.register(ConfigKeys.SERVICE_NAME_KEY, service_name, "The name of the service");
+		config.register(ConfigKeys.IMAGE_WORKER_THREADS, Runtime.getRuntime().availableProcessors(),
+						"Number of worker threads shared by all image processors for CPU-heavy stages");
+		config.register(ConfigKeys.IMAGE_DECODE_CACHE_SIZE, 0,
+						"Number of decoded images shared between image processors of this service (0 = disabled)");
+		config.register(ConfigKeys.CLASSIFICATION_MODEL_DIR, System.getProperty("java.io.tmpdir")
+						+ "/streampipes/deepboof/nin_imagenet", "Local directory of the image classification model");
+		config.register(ConfigKeys.CLASSIFICATION_MODEL_SHA256, "",
+						"Expected SHA-256 checksum of the image classification model (empty = not verified)");
+		config.register(ConfigKeys.CLASSIFICATION_MODEL_DOWNLOAD, true,
+						"Download the image classification model if it is neither in the model directory nor on the classpath");
 
 	}
 	
@@ -68,6 +78,26 @@ public enum ImageProcessingJvmConfig implements PeConfig {
 		return config.getString(SERVICE_NAME_KEY);
 	}
 
+	public int getImageWorkerThreads() {
+		return config.getInteger(ConfigKeys.IMAGE_WORKER_THREADS);
+	}
+
+	public int getImageDecodeCacheSize() {
+		return config.getInteger(ConfigKeys.IMAGE_DECODE_CACHE_SIZE);
+	}
+
+	public String getClassificationModelDir() {
+		return config.getString(ConfigKeys.CLASSIFICATION_MODEL_DIR);
+	}
+
+	public String getClassificationModelSha256() {
+		return config.getString(ConfigKeys.CLASSIFICATION_MODEL_SHA256);
+	}
+
+	public boolean getClassificationModelDownload() {
+		return config.getBoolean(ConfigKeys.CLASSIFICATION_MODEL_DOWNLOAD);
+	}
+
 
 
 
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.imageprocessing.jvm.processor.commons;
+
+import boofcv.abst.fiducial.QrCodeDetector;
+import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.struct.image.GrayU8;
+import org.apache.streampipes.processors.imageprocessing.jvm.config.ImageProcessingJvmConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Decoding, encoding and detector resources shared by all image processors of the JVM.
+ * <p>
+ * Base64 and image buffers, ImageIO readers and writers as well as BoofCV detectors are kept per thread
+ * and reused for every image. Decoded images can optionally be shared between processors that receive the
+ * same image (see {@link ImageProcessingJvmConfig#getImageDecodeCacheSize()}); CPU-heavy stages can be run
+ * on a shared worker pool (see {@link ImageProcessingJvmConfig#getImageWorkerThreads()}).
+ */
+public class ImageRuntime {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ImageRuntime.class);
+
+  private static final ThreadLocal<Codec> CODECS = ThreadLocal.withInitial(Codec::new);
+  private static final ThreadLocal<QrCodeDetector<GrayU8>> QR_CODE_DETECTORS =
+          ThreadLocal.withInitial(() -> FactoryFiducial.qrcode(null, GrayU8.class));
+  private static final ThreadLocal<GrayU8> GRAY_IMAGES = ThreadLocal.withInitial(() -> new GrayU8(1, 1));
+
+  private ImageRuntime() {
+
+  }
+
+  /**
+   * Decodes a base64 encoded image.
+   *
+   * @param mutable if false, the returned image may be shared with other processors and must not be
+   *                modified
+   */
+  public static Optional<BufferedImage> decode(String imageBase64, boolean mutable) {
+    Map<ImageKey, BufferedImage> cache = DecodedImages.CACHE;
+    ImageKey key = cache != null ? ImageKey.of(imageBase64) : null;
+    if (cache != null) {
+      BufferedImage cached;
+      synchronized (cache) {
+        cached = cache.get(key);
+      }
+      if (cached != null) {
+        return Optional.of(mutable ? copy(cached) : cached);
+      }
+    }
+
+    try {
+      BufferedImage image = CODECS.get().decode(imageBase64);
+      if (image != null && cache != null) {
+        synchronized (cache) {
+          cache.put(key, image);
+        }
+        return Optional.of(mutable ? copy(image) : image);
+      }
+      return Optional.ofNullable(image);
+    } catch (IOException | IllegalArgumentException e) {
+      LOG.warn("Could not decode image: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  public static Optional<byte[]> encodeJpeg(BufferedImage image) {
+    try {
+      Codec codec = CODECS.get();
+      codec.encodeJpeg(image);
+      return Optional.of(codec.jpeg.toByteArray());
+    } catch (IOException e) {
+      LOG.warn("Could not encode image: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  public static Optional<String> encodeJpegBase64(BufferedImage image) {
+    try {
+      Codec codec = CODECS.get();
+      codec.encodeJpeg(image);
+      return Optional.of(codec.toBase64());
+    } catch (IOException e) {
+      LOG.warn("Could not encode image: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Converts the image into the gray image of the current thread, which is overwritten by the next call.
+   */
+  public static GrayU8 toGray(BufferedImage image) {
+    GrayU8 gray = GRAY_IMAGES.get();
+    gray.reshape(image.getWidth(), image.getHeight());
+    ConvertBufferedImage.convertFrom(image, gray);
+    return gray;
+  }
+
+  /**
+   * Returns the QR code detector of the current thread.
+   */
+  public static QrCodeDetector<GrayU8> qrCodeDetector() {
+    return QR_CODE_DETECTORS.get();
+  }
+
+  public static ExecutorService getWorkers() {
+    return Workers.POOL;
+  }
+
+  private static BufferedImage copy(BufferedImage image) {
+    ColorModel colorModel = image.getColorModel();
+    return new BufferedImage(colorModel, image.copyData(null), colorModel.isAlphaPremultiplied(), null);
+  }
+
+  private static class Workers {
+
+    private static final ExecutorService POOL = makePool();
+
+    private static ExecutorService makePool() {
+      int threads = Math.max(1, ImageProcessingJvmConfig.INSTANCE.getImageWorkerThreads());
+      LOG.info("Starting {} image worker threads", threads);
+      return Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable, "image-worker");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  private static class DecodedImages {
+
+    // null if sharing decoded images is disabled
+    private static final Map<ImageKey, BufferedImage> CACHE = makeCache();
+
+    private static Map<ImageKey, BufferedImage> makeCache() {
+      int size = ImageProcessingJvmConfig.INSTANCE.getImageDecodeCacheSize();
+      if (size <= 0) {
+        return null;
+      }
+      return new LinkedHashMap<ImageKey, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ImageKey, BufferedImage> eldest) {
+          return size() > size;
+        }
+      };
+    }
+  }
+
+  /**
+   * Identifies an encoded image by its length and two independent 64 bit hashes of its characters, so that
+   * the cache does not keep the encoded images alive and a lookup does not compare them character by
+   * character.
+   */
+  private static final class ImageKey {
+
+    private final int length;
+    private final long fnvHash;
+    private final long mixHash;
+
+    private ImageKey(int length, long fnvHash, long mixHash) {
+      this.length = length;
+      this.fnvHash = fnvHash;
+      this.mixHash = mixHash;
+    }
+
+    static ImageKey of(String imageBase64) {
+      long fnvHash = 0xcbf29ce484222325L;
+      long mixHash = 0;
+      for (int i = 0; i < imageBase64.length(); i++) {
+        char c = imageBase64.charAt(i);
+        fnvHash = (fnvHash ^ c) * 0x100000001b3L;
+        mixHash = Long.rotateLeft(mixHash ^ c, 23) * 0x9e3779b97f4a7c15L;
+      }
+      return new ImageKey(imageBase64.length(), fnvHash, mixHash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ImageKey)) {
+        return false;
+      }
+      ImageKey other = (ImageKey) o;
+      return length == other.length && fnvHash == other.fnvHash && mixHash == other.mixHash;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (fnvHash ^ (fnvHash >>> 32));
+    }
+  }
+
+  private static class Codec {
+
+    private final Map<String, ImageReader> readers = new HashMap<>();
+    private ImageWriter jpegWriter;
+
+    private byte[] base64 = new byte[64 * 1024];
+    private byte[] decoded = new byte[48 * 1024];
+    private final ExposedByteArrayOutputStream jpeg = new ExposedByteArrayOutputStream();
+    private final ExposedByteArrayOutputStream encoded = new ExposedByteArrayOutputStream();
+
+    BufferedImage decode(String imageBase64) throws IOException {
+      int length = imageBase64.length();
+      if (base64.length < length) {
+        base64 = new byte[length];
+      }
+      for (int i = 0; i < length; i++) {
+        base64[i] = (byte) imageBase64.charAt(i);
+      }
+      int maxDecodedLength = length / 4 * 3 + 3;
+      if (decoded.length < maxDecodedLength) {
+        decoded = new byte[maxDecodedLength];
+      }
+
+      int decodedLength = 0;
+      try (InputStream in = Base64.getDecoder().wrap(new ByteArrayInputStream(base64, 0, length))) {
+        int read;
+        while ((read = in.read(decoded, decodedLength, decoded.length - decodedLength)) > 0) {
+          decodedLength += read;
+        }
+      }
+
+      String format = detectFormat(decodedLength);
+      ByteArrayInputStream image = new ByteArrayInputStream(decoded, 0, decodedLength);
+      if (format == null) {
+        // an explicit memory cache, as ImageIO.read(InputStream) may buffer the image in a temporary file
+        return ImageIO.read(new MemoryCacheImageInputStream(image));
+      }
+
+      ImageReader reader = readers.computeIfAbsent(format, key -> ImageIO.getImageReadersByFormatName(key).next());
+      try (ImageInputStream input = new MemoryCacheImageInputStream(image)) {
+        reader.setInput(input, true, true);
+        return reader.read(0);
+      } finally {
+        reader.setInput(null);
+      }
+    }
+
+    void encodeJpeg(BufferedImage image) throws IOException {
+      if (jpegWriter == null) {
+        jpegWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+      }
+      jpeg.reset();
+      try (ImageOutputStream output = new MemoryCacheImageOutputStream(jpeg)) {
+        jpegWriter.setOutput(output);
+        jpegWriter.write(image);
+      } finally {
+        jpegWriter.setOutput(null);
+      }
+    }
+
+    String toBase64() throws IOException {
+      encoded.reset();
+      try (OutputStream out = Base64.getEncoder().wrap(encoded)) {
+        out.write(jpeg.buffer(), 0, jpeg.size());
+      }
+      return new String(encoded.buffer(), 0, encoded.size(), StandardCharsets.ISO_8859_1);
+    }
+
+    private String detectFormat(int length) {
+      if (length > 3 && (decoded[0] & 0xFF) == 0xFF && (decoded[1] & 0xFF) == 0xD8) {
+        return "jpeg";
+      } else if (length > 8 && (decoded[0] & 0xFF) == 0x89 && decoded[1] == 'P' && decoded[2] == 'N'
+              && decoded[3] == 'G') {
+        return "png";
+      }
+      return null;
+    }
+  }
+
+  private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+    ExposedByteArrayOutputStream() {
+      super(64 * 1024);
+    }
+
+    byte[] buffer() {
+      return buf;
+    }
+  }
+}
@@ -23,16 +23,12 @@ import org.apache.streampipes.processors.imageprocessing.jvm.processor.imageenri
 import org.apache.streampipes.processors.imageprocessing.jvm.processor.imageenrichment.ImageEnrichmentParameters;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import javax.imageio.ImageIO;
-
 public class ImageTransformer extends PlainImageTransformer<ImageEnrichmentParameters> {
 
   public ImageTransformer(Event in, ImageEnrichmentParameters params) {
@@ -44,6 +40,11 @@ public class ImageTransformer extends PlainImageTransformer<ImageEnrichmentParam
     return getImage(params.getImageProperty());
   }
 
+  public Optional<BufferedImage> getSharedImage() {
+
+    return getSharedImage(params.getImageProperty());
+  }
+
   public List<Map<String, Object>> getAllBoxCoordinates() {
     List<Map<String, AbstractField>> allBoxes = in.getFieldBySelector(params.getBoxArray())
             .getAsList()
@@ -90,18 +91,10 @@ public class ImageTransformer extends PlainImageTransformer<ImageEnrichmentParam
 
 
   public Optional<byte[]> makeImage(BufferedImage image) {
+    return ImageRuntime.encodeJpeg(image);
+  }
 
-    try {
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      ImageIO.write(image, "jpg", baos);
-      baos.flush();
-      byte[] finalImage = baos.toByteArray();
-      baos.close();
-      return Optional.of(finalImage);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return Optional.empty();
-    }
-
+  public Optional<String> makeBase64Image(BufferedImage image) {
+    return ImageRuntime.encodeJpegBase64(image);
   }
 }
@@ -21,14 +21,8 @@ import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Base64;
 import java.util.Optional;
 
-import javax.imageio.ImageIO;
-
 public class PlainImageTransformer<T extends EventProcessorBindingParams> {
 
   protected Event in;
@@ -40,14 +34,18 @@ public class PlainImageTransformer<T extends EventProcessorBindingParams> {
   }
 
   public Optional<BufferedImage> getImage(String imagePropertyName) {
-    String imageBase64 = in.getFieldBySelector(imagePropertyName).getAsPrimitive().getAsString();
-
-    InputStream img = new ByteArrayInputStream(Base64.getDecoder().decode(imageBase64));
-    try {
-      return Optional.of(ImageIO.read(img));
-    } catch (IOException e) {
-      e.printStackTrace();
-      return Optional.empty();
-    }
+    return ImageRuntime.decode(getImageBase64(imagePropertyName), true);
+  }
+
+  /**
+   * Returns the image without copying it if it was already decoded by another processor. The image must
+   * not be modified.
+   */
+  public Optional<BufferedImage> getSharedImage(String imagePropertyName) {
+    return ImageRuntime.decode(getImageBase64(imagePropertyName), false);
+  }
+
+  private String getImageBase64(String imagePropertyName) {
+    return in.getFieldBySelector(imagePropertyName).getAsPrimitive().getAsString();
   }
 }
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.imageprocessing.jvm.processor.genericclassification;
+
+import boofcv.abst.scene.ImageClassifier;
+import boofcv.factory.scene.ClassifierAndSource;
+import boofcv.factory.scene.FactoryImageClassifier;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import deepboof.io.DeepBoofDataBaseOps;
+import org.apache.streampipes.processors.imageprocessing.jvm.config.ImageProcessingJvmConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The NIN ImageNet classification model, shared by all classification processors of the JVM.
+ * <p>
+ * The model is loaded from a local directory (see {@link ImageProcessingJvmConfig#getClassificationModelDir()}),
+ * which is filled from a zip file on the classpath (<code>deepboof/&lt;directory name&gt;.zip</code>) or, if
+ * enabled, downloaded once. If a checksum is configured, the model files are verified before loading. As
+ * classifiers are not thread-safe, up to one classifier per image worker thread is loaded and lent out for
+ * the classification of a batch.
+ */
+public class ClassificationModel {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClassificationModel.class);
+
+  private static ClassificationModel instance;
+
+  private final ClassifierLoader loader;
+  private final int maxClassifiers;
+  private final BlockingQueue<Classifier> idleClassifiers;
+  private int createdClassifiers;
+
+  private ClassificationModel(File modelDirectory, int maxClassifiers) throws IOException {
+    this(maxClassifiers, () -> {
+      ImageClassifier<Planar<GrayF32>> classifier = FactoryImageClassifier.nin_imagenet().getClassifier();
+      classifier.loadModel(modelDirectory);
+      return new NinClassifier(classifier);
+    });
+  }
+
+  /**
+   * Creates a model whose classifiers are created by the given loader, e.g. in tests.
+   */
+  ClassificationModel(int maxClassifiers, ClassifierLoader loader) throws IOException {
+    this.loader = loader;
+    this.maxClassifiers = Math.max(1, maxClassifiers);
+    this.idleClassifiers = new LinkedBlockingQueue<>();
+
+    // fail at invocation if the model cannot be loaded
+    this.idleClassifiers.add(createClassifier());
+  }
+
+  public static synchronized ClassificationModel getInstance() throws IOException {
+    if (instance == null) {
+      ImageProcessingJvmConfig config = ImageProcessingJvmConfig.INSTANCE;
+      File modelDirectory = locateModel(Paths.get(config.getClassificationModelDir()),
+              config.getClassificationModelDownload());
+      verifyChecksum(modelDirectory.toPath(), config.getClassificationModelSha256());
+      LOG.info("Loading classification model from {}", modelDirectory);
+      instance = new ClassificationModel(modelDirectory, config.getImageWorkerThreads());
+    }
+    return instance;
+  }
+
+  /**
+   * Classifies all images with one classifier. Missing images (null) yield a null result.
+   */
+  public Classification[] classify(List<BufferedImage> images) throws IOException, InterruptedException {
+    Classifier classifier = borrowClassifier();
+    try {
+      Classification[] results = new Classification[images.size()];
+      for (int i = 0; i < results.length; i++) {
+        BufferedImage image = images.get(i);
+        if (image != null) {
+          results[i] = classifier.classify(image);
+        }
+      }
+      return results;
+    } finally {
+      idleClassifiers.add(classifier);
+    }
+  }
+
+  private Classifier borrowClassifier() throws IOException, InterruptedException {
+    Classifier classifier = idleClassifiers.poll();
+    if (classifier != null) {
+      return classifier;
+    }
+    synchronized (this) {
+      if (createdClassifiers < maxClassifiers) {
+        return createClassifier();
+      }
+    }
+    return idleClassifiers.take();
+  }
+
+  private synchronized Classifier createClassifier() throws IOException {
+    Classifier classifier = loader.load();
+    createdClassifiers++;
+    LOG.info("Loaded classifier {} of {}", createdClassifiers, maxClassifiers);
+    return classifier;
+  }
+
+  synchronized int getCreatedClassifiers() {
+    return createdClassifiers;
+  }
+
+  private static File locateModel(Path modelDirectory, boolean download) throws IOException {
+    if (containsFiles(modelDirectory)) {
+      return modelDirectory.toFile();
+    }
+
+    String resource = "deepboof/" + modelDirectory.getFileName() + ".zip";
+    try (InputStream zip = ClassificationModel.class.getClassLoader().getResourceAsStream(resource)) {
+      if (zip != null) {
+        LOG.info("Extracting classification model from classpath resource {}", resource);
+        extract(zip, modelDirectory);
+        return modelDirectory.toFile();
+      }
+    }
+
+    if (!download) {
+      throw new IOException("No classification model found in " + modelDirectory + " or on the classpath");
+    }
+    LOG.warn("No classification model found in {}, downloading it", modelDirectory);
+    ClassifierAndSource cs = FactoryImageClassifier.nin_imagenet();
+    Files.createDirectories(modelDirectory.getParent());
+    return DeepBoofDataBaseOps.downloadModel(cs.getSource(), modelDirectory.getParent().toFile());
+  }
+
+  private static boolean containsFiles(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return false;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.findAny().isPresent();
+    }
+  }
+
+  // extracts into a temporary directory first, so that an interrupted extraction is not taken for a model
+  private static void extract(InputStream zip, Path modelDirectory) throws IOException {
+    Path temp = Files.createDirectories(modelDirectory.resolveSibling(modelDirectory.getFileName() + ".tmp"));
+    String prefix = modelDirectory.getFileName() + "/";
+    try (ZipInputStream in = new ZipInputStream(zip)) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        String name = entry.getName().startsWith(prefix) ? entry.getName().substring(prefix.length())
+                : entry.getName();
+        Path target = temp.resolve(name).normalize();
+        if (!target.startsWith(temp)) {
+          throw new IOException("Invalid entry in model archive: " + entry.getName());
+        }
+        if (entry.isDirectory()) {
+          Files.createDirectories(target);
+        } else {
+          Files.createDirectories(target.getParent());
+          Files.copy(in, target);
+        }
+      }
+    }
+    Files.move(temp, modelDirectory);
+  }
+
+  static void verifyChecksum(Path modelDirectory, String expected) throws IOException {
+    String actual = checksum(modelDirectory);
+    if (expected == null || expected.isEmpty()) {
+      LOG.info("Classification model in {} has checksum {}", modelDirectory, actual);
+    } else if (!expected.equalsIgnoreCase(actual)) {
+      throw new IOException("Checksum of classification model in " + modelDirectory + " is " + actual
+              + ", expected " + expected);
+    }
+  }
+
+  /**
+   * SHA-256 over the relative paths and contents of all files of the directory, in path order.
+   */
+  static String checksum(Path directory) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    byte[] buffer = new byte[64 * 1024];
+    for (Path file : files) {
+      digest.update(directory.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+      try (InputStream in = Files.newInputStream(file)) {
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+          digest.update(buffer, 0, read);
+        }
+      }
+    }
+
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  public static class Classification {
+
+    private final String category;
+    private final double score;
+
+    Classification(String category, double score) {
+      this.category = category;
+      this.score = score;
+    }
+
+    public String getCategory() {
+      return category;
+    }
+
+    public double getScore() {
+      return score;
+    }
+  }
+
+  /**
+   * Classifies single images, is used by one thread at a time.
+   */
+  interface Classifier {
+    Classification classify(BufferedImage image);
+  }
+
+  interface ClassifierLoader {
+    Classifier load() throws IOException;
+  }
+
+  private static class NinClassifier implements Classifier {
+
+    private final ImageClassifier<Planar<GrayF32>> classifier;
+    private final List<String> categories;
+    private final Planar<GrayF32> input = new Planar<>(GrayF32.class, 1, 1, 3);
+
+    NinClassifier(ImageClassifier<Planar<GrayF32>> classifier) {
+      this.classifier = classifier;
+      this.categories = classifier.getCategories();
+    }
+
+    @Override
+    public Classification classify(BufferedImage image) {
+      input.reshape(image.getWidth(), image.getHeight());
+      ConvertBufferedImage.convertFromPlanar(image, input, true, GrayF32.class);
+      classifier.classify(input);
+
+      // the scores are reused by the classifier, only the best one is kept
+      int best = -1;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (ImageClassifier.Score score : classifier.getAllResults()) {
+        if (score.score > bestScore) {
+          bestScore = score.score;
+          best = score.category;
+        }
+      }
+      return best < 0 ? null : new Classification(categories.get(best), bestScore);
+    }
+  }
+}
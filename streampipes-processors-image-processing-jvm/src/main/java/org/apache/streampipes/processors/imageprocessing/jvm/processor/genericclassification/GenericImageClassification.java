@@ -17,86 +17,264 @@
  */
 package org.apache.streampipes.processors.imageprocessing.jvm.processor.genericclassification;
 
-import boofcv.abst.scene.ImageClassifier;
-import boofcv.factory.scene.ClassifierAndSource;
-import boofcv.factory.scene.FactoryImageClassifier;
-import boofcv.io.image.ConvertBufferedImage;
-import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.Planar;
-import deepboof.io.DeepBoofDataBaseOps;
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.ImageRuntime;
 import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.PlainImageTransformer;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.util.Comparator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 public class GenericImageClassification implements EventProcessor<GenericImageClassificationParameters> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(GenericImageClassification.class);
+
+  // batches waiting for classification results, further events block the event thread
+  private static final int MAX_PENDING_BATCHES = 16;
+  private static final long DETACH_TIMEOUT_SECONDS = 30;
+
   private GenericImageClassificationParameters params;
-  private ClassifierAndSource cs;
+  private BatchClassifier classifier;
+  private Executor workers;
+  private Consumer<Event> output;
+
+  private int batchSize;
+  private long maxBatchDelayMillis;
+  private List<Event> batch;
+  private long batchStartMillis;
+
+  private Semaphore pendingPermits;
+  private Deque<PendingBatch> pendingBatches;
+  private ScheduledExecutorService flusher;
+  // guarded by this, set once detached so that late batches do not emit anymore
+  private boolean detached;
 
-  private ImageClassifier<Planar<GrayF32>> classifier;
-  private List<String> categories;
+  public GenericImageClassification() {
+
+  }
+
+  /**
+   * Classifies batches with the given classifier on the given workers instead of the shared model and image
+   * workers and emits to the given output instead of the output collector.
+   */
+  GenericImageClassification(BatchClassifier classifier, Executor workers, Consumer<Event> output) {
+    this.classifier = classifier;
+    this.workers = workers;
+    this.output = output;
+  }
 
   @Override
-  public void onInvocation(GenericImageClassificationParameters genericImageClassificationParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
+  public void onInvocation(GenericImageClassificationParameters genericImageClassificationParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
     this.params = genericImageClassificationParameters;
-    //this.cs = FactoryImageClassifier.vgg_cifar10();  // Test set 89.9% for 10 categories
-		ClassifierAndSource cs = FactoryImageClassifier.nin_imagenet(); // Test set 62.6% for 1000 categories
+    if (classifier == null) {
+      try {
+        ClassificationModel model = ClassificationModel.getInstance();
+        this.classifier = events -> model.classify(decodeImages(events));
+      } catch (IOException e) {
+        throw new SpRuntimeException("Could not load classification model: " + e.getMessage());
+      }
+    }
+    if (workers == null) {
+      this.workers = ImageRuntime.getWorkers();
+    }
+    if (output == null) {
+      this.output = spOutputCollector::collect;
+    }
 
-    File path = DeepBoofDataBaseOps.downloadModel(cs.getSource(), new File("download_data"));
+    this.batchSize = Math.max(1, params.getBatchSize());
+    this.maxBatchDelayMillis = params.getMaxBatchDelayMillis();
+    this.batch = new ArrayList<>(batchSize);
+    this.pendingPermits = new Semaphore(MAX_PENDING_BATCHES);
+    this.pendingBatches = new ArrayDeque<>();
+    this.detached = false;
 
-    this.classifier = cs.getClassifier();
-    try {
-      this.classifier.loadModel(path);
-    } catch (IOException e) {
-      e.printStackTrace();
+    if (batchSize > 1 && maxBatchDelayMillis > 0) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-classification-flush");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.flusher.scheduleWithFixedDelay(this::flushStaleBatch, maxBatchDelayMillis, maxBatchDelayMillis,
+              TimeUnit.MILLISECONDS);
     }
-    this.categories = classifier.getCategories();
   }
 
   @Override
-  public void onEvent(Event in, SpOutputCollector out) {
-    PlainImageTransformer<GenericImageClassificationParameters> imageTransformer = new
-            PlainImageTransformer<>(in,
-            params);
-
-
-    Optional<BufferedImage> imageOpt = imageTransformer.getImage(params.getImagePropertyName());
-    if (imageOpt.isPresent()) {
-      BufferedImage buffered = imageOpt.get();
-      Planar<GrayF32> image = new Planar<>(GrayF32.class, buffered.getWidth(), buffered.getHeight(), 3);
-      ConvertBufferedImage.convertFromPlanar(buffered, image, true, GrayF32.class);
-
-      classifier.classify(image);
-      List<ImageClassifier.Score> scores = classifier.getAllResults();
-      scores.sort(new Comparator<ImageClassifier.Score>() {
-        @Override
-        public int compare(ImageClassifier.Score o1, ImageClassifier.Score o2) {
-          return (o1.score - o2.score) >= 0 ? -1 : 1;
-        }
-      });
-      //Collections.reverse(scores);
-
-      if (scores.size() > 0) {
-        System.out.println(scores.get(0).score +":" +categories.get(scores.get(0).category));
-        //scores.forEach(score -> System.out.println(score.category +":" +categories.get(score.category) +":" +score));
-        in.addField("score", scores.get(0).score);
-        in.addField("category", categories.get(scores.get(0).category));
-        out.collect(in);
+  public void onEvent(Event in, SpOutputCollector out) throws SpRuntimeException {
+    PendingBatch full = null;
+    synchronized (this) {
+      if (batch.isEmpty()) {
+        batchStartMillis = System.currentTimeMillis();
       }
+      batch.add(in);
+      if (batch.size() >= batchSize) {
+        full = takeBatch();
+      }
+    }
+    if (full != null) {
+      classify(full);
     }
   }
 
   @Override
-  public void onDetach() {
+  public void onDetach() throws SpRuntimeException {
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    PendingBatch remaining;
+    synchronized (this) {
+      remaining = batch.isEmpty() ? null : takeBatch();
+    }
+    if (remaining != null) {
+      classify(remaining);
+    }
+
+    List<CompletableFuture<ClassificationModel.Classification[]>> results = new ArrayList<>();
+    synchronized (this) {
+      pendingBatches.forEach(pendingBatch -> results.add(pendingBatch.results));
+    }
+    try {
+      CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+              .get(DETACH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      // failed batches are logged when they are emitted
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (TimeoutException e) {
+      LOG.warn("Not all pending images were classified within {} seconds before detaching", DETACH_TIMEOUT_SECONDS);
+    }
+
+    // results of batches which did not finish in time must not be emitted after detaching
+    synchronized (this) {
+      emitCompleted();
+      detached = true;
+      int discarded = pendingBatches.stream().mapToInt(pendingBatch -> pendingBatch.events.size()).sum();
+      if (discarded > 0) {
+        LOG.warn("Image classification detached with {} unclassified events, discarding them", discarded);
+      }
+      pendingBatches.clear();
+    }
+  }
+
+  private void flushStaleBatch() {
+    PendingBatch stale = null;
+    synchronized (this) {
+      if (!batch.isEmpty() && System.currentTimeMillis() - batchStartMillis >= maxBatchDelayMillis) {
+        stale = takeBatch();
+      }
+    }
+    if (stale != null) {
+      classify(stale);
+    }
+  }
+
+  // must be called while holding the lock, so that batches are queued in input order
+  private PendingBatch takeBatch() {
+    PendingBatch pendingBatch = new PendingBatch(batch);
+    pendingBatches.add(pendingBatch);
+    batch = new ArrayList<>(batchSize);
+    return pendingBatch;
+  }
+
+  private void classify(PendingBatch pendingBatch) {
+    try {
+      pendingPermits.acquire();
+      pendingBatch.holdsPermit = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pendingBatch.results.completeExceptionally(e);
+      emitCompleted();
+      return;
+    }
+
+    workers.execute(() -> {
+      try {
+        pendingBatch.results.complete(classifier.classify(pendingBatch.events));
+      } catch (Exception e) {
+        pendingBatch.results.completeExceptionally(e);
+      }
+      emitCompleted();
+    });
+  }
+
+  private List<BufferedImage> decodeImages(List<Event> events) {
+    List<BufferedImage> images = new ArrayList<>(events.size());
+    for (Event event : events) {
+      images.add(new PlainImageTransformer<>(event, params)
+              .getSharedImage(params.getImagePropertyName())
+              .orElse(null));
+    }
+    return images;
+  }
+
+  // emits the classified batches at the head of the queue, so that the input order is kept
+  private synchronized void emitCompleted() {
+    while (!pendingBatches.isEmpty() && pendingBatches.peek().results.isDone()) {
+      emit(pendingBatches.poll());
+    }
+  }
+
+  // called while holding the lock of this processor
+  private void emit(PendingBatch pendingBatch) {
+    if (detached) {
+      return;
+    }
+    if (pendingBatch.holdsPermit) {
+      pendingPermits.release();
+    }
+    ClassificationModel.Classification[] results;
+    try {
+      results = pendingBatch.results.join();
+    } catch (CompletionException e) {
+      LOG.warn("Could not classify {} images, dropping events: {}", pendingBatch.events.size(),
+              e.getCause().getMessage());
+      return;
+    }
 
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] != null) {
+        Event event = pendingBatch.events.get(i);
+        event.addField("score", results[i].getScore());
+        event.addField("category", results[i].getCategory());
+        output.accept(event);
+      }
+    }
+  }
+
+  /**
+   * Classifies the images of a batch of events. Events without an image yield a null result.
+   */
+  interface BatchClassifier {
+    ClassificationModel.Classification[] classify(List<Event> events) throws Exception;
+  }
+
+  private static class PendingBatch {
+    private final List<Event> events;
+    private final CompletableFuture<ClassificationModel.Classification[]> results;
+    private volatile boolean holdsPermit;
+
+    PendingBatch(List<Event> events) {
+      this.events = events;
+      this.results = new CompletableFuture<>();
+    }
   }
 }
@@ -32,6 +32,8 @@ import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventProcess
 public class GenericImageClassificationController extends StandaloneEventProcessingDeclarer<GenericImageClassificationParameters> {
 
   private static final String IMAGE = "image-mapping";
+  private static final String BATCH_SIZE = "batch-size";
+  private static final String MAX_BATCH_DELAY = "max-batch-delay";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -45,6 +47,8 @@ public class GenericImageClassificationController extends StandaloneEventProcess
                                     .domainPropertyReq("https://image.com"), Labels.withId(IMAGE),
                             PropertyScope.NONE)
                     .build())
+            .requiredIntegerParameter(Labels.withId(BATCH_SIZE), 8)
+            .requiredIntegerParameter(Labels.withId(MAX_BATCH_DELAY), 200)
             .outputStrategy(OutputStrategies.append(
                     EpProperties.doubleEp(Labels.empty(), "score", "https://schema.org/score"),
                     EpProperties.stringEp(Labels.empty(), "category", "https://schema.org/category")
@@ -57,8 +61,11 @@ public class GenericImageClassificationController extends StandaloneEventProcess
   public ConfiguredEventProcessor<GenericImageClassificationParameters> onInvocation(DataProcessorInvocation graph, ProcessingElementParameterExtractor extractor) {
 
     String imageProperty = extractor.mappingPropertyValue(IMAGE);
+    Integer batchSize = extractor.singleValueParameter(BATCH_SIZE, Integer.class);
+    Integer maxBatchDelayMillis = extractor.singleValueParameter(MAX_BATCH_DELAY, Integer.class);
 
-    GenericImageClassificationParameters staticParam = new GenericImageClassificationParameters(graph, imageProperty);
+    GenericImageClassificationParameters staticParam = new GenericImageClassificationParameters(graph,
+            imageProperty, batchSize, maxBatchDelayMillis);
 
     return new ConfiguredEventProcessor<>(staticParam, GenericImageClassification::new);
   }
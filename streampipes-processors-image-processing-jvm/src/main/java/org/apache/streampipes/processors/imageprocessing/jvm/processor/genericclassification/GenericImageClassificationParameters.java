@@ -23,13 +23,26 @@ import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams
 public class GenericImageClassificationParameters extends EventProcessorBindingParams {
 
   private String imagePropertyName;
+  private Integer batchSize;
+  private Integer maxBatchDelayMillis;
 
-  public GenericImageClassificationParameters(DataProcessorInvocation graph, String imagePropertyName) {
+  public GenericImageClassificationParameters(DataProcessorInvocation graph, String imagePropertyName,
+                                              Integer batchSize, Integer maxBatchDelayMillis) {
     super(graph);
     this.imagePropertyName = imagePropertyName;
+    this.batchSize = batchSize;
+    this.maxBatchDelayMillis = maxBatchDelayMillis;
   }
 
   public String getImagePropertyName() {
     return imagePropertyName;
   }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public Integer getMaxBatchDelayMillis() {
+    return maxBatchDelayMillis;
+  }
 }
@@ -18,20 +18,28 @@
 package org.apache.streampipes.processors.imageprocessing.jvm.processor.imagecropper;
 
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.ImageRuntime;
 import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.ImageTransformer;
 import org.apache.streampipes.processors.imageprocessing.jvm.processor.imageenrichment.BoxCoordinates;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.image.BufferedImage;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class ImageCropper implements EventProcessor<ImageCropperParameters> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(ImageCropper.class);
+
   private ImageCropperParameters params;
 
   @Override
@@ -42,23 +50,34 @@ public class ImageCropper implements EventProcessor<ImageCropperParameters> {
   @Override
   public void onEvent(Event in, SpOutputCollector out) {
     ImageTransformer imageTransformer = new ImageTransformer(in, params);
-    Optional<BufferedImage> imageOpt = imageTransformer.getImage();
+    Optional<BufferedImage> imageOpt = imageTransformer.getSharedImage();
 
     if (imageOpt.isPresent()) {
       BufferedImage image = imageOpt.get();
       List<Map<String, Object>> allBoxCoordinates = imageTransformer.getAllBoxCoordinates();
 
+      // crops are encoded in parallel if there is more than one box, the output keeps the order of the boxes
+      List<Future<Optional<String>>> crops = new ArrayList<>(allBoxCoordinates.size());
       for (Map<String, Object> box : allBoxCoordinates) {
         BoxCoordinates boxCoordinates = imageTransformer.getBoxCoordinates(image, box);
 
         BufferedImage dest = image.getSubimage(boxCoordinates.getX(), boxCoordinates.getY(), boxCoordinates.getWidth(),
                 boxCoordinates.getHeight());
 
-        Optional<byte[]> finalImage = imageTransformer.makeImage(dest);
+        if (allBoxCoordinates.size() > 1) {
+          crops.add(ImageRuntime.getWorkers().submit(() -> imageTransformer.makeBase64Image(dest)));
+        } else {
+          crops.add(CompletableFuture.completedFuture(imageTransformer.makeBase64Image(dest)));
+        }
+      }
+
+      for (int i = 0; i < crops.size(); i++) {
+        Optional<String> finalImage = awaitCrop(crops.get(i));
 
         if (finalImage.isPresent()) {
+          Map<String, Object> box = allBoxCoordinates.get(i);
           Event outEvent = new Event();
-          outEvent.addField("image", Base64.getEncoder().encodeToString(finalImage.get()));
+          outEvent.addField("image", finalImage.get());
           outEvent.addField("classesindex", box.get("classesindex"));
           outEvent.addField("score", box.get("score"));
           out.collect(outEvent);
@@ -67,6 +86,18 @@ public class ImageCropper implements EventProcessor<ImageCropperParameters> {
     }
   }
 
+  private Optional<String> awaitCrop(Future<Optional<String>> crop) {
+    try {
+      return crop.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (ExecutionException e) {
+      LOG.warn("Could not crop image: {}", e.getCause().getMessage());
+      return Optional.empty();
+    }
+  }
+
   @Override
   public void onDetach() {
 
@@ -25,7 +25,6 @@ import org.apache.streampipes.wrapper.runtime.EventProcessor;
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -84,11 +83,11 @@ public class ImageEnricher implements EventProcessor<ImageEnrichmentParameters>
 
       }
 
-      Optional<byte[]> finalImage = imageTransformer.makeImage(image);
+      Optional<String> finalImage = imageTransformer.makeBase64Image(image);
 
       if (finalImage.isPresent()) {
         org.apache.streampipes.model.runtime.Event event = new org.apache.streampipes.model.runtime.Event();
-        event.addField("image", Base64.getEncoder().encodeToString(finalImage.get()));
+        event.addField("image", finalImage.get());
         out.collect(event);
       }
     }
@@ -19,12 +19,11 @@ package org.apache.streampipes.processors.imageprocessing.jvm.processor.qrreader
 
 import boofcv.abst.fiducial.QrCodeDetector;
 import boofcv.alg.fiducial.qrcode.QrCode;
-import boofcv.factory.fiducial.FactoryFiducial;
-import boofcv.io.image.ConvertBufferedImage;
 import boofcv.struct.image.GrayU8;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.ImageRuntime;
 import org.apache.streampipes.processors.imageprocessing.jvm.processor.commons.PlainImageTransformer;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
@@ -52,18 +51,17 @@ public class QrCodeReader implements EventProcessor<QrCodeReaderParameters> {
   public void onEvent(Event in, SpOutputCollector out) {
     PlainImageTransformer<QrCodeReaderParameters> imageTransformer = new PlainImageTransformer<>
             (in, params);
-    Optional<BufferedImage> imageOpt = imageTransformer.getImage(params.getImagePropertyName());
+    Optional<BufferedImage> imageOpt = imageTransformer.getSharedImage(params.getImagePropertyName());
 
     if (imageOpt.isPresent()) {
       BufferedImage input = imageOpt.get();
 
-      GrayU8 gray = ConvertBufferedImage.convertFrom(input, (GrayU8) null);
+      GrayU8 gray = ImageRuntime.toGray(input);
 
-      QrCodeDetector<GrayU8> detector = FactoryFiducial.qrcode(null, GrayU8.class);
+      QrCodeDetector<GrayU8> detector = ImageRuntime.qrCodeDetector();
 
       detector.process(gray);
       List<QrCode> detections = detector.getDetections();
-      List<QrCode> failures = detector.getFailures();
 
       if (detections.size() > 0) {
         LOG.info(detections.get(0).message);
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.imageprocessing.jvm.processor.genericclassification;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestClassificationModel {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testChecksumDoesNotDependOnCreationOrder() throws IOException {
+    Path first = folder.newFolder("first").toPath();
+    write(first, "model.bin", "weights");
+    write(first, "sub/categories.txt", "cat\ndog");
+
+    Path second = folder.newFolder("second").toPath();
+    write(second, "sub/categories.txt", "cat\ndog");
+    write(second, "model.bin", "weights");
+
+    assertEquals(ClassificationModel.checksum(first), ClassificationModel.checksum(second));
+  }
+
+  @Test
+  public void testChecksumCoversContentsAndNames() throws IOException {
+    Path model = folder.newFolder("model").toPath();
+    write(model, "model.bin", "weights");
+    String checksum = ClassificationModel.checksum(model);
+
+    write(model, "model.bin", "changed weights");
+    String changedContent = ClassificationModel.checksum(model);
+    assertNotEquals(checksum, changedContent);
+
+    Files.move(model.resolve("model.bin"), model.resolve("renamed.bin"));
+    assertNotEquals(changedContent, ClassificationModel.checksum(model));
+  }
+
+  @Test
+  public void testVerifyChecksum() throws IOException {
+    Path model = folder.newFolder("model").toPath();
+    write(model, "model.bin", "weights");
+    String checksum = ClassificationModel.checksum(model);
+
+    ClassificationModel.verifyChecksum(model, checksum);
+    ClassificationModel.verifyChecksum(model, checksum.toUpperCase());
+    // without an expected checksum, the model is only logged
+    ClassificationModel.verifyChecksum(model, null);
+    ClassificationModel.verifyChecksum(model, "");
+
+    write(model, "model.bin", "tampered weights");
+    try {
+      ClassificationModel.verifyChecksum(model, checksum);
+      fail("A modified model must not be loaded");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(checksum));
+    }
+  }
+
+  @Test
+  public void testClassifierIsReused() throws Exception {
+    AtomicInteger loaded = new AtomicInteger();
+    ClassificationModel model = new ClassificationModel(4, () -> {
+      loaded.incrementAndGet();
+      return image -> new ClassificationModel.Classification("cat", 0.9);
+    });
+
+    for (int i = 0; i < 10; i++) {
+      model.classify(Collections.singletonList(makeImage()));
+    }
+
+    // the classifier loaded at creation serves all sequential batches
+    assertEquals(1, loaded.get());
+    assertEquals(1, model.getCreatedClassifiers());
+  }
+
+  @Test
+  public void testMissingImagesYieldNoResult() throws Exception {
+    ClassificationModel model = new ClassificationModel(1,
+            () -> image -> new ClassificationModel.Classification("cat", 0.9));
+
+    ClassificationModel.Classification[] results = model.classify(Arrays.asList(makeImage(), null));
+
+    assertEquals(2, results.length);
+    assertEquals("cat", results[0].getCategory());
+    assertEquals(0.9, results[0].getScore(), 0.0);
+    assertNull(results[1]);
+  }
+
+  @Test
+  public void testPoolIsBounded() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ClassificationModel model = new ClassificationModel(2, () -> image -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      running.decrementAndGet();
+      return new ClassificationModel.Classification("cat", 0.9);
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<ClassificationModel.Classification[]>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> model.classify(Collections.singletonList(makeImage()))));
+      }
+
+      // two batches hold the two classifiers, the others wait for one of them
+      while (running.get() < 2) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(200);
+      assertEquals(2, running.get());
+      assertEquals(2, model.getCreatedClassifiers());
+
+      release.countDown();
+      for (Future<ClassificationModel.Classification[]> result : results) {
+        assertEquals("cat", result.get(10, TimeUnit.SECONDS)[0].getCategory());
+      }
+      assertEquals(2, maxRunning.get());
+      assertEquals(2, model.getCreatedClassifiers());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void write(Path directory, String name, String content) throws IOException {
+    Path file = directory.resolve(name);
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private BufferedImage makeImage() {
+    return new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.imageprocessing.jvm.processor.genericclassification;
+
+import org.apache.streampipes.model.graph.DataProcessorDescription;
+import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.test.generator.EventStreamGenerator;
+import org.apache.streampipes.test.generator.InvocationGraphGenerator;
+import org.apache.streampipes.test.generator.grounding.EventGroundingGenerator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestGenericImageClassification {
+
+  private final ExecutorService workers = Executors.newFixedThreadPool(4);
+  private final List<Event> output = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void shutdownWorkers() {
+    workers.shutdownNow();
+  }
+
+  @Test
+  public void testBatchesAreEmittedInInputOrder() throws Exception {
+    CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    CountDownLatch laterBatchesClassified = new CountDownLatch(4);
+    GenericImageClassification processor = new GenericImageClassification(events -> {
+      if (getId(events.get(0)) == 0) {
+        releaseFirstBatch.await();
+      }
+      ClassificationModel.Classification[] results = classify(events);
+      if (getId(events.get(0)) != 0) {
+        laterBatchesClassified.countDown();
+      }
+      return results;
+    }, workers, output::add);
+    processor.onInvocation(makeParams(2), null, null);
+
+    for (int i = 0; i < 10; i++) {
+      processor.onEvent(makeEvent(i), null);
+    }
+
+    // the later batches are done, but must wait for the first one
+    assertTrue(laterBatchesClassified.await(10, TimeUnit.SECONDS));
+    assertTrue(output.isEmpty());
+
+    releaseFirstBatch.countDown();
+    processor.onDetach();
+
+    assertOutput(10);
+  }
+
+  @Test
+  public void testIncompleteBatchIsClassifiedOnDetach() {
+    GenericImageClassification processor = new GenericImageClassification(this::classify, workers, output::add);
+    processor.onInvocation(makeParams(3), null, null);
+
+    for (int i = 0; i < 4; i++) {
+      processor.onEvent(makeEvent(i), null);
+    }
+    processor.onDetach();
+
+    assertOutput(4);
+  }
+
+  @Test
+  public void testFailedBatchIsDropped() {
+    GenericImageClassification processor = new GenericImageClassification(events -> {
+      if (getId(events.get(0)) == 2) {
+        throw new IllegalStateException("broken image");
+      }
+      return classify(events);
+    }, workers, output::add);
+    processor.onInvocation(makeParams(2), null, null);
+
+    for (int i = 0; i < 6; i++) {
+      processor.onEvent(makeEvent(i), null);
+    }
+    processor.onDetach();
+
+    List<Integer> ids = new ArrayList<>();
+    output.forEach(event -> ids.add(getId(event)));
+    assertEquals(Arrays.asList(0, 1, 4, 5), ids);
+  }
+
+  private ClassificationModel.Classification[] classify(List<Event> events) {
+    ClassificationModel.Classification[] results = new ClassificationModel.Classification[events.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = new ClassificationModel.Classification("category-" + getId(events.get(i)), 0.5);
+    }
+    return results;
+  }
+
+  private void assertOutput(int count) {
+    assertEquals(count, output.size());
+    for (int i = 0; i < count; i++) {
+      Event event = output.get(i);
+      assertEquals(i, getId(event));
+      assertEquals("category-" + i, event.getRaw().get("category"));
+      assertEquals(0.5, event.getRaw().get("score"));
+    }
+  }
+
+  private int getId(Event event) {
+    return (Integer) event.getRaw().get("id");
+  }
+
+  private GenericImageClassificationParameters makeParams(int batchSize) {
+    DataProcessorDescription originalGraph = new GenericImageClassificationController().declareModel();
+    originalGraph.setSupportedGrounding(EventGroundingGenerator.makeDummyGrounding());
+
+    DataProcessorInvocation graph = InvocationGraphGenerator.makeEmptyInvocation(originalGraph);
+    graph.setInputStreams(Collections.singletonList(EventStreamGenerator
+            .makeStreamWithProperties(Arrays.asList("id", "image"))));
+    graph.setOutputStream(EventStreamGenerator.makeStreamWithProperties(Arrays.asList("id", "image")));
+    graph.getOutputStream().getEventGrounding().getTransportProtocol().getTopicDefinition()
+            .setActualTopicName("output-topic");
+
+    // no max batch delay, so that batches are only completed by events or by detaching
+    return new GenericImageClassificationParameters(graph, "s0::image", batchSize, 0);
+  }
+
+  private Event makeEvent(int id) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", id);
+    map.put("image", "");
+    return EventFactory.fromMap(map, new SourceInfo("test-topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+}
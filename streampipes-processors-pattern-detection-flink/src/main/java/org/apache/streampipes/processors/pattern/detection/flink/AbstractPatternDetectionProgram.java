@@ -19,6 +19,7 @@ package org.apache.streampipes.processors.pattern.detection.flink;
 
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.streampipes.pe.shared.serializer.EventKryoSerializer;
 import org.apache.streampipes.processors.pattern.detection.flink.config.PatternDetectionFlinkConfig;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 import org.apache.streampipes.wrapper.flink.FlinkDeploymentConfig;
@@ -44,6 +45,7 @@ public abstract class AbstractPatternDetectionProgram<B extends EventProcessorBi
   public void appendEnvironmentConfig(StreamExecutionEnvironment env) {
     env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
     env.setParallelism(1);
+    EventKryoSerializer.register(env);
   }
 
 }
@@ -15,7 +15,134 @@
  * limitations under the License.
  *
  */
+
 package org.apache.streampipes.processors.pattern.detection.flink.processor.absence;
 
-public class Absence {
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.co.KeyedCoProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects that no event of the second stream followed an event of the first stream with the same key
+ * within a time window. Each trigger event arms an event-time timer, which is cancelled by a follow-up
+ * event and emits the trigger event once it expires. Follow-up events are kept until no pending trigger
+ * can refer to them anymore, so that out-of-order events within the allowed lateness are matched as well.
+ */
+public class Absence extends KeyedCoProcessFunction<EventKey, Event, Event, Event> {
+
+  private long timeWindowMillis;
+  private List<String> outputSelectors;
+
+  private transient MapState<Long, List<Event>> triggers;
+  private transient MapState<Long, Boolean> followUps;
+
+  private transient Counter absences;
+  private transient Counter armedTimers;
+  private transient Counter cancelledTimers;
+  private transient Counter lateEvents;
+
+  public Absence(long timeWindowMillis, List<String> outputSelectors) {
+    this.timeWindowMillis = timeWindowMillis;
+    this.outputSelectors = outputSelectors;
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    triggers = getRuntimeContext().getMapState(new MapStateDescriptor<>("absence-triggers",
+            TypeInformation.of(Long.class), TypeInformation.of(new TypeHint<List<Event>>() {})));
+    followUps = getRuntimeContext().getMapState(new MapStateDescriptor<>("absence-follow-ups",
+            Long.class, Boolean.class));
+
+    MetricGroup metrics = getRuntimeContext().getMetricGroup().addGroup("absence");
+    absences = metrics.counter("absences");
+    armedTimers = metrics.counter("armedTimers");
+    cancelledTimers = metrics.counter("cancelledTimers");
+    lateEvents = metrics.counter("lateEvents");
+  }
+
+  @Override
+  public void processElement1(Event value, Context ctx, Collector<Event> out) throws Exception {
+    long timestamp = ctx.timestamp();
+    long deadline = timestamp + timeWindowMillis;
+    if (deadline <= ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
+    }
+
+    for (Long followUp : followUps.keys()) {
+      if (followUp >= timestamp && followUp < deadline) {
+        return;
+      }
+    }
+
+    List<Event> events = triggers.get(timestamp);
+    if (events == null) {
+      events = new ArrayList<>(1);
+      ctx.timerService().registerEventTimeTimer(deadline);
+      armedTimers.inc();
+    }
+    events.add(outputSelectors.isEmpty() ? value : value.getSubset(outputSelectors));
+    triggers.put(timestamp, events);
+  }
+
+  @Override
+  public void processElement2(Event value, Context ctx, Collector<Event> out) throws Exception {
+    long timestamp = ctx.timestamp();
+    long cleanupTime = timestamp + timeWindowMillis;
+    if (cleanupTime <= ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
+    }
+
+    Iterator<Long> pending = triggers.keys().iterator();
+    while (pending.hasNext()) {
+      long trigger = pending.next();
+      if (trigger <= timestamp && timestamp < trigger + timeWindowMillis) {
+        pending.remove();
+        ctx.timerService().deleteEventTimeTimer(trigger + timeWindowMillis);
+        armedTimers.dec();
+        cancelledTimers.inc();
+      }
+    }
+
+    // registered after cancelling, as a trigger with the same timestamp shares this timer
+    followUps.put(timestamp, true);
+    ctx.timerService().registerEventTimeTimer(cleanupTime);
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<Event> out) throws Exception {
+    Iterator<Map.Entry<Long, List<Event>>> pending = triggers.entries().iterator();
+    while (pending.hasNext()) {
+      Map.Entry<Long, List<Event>> trigger = pending.next();
+      if (trigger.getKey() + timeWindowMillis <= timestamp) {
+        for (Event event : trigger.getValue()) {
+          absences.inc();
+          out.collect(event);
+        }
+        pending.remove();
+        armedTimers.dec();
+      }
+    }
+
+    Iterator<Long> expired = followUps.keys().iterator();
+    while (expired.hasNext()) {
+      if (expired.next() + timeWindowMillis <= timestamp) {
+        expired.remove();
+      }
+    }
+  }
 }
@@ -21,7 +21,7 @@ package org.apache.streampipes.processors.pattern.detection.flink.processor.abse
 import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
-import org.apache.streampipes.model.schema.EventProperty;
+import org.apache.streampipes.model.schema.PropertyScope;
 import org.apache.streampipes.processors.pattern.detection.flink.config.PatternDetectionFlinkConfig;
 import org.apache.streampipes.processors.pattern.detection.flink.processor.and.TimeUnit;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
@@ -32,13 +32,17 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorDeclarer;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class AbsenceController extends FlinkDataProcessorDeclarer<AbsenceParameters> {
 
   private static final String TIME_WINDOW = "time-window";
   private static final String TIME_UNIT = "time-unit";
+  private static final String LEFT_KEY = "left-key";
+  private static final String RIGHT_KEY = "right-key";
+  private static final String LEFT_TIMESTAMP = "left-timestamp";
+  private static final String RIGHT_TIMESTAMP = "right-timestamp";
+  private static final String MAX_OUT_OF_ORDERNESS = "max-out-of-orderness";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -48,30 +52,39 @@ public class AbsenceController extends FlinkDataProcessorDeclarer<AbsenceParamet
             .category(DataProcessorType.PATTERN_DETECT)
             .requiredStream(StreamRequirementsBuilder
                     .create()
-                    .requiredProperty(EpRequirements.anyProperty())
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(LEFT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
+                    .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
+                            Labels.withId(LEFT_KEY), PropertyScope.DIMENSION_PROPERTY)
                     .build())
             .requiredStream(StreamRequirementsBuilder
                     .create()
-                    .requiredProperty(EpRequirements.anyProperty())
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(RIGHT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
+                    .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
+                            Labels.withId(RIGHT_KEY), PropertyScope.DIMENSION_PROPERTY)
                     .build())
             .requiredSingleValueSelection(Labels.withId(TIME_UNIT), Options.from("Seconds",
                     "Minutes", "Hours"))
             .requiredIntegerParameter(Labels.withId(TIME_WINDOW))
+            .requiredIntegerParameter(Labels.withId(MAX_OUT_OF_ORDERNESS), 1000)
             .outputStrategy(OutputStrategies.custom(false))
             .build();
   }
 
   @Override
   public FlinkDataProcessorRuntime<AbsenceParameters> getRuntime(DataProcessorInvocation graph, ProcessingElementParameterExtractor extractor) {
-    List<String> selectProperties = new ArrayList<>();
-    for (EventProperty p : graph.getOutputStream().getEventSchema().getEventProperties()) {
-      selectProperties.add(p.getRuntimeName());
-    }
-
+    List<String> outputKeySelectors = extractor.outputKeySelectors();
     TimeUnit timeUnit = TimeUnit.valueOf(extractor.selectedSingleValue(TIME_UNIT, String.class));
     Integer timeWindow = extractor.singleValueParameter(TIME_WINDOW, Integer.class);
+    List<String> leftKeys = extractor.mappingPropertyValues(LEFT_KEY);
+    List<String> rightKeys = extractor.mappingPropertyValues(RIGHT_KEY);
+    String leftTimestamp = extractor.mappingPropertyValue(LEFT_TIMESTAMP);
+    String rightTimestamp = extractor.mappingPropertyValue(RIGHT_TIMESTAMP);
+    Integer maxOutOfOrderness = extractor.singleValueParameter(MAX_OUT_OF_ORDERNESS, Integer.class);
 
-    AbsenceParameters params = new AbsenceParameters(graph, selectProperties, timeWindow, timeUnit);
+    AbsenceParameters params = new AbsenceParameters(graph, outputKeySelectors, timeWindow, timeUnit,
+            leftKeys, rightKeys, leftTimestamp, rightTimestamp, maxOutOfOrderness);
 
     return new AbsenceProgram(params, PatternDetectionFlinkConfig.INSTANCE.getDebug());
   }
@@ -29,19 +29,31 @@ public class AbsenceParameters extends EventProcessorBindingParams {
 
 	private static final long serialVersionUID = 4319341875274736697L;
 	
-	private List<String> selectProperties = new ArrayList<>();
+	private List<String> outputKeySelectors = new ArrayList<>();
 	private Integer timeWindowSize;
 	private TimeUnit timeUnit;
+	private List<String> leftKeys;
+	private List<String> rightKeys;
+	private String leftTimestamp;
+	private String rightTimestamp;
+	private Integer maxOutOfOrderness;
 	
-	public AbsenceParameters(DataProcessorInvocation graph, List<String> selectProperties, Integer timeWindowSize, TimeUnit timeUnit) {
+	public AbsenceParameters(DataProcessorInvocation graph, List<String> outputKeySelectors, Integer timeWindowSize,
+													 TimeUnit timeUnit, List<String> leftKeys, List<String> rightKeys,
+													 String leftTimestamp, String rightTimestamp, Integer maxOutOfOrderness) {
 		super(graph);
-		this.selectProperties = selectProperties;
+		this.outputKeySelectors = outputKeySelectors;
 		this.timeWindowSize = timeWindowSize;
 		this.timeUnit = timeUnit;
+		this.leftKeys = leftKeys;
+		this.rightKeys = rightKeys;
+		this.leftTimestamp = leftTimestamp;
+		this.rightTimestamp = rightTimestamp;
+		this.maxOutOfOrderness = maxOutOfOrderness;
 	}
 
-	public List<String> getSelectProperties() {
-		return selectProperties;
+	public List<String> getOutputKeySelectors() {
+		return outputKeySelectors;
 	}
 
 	public Integer getTimeWindowSize() {
@@ -51,4 +63,24 @@ public class AbsenceParameters extends EventProcessorBindingParams {
 	public TimeUnit getTimeUnit() {
 		return timeUnit;
 	}
+
+	public List<String> getLeftKeys() {
+		return leftKeys;
+	}
+
+	public List<String> getRightKeys() {
+		return rightKeys;
+	}
+
+	public String getLeftTimestamp() {
+		return leftTimestamp;
+	}
+
+	public String getRightTimestamp() {
+		return rightTimestamp;
+	}
+
+	public Integer getMaxOutOfOrderness() {
+		return maxOutOfOrderness;
+	}
 }
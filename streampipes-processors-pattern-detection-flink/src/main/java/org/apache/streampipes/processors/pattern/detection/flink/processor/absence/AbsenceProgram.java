@@ -17,25 +17,16 @@
  */
 package org.apache.streampipes.processors.pattern.detection.flink.processor.absence;
 
-import org.apache.flink.api.common.functions.FlatMapFunction;
-import org.apache.flink.api.java.tuple.Tuple2;
-import org.apache.flink.cep.CEP;
-import org.apache.flink.cep.PatternFlatSelectFunction;
-import org.apache.flink.cep.PatternFlatTimeoutFunction;
-import org.apache.flink.cep.PatternStream;
-import org.apache.flink.cep.pattern.Pattern;
-import org.apache.flink.cep.pattern.conditions.SimpleCondition;
 import org.apache.flink.streaming.api.datastream.DataStream;
-import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
-import org.apache.flink.streaming.api.windowing.time.Time;
-import org.apache.flink.util.Collector;
-import org.apache.flink.util.OutputTag;
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
 import org.apache.streampipes.processors.pattern.detection.flink.AbstractPatternDetectionProgram;
 import org.apache.streampipes.processors.pattern.detection.flink.processor.and.TimeUnitConverter;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.common.OutOfOrderTimestampExtractor;
 
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Collectors;
 
 public class AbsenceProgram extends AbstractPatternDetectionProgram<AbsenceParameters> {
 
@@ -45,81 +36,25 @@ public class AbsenceProgram extends AbstractPatternDetectionProgram<AbsenceParam
 
   @Override
   public DataStream<Event> getApplicationLogic(DataStream<Event>... messageStream) {
-
-    Time time = TimeUnitConverter.toTime(params.getTimeUnit(), params.getTimeWindowSize());
-
-    DataStream<Tuple2<Boolean, Event>> stream1 = messageStream[0].flatMap(new FlatMapFunction<Event, Tuple2<Boolean, Event>>() {
-      @Override
-      public void flatMap(Event in, Collector<Tuple2<Boolean, Event>> out) throws
-              Exception {
-        out.collect(new Tuple2<>(true, in));
-      }
-    });
-
-    DataStream<Tuple2<Boolean, Event>> stream2 = messageStream[1].flatMap(new FlatMapFunction<Event, Tuple2<Boolean, Event>>() {
-      @Override
-      public void flatMap(Event in, Collector<Tuple2<Boolean, Event>> out) throws
-              Exception {
-        out.collect(new Tuple2<>(false, in));
-      }
-    });
-
-    DataStream<Tuple2<Boolean, Event>> joinedStreams = stream2.union(stream1);
-
-
-    Pattern<Tuple2<Boolean, Event>, Tuple2<Boolean, Event>> matchedEvents =
-            Pattern.<Tuple2<Boolean, Event>>begin("start")
-                    .where(new SimpleCondition<Tuple2<Boolean, Event>>() {
-                      @Override
-                      public boolean filter(Tuple2<Boolean, Event> ride) throws Exception {
-                        return ride.f0;
-                      }
-                    })
-                    .next("end")
-                    .where(new SimpleCondition<Tuple2<Boolean, Event>>() {
-                      @Override
-                      public boolean filter(Tuple2<Boolean, Event> ride) throws Exception {
-                        return !ride.f0;
-                      }
-                    });
-
-    PatternStream<Tuple2<Boolean, Event>> patternStream = CEP.pattern(joinedStreams, matchedEvents
-            .within(time));
-
-    OutputTag<Tuple2<Boolean, Event>> timedout = new OutputTag<Tuple2<Boolean, Event>>
-            ("timedout") {
-    };
-
-    SingleOutputStreamOperator<Tuple2<Boolean, Event>> matched = patternStream.flatSelect(
-            timedout,
-            new TimedOut(),
-            new FlatSelectNothing<>()
-    );
-
-    return matched.getSideOutput(timedout).flatMap(new FlatMapFunction<Tuple2<Boolean, Event>,
-            Event>() {
-      @Override
-      public void flatMap(Tuple2<Boolean, Event> in, Collector<Event> out) throws
-              Exception {
-        out.collect(in.f1);
-      }
-    });
+    long timeWindow = TimeUnitConverter.toMillis(params.getTimeUnit(), params.getTimeWindowSize());
+
+    DataStream<Event> triggerStream = messageStream[0]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getLeftTimestamp(),
+                    params.getMaxOutOfOrderness()));
+    DataStream<Event> followUpStream = messageStream[1]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getRightTimestamp(),
+                    params.getMaxOutOfOrderness()));
+
+    return triggerStream
+            .keyBy(new EventKeySelector(params.getLeftKeys()))
+            .connect(followUpStream.keyBy(new EventKeySelector(params.getRightKeys())))
+            .process(new Absence(timeWindow, getOutputSelectors()));
   }
 
-  public static class TimedOut implements PatternFlatTimeoutFunction<Tuple2<Boolean, Event>,
-          Tuple2<Boolean, Event>> {
-    @Override
-    public void timeout(Map<String, List<Tuple2<Boolean, Event>>> map, long l,
-                        Collector<Tuple2<Boolean, Event>> collector) throws Exception {
-      Tuple2<Boolean, Event> rideStarted = map.get("start").get(0);
-      collector.collect(rideStarted);
-    }
-  }
-
-  public static class FlatSelectNothing<T> implements PatternFlatSelectFunction<T, T> {
-    @Override
-    public void flatSelect(Map<String, List<T>> pattern, Collector<T> collector) {
-
-    }
+  private List<String> getOutputSelectors() {
+    return params.getOutputKeySelectors()
+            .stream()
+            .filter(selector -> selector.startsWith(PropertySelectorConstants.FIRST_STREAM_ID_PREFIX))
+            .collect(Collectors.toList());
   }
 }
@@ -15,7 +15,168 @@
  * limitations under the License.
  *
  */
+
 package org.apache.streampipes.processors.pattern.detection.flink.processor.and;
 
-public class And {
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.StateTtlConfig;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.co.KeyedCoProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Joins the events of two keyed streams in event time: an event of the first stream at time t matches
+ * all events of the second stream with the same key and a timestamp within [t + lowerBound, t + upperBound].
+ * Only the selected output fields of each event are buffered.
+ *
+ * <p>An event is late once no event of the other stream which is still accepted can match it. As a late
+ * event may still match buffered events, buffered events are kept until the watermark has passed their
+ * interval by the width of the interval, and are removed by timers or, optionally, after a state
+ * time-to-live.</p>
+ */
+public class And extends KeyedCoProcessFunction<EventKey, Event, Event, Event> {
+
+  private long lowerBoundMillis;
+  private long upperBoundMillis;
+  private long stateTtlMillis;
+  private List<String> leftOutputSelectors;
+  private List<String> rightOutputSelectors;
+
+  private transient MapState<Long, List<Event>> leftBuffer;
+  private transient MapState<Long, List<Event>> rightBuffer;
+
+  private transient Counter lateEvents;
+  private transient Counter matches;
+
+  public And(long lowerBoundMillis, long upperBoundMillis, long stateTtlMillis,
+             List<String> leftOutputSelectors, List<String> rightOutputSelectors) {
+    if (lowerBoundMillis > upperBoundMillis) {
+      throw new IllegalArgumentException("The lower bound must not be greater than the upper bound");
+    }
+    this.lowerBoundMillis = lowerBoundMillis;
+    this.upperBoundMillis = upperBoundMillis;
+    this.stateTtlMillis = stateTtlMillis;
+    this.leftOutputSelectors = leftOutputSelectors;
+    this.rightOutputSelectors = rightOutputSelectors;
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    leftBuffer = getRuntimeContext().getMapState(makeBufferDescriptor("and-left-buffer"));
+    rightBuffer = getRuntimeContext().getMapState(makeBufferDescriptor("and-right-buffer"));
+
+    MetricGroup metrics = getRuntimeContext().getMetricGroup().addGroup("and");
+    lateEvents = metrics.counter("lateEvents");
+    matches = metrics.counter("matches");
+  }
+
+  @Override
+  public void processElement1(Event value, Context ctx, Collector<Event> out) throws Exception {
+    long timestamp = ctx.timestamp();
+    if (timestamp + upperBoundMillis < ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
+    }
+
+    Event left = value.getSubset(leftOutputSelectors);
+    for (Map.Entry<Long, List<Event>> bucket : rightBuffer.entries()) {
+      long rightTimestamp = bucket.getKey();
+      if (rightTimestamp >= timestamp + lowerBoundMillis && rightTimestamp <= timestamp + upperBoundMillis) {
+        for (Event right : bucket.getValue()) {
+          out.collect(makeOutputEvent(left, right));
+        }
+      }
+    }
+    add(leftBuffer, timestamp, left);
+    ctx.timerService().registerEventTimeTimer(getCleanupTime(timestamp));
+  }
+
+  @Override
+  public void processElement2(Event value, Context ctx, Collector<Event> out) throws Exception {
+    long timestamp = ctx.timestamp();
+    if (timestamp - lowerBoundMillis < ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
+    }
+
+    Event right = value.getSubset(rightOutputSelectors);
+    for (Map.Entry<Long, List<Event>> bucket : leftBuffer.entries()) {
+      long leftTimestamp = bucket.getKey();
+      if (timestamp >= leftTimestamp + lowerBoundMillis && timestamp <= leftTimestamp + upperBoundMillis) {
+        for (Event left : bucket.getValue()) {
+          out.collect(makeOutputEvent(left, right));
+        }
+      }
+    }
+    add(rightBuffer, timestamp, right);
+    ctx.timerService().registerEventTimeTimer(getCleanupTime(timestamp));
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<Event> out) throws Exception {
+    long maxTimestamp = timestamp - (upperBoundMillis - lowerBoundMillis) - 1;
+    removeUntil(leftBuffer, maxTimestamp);
+    removeUntil(rightBuffer, maxTimestamp);
+  }
+
+  // A left event at t is matched by right events up to t + upper, which are accepted while the watermark
+  // is at most their timestamp - lower. Symmetrically, a right event at t is matched by left events up to
+  // t - lower, which are accepted while the watermark is at most their timestamp + upper. Both are
+  // removed once the watermark is past t + upper - lower.
+  private long getCleanupTime(long timestamp) {
+    return timestamp + (upperBoundMillis - lowerBoundMillis) + 1;
+  }
+
+  private void add(MapState<Long, List<Event>> buffer, long timestamp, Event event) throws Exception {
+    List<Event> events = buffer.get(timestamp);
+    if (events == null) {
+      events = new ArrayList<>(1);
+    }
+    events.add(event);
+    buffer.put(timestamp, events);
+  }
+
+  private void removeUntil(MapState<Long, List<Event>> buffer, long maxTimestamp) throws Exception {
+    Iterator<Long> timestamps = buffer.keys().iterator();
+    while (timestamps.hasNext()) {
+      if (timestamps.next() <= maxTimestamp) {
+        timestamps.remove();
+      }
+    }
+  }
+
+  private Event makeOutputEvent(Event left, Event right) {
+    matches.inc();
+    Event outEvent = new Event(new HashMap<>(), left.getSourceInfo(), left.getSchemaInfo());
+    left.getFields().forEach((key, v) -> outEvent.addField(v));
+    right.getFields().forEach((key, v) -> outEvent.addField(v));
+    return outEvent;
+  }
+
+  private MapStateDescriptor<Long, List<Event>> makeBufferDescriptor(String name) {
+    MapStateDescriptor<Long, List<Event>> descriptor = new MapStateDescriptor<>(name,
+            TypeInformation.of(Long.class), TypeInformation.of(new TypeHint<List<Event>>() {}));
+    if (stateTtlMillis > 0) {
+      descriptor.enableTimeToLive(StateTtlConfig
+              .newBuilder(Time.milliseconds(stateTtlMillis))
+              .setUpdateType(StateTtlConfig.UpdateType.OnCreateAndWrite)
+              .setStateVisibility(StateTtlConfig.StateVisibility.NeverReturnExpired)
+              .build());
+    }
+    return descriptor;
+  }
 }
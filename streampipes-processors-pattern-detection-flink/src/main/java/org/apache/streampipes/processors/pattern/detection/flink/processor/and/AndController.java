@@ -35,10 +35,15 @@ import java.util.List;
 
 public class AndController extends FlinkDataProcessorDeclarer<AndParameters> {
 
-  private static final String TIME_WINDOW = "time-window";
   private static final String TIME_UNIT = "time-unit";
+  private static final String LOWER_BOUND = "lower-bound";
+  private static final String UPPER_BOUND = "upper-bound";
+  private static final String STATE_TTL = "state-ttl";
   private static final String LEFT_MAPPING = "left-mapping";
   private static final String RIGHT_MAPPING = "right-mapping";
+  private static final String LEFT_TIMESTAMP = "left-timestamp";
+  private static final String RIGHT_TIMESTAMP = "right-timestamp";
+  private static final String MAX_OUT_OF_ORDERNESS = "max-out-of-orderness";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -48,19 +53,26 @@ public class AndController extends FlinkDataProcessorDeclarer<AndParameters> {
             .withAssets(Assets.DOCUMENTATION, Assets.ICON)
             .requiredStream(StreamRequirementsBuilder
                     .create()
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(LEFT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
                     .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
                             Labels.withId(LEFT_MAPPING)
                             , PropertyScope.DIMENSION_PROPERTY)
                     .build())
             .requiredStream(StreamRequirementsBuilder
                     .create()
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(RIGHT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
                     .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
                             Labels.withId(RIGHT_MAPPING)
                             , PropertyScope.DIMENSION_PROPERTY)
                     .build())
             .requiredSingleValueSelection(Labels.withId(TIME_UNIT), Options.from("Seconds",
                     "Minutes", "Hours"))
-            .requiredIntegerParameter(Labels.withId(TIME_WINDOW))
+            .requiredIntegerParameter(Labels.withId(LOWER_BOUND), -1)
+            .requiredIntegerParameter(Labels.withId(UPPER_BOUND), 1)
+            .requiredIntegerParameter(Labels.withId(STATE_TTL), 0)
+            .requiredIntegerParameter(Labels.withId(MAX_OUT_OF_ORDERNESS), 1000)
             .outputStrategy(OutputStrategies.custom(true))
             .build();
   }
@@ -71,9 +83,17 @@ public class AndController extends FlinkDataProcessorDeclarer<AndParameters> {
     List<String> leftMappings = extractor.mappingPropertyValues(LEFT_MAPPING);
     List<String> rightMappings = extractor.mappingPropertyValues(RIGHT_MAPPING);
     TimeUnit timeUnit = TimeUnit.valueOf(extractor.selectedSingleValue(TIME_UNIT, String.class));
-    Integer timeWindow = extractor.singleValueParameter(TIME_WINDOW, Integer.class);
+    Integer lowerBound = extractor.singleValueParameter(LOWER_BOUND, Integer.class);
+    Integer upperBound = extractor.singleValueParameter(UPPER_BOUND, Integer.class);
+    Integer stateTtl = extractor.singleValueParameter(STATE_TTL, Integer.class);
+    String leftTimestamp = extractor.mappingPropertyValue(LEFT_TIMESTAMP);
+    String rightTimestamp = extractor.mappingPropertyValue(RIGHT_TIMESTAMP);
+    Integer maxOutOfOrderness = extractor.singleValueParameter(MAX_OUT_OF_ORDERNESS, Integer.class);
+    List<String> outputKeySelectors = extractor.outputKeySelectors();
 
-    AndParameters params = new AndParameters(graph, timeUnit, timeWindow, leftMappings, rightMappings);
+    AndParameters params = new AndParameters(graph, timeUnit, lowerBound, upperBound, stateTtl,
+            leftMappings, rightMappings, leftTimestamp, rightTimestamp, maxOutOfOrderness,
+            outputKeySelectors);
     return new AndProgram(params, PatternDetectionFlinkConfig.INSTANCE.getDebug());
 
   }
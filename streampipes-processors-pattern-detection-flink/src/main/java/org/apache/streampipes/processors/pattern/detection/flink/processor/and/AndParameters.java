@@ -26,26 +26,49 @@ import java.util.List;
 public class AndParameters extends EventProcessorBindingParams {
 
   private TimeUnit timeUnit;
-  private Integer timeWindow;
+  private Integer lowerBound;
+  private Integer upperBound;
+  private Integer stateTtl;
 
   private List<String> leftMappings;
   private List<String> rightMappings;
+  private String leftTimestamp;
+  private String rightTimestamp;
+  private Integer maxOutOfOrderness;
+  private List<String> outputKeySelectors;
 
 
-  public AndParameters(DataProcessorInvocation invocationGraph, TimeUnit timeUnit, Integer timeWindow, List<String> leftMappings, List<String> rightMappings) {
+  public AndParameters(DataProcessorInvocation invocationGraph, TimeUnit timeUnit, Integer lowerBound,
+                       Integer upperBound, Integer stateTtl, List<String> leftMappings,
+                       List<String> rightMappings, String leftTimestamp, String rightTimestamp,
+                       Integer maxOutOfOrderness, List<String> outputKeySelectors) {
     super(invocationGraph);
     this.timeUnit = timeUnit;
-    this.timeWindow = timeWindow;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+    this.stateTtl = stateTtl;
     this.leftMappings = leftMappings;
     this.rightMappings = rightMappings;
+    this.leftTimestamp = leftTimestamp;
+    this.rightTimestamp = rightTimestamp;
+    this.maxOutOfOrderness = maxOutOfOrderness;
+    this.outputKeySelectors = outputKeySelectors;
   }
 
   public TimeUnit getTimeUnit() {
     return timeUnit;
   }
 
-  public Integer getTimeWindow() {
-    return timeWindow;
+  public Integer getLowerBound() {
+    return lowerBound;
+  }
+
+  public Integer getUpperBound() {
+    return upperBound;
+  }
+
+  public Integer getStateTtl() {
+    return stateTtl;
   }
 
   public List<String> getLeftMappings() {
@@ -55,4 +78,20 @@ public class AndParameters extends EventProcessorBindingParams {
   public List<String> getRightMappings() {
     return rightMappings;
   }
+
+  public String getLeftTimestamp() {
+    return leftTimestamp;
+  }
+
+  public String getRightTimestamp() {
+    return rightTimestamp;
+  }
+
+  public Integer getMaxOutOfOrderness() {
+    return maxOutOfOrderness;
+  }
+
+  public List<String> getOutputKeySelectors() {
+    return outputKeySelectors;
+  }
 }
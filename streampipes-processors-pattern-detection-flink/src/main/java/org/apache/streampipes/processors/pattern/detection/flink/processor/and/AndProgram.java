@@ -17,15 +17,15 @@
  */
 package org.apache.streampipes.processors.pattern.detection.flink.processor.and;
 
-import org.apache.flink.api.common.functions.JoinFunction;
-import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.datastream.DataStream;
-import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
-import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
 import org.apache.streampipes.processors.pattern.detection.flink.AbstractPatternDetectionProgram;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.common.OutOfOrderTimestampExtractor;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 public class AndProgram extends AbstractPatternDetectionProgram<AndParameters> {
@@ -36,39 +36,31 @@ public class AndProgram extends AbstractPatternDetectionProgram<AndParameters> {
 
   @Override
   public DataStream<Event> getApplicationLogic(DataStream<Event>... messageStream) {
-    // A AND B within x minutes
-    List<String> leftMappings = params.getLeftMappings();
-    List<String> rightMappings = params.getRightMappings();
-    Time time = TimeUnitConverter.toTime(params.getTimeUnit(), params.getTimeWindow());
+    // A AND B within [lower, upper] of A, matched per value of the mapped properties
+    TimeUnit timeUnit = params.getTimeUnit();
+    long lowerBound = TimeUnitConverter.toMillis(timeUnit, params.getLowerBound());
+    long upperBound = TimeUnitConverter.toMillis(timeUnit, params.getUpperBound());
+    long stateTtl = TimeUnitConverter.toMillis(timeUnit, params.getStateTtl());
 
-    return messageStream[0].join(messageStream[1])
-            .where(new KeySelector<Event, String>() {
-              @Override
-              public String getKey(Event stringObjectMap) throws Exception {
-                StringBuilder builder = new StringBuilder();
-                for (String key : leftMappings) {
-                  builder.append(key);
-                }
-                return builder.toString();
-              }
-            }).equalTo(new KeySelector<Event, String>() {
-              @Override
-              public String getKey(Event stringObjectMap) throws Exception {
-                StringBuilder builder = new StringBuilder();
-                for (String key : rightMappings) {
-                  builder.append(key);
-                }
-                return builder.toString();
-              }
-            }).window(TumblingEventTimeWindows.of(time))
-            .apply(new JoinFunction<Event, Event, Event>() {
-              @Override
-              public Event join(Event e1, Event e2) throws Exception {
-                Event map = new Event();
-                e1.getFields().forEach((key, value) -> map.addField(value));
-                e2.getFields().forEach((key, value) -> map.addField(value));
-                return map;
-              }
-            });
+    DataStream<Event> leftStream = messageStream[0]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getLeftTimestamp(),
+                    params.getMaxOutOfOrderness()));
+    DataStream<Event> rightStream = messageStream[1]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getRightTimestamp(),
+                    params.getMaxOutOfOrderness()));
+
+    return leftStream
+            .keyBy(new EventKeySelector(params.getLeftMappings()))
+            .connect(rightStream.keyBy(new EventKeySelector(params.getRightMappings())))
+            .process(new And(lowerBound, upperBound, stateTtl,
+                    getOutputSelectors(PropertySelectorConstants.FIRST_STREAM_ID_PREFIX),
+                    getOutputSelectors(PropertySelectorConstants.SECOND_STREAM_ID_PREFIX)));
+  }
+
+  private List<String> getOutputSelectors(String streamPrefix) {
+    return params.getOutputKeySelectors()
+            .stream()
+            .filter(selector -> selector.startsWith(streamPrefix))
+            .collect(Collectors.toList());
   }
 }
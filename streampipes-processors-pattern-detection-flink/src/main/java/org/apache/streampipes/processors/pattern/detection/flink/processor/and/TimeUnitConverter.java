@@ -31,4 +31,8 @@ public class TimeUnitConverter {
     }
 
   }
+
+  public static long toMillis(TimeUnit timeUnit, long value) {
+    return toTime(timeUnit, value).toMilliseconds();
+  }
 }
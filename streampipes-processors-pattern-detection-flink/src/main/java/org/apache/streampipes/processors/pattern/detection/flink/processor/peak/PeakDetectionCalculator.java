@@ -18,117 +18,58 @@
 
 package org.apache.streampipes.processors.pattern.detection.flink.processor.peak;
 
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
-import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
 import org.apache.flink.util.Collector;
 import org.apache.streampipes.model.runtime.Event;
-
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.apache.streampipes.pe.shared.key.EventKey;
 
 /**
  * Created by riemer on 20.04.2017.
  */
-public class PeakDetectionCalculator implements FlatMapFunction<List<Event>, Event> {
+public class PeakDetectionCalculator extends KeyedProcessFunction<EventKey, Event, Event> {
 
-  private String groupBy;
   private String valueToObserve;
   private Integer lag;
   private Double threshold;
   private Double influence;
 
-  public PeakDetectionCalculator(String groupBy, String valueToObserve, Integer lag, Double
-          threshold, Double influence) {
-    this.groupBy = groupBy;
+  private transient ValueState<SmoothedZScore> detector;
+
+  public PeakDetectionCalculator(String valueToObserve, Integer lag, Double threshold, Double
+          influence) {
     this.valueToObserve = valueToObserve;
     this.lag = lag;
     this.threshold = threshold;
     this.influence = influence;
   }
 
-
   @Override
-  public void flatMap(List<Event> in, Collector<Event> out)
-          throws Exception {
-    List<Double> y = in
-            .stream()
-            .map(m -> m.getFieldBySelector(valueToObserve).getAsPrimitive().getAsDouble())
-            .collect(Collectors.toList());
-
-    Integer[] signals = makeIntegerArray(y.size());
-    Double[] filteredY = makeDoubleArray(y.size());
-
-    if (in.size() >= (lag+1)) {
-      for (int i = 0; i < lag; i++) {
-        filteredY[i] = y.get(i);
-      }
-
-      Double[] avgFilter = makeDoubleArray(y.size());
-      Double[] stdFilter = makeDoubleArray(y.size());
-
-      avgFilter[lag] = mean(y.subList(0, lag));
-      stdFilter[lag] = std(y.subList(0, lag));
+  public void open(Configuration parameters) {
+    this.detector = getRuntimeContext().getState(new ValueStateDescriptor<>("smoothed-z-score",
+            SmoothedZScore.class));
+  }
 
-      for (int i = (lag + 1); i < y.size(); i++) {
-        Double f = y.get(i);
+  @Override
+  public void processElement(Event in, Context ctx, Collector<Event> out) throws Exception {
+    SmoothedZScore zScore = detector.value();
+    if (zScore == null) {
+      zScore = new SmoothedZScore(lag, threshold, influence);
+    }
 
-        if (Math.abs((y.get(i) - avgFilter[i - 1])) > threshold * stdFilter[i - 1]) {
-          if (y.get(i) > avgFilter[i - 1]) {
-            signals[i] = 1;
-          } else {
-            signals[i] = -1;
-          }
-          filteredY[i] = influence * f + (1 - influence) * filteredY[i - 1];
-          avgFilter[i] = mean(Arrays.asList(Arrays.copyOfRange(filteredY, (i - lag), i)));
-          stdFilter[i] = std(Arrays.asList(Arrays.copyOfRange(filteredY, (i - lag), i)));
-        } else {
-          signals[i] = 0;
-          filteredY[i] = y.get(i);
-          avgFilter[i] = mean(Arrays.asList(Arrays.copyOfRange(filteredY, (i - lag), i)));
-          stdFilter[i] = std(Arrays.asList(Arrays.copyOfRange(filteredY, (i - lag), i)));
-        }
-      }
+    boolean initialized = zScore.isInitialized();
+    int signal = zScore.update(in.getFieldBySelector(valueToObserve).getAsPrimitive().getAsDouble());
+    detector.update(zScore);
 
+    if (initialized) {
       Event outMap = new Event();
-      outMap.addField("id", in.get(in.size() - 1).getFieldBySelector(groupBy).getAsPrimitive().getAsString());
+      outMap.addField("id", ctx.getCurrentKey().toString());
       outMap.addField("timestamp", System.currentTimeMillis());
-      outMap.addField("signal", signals[signals.length - 1]);
+      outMap.addField("signal", signal);
 
       out.collect(outMap);
     }
-
-  }
-
-  private Double[] makeDoubleArray(int size) {
-    Double[] array = new Double[size];
-    for (int i = 0; i < array.length; i++) {
-      array[i] = 0.0;
-    }
-    return array;
-  }
-
-  private Integer[] makeIntegerArray(int size) {
-    Integer[] array = new Integer[size];
-    for (int i = 0; i < array.length; i++) {
-      array[i] = 0;
-    }
-    return array;
-  }
-
-  private Double mean(List<Double> values) {
-    SummaryStatistics stats = new SummaryStatistics();
-
-    values.forEach(lv -> stats.addValue(lv));
-
-    return stats.getMean();
-  }
-
-  private Double std(List<Double> values) {
-    SummaryStatistics stats = new SummaryStatistics();
-
-    values.forEach(lv -> stats.addValue(lv));
-
-    return stats.getStandardDeviation();
   }
 }
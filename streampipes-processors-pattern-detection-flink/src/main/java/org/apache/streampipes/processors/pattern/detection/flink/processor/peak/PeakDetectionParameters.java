@@ -34,14 +34,13 @@ public class PeakDetectionParameters extends EventProcessorBindingParams impleme
   private Integer lag;
   private Double threshold;
   private Double influence;
-  private Integer countWindowSize;
 
   public PeakDetectionParameters(DataProcessorInvocation graph) {
     super(graph);
   }
 
   public PeakDetectionParameters(DataProcessorInvocation graph, String valueToObserve, String
-          timestampMapping, String groupBy, Integer countWindowSize, Integer lag, Double
+          timestampMapping, String groupBy, Integer lag, Double
           threshold, Double
           influence) {
     super(graph);
@@ -51,7 +50,6 @@ public class PeakDetectionParameters extends EventProcessorBindingParams impleme
     this.lag = lag;
     this.threshold = threshold;
     this.influence = influence;
-    this.countWindowSize = countWindowSize;
   }
 
   public String getValueToObserve() {
@@ -77,8 +75,4 @@ public class PeakDetectionParameters extends EventProcessorBindingParams impleme
   public Double getInfluence() {
     return influence;
   }
-
-  public Integer getCountWindowSize() {
-    return countWindowSize;
-  }
 }
@@ -18,15 +18,10 @@
 
 package org.apache.streampipes.processors.pattern.detection.flink.processor.peak;
 
-import org.apache.flink.api.common.typeinfo.TypeHint;
-import org.apache.flink.api.common.typeinfo.TypeInformation;
-import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
 import org.apache.streampipes.processors.pattern.detection.flink.AbstractPatternDetectionProgram;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.peak.utils.SlidingBatchWindow;
-
-import java.util.List;
 
 /**
  * Created by riemer on 20.04.2017.
@@ -45,28 +40,12 @@ public class PeakDetectionProgram extends AbstractPatternDetectionProgram<PeakDe
     String valueToObserve = params.getValueToObserve();
     Double threshold = params.getThreshold();
     Double influence = params.getInfluence();
-    Integer countWindowSize = params.getCountWindowSize();
 
     return messageStream[0]
-            .keyBy(getKeySelector())
-            .transform
-                    ("sliding-batch-window-shift",
-                            TypeInformation.of(new TypeHint<List<Event>>() {
-                            }), new SlidingBatchWindow<>(countWindowSize))
-            .flatMap(new PeakDetectionCalculator(groupBy,
-                    valueToObserve,
+            .keyBy(new EventKeySelector(groupBy))
+            .process(new PeakDetectionCalculator(valueToObserve,
                     lag,
                     threshold,
                     influence));
   }
-
-  private KeySelector<Event, String> getKeySelector() {
-    String groupBy = params.getGroupBy();
-    return new KeySelector<Event, String>() {
-      @Override
-      public String getKey(Event in) throws Exception {
-        return in.getFieldBySelector(groupBy).getAsPrimitive().getAsString();
-      }
-    };
-  }
 }
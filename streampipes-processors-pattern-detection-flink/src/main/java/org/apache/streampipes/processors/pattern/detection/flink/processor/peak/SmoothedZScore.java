@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.flink.processor.peak;
+
+import java.io.Serializable;
+
+/**
+ * Streaming smoothed z-score peak detection. A sample is a peak if it deviates by more than threshold
+ * standard deviations from the moving mean of the last lag filtered samples. Peaks enter the filtered
+ * series only with the given influence, so they do not distort the statistics of later samples.
+ *
+ * <p>Mean and variance of the lag window are updated when a filtered sample enters and the oldest one
+ * leaves it, which makes every update O(1).</p>
+ */
+public class SmoothedZScore implements Serializable {
+
+  public static final int NO_SIGNAL = 0;
+  public static final int POSITIVE_SIGNAL = 1;
+  public static final int NEGATIVE_SIGNAL = -1;
+
+  private final int lag;
+  private final double threshold;
+  private final double influence;
+
+  private final double[] filtered;
+  private long count;
+  private double mean;
+  private double m2;
+
+  public SmoothedZScore(int lag, double threshold, double influence) {
+    this.lag = lag;
+    this.threshold = threshold;
+    this.influence = influence;
+    this.filtered = new double[lag];
+  }
+
+  /**
+   * Returns true as soon as lag samples have been observed and signals can be calculated.
+   */
+  public boolean isInitialized() {
+    return count >= lag;
+  }
+
+  /**
+   * Adds the next sample and returns its signal. Until the lag window is filled, no signal is raised.
+   */
+  public int update(double value) {
+    if (!isInitialized()) {
+      filtered[(int) count] = value;
+      count++;
+      double delta = value - mean;
+      mean += delta / count;
+      m2 += delta * (value - mean);
+      return NO_SIGNAL;
+    }
+
+    int signal = NO_SIGNAL;
+    double filteredValue = value;
+    if (Math.abs(value - mean) > threshold * getStandardDeviation()) {
+      signal = value > mean ? POSITIVE_SIGNAL : NEGATIVE_SIGNAL;
+      filteredValue = influence * value + (1 - influence) * filtered[previousIndex()];
+    }
+
+    int oldestIndex = (int) (count % lag);
+    replace(filtered[oldestIndex], filteredValue);
+    filtered[oldestIndex] = filteredValue;
+    count++;
+
+    return signal;
+  }
+
+  private void replace(double oldValue, double newValue) {
+    double oldMean = mean;
+    mean += (newValue - oldValue) / lag;
+    m2 = Math.max(0, m2 + (newValue - oldValue) * (newValue - mean + oldValue - oldMean));
+  }
+
+  private int previousIndex() {
+    return (int) ((count - 1) % lag);
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Returns the sample standard deviation of the filtered lag window.
+   */
+  public double getStandardDeviation() {
+    long n = Math.min(count, lag);
+    return n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+  }
+}
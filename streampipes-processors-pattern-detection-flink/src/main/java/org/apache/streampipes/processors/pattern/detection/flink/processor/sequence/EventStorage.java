@@ -20,7 +20,9 @@ package org.apache.streampipes.processors.pattern.detection.flink.processor.sequ
 
 import org.apache.streampipes.model.runtime.Event;
 
-public class EventStorage {
+import java.io.Serializable;
+
+public class EventStorage implements Serializable {
 
   private Long timestamp;
   private Event event;
@@ -19,53 +19,125 @@
 package org.apache.streampipes.processors.pattern.detection.flink.processor.sequence;
 
 import org.apache.flink.api.common.state.ValueState;
-import org.apache.flink.streaming.api.functions.co.CoProcessFunction;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.co.KeyedCoProcessFunction;
 import org.apache.flink.util.Collector;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
 
-public class Sequence extends CoProcessFunction<Event, Event, Event> {
+import java.util.HashMap;
+
+/**
+ * Detects an event of the first stream followed by an event of the second stream within a time window,
+ * based on event time. Matching is driven by watermarks and the pending events of each key are removed
+ * by timers as soon as they cannot take part in a sequence anymore.
+ */
+public class Sequence extends KeyedCoProcessFunction<EventKey, Event, Event, Event> {
 
   private String timeUnit;
   private Integer timeWindow;
+  private SequenceMultiplicity multiplicity;
+  private Integer maxEventsPerKey;
 
-  private ValueState<EventStorage> state;
+  private transient ValueState<SequenceBuffer> state;
 
-  public Sequence(String timeUnit, Integer timeWindow) {
+  private transient Counter lateEvents;
+  private transient Counter droppedEvents;
+  private transient Counter bufferedEvents;
+  private transient Counter releasedEvents;
+
+  public Sequence(String timeUnit, Integer timeWindow, SequenceMultiplicity multiplicity,
+                  Integer maxEventsPerKey) {
     this.timeUnit = timeUnit;
     this.timeWindow = timeWindow;
+    this.multiplicity = multiplicity;
+    this.maxEventsPerKey = maxEventsPerKey;
   }
 
-  //@Override
-  //public void open(Configuration parameters) throws Exception {
-    // TODO: add RuntimeContext
-    //state = getRuntimeContext().getState(new ValueStateDescriptor<>("sequence-event-storage",
-    //        EventStorage.class));
-  //}
-
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    state = getRuntimeContext().getState(new ValueStateDescriptor<>("sequence-event-storage",
+            SequenceBuffer.class));
+
+    MetricGroup metrics = getRuntimeContext().getMetricGroup().addGroup("sequence");
+    lateEvents = metrics.counter("lateEvents");
+    droppedEvents = metrics.counter("droppedEvents");
+    bufferedEvents = metrics.counter("bufferedEvents");
+    releasedEvents = metrics.counter("releasedEvents");
+  }
 
   @Override
   public void processElement1(Event value, Context ctx, Collector<Event> out) throws Exception {
-    state.update(new EventStorage(System.currentTimeMillis(), value));
+    long timestamp = ctx.timestamp();
+    if (timestamp + getTimeWindowMillis() <= ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
+    }
+    SequenceBuffer buffer = getBuffer();
+    int dropped = buffer.addFirst(new EventStorage(timestamp, value));
+    update(buffer, dropped, ctx);
   }
 
   @Override
   public void processElement2(Event value, Context ctx, Collector<Event> out) throws Exception {
-    EventStorage previousElementStream1 = state.value();
-    if (previousElementStream1 != null && isSequence(previousElementStream1, value)) {
-      previousElementStream1.getEvent().getFields().forEach((key, v) -> value.addField(v));
-      out.collect(value);
+    long timestamp = ctx.timestamp();
+    if (timestamp <= ctx.timerService().currentWatermark()) {
+      lateEvents.inc();
+      return;
     }
+    SequenceBuffer buffer = getBuffer();
+    int dropped = buffer.addSecond(new EventStorage(timestamp, value));
+    update(buffer, dropped, ctx);
   }
 
-  private Boolean isSequence(EventStorage previousElementStream1, Event value) {
-    Long currentTime = System.currentTimeMillis();
-    Long earliestAllowedStartTime = getEarliestStartTime(currentTime);
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<Event> out) throws Exception {
+    SequenceBuffer buffer = state.value();
+    if (buffer == null) {
+      return;
+    }
 
-    return previousElementStream1.getTimestamp() >= earliestAllowedStartTime;
+    int sizeBefore = buffer.size();
+    for (Tuple2<EventStorage, EventStorage> match : buffer.advanceTo(timestamp)) {
+      out.collect(makeOutputEvent(match.f0.getEvent(), match.f1.getEvent()));
+    }
+    releasedEvents.inc(sizeBefore - buffer.size());
+
+    if (buffer.isEmpty()) {
+      state.clear();
+    } else {
+      state.update(buffer);
+      ctx.timerService().registerEventTimeTimer(buffer.getNextTimer());
+    }
+  }
+
+  private void update(SequenceBuffer buffer, int dropped, Context ctx) throws Exception {
+    bufferedEvents.inc();
+    droppedEvents.inc(dropped);
+    state.update(buffer);
+    // timers are deduplicated per key and timestamp
+    ctx.timerService().registerEventTimeTimer(buffer.getNextTimer());
+  }
+
+  private SequenceBuffer getBuffer() throws Exception {
+    SequenceBuffer buffer = state.value();
+    return buffer != null ? buffer : new SequenceBuffer(getTimeWindowMillis(), maxEventsPerKey,
+            multiplicity);
+  }
+
+  private Event makeOutputEvent(Event first, Event second) {
+    Event outEvent = new Event(new HashMap<>(), second.getSourceInfo(), second.getSchemaInfo());
+    second.getFields().forEach((key, v) -> outEvent.addField(v));
+    first.getFields().forEach((key, v) -> outEvent.addField(v));
+    return outEvent;
   }
 
-  private Long getEarliestStartTime(Long currentTime) {
-    Integer multiplier;
+  private long getTimeWindowMillis() {
+    long multiplier;
 
     if (timeUnit.equals("sec")) {
       multiplier = 1000;
@@ -75,11 +147,6 @@ public class Sequence extends CoProcessFunction<Event, Event, Event> {
       multiplier = 1000 * 60 * 60;
     }
 
-    return currentTime - (multiplier * timeWindow);
-  }
-
-  @Override
-  public void onTimer(long timestamp, OnTimerContext ctx, Collector<Event> out) throws Exception {
-
+    return multiplier * timeWindow;
   }
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.flink.processor.sequence;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pending events of one key, ordered by event time. Second events are only matched once the watermark
+ * has passed them, so that all first events that might precede them have arrived. First events are kept
+ * until no future second event can match them anymore. Both buffers are bounded; when a buffer is full,
+ * its oldest event is dropped.
+ */
+public class SequenceBuffer implements Serializable {
+
+  private final long timeWindowMillis;
+  private final int maxEvents;
+  private final SequenceMultiplicity multiplicity;
+
+  private final List<EventStorage> firstEvents = new ArrayList<>();
+  private final List<EventStorage> secondEvents = new ArrayList<>();
+
+  public SequenceBuffer(long timeWindowMillis, int maxEvents, SequenceMultiplicity multiplicity) {
+    this.timeWindowMillis = timeWindowMillis;
+    this.maxEvents = maxEvents;
+    this.multiplicity = multiplicity;
+  }
+
+  /**
+   * @return the number of events dropped to keep the buffer bounded
+   */
+  public int addFirst(EventStorage event) {
+    return insert(firstEvents, event);
+  }
+
+  /**
+   * @return the number of events dropped to keep the buffer bounded
+   */
+  public int addSecond(EventStorage event) {
+    return insert(secondEvents, event);
+  }
+
+  /**
+   * Matches all second events up to the watermark and removes first events which have expired.
+   *
+   * @return the matched pairs of first and second events, ordered by the time of the second event
+   */
+  public List<Tuple2<EventStorage, EventStorage>> advanceTo(long watermark) {
+    List<Tuple2<EventStorage, EventStorage>> matches = new ArrayList<>();
+
+    int completed = 0;
+    while (completed < secondEvents.size() && secondEvents.get(completed).getTimestamp() <= watermark) {
+      match(secondEvents.get(completed), matches);
+      completed++;
+    }
+    secondEvents.subList(0, completed).clear();
+
+    // later second events are newer than the watermark
+    int expired = 0;
+    while (expired < firstEvents.size()
+            && firstEvents.get(expired).getTimestamp() + timeWindowMillis <= watermark) {
+      expired++;
+    }
+    firstEvents.subList(0, expired).clear();
+
+    return matches;
+  }
+
+  private void match(EventStorage second, List<Tuple2<EventStorage, EventStorage>> matches) {
+    long timestamp = second.getTimestamp();
+    int from = lowerBound(firstEvents, timestamp - timeWindowMillis);
+    int to = lowerBound(firstEvents, timestamp);
+    if (from >= to) {
+      return;
+    }
+
+    if (multiplicity == SequenceMultiplicity.FIRST) {
+      matches.add(new Tuple2<>(firstEvents.get(from), second));
+    } else if (multiplicity == SequenceMultiplicity.LAST) {
+      matches.add(new Tuple2<>(firstEvents.get(to - 1), second));
+    } else {
+      for (int i = from; i < to; i++) {
+        matches.add(new Tuple2<>(firstEvents.get(i), second));
+      }
+    }
+  }
+
+  /**
+   * Returns the time of the earliest pending event or Long.MAX_VALUE if the buffer is empty.
+   */
+  public long getNextTimer() {
+    long next = Long.MAX_VALUE;
+    if (!secondEvents.isEmpty()) {
+      next = secondEvents.get(0).getTimestamp();
+    }
+    if (!firstEvents.isEmpty()) {
+      next = Math.min(next, firstEvents.get(0).getTimestamp() + timeWindowMillis);
+    }
+    return next;
+  }
+
+  public int size() {
+    return firstEvents.size() + secondEvents.size();
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  private int insert(List<EventStorage> events, EventStorage event) {
+    events.add(upperBound(events, event.getTimestamp()), event);
+    int dropped = 0;
+    while (events.size() > maxEvents) {
+      events.remove(0);
+      dropped++;
+    }
+    return dropped;
+  }
+
+  // index of the first event with a timestamp >= the given timestamp
+  private static int lowerBound(List<EventStorage> events, long timestamp) {
+    int low = 0;
+    int high = events.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (events.get(mid).getTimestamp() < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // index of the first event with a timestamp > the given timestamp
+  private static int upperBound(List<EventStorage> events, long timestamp) {
+    int low = 0;
+    int high = events.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (events.get(mid).getTimestamp() <= timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.streampipes.processors.pattern.detection.flink.processor.sequ
 import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.model.schema.PropertyScope;
 import org.apache.streampipes.processors.pattern.detection.flink.config.PatternDetectionFlinkConfig;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
@@ -30,10 +31,19 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorDeclarer;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 
+import java.util.List;
+
 public class SequenceController extends FlinkDataProcessorDeclarer<SequenceParameters> {
 
   private static final String TIME_WINDOW = "timeWindow";
   private static final String TIME_UNIT = "timeUnit";
+  private static final String LEFT_KEY = "leftKey";
+  private static final String RIGHT_KEY = "rightKey";
+  private static final String LEFT_TIMESTAMP = "leftTimestamp";
+  private static final String RIGHT_TIMESTAMP = "rightTimestamp";
+  private static final String MULTIPLICITY = "multiplicity";
+  private static final String MAX_EVENTS_PER_KEY = "maxEventsPerKey";
+  private static final String MAX_OUT_OF_ORDERNESS = "maxOutOfOrderness";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -41,11 +51,29 @@ public class SequenceController extends FlinkDataProcessorDeclarer<SequenceParam
             .withLocales(Locales.EN)
             .withAssets(Assets.DOCUMENTATION, Assets.ICON)
             .category(DataProcessorType.PATTERN_DETECT)
-            .requiredStream(StreamRequirementsBuilder.create().requiredProperty(EpRequirements.anyProperty()).build())
-            .requiredStream(StreamRequirementsBuilder.create().requiredProperty(EpRequirements.anyProperty()).build())
+            .requiredStream(StreamRequirementsBuilder
+                    .create()
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(LEFT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
+                    .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
+                            Labels.withId(LEFT_KEY), PropertyScope.DIMENSION_PROPERTY)
+                    .build())
+            .requiredStream(StreamRequirementsBuilder
+                    .create()
+                    .requiredPropertyWithUnaryMapping(EpRequirements.timestampReq(),
+                            Labels.withId(RIGHT_TIMESTAMP), PropertyScope.HEADER_PROPERTY)
+                    .requiredPropertyWithNaryMapping(EpRequirements.anyProperty(),
+                            Labels.withId(RIGHT_KEY), PropertyScope.DIMENSION_PROPERTY)
+                    .build())
             .requiredIntegerParameter(Labels.withId(TIME_WINDOW))
             .requiredSingleValueSelection(Labels.withId(TIME_UNIT), Options.from("sec", "min",
                     "hrs"))
+            .requiredSingleValueSelection(Labels.withId(MULTIPLICITY),
+                    Options.from(new Tuple2<>("First", SequenceMultiplicity.FIRST.name()),
+                            new Tuple2<>("Last", SequenceMultiplicity.LAST.name()),
+                            new Tuple2<>("All", SequenceMultiplicity.ALL.name())))
+            .requiredIntegerParameter(Labels.withId(MAX_EVENTS_PER_KEY), 1000)
+            .requiredIntegerParameter(Labels.withId(MAX_OUT_OF_ORDERNESS), 1000)
             .outputStrategy(OutputStrategies.keep(false))
             .build();
   }
@@ -56,8 +84,17 @@ public class SequenceController extends FlinkDataProcessorDeclarer<SequenceParam
 
     Integer timeWindowSize = extractor.singleValueParameter(TIME_WINDOW, Integer.class);
     String timeUnit = extractor.selectedSingleValue(TIME_UNIT, String.class);
+    List<String> leftKeys = extractor.mappingPropertyValues(LEFT_KEY);
+    List<String> rightKeys = extractor.mappingPropertyValues(RIGHT_KEY);
+    String leftTimestamp = extractor.mappingPropertyValue(LEFT_TIMESTAMP);
+    String rightTimestamp = extractor.mappingPropertyValue(RIGHT_TIMESTAMP);
+    SequenceMultiplicity multiplicity = SequenceMultiplicity.valueOf(extractor
+            .selectedSingleValueInternalName(MULTIPLICITY, String.class));
+    Integer maxEventsPerKey = extractor.singleValueParameter(MAX_EVENTS_PER_KEY, Integer.class);
+    Integer maxOutOfOrderness = extractor.singleValueParameter(MAX_OUT_OF_ORDERNESS, Integer.class);
 
-    SequenceParameters params = new SequenceParameters(graph, timeWindowSize, timeUnit);
+    SequenceParameters params = new SequenceParameters(graph, timeWindowSize, timeUnit, leftKeys,
+            rightKeys, leftTimestamp, rightTimestamp, multiplicity, maxEventsPerKey, maxOutOfOrderness);
 
     return new SequenceProgram(params, PatternDetectionFlinkConfig.INSTANCE.getDebug());
 
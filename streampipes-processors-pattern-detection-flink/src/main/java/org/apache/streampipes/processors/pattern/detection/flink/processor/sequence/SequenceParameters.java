@@ -21,15 +21,34 @@ package org.apache.streampipes.processors.pattern.detection.flink.processor.sequ
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
+import java.util.List;
+
 public class SequenceParameters extends EventProcessorBindingParams {
 
   private Integer timeWindow;
   private String timeUnit;
+  private List<String> leftKeys;
+  private List<String> rightKeys;
+  private String leftTimestamp;
+  private String rightTimestamp;
+  private SequenceMultiplicity multiplicity;
+  private Integer maxEventsPerKey;
+  private Integer maxOutOfOrderness;
 
-  public SequenceParameters(DataProcessorInvocation graph, Integer timeWindow, String timeUnit) {
+  public SequenceParameters(DataProcessorInvocation graph, Integer timeWindow, String timeUnit,
+                            List<String> leftKeys, List<String> rightKeys, String leftTimestamp,
+                            String rightTimestamp, SequenceMultiplicity multiplicity,
+                            Integer maxEventsPerKey, Integer maxOutOfOrderness) {
     super(graph);
     this.timeWindow = timeWindow;
     this.timeUnit = timeUnit;
+    this.leftKeys = leftKeys;
+    this.rightKeys = rightKeys;
+    this.leftTimestamp = leftTimestamp;
+    this.rightTimestamp = rightTimestamp;
+    this.multiplicity = multiplicity;
+    this.maxEventsPerKey = maxEventsPerKey;
+    this.maxOutOfOrderness = maxOutOfOrderness;
   }
 
   public Integer getTimeWindow() {
@@ -39,4 +58,32 @@ public class SequenceParameters extends EventProcessorBindingParams {
   public String getTimeUnit() {
     return timeUnit;
   }
+
+  public List<String> getLeftKeys() {
+    return leftKeys;
+  }
+
+  public List<String> getRightKeys() {
+    return rightKeys;
+  }
+
+  public String getLeftTimestamp() {
+    return leftTimestamp;
+  }
+
+  public String getRightTimestamp() {
+    return rightTimestamp;
+  }
+
+  public SequenceMultiplicity getMultiplicity() {
+    return multiplicity;
+  }
+
+  public Integer getMaxEventsPerKey() {
+    return maxEventsPerKey;
+  }
+
+  public Integer getMaxOutOfOrderness() {
+    return maxOutOfOrderness;
+  }
 }
@@ -18,10 +18,11 @@
 
 package org.apache.streampipes.processors.pattern.detection.flink.processor.sequence;
 
-import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
 import org.apache.streampipes.processors.pattern.detection.flink.AbstractPatternDetectionProgram;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.common.OutOfOrderTimestampExtractor;
 
 public class SequenceProgram extends AbstractPatternDetectionProgram<SequenceParameters> {
 
@@ -31,19 +32,19 @@ public class SequenceProgram extends AbstractPatternDetectionProgram<SequencePar
 
   @Override
   protected DataStream<Event> getApplicationLogic(DataStream<Event>... dataStreams) {
-    return dataStreams[0].keyBy(getKeySelector()).connect(dataStreams[1].keyBy(getKeySelector())).process(new Sequence(params
-            .getTimeUnit(),
-            params
-            .getTimeWindow
-            ()));
-  }
+    // Both streams are partitioned by the selected properties, so that independent sequences are
+    // detected in parallel. Without a key, all events are matched against each other.
+    DataStream<Event> firstStream = dataStreams[0]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getLeftTimestamp(),
+                    params.getMaxOutOfOrderness()));
+    DataStream<Event> secondStream = dataStreams[1]
+            .assignTimestampsAndWatermarks(new OutOfOrderTimestampExtractor(params.getRightTimestamp(),
+                    params.getMaxOutOfOrderness()));
 
-  private KeySelector<Event, String> getKeySelector() {
-    return new KeySelector<Event, String>() {
-      @Override
-      public String getKey(Event value) throws Exception {
-        return "dummy-key";
-      }
-    };
+    return firstStream
+            .keyBy(new EventKeySelector(params.getLeftKeys()))
+            .connect(secondStream.keyBy(new EventKeySelector(params.getRightKeys())))
+            .process(new Sequence(params.getTimeUnit(), params.getTimeWindow(), params.getMultiplicity(),
+                    params.getMaxEventsPerKey()));
   }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.processor;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.streaming.api.functions.co.KeyedCoProcessFunction;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.api.operators.co.KeyedCoProcessOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.util.AbstractStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared fixture of the operator harness tests: events of the streams s0 and s1 keyed by their id property.
+ * Single-input operators consume the stream s0.
+ */
+public class PatternTestHarness {
+
+  private PatternTestHarness() {
+
+  }
+
+  /**
+   * Creates and opens a harness for a single-input operator keyed by the id property.
+   */
+  public static KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> makeOneInputHarness(
+          KeyedProcessFunction<EventKey, Event, Event> function) throws Exception {
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness = create(function);
+    harness.open();
+    return harness;
+  }
+
+  /**
+   * Creates and opens a harness for a single-input operator which continues from a snapshot of a previous run.
+   */
+  public static KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> restoreOneInputHarness(
+          KeyedProcessFunction<EventKey, Event, Event> function,
+          OperatorSubtaskState snapshot) throws Exception {
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness = create(function);
+    harness.setup();
+    harness.initializeState(snapshot);
+    harness.open();
+    return harness;
+  }
+
+  /**
+   * Creates and opens a harness for a two-input operator keyed by the id property of both streams.
+   */
+  public static KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> makeTwoInputHarness(
+          KeyedCoProcessFunction<EventKey, Event, Event, Event> function) throws Exception {
+    KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness = create(function);
+    harness.open();
+    return harness;
+  }
+
+  /**
+   * Creates and opens a harness for a two-input operator which continues from a snapshot of a previous run.
+   */
+  public static KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> restoreTwoInputHarness(
+          KeyedCoProcessFunction<EventKey, Event, Event, Event> function,
+          OperatorSubtaskState snapshot) throws Exception {
+    KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness = create(function);
+    harness.setup();
+    harness.initializeState(snapshot);
+    harness.open();
+    return harness;
+  }
+
+  /**
+   * Advances the watermark of both inputs.
+   */
+  public static void processWatermark(KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness,
+                                      long timestamp) throws Exception {
+    harness.processWatermark1(new Watermark(timestamp));
+    harness.processWatermark2(new Watermark(timestamp));
+  }
+
+  /**
+   * Returns the values of the given property of all emitted events.
+   */
+  public static List<Object> getOutputValues(AbstractStreamOperatorTestHarness<Event> harness,
+                                             String runtimeName) {
+    List<Object> values = new ArrayList<>();
+    for (Event event : harness.extractOutputValues()) {
+      values.add(event.getRaw().get(runtimeName));
+    }
+    return values;
+  }
+
+  private static KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> create(
+          KeyedProcessFunction<EventKey, Event, Event> function) throws Exception {
+    return new KeyedOneInputStreamOperatorTestHarness<>(new KeyedProcessOperator<>(function),
+            new EventKeySelector("s0::id"), TypeInformation.of(EventKey.class));
+  }
+
+  private static KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> create(
+          KeyedCoProcessFunction<EventKey, Event, Event, Event> function) throws Exception {
+    return new KeyedTwoInputStreamOperatorTestHarness<>(new KeyedCoProcessOperator<>(function),
+            new EventKeySelector("s0::id"), new EventKeySelector("s1::id"), TypeInformation.of(EventKey.class));
+  }
+
+  /**
+   * Creates an event of the given stream with an id and a single value property.
+   */
+  public static Event makeEvent(String streamPrefix, String id, String runtimeName, Object value) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", id);
+    map.put(runtimeName, value);
+    return EventFactory.fromMap(map, new SourceInfo("topic-" + streamPrefix, streamPrefix),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+}
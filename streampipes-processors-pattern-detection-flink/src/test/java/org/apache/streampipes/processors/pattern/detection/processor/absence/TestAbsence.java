@@ -15,104 +15,110 @@
  * limitations under the License.
  *
  */
-package org.apache.streampipes.processors.pattern.detection.processor.absence;
 
-import static org.hamcrest.core.IsEqual.equalTo;
+package org.apache.streampipes.processors.pattern.detection.processor.absence;
 
-import io.flinkspector.datastream.DataStreamTestBase;
-import io.flinkspector.datastream.input.EventTimeInput;
-import io.flinkspector.datastream.input.EventTimeInputBuilder;
-import org.apache.flink.streaming.api.datastream.DataStream;
-import org.junit.Ignore;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.junit.runners.Parameterized;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.absence.AbsenceController;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.absence.AbsenceParameters;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.absence.AbsenceProgram;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.and.TimeUnit;
-import org.apache.streampipes.test.generator.InvocationGraphGenerator;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.absence.Absence;
+import org.apache.streampipes.processors.pattern.detection.processor.PatternTestHarness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
-@Ignore
-@RunWith(Parameterized.class)
-public class TestAbsence extends DataStreamTestBase {
-
-  @Parameterized.Parameters
-  public static Iterable<Object[]> data() {
-    return Arrays.asList(new Object[][]{
-            {10, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 12},
-            {10, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), false, 5},
-            {5, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 6},
-    });
-  }
-
-  @Parameterized.Parameter
-  public Integer timeWindow;
-
-  @Parameterized.Parameter(1)
-  public TimeUnit timeUnit;
+import static org.junit.Assert.assertEquals;
 
-  @Parameterized.Parameter(2)
-  public List<String> leftMapping;
+public class TestAbsence {
 
-  @Parameterized.Parameter(3)
-  public List<String> rightMapping;
+  private static final long TIME_WINDOW = 1000;
 
-  @Parameterized.Parameter(4)
-  public Boolean shouldMatch;
+  private KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness;
 
-  @Parameterized.Parameter(5)
-  public Integer waitForMs;
+  @Before
+  public void setUp() throws Exception {
+    Absence absence = new Absence(TIME_WINDOW, Arrays.asList("s0::id", "s0::value"));
+    harness = PatternTestHarness.makeTwoInputHarness(absence);
+  }
 
+  @After
+  public void tearDown() throws Exception {
+    harness.close();
+  }
 
   @Test
-  public void testAbsenceProgram() {
-    AbsenceParameters params = new AbsenceParameters(InvocationGraphGenerator.makeEmptyInvocation(new AbsenceController().declareModel()),  Arrays.asList("id", "timestamp", "value"), timeWindow, timeUnit);
-
-    AbsenceProgram program = new AbsenceProgram(params, true);
+  public void testEmitsTriggerWhenTimerFires() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 0));
+    assertEquals(1, harness.numEventTimeTimers());
 
-    DataStream<Event> stream = program.getApplicationLogic(createTestStream(makeInputData(1, makeMap(), 0)), createTestStream(makeInputData(waitForMs, makeMap(), 1)));
+    processWatermark(999);
+    assertEquals(Collections.emptyList(), getAbsentValues());
 
-    assertStream(stream, equalTo(getOutput(shouldMatch)));
+    processWatermark(1000);
+    assertEquals(Collections.singletonList(1), getAbsentValues());
+    assertEquals(0, harness.numEventTimeTimers());
   }
 
-  private Collection<Event> getOutput(Boolean shouldMatch) {
-    List<Event> allEvents = new ArrayList<>();
-
-    if (shouldMatch) {
-      allEvents.add(makeMap().get(0));
-    }
+  @Test
+  public void testFollowUpCancelsTimer() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 0));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "b", 2), 0));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 0), 500));
+    // the timer of the trigger is deleted, the follow-up is kept until its own cleanup timer
+    assertEquals(2, harness.numEventTimeTimers());
+
+    processWatermark(2000);
+    assertEquals(Collections.singletonList(2), getAbsentValues());
+    assertEquals(0, harness.numEventTimeTimers());
+  }
 
-    return allEvents;
+  @Test
+  public void testFollowUpBeforeTrigger() throws Exception {
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 0), 500));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 0));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 2), 600));
+
+    processWatermark(2000);
+    // the follow-up precedes the second trigger, so it only covers the first one
+    assertEquals(Collections.singletonList(2), getAbsentValues());
   }
 
-  private EventTimeInput<Event> makeInputData(Integer delayEvent, List<Event> inputMap, Integer i) {
-    List<Event> testData = inputMap;
-    EventTimeInputBuilder<Event> builder = EventTimeInputBuilder.startWith(testData.get(i), after(delayEvent, seconds));
+  @Test
+  public void testFollowUpAtDeadlineDoesNotCancel() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 0));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 0), TIME_WINDOW));
 
-    return builder;
+    processWatermark(TIME_WINDOW);
+    assertEquals(Collections.singletonList(1), getAbsentValues());
   }
 
-  private List<Event> makeMap() {
-    List<Event> allEvents = new ArrayList<>();
-    Event event1 = new Event();
-    event1.addField("id", "a");
-    event1.addField("timestamp", 0);
+  @Test
+  public void testDropsLateEvents() throws Exception {
+    processWatermark(5000);
 
-    allEvents.add(event1);
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 4000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 0), 3900));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 2), 4500));
+    assertEquals(1, harness.numEventTimeTimers());
 
-    Event event2 = new Event();
-    event2.addField("id", "a");
-    event2.addField("timestamp", waitForMs);
+    processWatermark(6000);
+    assertEquals(Collections.singletonList(2), getAbsentValues());
+  }
 
-    allEvents.add(event2);
+  private void processWatermark(long timestamp) throws Exception {
+    PatternTestHarness.processWatermark(harness, timestamp);
+  }
+
+  private List<Object> getAbsentValues() {
+    return PatternTestHarness.getOutputValues(harness, "value");
+  }
 
-    return allEvents;
+  private Event makeEvent(String streamPrefix, String id, int value) {
+    return PatternTestHarness.makeEvent(streamPrefix, id, "value", value);
   }
 }
@@ -15,116 +15,116 @@
  * limitations under the License.
  *
  */
-package org.apache.streampipes.processors.pattern.detection.processor.and;
 
-import static org.hamcrest.core.IsEqual.equalTo;
+package org.apache.streampipes.processors.pattern.detection.processor.and;
 
-import io.flinkspector.datastream.DataStreamTestBase;
-import io.flinkspector.datastream.input.EventTimeInput;
-import io.flinkspector.datastream.input.EventTimeInputBuilder;
-import org.apache.flink.streaming.api.datastream.DataStream;
-import org.junit.Ignore;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.junit.runners.Parameterized;
-import org.apache.streampipes.model.graph.DataProcessorDescription;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.and.AndController;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.and.AndParameters;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.and.AndProgram;
-import org.apache.streampipes.processors.pattern.detection.flink.processor.and.TimeUnit;
-import org.apache.streampipes.test.generator.InvocationGraphGenerator;
-import org.apache.streampipes.test.generator.grounding.EventGroundingGenerator;
-
-import java.util.ArrayList;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.and.And;
+import org.apache.streampipes.processors.pattern.detection.processor.PatternTestHarness;
+import org.junit.After;
+import org.junit.Test;
+
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
-@Ignore
-@RunWith(Parameterized.class)
-public class TestAnd extends DataStreamTestBase {
+import static org.junit.Assert.assertEquals;
 
+public class TestAnd {
 
-  @Parameterized.Parameters
-  public static Iterable<Object[]> data() {
-    return Arrays.asList(new Object[][]{
-            {2, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 1, 1},
-            {1, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 1, 1},
-            {10, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), false, 1, 12},
-            {10, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 3, 4},
-            {1, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), false, 1, 2},
-            {3600, TimeUnit.Seconds, Arrays.asList("id"), Arrays.asList("id"), true, 10, 3500},
+  private KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness;
 
-    });
+  @After
+  public void tearDown() throws Exception {
+    harness.close();
   }
 
-  @Parameterized.Parameter
-  public Integer timeWindow;
-
-  @Parameterized.Parameter(1)
-  public TimeUnit timeUnit;
+  @Test
+  public void testMatchesWithinInterval() throws Exception {
+    makeHarness(-1000, 1000);
 
-  @Parameterized.Parameter(2)
-  public List<String> leftMapping;
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 1), 3999));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 2), 4000));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 5000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "b", 3), 5000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 4), 6000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 5), 6001));
 
-  @Parameterized.Parameter(3)
-  public List<String> rightMapping;
+    assertEquals(Arrays.asList(2, 4), getMatchedValues());
+  }
 
-  @Parameterized.Parameter(4)
-  public Boolean shouldMatch;
+  @Test
+  public void testMatchesAtUpperBoundAfterWatermark() throws Exception {
+    makeHarness(-1000, 1000);
 
-  @Parameterized.Parameter(5)
-  public Integer delayFirstEvent;
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 0));
+    processWatermark(1000);
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 1), 1000));
 
-  @Parameterized.Parameter(6)
-  public Integer delaySecondEvent;
+    assertEquals(Collections.singletonList(1), getMatchedValues());
+  }
 
   @Test
-  public void testAndProgram() {
-    DataProcessorDescription description = new AndController().declareModel();
-    description.setSupportedGrounding(EventGroundingGenerator.makeDummyGrounding());
-    AndParameters params =
-            new AndParameters(InvocationGraphGenerator.makeEmptyInvocation(description), timeUnit,
-                    timeWindow, leftMapping, rightMapping);
-
-    AndProgram program = new AndProgram(params, true);
+  public void testMatchesAtLowerBoundAfterWatermark() throws Exception {
+    makeHarness(-1000, 1000);
 
-    DataStream<Event> stream = program.getApplicationLogic(createTestStream(makeInputData(delayFirstEvent, makeMap("field1"))), createTestStream(makeInputData(delaySecondEvent, makeMap("field2"))));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 1), 0));
+    processWatermark(1000);
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 1000));
 
-    assertStream(stream, equalTo(getOutput(shouldMatch)));
+    assertEquals(Collections.singletonList(1), getMatchedValues());
   }
 
-  private Collection<Event> getOutput(Boolean shouldMatch) {
-    List<Event> allEvents = new ArrayList<>();
+  @Test
+  public void testDropsLateEvents() throws Exception {
+    makeHarness(-1000, 1000);
 
-    if (shouldMatch) {
-      Event outMap = new Event();
-      outMap.addField("id", "a");
-      outMap.addField("field1", 1);
-      outMap.addField("field2", 1);
-      allEvents.add(outMap);
-    }
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 1), 4000));
+    processWatermark(5000);
+    // no accepted right event can match a left event at 3000 anymore
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 3000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 2), 3500));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 4500));
 
-    return allEvents;
+    assertEquals(Collections.singletonList(1), getMatchedValues());
   }
 
-  private EventTimeInput<Event> makeInputData(Integer delayEvent, List<Event> inputMap) {
-    List<Event> testData = inputMap;
-    EventTimeInputBuilder<Event> builder = EventTimeInputBuilder.startWith(testData.get(0), after(delayEvent, seconds));
+  @Test
+  public void testRemovesBufferedEvents() throws Exception {
+    makeHarness(0, 1000);
+
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 0), 0));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 1), 500));
+    assertEquals(2, harness.numEventTimeTimers());
 
-    return builder;
+    processWatermark(1000);
+    assertEquals(2, harness.numEventTimeTimers());
+    processWatermark(1001);
+    assertEquals(1, harness.numEventTimeTimers());
+    processWatermark(1501);
+    assertEquals(0, harness.numEventTimeTimers());
+
+    assertEquals(Collections.singletonList(1), getMatchedValues());
   }
 
-  private List<Event> makeMap(String fieldName) {
-    List<Event> allEvents = new ArrayList<>();
-    Event event = new Event();
-    event.addField("id", "a");
-    event.addField(fieldName, 1);
+  private void makeHarness(long lowerBound, long upperBound) throws Exception {
+    And and = new And(lowerBound, upperBound, 0, Arrays.asList("s0::id", "s0::left"),
+            Collections.singletonList("s1::right"));
+    harness = PatternTestHarness.makeTwoInputHarness(and);
+  }
 
-    allEvents.add(event);
+  private void processWatermark(long timestamp) throws Exception {
+    PatternTestHarness.processWatermark(harness, timestamp);
+  }
 
-    return allEvents;
+  private List<Object> getMatchedValues() {
+    return PatternTestHarness.getOutputValues(harness, "right");
   }
 
+  private Event makeEvent(String streamPrefix, String id, int value) {
+    return PatternTestHarness.makeEvent(streamPrefix, id, streamPrefix.equals("s0") ? "left" : "right", value);
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.processor.peak;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.peak.PeakDetectionCalculator;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.peak.SmoothedZScore;
+import org.apache.streampipes.processors.pattern.detection.processor.PatternTestHarness;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TestSmoothedZScore {
+
+  private static final int LAG = 30;
+  private static final double THRESHOLD = 3.0;
+  private static final double INFLUENCE = 0.2;
+
+  @Test
+  public void testSignalsMatchBatchAlgorithm() {
+    double[] samples = makeSignal(10000);
+
+    SmoothedZScore zScore = new SmoothedZScore(LAG, THRESHOLD, INFLUENCE);
+    int[] streamingSignals = new int[samples.length];
+    for (int i = 0; i < samples.length; i++) {
+      streamingSignals[i] = zScore.update(samples[i]);
+    }
+
+    assertArrayEquals(batchSignals(samples), streamingSignals);
+  }
+
+  @Test
+  public void testDetectsPeak() {
+    SmoothedZScore zScore = new SmoothedZScore(5, THRESHOLD, 0.0);
+    double[] warmUp = {1.0, 1.1, 0.9, 1.0, 1.05};
+    for (double value : warmUp) {
+      assertEquals(SmoothedZScore.NO_SIGNAL, zScore.update(value));
+    }
+
+    assertEquals(SmoothedZScore.POSITIVE_SIGNAL, zScore.update(10.0));
+    assertEquals(SmoothedZScore.NEGATIVE_SIGNAL, zScore.update(-10.0));
+    assertEquals(SmoothedZScore.NO_SIGNAL, zScore.update(1.0));
+  }
+
+  @Test
+  public void testStateSurvivesRestore() throws Exception {
+    double[] samples = makeSignal(1000);
+
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness =
+            PatternTestHarness.makeOneInputHarness(makeCalculator());
+    List<Object> signals = new ArrayList<>();
+    for (int i = 0; i < samples.length; i++) {
+      if (i == samples.length / 2) {
+        signals.addAll(PatternTestHarness.getOutputValues(harness, "signal"));
+        OperatorSubtaskState snapshot = harness.snapshot(0L, 0L);
+        harness.close();
+        harness = PatternTestHarness.restoreOneInputHarness(makeCalculator(), snapshot);
+      }
+      harness.processElement(new StreamRecord<>(PatternTestHarness.makeEvent("s0", "a", "value", samples[i]), i));
+    }
+    signals.addAll(PatternTestHarness.getOutputValues(harness, "signal"));
+    harness.close();
+
+    // no signal is emitted before the lag window is filled
+    List<Object> expected = new ArrayList<>();
+    int[] batchSignals = batchSignals(samples);
+    for (int i = LAG; i < batchSignals.length; i++) {
+      expected.add(batchSignals[i]);
+    }
+    assertEquals(expected, signals);
+  }
+
+  private PeakDetectionCalculator makeCalculator() {
+    return new PeakDetectionCalculator("s0::value", LAG, THRESHOLD, INFLUENCE);
+  }
+
+  private double[] makeSignal(int length) {
+    Random random = new Random(42);
+    double[] samples = new double[length];
+    for (int i = 0; i < length; i++) {
+      samples[i] = Math.sin(i / 50.0) + random.nextGaussian() * 0.1;
+      if (random.nextInt(200) == 0) {
+        samples[i] += random.nextBoolean() ? 3 : -3;
+      }
+    }
+    return samples;
+  }
+
+  // reference implementation which recomputes the statistics of the lag window for every sample
+  private int[] batchSignals(double[] y) {
+    int[] signals = new int[y.length];
+    double[] filtered = new double[y.length];
+    System.arraycopy(y, 0, filtered, 0, LAG);
+
+    for (int i = LAG; i < y.length; i++) {
+      SummaryStatistics stats = new SummaryStatistics();
+      for (int j = i - LAG; j < i; j++) {
+        stats.addValue(filtered[j]);
+      }
+      if (Math.abs(y[i] - stats.getMean()) > THRESHOLD * stats.getStandardDeviation()) {
+        signals[i] = y[i] > stats.getMean() ? 1 : -1;
+        filtered[i] = INFLUENCE * y[i] + (1 - INFLUENCE) * filtered[i - 1];
+      } else {
+        filtered[i] = y[i];
+      }
+    }
+    return signals;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.processor.sequence;
+
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.sequence.Sequence;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.sequence.SequenceMultiplicity;
+import org.apache.streampipes.processors.pattern.detection.processor.PatternTestHarness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestSequence {
+
+  private KeyedTwoInputStreamOperatorTestHarness<EventKey, Event, Event, Event> harness;
+
+  @Before
+  public void setUp() throws Exception {
+    harness = PatternTestHarness.makeTwoInputHarness(makeSequence());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    harness.close();
+  }
+
+  @Test
+  public void testSequencesAreMatchedPerKey() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 1000));
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "b", 2), 1000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 3), 5000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "c", 4), 5000));
+
+    PatternTestHarness.processWatermark(harness, 6000);
+    assertEquals(Collections.singletonList(1), getFirstValues());
+    assertEquals(Collections.singletonList(3), PatternTestHarness.getOutputValues(harness, "second"));
+  }
+
+  @Test
+  public void testSecondEventOutsideTimeWindow() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 1000));
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 2), 12000));
+
+    PatternTestHarness.processWatermark(harness, 20000);
+    assertEquals(Collections.emptyList(), getFirstValues());
+  }
+
+  @Test
+  public void testPendingEventsSurviveRestore() throws Exception {
+    harness.processElement1(new StreamRecord<>(makeEvent("s0", "a", 1), 1000));
+    PatternTestHarness.processWatermark(harness, 2000);
+
+    OperatorSubtaskState snapshot = harness.snapshot(0L, 0L);
+    harness.close();
+    harness = PatternTestHarness.restoreTwoInputHarness(makeSequence(), snapshot);
+
+    harness.processElement2(new StreamRecord<>(makeEvent("s1", "a", 2), 5000));
+    PatternTestHarness.processWatermark(harness, 6000);
+    assertEquals(Collections.singletonList(1), getFirstValues());
+  }
+
+  private Sequence makeSequence() {
+    return new Sequence("sec", 10, SequenceMultiplicity.LAST, 100);
+  }
+
+  private List<Object> getFirstValues() {
+    return PatternTestHarness.getOutputValues(harness, "first");
+  }
+
+  private Event makeEvent(String streamPrefix, String id, int value) {
+    return PatternTestHarness.makeEvent(streamPrefix, id, streamPrefix.equals("s0") ? "first" : "second", value);
+  }
+}
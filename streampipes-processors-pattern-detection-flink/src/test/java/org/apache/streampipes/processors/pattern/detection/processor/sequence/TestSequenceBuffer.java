@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.pattern.detection.processor.sequence;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.sequence.EventStorage;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.sequence.SequenceBuffer;
+import org.apache.streampipes.processors.pattern.detection.flink.processor.sequence.SequenceMultiplicity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSequenceBuffer {
+
+  private static final long TIME_WINDOW = 10;
+
+  @Test
+  public void testOutOfOrderReplay() {
+    SequenceBuffer buffer = new SequenceBuffer(TIME_WINDOW, 100, SequenceMultiplicity.LAST);
+
+    // second event at 12 arrives before the first events it follows
+    buffer.addSecond(storage(12));
+    buffer.addFirst(storage(5));
+    buffer.addFirst(storage(1));
+    assertTrue(buffer.advanceTo(10).isEmpty());
+
+    buffer.addSecond(storage(30));
+    buffer.addFirst(storage(25));
+
+    List<Tuple2<EventStorage, EventStorage>> matches = buffer.advanceTo(40);
+    assertEquals(Arrays.asList(Arrays.asList(5L, 12L), Arrays.asList(25L, 30L)), toTimestamps(matches));
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testMultiplicity() {
+    assertEquals(Arrays.asList(Arrays.asList(3L, 10L)), matchWith(SequenceMultiplicity.FIRST));
+    assertEquals(Arrays.asList(Arrays.asList(8L, 10L)), matchWith(SequenceMultiplicity.LAST));
+    assertEquals(Arrays.asList(Arrays.asList(3L, 10L), Arrays.asList(5L, 10L), Arrays.asList(8L, 10L)),
+            matchWith(SequenceMultiplicity.ALL));
+  }
+
+  @Test
+  public void testExpiredEventsAreRemoved() {
+    SequenceBuffer buffer = new SequenceBuffer(TIME_WINDOW, 100, SequenceMultiplicity.ALL);
+    buffer.addFirst(storage(0));
+    buffer.addFirst(storage(8));
+    assertEquals(10, buffer.getNextTimer());
+
+    buffer.advanceTo(10);
+    assertEquals(1, buffer.size());
+
+    buffer.addSecond(storage(18));
+    assertEquals(Arrays.asList(Arrays.asList(8L, 18L)), toTimestamps(buffer.advanceTo(18)));
+  }
+
+  @Test
+  public void testBufferIsBounded() {
+    SequenceBuffer buffer = new SequenceBuffer(TIME_WINDOW, 2, SequenceMultiplicity.ALL);
+    assertEquals(0, buffer.addFirst(storage(1)));
+    assertEquals(0, buffer.addFirst(storage(2)));
+    assertEquals(1, buffer.addFirst(storage(3)));
+
+    buffer.addSecond(storage(4));
+    assertEquals(Arrays.asList(Arrays.asList(2L, 4L), Arrays.asList(3L, 4L)), toTimestamps(buffer.advanceTo(4)));
+  }
+
+  private List<List<Long>> matchWith(SequenceMultiplicity multiplicity) {
+    SequenceBuffer buffer = new SequenceBuffer(TIME_WINDOW, 100, multiplicity);
+    buffer.addFirst(storage(8));
+    buffer.addFirst(storage(-1));
+    buffer.addFirst(storage(3));
+    buffer.addFirst(storage(5));
+    buffer.addFirst(storage(10));
+    buffer.addSecond(storage(10));
+    return toTimestamps(buffer.advanceTo(10));
+  }
+
+  private EventStorage storage(long timestamp) {
+    return new EventStorage(timestamp, new Event());
+  }
+
+  private List<List<Long>> toTimestamps(List<Tuple2<EventStorage, EventStorage>> matches) {
+    List<List<Long>> timestamps = new ArrayList<>();
+    matches.forEach(m -> timestamps.add(Arrays.asList(m.f0.getTimestamp(), m.f1.getTimestamp())));
+    return timestamps;
+  }
+}
@@ -17,6 +17,8 @@
  */
 package org.apache.streampipes.processors.statistics.flink;
 
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.streampipes.pe.shared.serializer.EventKryoSerializer;
 import org.apache.streampipes.processors.statistics.flink.config.StatisticsFlinkConfig;
 import org.apache.streampipes.wrapper.flink.FlinkDataProcessorRuntime;
 import org.apache.streampipes.wrapper.flink.FlinkDeploymentConfig;
@@ -38,5 +40,8 @@ public abstract class AbstractStatisticsProgram<B extends EventProcessorBindingP
             StatisticsFlinkConfig.INSTANCE.getFlinkHost(), StatisticsFlinkConfig.INSTANCE.getFlinkPort());
   }
 
+  @Override
+  public void appendEnvironmentConfig(StreamExecutionEnvironment env) {
+    EventKryoSerializer.register(env);
+  }
 }
-
@@ -18,33 +18,33 @@
 
 package org.apache.streampipes.processors.statistics.flink.extensions;
 
-import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
-import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
-import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.java.tuple.Tuple2;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public class SlidingBatchWindow<IN> extends AbstractStreamOperator<List<IN>> implements
-        OneInputStreamOperator<IN, List<IN>> {
+/**
+ * Buffer of a {@link SlidingWindowStatistics} backed by keyed map state, so every entry is read and
+ * written individually.
+ */
+public class MapStateBuffer implements SlidingWindowStatistics.Buffer {
 
-  private Integer windowSize;
-  private List<IN> currentEvents;
+  private final MapState<Long, Tuple2<Long, Double>> state;
 
-  public SlidingBatchWindow(Integer windowSize) {
-    super();
-    this.windowSize = windowSize;
-    this.currentEvents = new ArrayList<>();
+  public MapStateBuffer(MapState<Long, Tuple2<Long, Double>> state) {
+    this.state = state;
   }
 
   @Override
-  public void processElement(StreamRecord<IN> in) throws Exception {
-    currentEvents.add(in.getValue());
-    if (currentEvents.size() > windowSize) {
-      currentEvents.remove(0);
-    }
+  public Tuple2<Long, Double> get(long position) throws Exception {
+    return state.get(position);
+  }
 
-    output.collect(new StreamRecord<>(currentEvents, System.currentTimeMillis()));
+  @Override
+  public void put(long position, Tuple2<Long, Double> entry) throws Exception {
+    state.put(position, entry);
+  }
 
+  @Override
+  public void remove(long position) throws Exception {
+    state.remove(position);
   }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.statistics.flink.extensions;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+
+import java.io.Serializable;
+
+/**
+ * Descriptive statistics of a sliding time window, updated in constant amortized time per element.
+ * Mean and variance follow Welford's algorithm extended by removals, the sum is Kahan-compensated and
+ * minimum and maximum are tracked in monotonic deques, so no statistic is recomputed over the window.
+ *
+ * <p>This object only holds the running summary. The window elements and the deques are kept in
+ * {@link Buffer}s which are attached before use, so that keyed state only rewrites the entries which
+ * change with an element instead of serializing the whole window.</p>
+ */
+public class SlidingWindowStatistics implements Serializable {
+
+  /**
+   * Entries addressed by position. The window elements are stored as (timestamp, value), the deques as
+   * (sequence number, value) of the candidate element.
+   */
+  public interface Buffer {
+
+    Tuple2<Long, Double> get(long position) throws Exception;
+
+    void put(long position, Tuple2<Long, Double> entry) throws Exception;
+
+    void remove(long position) throws Exception;
+  }
+
+  private long windowSizeMillis;
+
+  // the window contains the sequence numbers [head, tail)
+  private long head;
+  private long tail;
+
+  // positions of the candidates for the minimum (increasing values) and maximum (decreasing values)
+  private long minHead;
+  private long minTail;
+  private long maxHead;
+  private long maxTail;
+
+  private double mean;
+  private double m2;
+  private double sum;
+  private double sumCompensation;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  private transient Buffer elements;
+  private transient Buffer minCandidates;
+  private transient Buffer maxCandidates;
+
+  public SlidingWindowStatistics() {
+  }
+
+  public SlidingWindowStatistics(long windowSizeMillis) {
+    this.windowSizeMillis = windowSizeMillis;
+  }
+
+  public SlidingWindowStatistics withBuffers(Buffer elements, Buffer minCandidates, Buffer maxCandidates) {
+    this.elements = elements;
+    this.minCandidates = minCandidates;
+    this.maxCandidates = maxCandidates;
+    return this;
+  }
+
+  public void add(long timestamp, double value) throws Exception {
+    evict(timestamp);
+
+    long sequence = tail++;
+    elements.put(sequence, Tuple2.of(timestamp, value));
+
+    while (minTail > minHead && minCandidates.get(minTail - 1).f1 >= value) {
+      minCandidates.remove(--minTail);
+    }
+    minCandidates.put(minTail++, Tuple2.of(sequence, value));
+
+    while (maxTail > maxHead && maxCandidates.get(maxTail - 1).f1 <= value) {
+      maxCandidates.remove(--maxTail);
+    }
+    maxCandidates.put(maxTail++, Tuple2.of(sequence, value));
+
+    long n = getN();
+    double delta = value - mean;
+    mean += delta / n;
+    m2 += delta * (value - mean);
+    addToSum(value);
+    updateExtrema();
+  }
+
+  /**
+   * Removes all elements which are older than the window size relative to the given timestamp.
+   */
+  public void evict(long currentTimestamp) throws Exception {
+    boolean evicted = false;
+    while (tail > head) {
+      Tuple2<Long, Double> oldest = elements.get(head);
+      if (currentTimestamp - oldest.f0 <= windowSizeMillis) {
+        break;
+      }
+      removeOldest(oldest.f1);
+      evicted = true;
+    }
+    if (evicted) {
+      updateExtrema();
+    }
+  }
+
+  private void removeOldest(double value) throws Exception {
+    long sequence = head;
+    elements.remove(head++);
+
+    if (minCandidates.get(minHead).f0 == sequence) {
+      minCandidates.remove(minHead++);
+    }
+    if (maxCandidates.get(maxHead).f0 == sequence) {
+      maxCandidates.remove(maxHead++);
+    }
+
+    long n = getN();
+    if (n == 0) {
+      mean = 0;
+      m2 = 0;
+      sum = 0;
+      sumCompensation = 0;
+    } else {
+      double delta = value - mean;
+      mean -= delta / n;
+      m2 = Math.max(0, m2 - delta * (value - mean));
+      addToSum(-value);
+    }
+  }
+
+  private void updateExtrema() throws Exception {
+    min = minTail > minHead ? minCandidates.get(minHead).f1 : Double.NaN;
+    max = maxTail > maxHead ? maxCandidates.get(maxHead).f1 : Double.NaN;
+  }
+
+  private void addToSum(double value) {
+    double y = value - sumCompensation;
+    double t = sum + y;
+    sumCompensation = (t - sum) - y;
+    sum = t;
+  }
+
+  public long getN() {
+    return tail - head;
+  }
+
+  public double getMean() {
+    return getN() > 0 ? mean : Double.NaN;
+  }
+
+  public double getSum() {
+    return sum;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the bias-corrected sample variance.
+   */
+  public double getVariance() {
+    long n = getN();
+    if (n == 0) {
+      return Double.NaN;
+    }
+    return n == 1 ? 0.0 : m2 / (n - 1);
+  }
+
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+}
@@ -18,42 +18,89 @@
 
 package org.apache.streampipes.processors.statistics.flink.processor.stat.window;
 
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
-import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
 import org.apache.flink.util.Collector;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.processors.statistics.flink.extensions.MapStateBuffer;
+import org.apache.streampipes.processors.statistics.flink.extensions.SlidingWindowStatistics;
 import org.apache.streampipes.processors.statistics.flink.processor.stat.summary.StatisticsSummaryController;
 
-import java.io.Serializable;
-import java.util.List;
-import java.util.stream.Collectors;
+public class StatisticsSummaryCalculatorWindow extends KeyedProcessFunction<EventKey, Event, Event> {
 
-public class StatisticsSummaryCalculatorWindow implements FlatMapFunction<List<Event>, Event>,
-        Serializable {
-
-  private String partitionMapping;
   private String valueToObserveMapping;
+  private String timestampMapping;
+  private long timeWindowSizeInMillis;
+  private long outputIntervalInMillis;
+
+  private transient ValueState<SlidingWindowStatistics> statistics;
+  private transient MapStateBuffer elements;
+  private transient MapStateBuffer minCandidates;
+  private transient MapStateBuffer maxCandidates;
+  private transient ValueState<Long> nextOutput;
 
-  public StatisticsSummaryCalculatorWindow(String partitionMapping, String valueToObserveMapping) {
-    this.partitionMapping = partitionMapping;
+  public StatisticsSummaryCalculatorWindow(String valueToObserveMapping, String timestampMapping,
+                                           long timeWindowSizeInMillis, long outputIntervalInMillis) {
     this.valueToObserveMapping = valueToObserveMapping;
+    this.timestampMapping = timestampMapping;
+    this.timeWindowSizeInMillis = timeWindowSizeInMillis;
+    this.outputIntervalInMillis = outputIntervalInMillis;
+  }
+
+  @Override
+  public void open(Configuration parameters) {
+    this.statistics = getRuntimeContext().getState(new ValueStateDescriptor<>("window-statistics",
+            SlidingWindowStatistics.class));
+    this.nextOutput = getRuntimeContext().getState(new ValueStateDescriptor<>("next-output",
+            Long.class));
+    // the window contents are kept in map state, so only the changed entries are written per element
+    this.elements = new MapStateBuffer(getRuntimeContext().getMapState(makeBufferDescriptor("window-elements")));
+    this.minCandidates = new MapStateBuffer(getRuntimeContext().getMapState(makeBufferDescriptor("min-candidates")));
+    this.maxCandidates = new MapStateBuffer(getRuntimeContext().getMapState(makeBufferDescriptor("max-candidates")));
+  }
+
+  private MapStateDescriptor<Long, Tuple2<Long, Double>> makeBufferDescriptor(String name) {
+    return new MapStateDescriptor<>(name, BasicTypeInfo.LONG_TYPE_INFO,
+            TypeInformation.of(new TypeHint<Tuple2<Long, Double>>() {}));
   }
 
   @Override
-  public void flatMap(List<Event> in, Collector<Event> out)
-          throws Exception {
-    List<Double> listValues = (in.stream().map(m -> m.getFieldBySelector(valueToObserveMapping)
-            .getAsPrimitive().getAsDouble())
-            .collect(Collectors.toList()));
+  public void processElement(Event in, Context ctx, Collector<Event> out) throws Exception {
+    long timestamp = in.getFieldBySelector(timestampMapping).getAsPrimitive().getAsLong();
+    double value = in.getFieldBySelector(valueToObserveMapping).getAsPrimitive().getAsDouble();
 
-    SummaryStatistics stats = new SummaryStatistics();
+    SlidingWindowStatistics stats = statistics.value();
+    if (stats == null) {
+      stats = new SlidingWindowStatistics(timeWindowSizeInMillis);
+    }
+    stats.withBuffers(elements, minCandidates, maxCandidates);
+    stats.add(timestamp, value);
+    statistics.update(stats);
 
-    listValues.forEach(lv -> stats.addValue(lv));
+    // with an output interval, results are emitted at most once per interval of event time,
+    // independent of the input rate
+    Long outputTime = nextOutput.value();
+    if (outputIntervalInMillis <= 0 || outputTime == null || timestamp >= outputTime) {
+      out.collect(makeOutputEvent(ctx.getCurrentKey().toString(), stats));
+      if (outputIntervalInMillis > 0) {
+        nextOutput.update(timestamp + outputIntervalInMillis);
+      }
+    }
+  }
 
+  private Event makeOutputEvent(String id, SlidingWindowStatistics stats) {
     Event outMap = new Event();
 
     outMap.addField("timestamp", System.currentTimeMillis());
-    outMap.addField("id", in.get(in.size() - 1).getFieldBySelector(partitionMapping).getRawValue());
+    outMap.addField("id", id);
     outMap.addField(StatisticsSummaryController.MIN, stats.getMin());
     outMap.addField(StatisticsSummaryController.MAX, stats.getMax());
     outMap.addField(StatisticsSummaryController.MEAN, stats.getMean());
@@ -62,7 +109,7 @@ public class StatisticsSummaryCalculatorWindow implements FlatMapFunction<List<E
     outMap.addField(StatisticsSummaryController.STDDEV, stats.getStandardDeviation());
     outMap.addField(StatisticsSummaryController.VARIANCE, stats.getVariance());
 
-    out.collect(outMap);
+    return outMap;
   }
 
 }
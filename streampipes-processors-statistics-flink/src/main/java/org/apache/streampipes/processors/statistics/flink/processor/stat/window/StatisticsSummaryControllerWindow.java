@@ -42,6 +42,7 @@ public class StatisticsSummaryControllerWindow extends
   private static final String TIMESTAMP_MAPPING = "timestamp-mapping";
   private static final String TIME_WINDOW = "time-window";
   private static final String TIME_SCALE = "time-scale";
+  private static final String OUTPUT_INTERVAL = "output-interval";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -61,6 +62,7 @@ public class StatisticsSummaryControllerWindow extends
             .requiredIntegerParameter(Labels.withId(TIME_WINDOW))
             .requiredSingleValueSelection(Labels.withId(TIME_SCALE),
                     Options.from("Hours", "Minutes", "Seconds"))
+            .requiredIntegerParameter(Labels.withId(OUTPUT_INTERVAL), 0)
             .outputStrategy(OutputStrategies.fixed(
                     EpProperties.timestampProperty("timestamp"),
                     EpProperties.stringEp(Labels.empty(), "id", "http://schema.org/id"),
@@ -84,6 +86,7 @@ public class StatisticsSummaryControllerWindow extends
 
     int timeWindowSize = extractor.singleValueParameter(TIME_WINDOW, Integer.class);
     String scale = extractor.selectedSingleValue(TIME_SCALE, String.class);
+    long outputInterval = extractor.singleValueParameter(OUTPUT_INTERVAL, Integer.class);
 
     TimeUnit timeUnit;
 
@@ -98,10 +101,10 @@ public class StatisticsSummaryControllerWindow extends
     }
 
     StatisticsSummaryParametersWindow params = new StatisticsSummaryParametersWindow(sepa,
-            valueToObserve, timestampMapping, groupBy, (long) timeWindowSize, timeUnit);
+            valueToObserve, timestampMapping, groupBy, (long) timeWindowSize, timeUnit, outputInterval);
 
     StatisticsSummaryParamsSerializable serializableParams = new StatisticsSummaryParamsSerializable
-            (valueToObserve, timestampMapping, groupBy, (long) timeWindowSize, timeUnit);
+            (valueToObserve, timestampMapping, groupBy, (long) timeWindowSize, timeUnit, outputInterval);
 
     return new StatisticsSummaryProgramWindow(params, serializableParams, StatisticsFlinkConfig.INSTANCE.getDebug());
 
@@ -30,6 +30,7 @@ public class StatisticsSummaryParametersWindow extends EventProcessorBindingPara
   private String groupBy;
   private Long timeWindowSize;
   private TimeUnit timeUnit;
+  private long outputInterval;
 
 
 
@@ -39,13 +40,15 @@ public class StatisticsSummaryParametersWindow extends EventProcessorBindingPara
 
   public StatisticsSummaryParametersWindow(DataProcessorInvocation graph, String valueToObserve,
                                            String timestampMapping, String groupBy, Long
-                                                   timeWindowSize, TimeUnit timeUnit) {
+                                                   timeWindowSize, TimeUnit timeUnit,
+                                           long outputInterval) {
     super(graph);
     this.valueToObserve = valueToObserve;
     this.timestampMapping = timestampMapping;
     this.groupBy = groupBy;
     this.timeWindowSize = timeWindowSize;
     this.timeUnit = timeUnit;
+    this.outputInterval = outputInterval;
   }
 
   public String getValueToObserve() {
@@ -67,4 +70,8 @@ public class StatisticsSummaryParametersWindow extends EventProcessorBindingPara
   public String getTimestampMapping() {
     return timestampMapping;
   }
+
+  public long getOutputInterval() {
+    return outputInterval;
+  }
 }
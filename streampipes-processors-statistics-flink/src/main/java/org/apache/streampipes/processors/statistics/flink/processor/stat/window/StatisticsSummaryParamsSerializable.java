@@ -28,15 +28,17 @@ public class StatisticsSummaryParamsSerializable implements Serializable {
   private String groupBy;
   private long timeWindowSize;
   private TimeUnit timeUnit;
+  private long outputInterval;
 
   public StatisticsSummaryParamsSerializable(String valueToObserve, String timestampMapping,
                                              String groupBy, Long timeWindowSize, TimeUnit
-                                                     timeUnit) {
+                                                     timeUnit, long outputInterval) {
     this.valueToObserve = valueToObserve;
     this.timestampMapping = timestampMapping;
     this.groupBy = groupBy;
     this.timeWindowSize = timeWindowSize;
     this.timeUnit = timeUnit;
+    this.outputInterval = outputInterval;
   }
 
 
@@ -59,4 +61,8 @@ public class StatisticsSummaryParamsSerializable implements Serializable {
   public String getTimestampMapping() {
     return timestampMapping;
   }
+
+  public long getOutputInterval() {
+    return outputInterval;
+  }
 }
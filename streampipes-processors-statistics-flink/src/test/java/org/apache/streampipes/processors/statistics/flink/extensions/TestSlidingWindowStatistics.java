@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.statistics.flink.extensions;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestSlidingWindowStatistics {
+
+  private static final long WINDOW_SIZE = 1000;
+
+  private MapBuffer elements;
+  private MapBuffer minCandidates;
+  private MapBuffer maxCandidates;
+  private SlidingWindowStatistics statistics;
+
+  @Before
+  public void setUp() {
+    elements = new MapBuffer();
+    minCandidates = new MapBuffer();
+    maxCandidates = new MapBuffer();
+    statistics = new SlidingWindowStatistics(WINDOW_SIZE).withBuffers(elements, minCandidates, maxCandidates);
+  }
+
+  @Test
+  public void testMatchesBatchStatistics() throws Exception {
+    Random random = new Random(42);
+    List<Long> timestamps = new ArrayList<>();
+    List<Double> values = new ArrayList<>();
+    long timestamp = 0;
+
+    for (int i = 0; i < 5000; i++) {
+      // occasional gaps longer than the window empty it completely
+      timestamp += random.nextInt(100) == 0 ? 2 * WINDOW_SIZE : random.nextInt(200);
+      // a large offset makes a naive sum of squares lose all precision
+      double value = 1e6 + random.nextGaussian() * 100;
+      timestamps.add(timestamp);
+      values.add(value);
+      statistics.add(timestamp, value);
+
+      int first = 0;
+      while (timestamp - timestamps.get(first) > WINDOW_SIZE) {
+        first++;
+      }
+      assertBatchStatistics(values.subList(first, values.size()));
+    }
+  }
+
+  @Test
+  public void testCompensatedSum() throws Exception {
+    statistics = new SlidingWindowStatistics(Long.MAX_VALUE).withBuffers(elements, minCandidates, maxCandidates);
+    statistics.add(0, 1.0);
+    for (int i = 1; i <= 10000; i++) {
+      statistics.add(i, 1e-16);
+    }
+
+    assertEquals(1.0 + 1e-12, statistics.getSum(), 1e-16);
+  }
+
+  @Test
+  public void testRemovedEntriesAreDropped() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      statistics.add(i * 100, i % 10);
+    }
+    assertEquals(11, statistics.getN());
+    assertEquals(11, elements.size());
+    assertTrue(minCandidates.size() <= 11);
+    assertTrue(maxCandidates.size() <= 11);
+
+    statistics.add(100000, 5.0);
+    assertEquals(1, statistics.getN());
+    assertEquals(1, elements.size());
+    assertEquals(1, minCandidates.size());
+    assertEquals(1, maxCandidates.size());
+    assertEquals(5.0, statistics.getMean(), 0.0);
+    assertEquals(5.0, statistics.getSum(), 0.0);
+    assertEquals(0.0, statistics.getVariance(), 0.0);
+  }
+
+  @Test
+  public void testEmptyWindow() throws Exception {
+    assertEquals(0, statistics.getN());
+    assertTrue(Double.isNaN(statistics.getMean()));
+    assertTrue(Double.isNaN(statistics.getMin()));
+    assertTrue(Double.isNaN(statistics.getMax()));
+    assertTrue(Double.isNaN(statistics.getVariance()));
+
+    statistics.add(0, 1.0);
+    statistics.evict(2 * WINDOW_SIZE);
+    assertEquals(0, statistics.getN());
+    assertEquals(0.0, statistics.getSum(), 0.0);
+    assertTrue(Double.isNaN(statistics.getMin()));
+    assertTrue(Double.isNaN(statistics.getMax()));
+  }
+
+  private void assertBatchStatistics(List<Double> window) {
+    double sum = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (double value : window) {
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    double mean = sum / window.size();
+    double squaredDeviations = 0;
+    for (double value : window) {
+      squaredDeviations += (value - mean) * (value - mean);
+    }
+    double variance = window.size() > 1 ? squaredDeviations / (window.size() - 1) : 0.0;
+
+    assertEquals(window.size(), statistics.getN());
+    assertEquals(min, statistics.getMin(), 0.0);
+    assertEquals(max, statistics.getMax(), 0.0);
+    assertEquals(mean, statistics.getMean(), 1e-6);
+    assertEquals(sum, statistics.getSum(), 1e-6);
+    assertEquals(variance, statistics.getVariance(), 1e-6 * Math.max(1.0, variance));
+  }
+
+  private static class MapBuffer implements SlidingWindowStatistics.Buffer {
+
+    private final Map<Long, Tuple2<Long, Double>> entries = new HashMap<>();
+
+    @Override
+    public Tuple2<Long, Double> get(long position) {
+      return entries.get(position);
+    }
+
+    @Override
+    public void put(long position, Tuple2<Long, Double> entry) {
+      entries.put(position, entry);
+    }
+
+    @Override
+    public void remove(long position) {
+      entries.remove(position);
+    }
+
+    int size() {
+      return entries.size();
+    }
+  }
+}
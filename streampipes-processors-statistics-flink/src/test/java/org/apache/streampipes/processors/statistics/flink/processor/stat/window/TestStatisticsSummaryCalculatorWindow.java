@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.statistics.flink.processor.stat.window;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.pe.shared.key.EventKey;
+import org.apache.streampipes.pe.shared.key.EventKeySelector;
+import org.apache.streampipes.processors.statistics.flink.processor.stat.summary.StatisticsSummaryController;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestStatisticsSummaryCalculatorWindow {
+
+  private static final long WINDOW_SIZE = 1000;
+  private static final List<String> STATISTICS = Arrays.asList(StatisticsSummaryController.MIN,
+          StatisticsSummaryController.MAX, StatisticsSummaryController.MEAN, StatisticsSummaryController.N,
+          StatisticsSummaryController.SUM, StatisticsSummaryController.VARIANCE);
+
+  @Test
+  public void testWindowSurvivesRestore() throws Exception {
+    List<Event> events = makeEvents(500);
+
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness = makeHarness();
+    for (Event event : events) {
+      harness.processElement(new StreamRecord<>(event));
+    }
+    List<List<Object>> expected = getStatistics(harness);
+    harness.close();
+
+    harness = makeHarness();
+    List<List<Object>> restored = new ArrayList<>();
+    for (int i = 0; i < events.size(); i++) {
+      if (i == events.size() / 2) {
+        restored.addAll(getStatistics(harness));
+        OperatorSubtaskState snapshot = harness.snapshot(0L, 0L);
+        harness.close();
+        harness = makeHarness(snapshot);
+      }
+      harness.processElement(new StreamRecord<>(events.get(i)));
+    }
+    restored.addAll(getStatistics(harness));
+    harness.close();
+
+    assertEquals(expected, restored);
+  }
+
+  private KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> makeHarness() throws Exception {
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness = createHarness();
+    harness.open();
+    return harness;
+  }
+
+  private KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> makeHarness(
+          OperatorSubtaskState snapshot) throws Exception {
+    KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness = createHarness();
+    harness.setup();
+    harness.initializeState(snapshot);
+    harness.open();
+    return harness;
+  }
+
+  private KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> createHarness() throws Exception {
+    StatisticsSummaryCalculatorWindow calculator = new StatisticsSummaryCalculatorWindow("s0::value",
+            "s0::timestamp", WINDOW_SIZE, 0);
+    return new KeyedOneInputStreamOperatorTestHarness<>(new KeyedProcessOperator<>(calculator),
+            new EventKeySelector("s0::id"), TypeInformation.of(EventKey.class));
+  }
+
+  // the emitted statistics without the processing-time timestamp
+  private List<List<Object>> getStatistics(KeyedOneInputStreamOperatorTestHarness<EventKey, Event, Event> harness) {
+    List<List<Object>> statistics = new ArrayList<>();
+    for (Event event : harness.extractOutputValues()) {
+      List<Object> values = new ArrayList<>();
+      values.add(event.getRaw().get("id"));
+      for (String statistic : STATISTICS) {
+        values.add(event.getRaw().get(statistic));
+      }
+      statistics.add(values);
+    }
+    return statistics;
+  }
+
+  private List<Event> makeEvents(int count) {
+    Random random = new Random(42);
+    List<Event> events = new ArrayList<>();
+    long timestamp = 0;
+    for (int i = 0; i < count; i++) {
+      timestamp += random.nextInt(100);
+      Map<String, Object> map = new HashMap<>();
+      map.put("id", random.nextBoolean() ? "a" : "b");
+      map.put("timestamp", timestamp);
+      map.put("value", random.nextGaussian());
+      events.add(EventFactory.fromMap(map, new SourceInfo("topic", "s0"), new SchemaInfo(null, new ArrayList<>())));
+    }
+    return events;
+  }
+}
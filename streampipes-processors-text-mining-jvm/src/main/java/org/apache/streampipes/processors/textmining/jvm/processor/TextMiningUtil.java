@@ -20,30 +20,92 @@ package org.apache.streampipes.processors.textmining.jvm.processor;
 
 import opennlp.tools.util.Span;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.field.AbstractField;
+import org.apache.streampipes.model.runtime.field.ListField;
+import org.apache.streampipes.model.runtime.field.NestedField;
+import org.apache.streampipes.model.runtime.field.PrimitiveField;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TextMiningUtil {
     /*
      * Given an array of spans and an array of tokens, it extracts and merges the tokens
-     * specified in the spans and adds them to a list. This list is returned
+     * specified in the spans and returns them as an array
      */
-    public static List<String> extractSpans(Span[] spans, String[] tokens) throws SpRuntimeException {
-        List<String> list = new ArrayList<>();
-        for (Span span : spans) {
-            StringBuilder stringBuilder = new StringBuilder();
+    public static String[] extractSpans(Span[] spans, String[] tokens) throws SpRuntimeException {
+        String[] result = new String[spans.length];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int s = 0; s < spans.length; s++) {
+            Span span = spans[s];
+            if (span.getEnd() > tokens.length) {
+                throw new SpRuntimeException("token list does not fit spans (token list lenght: " + tokens.length
+                    + ", span: [" + span.getStart() + ", " + span.getEnd() + "))");
+            }
+            stringBuilder.setLength(0);
             for (int i = span.getStart(); i < span.getEnd(); i++) {
-                if (i >= tokens.length) {
-                    throw new SpRuntimeException("token list does not fit spans (token list lenght: " + tokens.length
-                        + ", span: [" + span.getStart() + ", " + span.getEnd() + "))");
+                if (i > span.getStart()) {
+                    stringBuilder.append(' ');
                 }
-                stringBuilder.append(tokens[i]).append(' ');
+                stringBuilder.append(tokens[i]);
+            }
+            result[s] = stringBuilder.toString();
+        }
+        return result;
+    }
+
+    /*
+     * Returns the types of the given spans
+     */
+    public static String[] extractTypes(Span[] spans) {
+        String[] types = new String[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            types[i] = spans[i].getType();
+        }
+        return types;
+    }
+
+    /*
+     * Reads a list of strings into an array without going through an intermediate list
+     */
+    public static String[] toStringArray(ListField list) {
+        List<AbstractField> items = list.getRawValue();
+        String[] result = new String[items.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = items.get(i).getAsPrimitive().getAsString();
+        }
+        return result;
+    }
+
+    /*
+     * Creates a new event sharing all fields of the given event except the field with the given selector, which
+     * is replaced by a field with the given value. Nested fields on the path to the selector are copied as well.
+     * Used by processors emitting several events per input event, so that emitted events are independent of
+     * each other and of the input event.
+     */
+    public static Event copyWithValue(Event event, String selector, Object value) {
+        return new Event(copyWithValue(event.getFields(), selector, value), event.getSourceInfo(),
+                event.getSchemaInfo());
+    }
+
+    private static Map<String, AbstractField> copyWithValue(Map<String, AbstractField> fields, String selector,
+                                                            Object value) {
+        Map<String, AbstractField> copy = new HashMap<>(fields);
+        AbstractField field = fields.get(selector);
+        if (field != null) {
+            copy.put(selector, new PrimitiveField(field.getFieldNameIn(), field.getFieldNameOut(), value));
+            return copy;
+        }
+        for (Map.Entry<String, AbstractField> entry : fields.entrySet()) {
+            if (entry.getValue() instanceof NestedField && selector.startsWith(entry.getKey() + "::")) {
+                NestedField nested = (NestedField) entry.getValue();
+                copy.put(entry.getKey(), new NestedField(nested.getFieldNameIn(), nested.getFieldNameOut(),
+                        copyWithValue(nested.getRawValue(), selector, value)));
+                return copy;
             }
-            // Removing the last space
-            stringBuilder.setLength(Math.max(stringBuilder.length() - 1, 0));
-            list.add(stringBuilder.toString());
         }
-        return list;
+        throw new IllegalArgumentException("No field with selector " + selector);
     }
 }
@@ -20,38 +20,27 @@ package org.apache.streampipes.processors.textmining.jvm.processor.chunker;
 
 import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
-import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.util.Span;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.field.ListField;
 import org.apache.streampipes.processors.textmining.jvm.processor.TextMiningUtil;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelRegistry;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelType;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.SharedNlpModel;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Arrays;
-import java.util.List;
-
 public class Chunker implements EventProcessor<ChunkerParameters> {
 
   private static Logger LOG;
 
   private String tags;
   private String tokens;
-  private ChunkerME chunker;
+  private SharedNlpModel<ChunkerModel, ChunkerME> model;
 
   public Chunker() {
-//    try (InputStream modelIn = getClass().getClassLoader().getResourceAsStream("chunker-en.bin")) {
-//      ChunkerModel model = new ChunkerModel(modelIn);
-//      chunker = new ChunkerME(model);
-//    } catch (IOException e) {
-//      e.printStackTrace();
-//    }
   }
 
   @Override
@@ -62,30 +51,18 @@ public class Chunker implements EventProcessor<ChunkerParameters> {
     this.tags = chunkerParameters.getTags();
     this.tokens = chunkerParameters.getTokens();
 
-    InputStream modelIn = new ByteArrayInputStream(chunkerParameters.getFileContent());
-    ChunkerModel model = null;
-    try {
-      model = new ChunkerModel(modelIn);
-    } catch (IOException e) {
-      throw new SpRuntimeException("Error when loading the uploaded model.", e);
-    }
-
-    chunker = new ChunkerME(model);
+    this.model = NlpModelRegistry.acquire(NlpModelType.CHUNKER, chunkerParameters.getFileContent());
   }
 
   @Override
   public void onEvent(Event inputEvent, SpOutputCollector out) throws SpRuntimeException {
-    ListField tags = inputEvent.getFieldBySelector(this.tags).getAsList();
-    ListField tokens = inputEvent.getFieldBySelector(this.tokens).getAsList();
-
-
-    String[] tagsArray = tags.castItems(String.class).stream().toArray(String[]::new);
-    String[] tokensArray = tokens.castItems(String.class).stream().toArray(String[]::new);
+    String[] tagsArray = TextMiningUtil.toStringArray(inputEvent.getFieldBySelector(this.tags).getAsList());
+    String[] tokensArray = TextMiningUtil.toStringArray(inputEvent.getFieldBySelector(this.tokens).getAsList());
 
-    Span[] spans = chunker.chunkAsSpans(tokensArray, tagsArray);
+    Span[] spans = model.tool().chunkAsSpans(tokensArray, tagsArray);
 
-    List<String> chunks = TextMiningUtil.extractSpans(spans, tokensArray);
-    String[] types = Arrays.stream(spans).map(s -> s.getType()).toArray(String[]::new);
+    String[] chunks = TextMiningUtil.extractSpans(spans, tokensArray);
+    String[] types = TextMiningUtil.extractTypes(spans);
 
     inputEvent.addField(ChunkerController.CHUNK_TYPE_FIELD_KEY, types);
     inputEvent.addField(ChunkerController.CHUNK_FIELD_KEY, chunks);
@@ -95,5 +72,6 @@ public class Chunker implements EventProcessor<ChunkerParameters> {
 
   @Override
   public void onDetach() {
+    model.release();
   }
 }
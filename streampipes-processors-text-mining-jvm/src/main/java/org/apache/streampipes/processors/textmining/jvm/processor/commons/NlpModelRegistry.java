@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.textmining.jvm.processor.commons;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JVM-wide registry of deserialized OpenNLP models.
+ * <p>
+ * Models are keyed by their kind and the SHA-256 checksum of the model file, so every processor instance
+ * configured with the same model file shares a single deserialized model, no matter whether the file was
+ * uploaded or read from the model directory. Models are reference counted and dropped once the last
+ * processor using them is detached. OpenNLP models are immutable, whereas the tools built on top of them
+ * (e.g. {@link opennlp.tools.postag.POSTaggerME}) are not thread-safe; these are handed out per thread by
+ * {@link SharedNlpModel#tool()} and cleared together with the model, so that threads which used a model do
+ * not keep it reachable.
+ */
+public class NlpModelRegistry {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NlpModelRegistry.class);
+
+  private static final Map<String, Entry<?, ?>> ENTRIES = new HashMap<>();
+
+  private NlpModelRegistry() {
+
+  }
+
+  /**
+   * Returns the shared model for the given (e.g. uploaded) model file contents, loading it if needed.
+   */
+  public static <M, T> SharedNlpModel<M, T> acquire(NlpModelType<M, T> type,
+                                                    byte[] content) throws SpRuntimeException {
+    return acquire(type, "uploaded file", content);
+  }
+
+  /**
+   * Returns the shared model stored in the given model file, loading it if needed.
+   */
+  public static <M, T> SharedNlpModel<M, T> acquire(NlpModelType<M, T> type,
+                                                    Path modelFile) throws SpRuntimeException {
+    byte[] content;
+    try {
+      content = Files.readAllBytes(modelFile);
+    } catch (IOException e) {
+      throw new SpRuntimeException("Could not read model file " + modelFile, e);
+    }
+    return acquire(type, modelFile.toString(), content);
+  }
+
+  private static <M, T> SharedNlpModel<M, T> acquire(NlpModelType<M, T> type,
+                                                     String source,
+                                                     byte[] content) throws SpRuntimeException {
+    if (content == null) {
+      throw new SpRuntimeException("No " + type + " model provided.");
+    }
+
+    String checksum = sha256(content);
+    Entry<M, T> entry;
+    synchronized (ENTRIES) {
+      @SuppressWarnings("unchecked")
+      Entry<M, T> existing = (Entry<M, T>) ENTRIES.computeIfAbsent(type.getName() + ":" + checksum,
+              key -> new Entry<>(key, type, source, content.length));
+      existing.references++;
+      existing.acquisitions++;
+      entry = existing;
+    }
+
+    try {
+      // loading happens outside of the registry lock, concurrent acquisitions of the same model wait for
+      // the first one to finish
+      entry.load(content);
+    } catch (IOException | RuntimeException e) {
+      release(entry);
+      throw new SpRuntimeException("Error when loading the " + type + " model from " + source + ".", e);
+    }
+    return new SharedNlpModel<>(entry);
+  }
+
+  static void release(Entry<?, ?> entry) {
+    synchronized (ENTRIES) {
+      entry.references--;
+      if (entry.references == 0) {
+        ENTRIES.remove(entry.key);
+        if (entry.isLoaded()) {
+          LOG.info("Unloaded {} model {} ({} bytes, {} acquisitions, {} tool instances)", entry.type,
+                  entry.source, entry.sizeBytes, entry.acquisitions, entry.toolHolders.size());
+        }
+        entry.unload();
+      }
+    }
+  }
+
+  /**
+   * Number of distinct models currently held in memory.
+   */
+  public static int getLoadedModelCount() {
+    synchronized (ENTRIES) {
+      return (int) ENTRIES.values().stream().filter(Entry::isLoaded).count();
+    }
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static final class Entry<M, T> {
+
+    private final String key;
+    private final NlpModelType<M, T> type;
+    private final String source;
+    private final long sizeBytes;
+
+    // guarded by ENTRIES
+    private int references;
+    private long acquisitions;
+
+    private volatile M model;
+
+    // the tools of all threads, so that they can be cleared when the model is unloaded
+    private final List<ToolHolder<T>> toolHolders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ToolHolder<T>> tools;
+
+    private Entry(String key, NlpModelType<M, T> type, String source, long sizeBytes) {
+      this.key = key;
+      this.type = type;
+      this.source = source;
+      this.sizeBytes = sizeBytes;
+      this.tools = ThreadLocal.withInitial(() -> {
+        ToolHolder<T> holder = new ToolHolder<>(type.createTool(model));
+        toolHolders.add(holder);
+        return holder;
+      });
+    }
+
+    private synchronized void load(byte[] content) throws IOException {
+      if (model == null) {
+        long start = System.nanoTime();
+        model = type.load(new ByteArrayInputStream(content));
+        long loadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.info("Loaded {} model {} ({} bytes) in {} ms", type, source, sizeBytes, loadTimeMillis);
+      }
+    }
+
+    // called once the last processor released the model, the thread-local holders may outlive the entry
+    private void unload() {
+      model = null;
+      for (ToolHolder<T> holder : toolHolders) {
+        holder.tool = null;
+      }
+      toolHolders.clear();
+    }
+
+    private boolean isLoaded() {
+      return model != null;
+    }
+
+    M getModel() {
+      return model;
+    }
+
+    T getTool() {
+      return tools.get().tool;
+    }
+
+    NlpModelType<M, T> getType() {
+      return type;
+    }
+
+    int getToolInstances() {
+      return toolHolders.size();
+    }
+
+    int getReferences() {
+      synchronized (ENTRIES) {
+        return references;
+      }
+    }
+  }
+
+  private static final class ToolHolder<T> {
+
+    private volatile T tool;
+
+    private ToolHolder(T tool) {
+      this.tool = tool;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.textmining.jvm.processor.commons;
+
+import opennlp.tools.chunker.ChunkerME;
+import opennlp.tools.chunker.ChunkerModel;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+
+/**
+ * The OpenNLP model kinds known to the {@link NlpModelRegistry}, each with the way its (immutable) model is
+ * deserialized and the way a (stateful, non thread-safe) tool is created on top of it.
+ *
+ * @param <M> the model class
+ * @param <T> the tool class, e.g. {@link TokenizerME}
+ */
+public final class NlpModelType<M, T> {
+
+  public static final NlpModelType<TokenizerModel, TokenizerME> TOKENIZER =
+          new NlpModelType<>("tokenizer", TokenizerModel::new, TokenizerME::new);
+
+  public static final NlpModelType<POSModel, POSTaggerME> PART_OF_SPEECH =
+          new NlpModelType<>("part-of-speech", POSModel::new, POSTaggerME::new);
+
+  public static final NlpModelType<ChunkerModel, ChunkerME> CHUNKER =
+          new NlpModelType<>("chunker", ChunkerModel::new, ChunkerME::new);
+
+  public static final NlpModelType<SentenceModel, SentenceDetectorME> SENTENCE_DETECTOR =
+          new NlpModelType<>("sentence-detector", SentenceModel::new, SentenceDetectorME::new);
+
+  public static final NlpModelType<TokenNameFinderModel, NameFinderME> NAME_FINDER =
+          new NlpModelType<>("name-finder", TokenNameFinderModel::new, NameFinderME::new);
+
+  @FunctionalInterface
+  interface ModelLoader<M> {
+    M load(InputStream in) throws IOException;
+  }
+
+  private final String name;
+  private final ModelLoader<M> loader;
+  private final Function<M, T> toolFactory;
+
+  NlpModelType(String name, ModelLoader<M> loader, Function<M, T> toolFactory) {
+    this.name = name;
+    this.loader = loader;
+    this.toolFactory = toolFactory;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  M load(InputStream in) throws IOException {
+    return loader.load(in);
+  }
+
+  T createTool(M model) {
+    return toolFactory.apply(model);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.textmining.jvm.processor.commons;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A processor's handle on a model of the {@link NlpModelRegistry}. Must be released when the processor is
+ * detached.
+ *
+ * @param <M> the model class
+ * @param <T> the tool class
+ */
+public class SharedNlpModel<M, T> {
+
+  private final NlpModelRegistry.Entry<M, T> entry;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  SharedNlpModel(NlpModelRegistry.Entry<M, T> entry) {
+    this.entry = entry;
+  }
+
+  /**
+   * The shared (immutable) model.
+   */
+  public M getModel() {
+    return entry.getModel();
+  }
+
+  /**
+   * The tool of the calling thread. Tools are shared by all processors using this model on the same thread,
+   * so they must not hold state across events (e.g. adaptive data of name finders has to be cleared).
+   */
+  public T tool() {
+    return entry.getTool();
+  }
+
+  public NlpModelType<M, T> getType() {
+    return entry.getType();
+  }
+
+  /**
+   * Number of processors currently sharing this model.
+   */
+  public int getReferences() {
+    return entry.getReferences();
+  }
+
+  /**
+   * Number of tools created for this model, i.e. the number of threads that used it.
+   */
+  public int getToolInstances() {
+    return entry.getToolInstances();
+  }
+
+  public void release() {
+    if (released.compareAndSet(false, true)) {
+      NlpModelRegistry.release(entry);
+    }
+  }
+}
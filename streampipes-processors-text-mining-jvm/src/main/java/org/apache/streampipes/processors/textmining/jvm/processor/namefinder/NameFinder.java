@@ -24,24 +24,23 @@ import opennlp.tools.util.Span;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.field.ListField;
 import org.apache.streampipes.processors.textmining.jvm.config.TextMiningJvmConfig;
 import org.apache.streampipes.processors.textmining.jvm.processor.TextMiningUtil;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelRegistry;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelType;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.SharedNlpModel;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.List;
+import java.nio.file.Paths;
 
 public class NameFinder implements EventProcessor<NameFinderParameters> {
 
   private static Logger LOG;
 
   private String tokens;
-  private NameFinderME nameFinder;
+  private SharedNlpModel<TokenNameFinderModel, NameFinderME> model;
 
   public NameFinder() {
 
@@ -50,24 +49,23 @@ public class NameFinder implements EventProcessor<NameFinderParameters> {
   @Override
   public void onInvocation(NameFinderParameters nameFinderParameters,
                            SpOutputCollector spOutputCollector,
-                           EventProcessorRuntimeContext runtimeContext) {
+                           EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
     LOG = nameFinderParameters.getGraph().getLogger(NameFinder.class);
 
     String modelPath = TextMiningJvmConfig.INSTANCE.getModelDirectory() + nameFinderParameters.getModel();
-    loadModel(modelPath);
+    this.model = NlpModelRegistry.acquire(NlpModelType.NAME_FINDER, Paths.get(modelPath));
 
     this.tokens = nameFinderParameters.getTokens();
   }
 
   @Override
   public void onEvent(Event inputEvent, SpOutputCollector out) throws SpRuntimeException {
-    ListField tokens = inputEvent.getFieldBySelector(this.tokens).getAsList();
-
-    String[] tokensArray = tokens.castItems(String.class).stream().toArray(String[]::new);
+    String[] tokensArray = TextMiningUtil.toStringArray(inputEvent.getFieldBySelector(this.tokens).getAsList());
+    NameFinderME nameFinder = model.tool();
     Span[] spans = nameFinder.find(tokensArray);
 
     // Generating the list of names from the found spans by the nameFinder
-    List<String> names = TextMiningUtil.extractSpans(spans, tokensArray);
+    String[] names = TextMiningUtil.extractSpans(spans, tokensArray);
 
     nameFinder.clearAdaptiveData();
 
@@ -77,14 +75,6 @@ public class NameFinder implements EventProcessor<NameFinderParameters> {
 
   @Override
   public void onDetach() {
-  }
-
-  private void loadModel(String modelFile) {
-    try (InputStream modelIn = new FileInputStream(modelFile)) {
-      TokenNameFinderModel model = new TokenNameFinderModel(modelIn);
-      nameFinder = new NameFinderME(model);
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
+    model.release();
   }
 }
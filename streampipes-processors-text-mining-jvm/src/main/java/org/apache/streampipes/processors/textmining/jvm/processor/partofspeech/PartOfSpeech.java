@@ -18,28 +18,25 @@
 
 package org.apache.streampipes.processors.textmining.jvm.processor.partofspeech;
 
-import opennlp.tools.langdetect.LanguageDetectorME;
-import opennlp.tools.langdetect.LanguageDetectorModel;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSTaggerME;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.field.ListField;
+import org.apache.streampipes.processors.textmining.jvm.processor.TextMiningUtil;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelRegistry;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelType;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.SharedNlpModel;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 public class PartOfSpeech implements EventProcessor<PartOfSpeechParameters> {
 
   private static Logger LOG;
 
   private String detection;
-  private POSTaggerME posTagger;
+  private SharedNlpModel<POSModel, POSTaggerME> model;
 
   public PartOfSpeech() {
   }
@@ -51,25 +48,17 @@ public class PartOfSpeech implements EventProcessor<PartOfSpeechParameters> {
     LOG = partOfSpeechParameters.getGraph().getLogger(PartOfSpeech.class);
     this.detection = partOfSpeechParameters.getDetectionName();
 
-    InputStream modelIn = new ByteArrayInputStream(partOfSpeechParameters.getFileContent());
-    POSModel model = null;
-    try {
-      model = new POSModel(modelIn);
-    } catch (IOException e) {
-      throw new SpRuntimeException("Error when loading the uploaded model.", e);
-    }
-
-    posTagger = new POSTaggerME(model);
+    this.model = NlpModelRegistry.acquire(NlpModelType.PART_OF_SPEECH, partOfSpeechParameters.getFileContent());
   }
 
   @Override
   public void onEvent(Event inputEvent, SpOutputCollector out) {
-    ListField text = inputEvent.getFieldBySelector(detection).getAsList();
+    String[] tokens = TextMiningUtil.toStringArray(inputEvent.getFieldBySelector(detection).getAsList());
 
-    String[] tags = posTagger.tag(text.castItems(String.class).stream().toArray(String[]::new));
+    POSTaggerME posTagger = model.tool();
+    String[] tags = posTagger.tag(tokens);
     double[] confidence = posTagger.probs();
 
-
     inputEvent.addField(PartOfSpeechController.CONFIDENCE_KEY, confidence);
     inputEvent.addField(PartOfSpeechController.TAG_KEY, tags);
 
@@ -78,5 +67,6 @@ public class PartOfSpeech implements EventProcessor<PartOfSpeechParameters> {
 
   @Override
   public void onDetach() {
+    model.release();
   }
 }
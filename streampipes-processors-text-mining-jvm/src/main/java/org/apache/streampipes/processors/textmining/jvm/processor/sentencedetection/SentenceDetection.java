@@ -20,25 +20,24 @@ package org.apache.streampipes.processors.textmining.jvm.processor.sentencedetec
 
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
-import org.apache.streampipes.commons.exceptions.SpException;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.textmining.jvm.processor.TextMiningUtil;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelRegistry;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelType;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.SharedNlpModel;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 public class SentenceDetection implements EventProcessor<SentenceDetectionParameters> {
 
   private static Logger LOG;
 
   // Field with the text
   private String detection;
-  private SentenceDetectorME sentenceDetector ;
+  private SharedNlpModel<SentenceModel, SentenceDetectorME> model;
 
   public SentenceDetection() {
   }
@@ -50,30 +49,24 @@ public class SentenceDetection implements EventProcessor<SentenceDetectionParame
     LOG = sentenceDetectionParameters.getGraph().getLogger(SentenceDetection.class);
     this.detection = sentenceDetectionParameters.getDetectionName();
 
-    InputStream modelIn = new ByteArrayInputStream(sentenceDetectionParameters.getFileContent());
-    SentenceModel model = null;
-    try {
-      model = new SentenceModel(modelIn);
-    } catch (IOException e) {
-      throw new SpRuntimeException("Error when loading the uploaded model.", e);
-    }
-
-    sentenceDetector = new SentenceDetectorME(model);
+    this.model = NlpModelRegistry.acquire(NlpModelType.SENTENCE_DETECTOR,
+            sentenceDetectionParameters.getFileContent());
   }
 
   @Override
   public void onEvent(Event inputEvent, SpOutputCollector out) {
     String text = inputEvent.getFieldBySelector(detection).getAsPrimitive().getAsString();
 
-    String sentences[] = sentenceDetector.sentDetect(text);
+    String[] sentences = model.tool().sentDetect(text);
 
+    // every sentence is emitted as an event of its own, the input event is left untouched
     for (String sentence : sentences) {
-      inputEvent.updateFieldBySelector(detection, sentence);
-      out.collect(inputEvent);
+      out.collect(TextMiningUtil.copyWithValue(inputEvent, detection, sentence));
     }
   }
 
   @Override
   public void onDetach() {
+    model.release();
   }
 }
@@ -18,28 +18,25 @@
 
 package org.apache.streampipes.processors.textmining.jvm.processor.tokenizer;
 
-import opennlp.tools.postag.POSModel;
-import opennlp.tools.postag.POSTaggerME;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelRegistry;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.NlpModelType;
+import org.apache.streampipes.processors.textmining.jvm.processor.commons.SharedNlpModel;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 public class Tokenizer implements EventProcessor<TokenizerParameters> {
 
   private static Logger LOG;
 
   // Field with the text
   private String detection;
-  private TokenizerME tokenizer;
+  private SharedNlpModel<TokenizerModel, TokenizerME> model;
 
   public Tokenizer() {
   }
@@ -51,27 +48,20 @@ public class Tokenizer implements EventProcessor<TokenizerParameters> {
     LOG = tokenizerParameters.getGraph().getLogger(Tokenizer.class);
     this.detection = tokenizerParameters.getDetectionName();
 
-    InputStream modelIn = new ByteArrayInputStream(tokenizerParameters.getFileContent());
-    TokenizerModel model = null;
-    try {
-      model = new TokenizerModel(modelIn);
-    } catch (IOException e) {
-      throw new SpRuntimeException("Error when loading the uploaded model.", e);
-    }
-
-    tokenizer = new TokenizerME(model);
+    this.model = NlpModelRegistry.acquire(NlpModelType.TOKENIZER, tokenizerParameters.getFileContent());
   }
 
   @Override
   public void onEvent(Event inputEvent, SpOutputCollector out) {
     String text = inputEvent.getFieldBySelector(detection).getAsPrimitive().getAsString();
 
-    inputEvent.addField(TokenizerController.TOKEN_LIST_FIELD_KEY, tokenizer.tokenize(text));
+    inputEvent.addField(TokenizerController.TOKEN_LIST_FIELD_KEY, model.tool().tokenize(text));
 
     out.collect(inputEvent);
   }
 
   @Override
   public void onDetach() {
+    model.release();
   }
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.textmining.jvm.processor;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestTextMiningUtil {
+
+  @Test
+  public void testCopyWithTopLevelValue() {
+    Map<String, Object> input = new HashMap<>();
+    input.put("text", "First sentence. Second sentence.");
+    input.put("id", 1);
+    Event event = makeEvent(input);
+
+    Event first = TextMiningUtil.copyWithValue(event, "s0::text", "First sentence.");
+    Event second = TextMiningUtil.copyWithValue(event, "s0::text", "Second sentence.");
+
+    assertEquals(expected("text", "First sentence.", "id", 1), first.getRaw());
+    assertEquals(expected("text", "Second sentence.", "id", 1), second.getRaw());
+    assertEquals(input, event.getRaw());
+  }
+
+  @Test
+  public void testCopyWithNestedValue() {
+    Map<String, Object> document = new HashMap<>();
+    document.put("text", "First sentence. Second sentence.");
+    document.put("language", "en");
+    Map<String, Object> input = new HashMap<>();
+    input.put("document", document);
+    input.put("id", 1);
+    Event event = makeEvent(input);
+
+    Event copy = TextMiningUtil.copyWithValue(event, "s0::document::text", "First sentence.");
+
+    assertEquals(expected("document", expected("text", "First sentence.", "language", "en"), "id", 1),
+            copy.getRaw());
+    assertEquals("First sentence.", copy.getFieldBySelector("s0::document::text").getAsPrimitive().getAsString());
+    assertFalse(copy.getRaw().containsKey("text"));
+    assertEquals(input, event.getRaw());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCopyWithUnknownSelector() {
+    Map<String, Object> input = new HashMap<>();
+    input.put("text", "First sentence.");
+
+    TextMiningUtil.copyWithValue(makeEvent(input), "s0::missing", "First sentence.");
+  }
+
+  private static Event makeEvent(Map<String, Object> input) {
+    return EventFactory.fromMap(input, new SourceInfo("topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+  }
+
+  private static Map<String, Object> expected(String firstKey, Object firstValue, String secondKey,
+                                              Object secondValue) {
+    Map<String, Object> expected = new HashMap<>();
+    expected.put(firstKey, firstValue);
+    expected.put(secondKey, secondValue);
+    return expected;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.textmining.jvm.processor.commons;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestNlpModelRegistry {
+
+  private static final int PROCESSORS = 8;
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private NlpModelType<FakeModel, FakeTool> type;
+
+  @Before
+  public void setUp() {
+    // a new type per test, so that models of other tests are not shared
+    this.type = new NlpModelType<>("fake-" + System.nanoTime(), this::loadModel, FakeTool::new);
+  }
+
+  @Test
+  public void testConcurrentProcessorsShareOneModel() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(PROCESSORS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<SharedNlpModel<FakeModel, FakeTool>>> acquisitions = new ArrayList<>();
+    for (int i = 0; i < PROCESSORS; i++) {
+      acquisitions.add(executor.submit(() -> {
+        start.await();
+        return NlpModelRegistry.acquire(type, content("model"));
+      }));
+    }
+    start.countDown();
+
+    List<SharedNlpModel<FakeModel, FakeTool>> models = new ArrayList<>();
+    for (Future<SharedNlpModel<FakeModel, FakeTool>> acquisition : acquisitions) {
+      models.add(acquisition.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+
+    assertEquals(1, loads.get());
+    for (SharedNlpModel<FakeModel, FakeTool> model : models) {
+      assertSame(models.get(0).getModel(), model.getModel());
+      assertEquals(PROCESSORS, model.getReferences());
+    }
+
+    for (SharedNlpModel<FakeModel, FakeTool> model : models) {
+      model.release();
+    }
+    assertEquals(0, models.get(0).getReferences());
+  }
+
+  @Test
+  public void testModelsAreKeyedByContent() throws Exception {
+    SharedNlpModel<FakeModel, FakeTool> first = NlpModelRegistry.acquire(type, content("first"));
+    SharedNlpModel<FakeModel, FakeTool> second = NlpModelRegistry.acquire(type, content("second"));
+    SharedNlpModel<FakeModel, FakeTool> copy = NlpModelRegistry.acquire(type, content("first"));
+
+    assertEquals(2, loads.get());
+    assertSame(first.getModel(), copy.getModel());
+    assertNotSame(first.getModel(), second.getModel());
+    assertEquals("second", second.getModel().text);
+
+    first.release();
+    second.release();
+    copy.release();
+  }
+
+  @Test
+  public void testModelIsReloadedAfterLastRelease() throws Exception {
+    SharedNlpModel<FakeModel, FakeTool> first = NlpModelRegistry.acquire(type, content("model"));
+    SharedNlpModel<FakeModel, FakeTool> second = NlpModelRegistry.acquire(type, content("model"));
+
+    first.release();
+    // releasing twice must not drop the reference of the other processor
+    first.release();
+    assertEquals(1, second.getReferences());
+
+    second.release();
+    SharedNlpModel<FakeModel, FakeTool> third = NlpModelRegistry.acquire(type, content("model"));
+    assertEquals(2, loads.get());
+    assertEquals("model", third.getModel().text);
+    third.release();
+  }
+
+  @Test
+  public void testToolsPerThread() throws Exception {
+    SharedNlpModel<FakeModel, FakeTool> first = NlpModelRegistry.acquire(type, content("model"));
+    SharedNlpModel<FakeModel, FakeTool> second = NlpModelRegistry.acquire(type, content("model"));
+
+    FakeTool tool = first.tool();
+    assertSame(tool, first.tool());
+    assertSame(tool, second.tool());
+    assertSame(first.getModel(), tool.model);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    FakeTool otherTool = executor.submit(first::tool).get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    assertNotSame(tool, otherTool);
+    assertEquals(2, first.getToolInstances());
+
+    first.release();
+    second.release();
+  }
+
+  @Test
+  public void testThreadsDoNotKeepReleasedModels() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    SharedNlpModel<FakeModel, FakeTool> model = NlpModelRegistry.acquire(type, content("model"));
+    // the worker thread stays alive and keeps its thread-local tool
+    executor.submit(model::tool).get(10, TimeUnit.SECONDS);
+    WeakReference<FakeModel> reference = new WeakReference<>(model.getModel());
+
+    model.release();
+    model = null;
+
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertNull(reference.get());
+    executor.shutdown();
+  }
+
+  private FakeModel loadModel(InputStream in) throws IOException {
+    loads.incrementAndGet();
+    try {
+      // widens the window in which concurrent processors acquire the model
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[256];
+    int read;
+    while ((read = in.read(buffer)) > 0) {
+      out.write(buffer, 0, read);
+    }
+    return new FakeModel(new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  private static byte[] content(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static class FakeModel {
+
+    private final String text;
+
+    FakeModel(String text) {
+      this.text = text;
+    }
+  }
+
+  private static class FakeTool {
+
+    private final FakeModel model;
+
+    FakeTool(FakeModel model) {
+      this.model = model;
+    }
+  }
+}